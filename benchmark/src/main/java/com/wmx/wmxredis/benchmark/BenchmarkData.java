@@ -0,0 +1,61 @@
+package com.wmx.wmxredis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 三种客户端共用的测试数据规模，保证每个操作在不同客户端下读写的数据量一致
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:00
+ */
+public final class BenchmarkData {
+
+    /**
+     * 字符串 value，约 100 字节
+     */
+    public static final String VALUE = String.join("", Collections.nCopies(10, "0123456789"));
+
+    /**
+     * hash 字段数，HMGET 读取其中的 {@link #HASH_FIELDS_READ} 个
+     */
+    public static final int HASH_SIZE = 20;
+    public static final int HASH_FIELDS_READ = 10;
+
+    /**
+     * 列表、有序集合的元素个数，范围查询读取前 {@link #RANGE_READ} 个
+     */
+    public static final int COLLECTION_SIZE = 100;
+    public static final int RANGE_READ = 50;
+
+    /**
+     * 每个管道(批次)中的命令数
+     */
+    public static final int PIPELINE_SIZE = 100;
+
+    /**
+     * Lua 脚本 key 的过期时间(毫秒)
+     */
+    public static final long SCRIPT_TTL_MILLIS = 60_000;
+
+    private BenchmarkData() {
+    }
+
+    public static List<String> fields(int count) {
+        List<String> fields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            fields.add("field" + i);
+        }
+        return fields;
+    }
+
+    public static List<String> elements(int count) {
+        List<String> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            elements.add("element" + i);
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wmx.wmxredis.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * benchmarks.jar 的入口：在 JMH 命令行参数的基础上默认加上 GC profiler，
+ * 结果中除了 ops/s 还有 gc.alloc.rate.norm(每次操作分配的字节数)，用于比较各客户端的对象分配。
+ * <pre>
+ *     java -jar benchmark/target/benchmarks.jar                    运行全部
+ *     java -jar benchmark/target/benchmarks.jar "get|set"          只运行字符串读写
+ *     java -Dredis.host=127.0.0.1 -jar benchmark/target/benchmarks.jar   连接真实的 Redis
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:20
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.wmx.wmxredis.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.wmx.wmxredis.benchmark.BenchmarkData.*;
+
+/**
+ * 原生 Jedis 基准测试
+ * <p>
+ * 1、每次操作从 JedisPool 借出连接、用完归还，与 jedis 包下控制器从 JedisConnection 取原生连接的用法开销一致。
+ * 2、value 直接使用字符串，没有序列化开销，可以作为 RedisTemplate 的对照基线。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:10
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JedisBenchmark {
+
+    private static final String PREFIX = "bench:jedis:";
+
+    private RedisServerSupport server;
+    private JedisPool jedisPool;
+    private String[] hashFields;
+    private String scriptSha;
+    private List<String> scriptKeys;
+    private List<String> scriptArgs;
+
+    @Setup
+    public void setup() throws IOException {
+        server = RedisServerSupport.start();
+        jedisPool = new JedisPool(new JedisPoolConfig(), server.getHost(), server.getPort());
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.set(PREFIX + "string", VALUE);
+            for (String field : fields(HASH_SIZE)) {
+                jedis.hset(PREFIX + "hash", field, VALUE);
+            }
+            jedis.rpush(PREFIX + "list", elements(COLLECTION_SIZE).toArray(new String[0]));
+            List<String> members = elements(COLLECTION_SIZE);
+            for (int i = 0; i < members.size(); i++) {
+                jedis.zadd(PREFIX + "zset", i, members.get(i));
+            }
+            scriptSha = jedis.scriptLoad(ScriptSupport.read(ScriptSupport.HSET_EXPIRE));
+        }
+        hashFields = fields(HASH_FIELDS_READ).toArray(new String[0]);
+        scriptKeys = Collections.singletonList(PREFIX + "script");
+        scriptArgs = Arrays.asList(String.valueOf(SCRIPT_TTL_MILLIS), "field", VALUE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jedisPool.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String set() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.set(PREFIX + "string", VALUE);
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.get(PREFIX + "string");
+        }
+    }
+
+    @Benchmark
+    public List<String> hashMultiGet() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.hmget(PREFIX + "hash", hashFields);
+        }
+    }
+
+    @Benchmark
+    public List<String> listRange() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.lrange(PREFIX + "list", 0, RANGE_READ - 1);
+        }
+    }
+
+    @Benchmark
+    public Set<String> zsetRange() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.zrange(PREFIX + "zset", 0, RANGE_READ - 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_SIZE)
+    public List<Object> pipeline() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (int i = 0; i < PIPELINE_SIZE; i++) {
+                pipeline.set(PREFIX + "pipeline:" + i, VALUE);
+            }
+            return pipeline.syncAndReturnAll();
+        }
+    }
+
+    @Benchmark
+    public Object lua() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.evalsha(scriptSha, scriptKeys, scriptArgs);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.wmx.wmxredis.benchmark;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+
+import java.io.IOException;
+
+/**
+ * 基准测试使用的 Redis 服务端
+ * <p>
+ * 1、默认在进程内启动 {@link EmbeddedRedisServer}(随机端口)，不依赖本地安装的 Redis，结果可以在任何机器上复现。
+ * 2、指定 -Dredis.host=127.0.0.1 -Dredis.port=6379 时改为连接真实的 Redis，用于和内嵌服务端的结果对照。
+ * * 内嵌服务端与客户端在同一个进程，结果反映的是客户端本身(编解码、连接池、对象分配)的开销，不代表真实 Redis 的吞吐。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:00
+ */
+public class RedisServerSupport implements AutoCloseable {
+
+    private final EmbeddedRedisServer server;
+    private final String host;
+    private final int port;
+
+    private RedisServerSupport(EmbeddedRedisServer server, String host, int port) {
+        this.server = server;
+        this.host = host;
+        this.port = port;
+    }
+
+    public static RedisServerSupport start() throws IOException {
+        String host = System.getProperty("redis.host");
+        if (host != null && !host.isEmpty()) {
+            return new RedisServerSupport(null, host, Integer.getInteger("redis.port", 6379));
+        }
+        EmbeddedRedisServer server = new EmbeddedRedisServer(0).start();
+        return new RedisServerSupport(server, "127.0.0.1", server.getPort());
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+}
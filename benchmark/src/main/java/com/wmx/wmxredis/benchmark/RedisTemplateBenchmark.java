@@ -0,0 +1,125 @@
+package com.wmx.wmxredis.benchmark;
+
+import com.wmx.wmxredis.lua.RedisLuaScripts;
+import com.wmx.wmxredis.pipeline.RedisBatch;
+import com.wmx.wmxredis.pipeline.RedisBatchExecutor;
+import com.wmx.wmxredis.pipeline.RedisBatchResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.wmx.wmxredis.benchmark.BenchmarkData.*;
+
+/**
+ * RedisTemplate(RedisConfig 中的序列化配置 + JedisConnectionFactory 连接池)基准测试
+ * <p>
+ * 1、管道使用项目中的 {@link RedisBatchExecutor}，Lua 使用 {@link RedisLuaScripts#hashPutAndExpire}。
+ * 2、结果包含 value 序列化的开销，这也是业务代码实际走的路径。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:05
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisTemplateBenchmark {
+
+    private static final String PREFIX = "bench:template:";
+
+    private RedisServerSupport server;
+    private JedisConnectionFactory connectionFactory;
+    private AnnotationConfigApplicationContext context;
+    private RedisTemplate<Object, Object> redisTemplate;
+    private RedisBatchExecutor redisBatchExecutor;
+    private RedisLuaScripts redisLuaScripts;
+    private Collection<Object> hashFields;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        server = RedisServerSupport.start();
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(server.getHost(), server.getPort()),
+                JedisClientConfiguration.builder().usePooling().build());
+        connectionFactory.afterPropertiesSet();
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().registerSingleton("redisConnectionFactory", connectionFactory);
+        context.register(TemplateStackConfig.class);
+        context.refresh();
+        redisTemplate = context.getBean("redisTemplate", RedisTemplate.class);
+        redisBatchExecutor = context.getBean(RedisBatchExecutor.class);
+        redisLuaScripts = context.getBean(RedisLuaScripts.class);
+
+        redisTemplate.opsForValue().set(PREFIX + "string", VALUE);
+        for (String field : fields(HASH_SIZE)) {
+            redisTemplate.opsForHash().put(PREFIX + "hash", field, VALUE);
+        }
+        hashFields = new ArrayList<>(fields(HASH_FIELDS_READ));
+        redisTemplate.opsForList().rightPushAll(PREFIX + "list", new ArrayList<Object>(elements(COLLECTION_SIZE)));
+        List<String> members = elements(COLLECTION_SIZE);
+        for (int i = 0; i < members.size(); i++) {
+            redisTemplate.opsForZSet().add(PREFIX + "zset", members.get(i), i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        connectionFactory.destroy();
+        server.close();
+    }
+
+    @Benchmark
+    public void set() {
+        redisTemplate.opsForValue().set(PREFIX + "string", VALUE);
+    }
+
+    @Benchmark
+    public Object get() {
+        return redisTemplate.opsForValue().get(PREFIX + "string");
+    }
+
+    @Benchmark
+    public List<Object> hashMultiGet() {
+        return redisTemplate.opsForHash().multiGet(PREFIX + "hash", hashFields);
+    }
+
+    @Benchmark
+    public List<Object> listRange() {
+        return redisTemplate.opsForList().range(PREFIX + "list", 0, RANGE_READ - 1);
+    }
+
+    @Benchmark
+    public Set<Object> zsetRange() {
+        return redisTemplate.opsForZSet().range(PREFIX + "zset", 0, RANGE_READ - 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_SIZE)
+    public RedisBatchResult pipeline() {
+        RedisBatch batch = redisBatchExecutor.batch();
+        for (int i = 0; i < PIPELINE_SIZE; i++) {
+            batch.set(PREFIX + "pipeline:" + i, VALUE);
+        }
+        return batch.execute();
+    }
+
+    @Benchmark
+    public Long lua() {
+        return redisLuaScripts.hashPutAndExpire(PREFIX + "script", "field", VALUE, Duration.ofMillis(SCRIPT_TTL_MILLIS));
+    }
+}
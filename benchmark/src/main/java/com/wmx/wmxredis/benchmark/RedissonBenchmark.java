@@ -0,0 +1,119 @@
+package com.wmx.wmxredis.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.*;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.wmx.wmxredis.benchmark.BenchmarkData.*;
+
+/**
+ * Redisson 基准测试
+ * <p>
+ * 1、单机配置与 RedissonConfig 一致，使用 Redisson 默认的编解码器，即业务代码实际走的路径。
+ * 2、管道使用 RBatch，Lua 使用 RScript.evalSha 执行与 RedisLuaScripts 相同的脚本。
+ * 3、Redisson 基于 Netty 异步实现，同步 API 会阻塞等待 Future，线程切换的开销也会体现在结果中。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:15
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedissonBenchmark {
+
+    private static final String PREFIX = "bench:redisson:";
+
+    private RedisServerSupport server;
+    private RedissonClient redissonClient;
+    private RBucket<String> bucket;
+    private RMap<String, String> map;
+    private RList<String> list;
+    private RScoredSortedSet<String> zset;
+    private RScript script;
+    private Set<String> hashFields;
+    private String scriptSha;
+    private List<Object> scriptKeys;
+
+    @Setup
+    public void setup() throws IOException {
+        server = RedisServerSupport.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + server.getHost() + ":" + server.getPort());
+        redissonClient = Redisson.create(config);
+
+        bucket = redissonClient.getBucket(PREFIX + "string");
+        bucket.set(VALUE);
+        map = redissonClient.getMap(PREFIX + "hash");
+        for (String field : fields(HASH_SIZE)) {
+            map.fastPut(field, VALUE);
+        }
+        hashFields = new HashSet<>(fields(HASH_FIELDS_READ));
+        list = redissonClient.getList(PREFIX + "list");
+        list.addAll(elements(COLLECTION_SIZE));
+        zset = redissonClient.getScoredSortedSet(PREFIX + "zset");
+        List<String> members = elements(COLLECTION_SIZE);
+        for (int i = 0; i < members.size(); i++) {
+            zset.add(i, members.get(i));
+        }
+        script = redissonClient.getScript(StringCodec.INSTANCE);
+        scriptSha = script.scriptLoad(ScriptSupport.read(ScriptSupport.HSET_EXPIRE));
+        scriptKeys = Collections.singletonList(PREFIX + "script");
+    }
+
+    @TearDown
+    public void tearDown() {
+        redissonClient.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public void set() {
+        bucket.set(VALUE);
+    }
+
+    @Benchmark
+    public String get() {
+        return bucket.get();
+    }
+
+    @Benchmark
+    public Map<String, String> hashMultiGet() {
+        return map.getAll(hashFields);
+    }
+
+    @Benchmark
+    public List<String> listRange() {
+        return list.range(0, RANGE_READ - 1);
+    }
+
+    @Benchmark
+    public Collection<String> zsetRange() {
+        return zset.valueRange(0, RANGE_READ - 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_SIZE)
+    public BatchResult<?> pipeline() {
+        RBatch batch = redissonClient.createBatch();
+        for (int i = 0; i < PIPELINE_SIZE; i++) {
+            batch.<String>getBucket(PREFIX + "pipeline:" + i).setAsync(VALUE);
+        }
+        return batch.execute();
+    }
+
+    @Benchmark
+    public Long lua() {
+        return script.evalSha(RScript.Mode.READ_WRITE, scriptSha, RScript.ReturnType.INTEGER, scriptKeys,
+                String.valueOf(SCRIPT_TTL_MILLIS), "field", VALUE);
+    }
+}
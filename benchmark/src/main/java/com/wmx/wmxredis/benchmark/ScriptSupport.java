@@ -0,0 +1,29 @@
+package com.wmx.wmxredis.benchmark;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 读取项目中的 Lua 脚本(wmx-redis jar 中的 lua 目录)，Jedis、Redisson 基准测试与 RedisLuaScripts 执行同一个脚本
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:10
+ */
+public final class ScriptSupport {
+
+    public static final String HSET_EXPIRE = "lua/hset_expire.lua";
+
+    private ScriptSupport() {
+    }
+
+    public static String read(String path) throws IOException {
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+    }
+}
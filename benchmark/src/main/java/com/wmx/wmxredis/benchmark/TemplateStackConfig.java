@@ -0,0 +1,39 @@
+package com.wmx.wmxredis.benchmark;
+
+import com.wmx.wmxredis.config.RedisConfig;
+import com.wmx.wmxredis.lua.RedisLuaScripts;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import com.wmx.wmxredis.pipeline.RedisBatchExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * RedisTemplate 基准测试使用的最小 Spring 容器：只包含项目中 RedisTemplate、Lua 脚本、管道批次相关的 bean，
+ * RedisConnectionFactory 由 {@link RedisTemplateBenchmark} 创建后注册到容器中。
+ * <p>
+ * 1、命令指标关闭，测量的是客户端本身的开销，指标的开销另外测量。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:05
+ */
+@Configuration
+@Import({RedisConfig.class, RedisLuaScripts.class, RedisBatchExecutor.class})
+public class TemplateStackConfig {
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public RedisCommandMetrics redisCommandMetrics(MeterRegistry meterRegistry) {
+        RedisMetricsProperties properties = new RedisMetricsProperties();
+        properties.setEnabled(false);
+        return new RedisCommandMetrics(meterRegistry, properties);
+    }
+}
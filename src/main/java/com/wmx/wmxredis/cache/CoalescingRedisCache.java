@@ -0,0 +1,201 @@
+package com.wmx.wmxredis.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带防击穿保护的 RedisCache：同一个 key 只有一个调用方重新加载，并在过期前按概率提前刷新
+ * <p>
+ * 1、单飞(single-flight)：get(key, valueLoader) 未命中时，同一个 key 只有第一个线程执行 valueLoader，
+ * * 其它线程等待它的结果，不同的 key 互不影响(RedisCache 原来的实现对整个缓存加 synchronized)。
+ * * 只在本实例内合并，多个实例同时未命中时每个实例各加载一次。
+ * 2、提前刷新(XFetch)：命中时同一次网络往返读取剩余过期时间(GET + PTTL 管道)，
+ * * 当 剩余时间 <= 平均加载耗时 * beta * -ln(random) 时由当前线程提前重新加载，其它线程继续使用旧值，
+ * * 加载越慢、越接近过期，越早刷新；多个实例按概率错开，不会在过期那一刻同时回源。
+ * 3、只有 get(key, valueLoader) 才有上述保护，@Cacheable 需要设置 sync = true；sync = false 时与 RedisCache 相同。
+ * 4、指标：redis.cache.load(加载耗时，标签 cache)、redis.cache.coalesced(等待其它线程加载结果的次数)、
+ * * redis.cache.early.refresh(提前刷新次数)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 11:10
+ */
+public class CoalescingRedisCache extends RedisCache {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final double earlyRefreshBeta;
+
+    /**
+     * 正在加载的 key，value 为加载结果
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 平均加载耗时(纳秒)，指数加权移动平均
+     */
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter coalesced;
+    private final Counter earlyRefresh;
+
+    public CoalescingRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+                                RedisConnectionFactory connectionFactory, double earlyRefreshBeta, MeterRegistry meterRegistry) {
+        super(name, cacheWriter, cacheConfig);
+        this.connectionFactory = connectionFactory;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.meterRegistry = meterRegistry;
+        this.coalesced = Counter.builder("redis.cache.coalesced").description("等待其它线程加载结果的次数")
+                .tag("cache", name).register(meterRegistry);
+        this.earlyRefresh = Counter.builder("redis.cache.early.refresh").description("过期前提前刷新的次数")
+                .tag("cache", name).register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = createCacheKey(key);
+        Object storeValue = null;
+        if (earlyRefreshBeta > 0) {
+            CachedValue cached = lookupWithTtl(cacheKey);
+            if (cached != null) {
+                if (!shouldRefreshEarly(cached.ttlMillis)) {
+                    return (T) fromStoreValue(cached.storeValue);
+                }
+                storeValue = cached.storeValue;
+            }
+        } else {
+            storeValue = lookup(key);
+            if (storeValue != null) {
+                return (T) fromStoreValue(storeValue);
+            }
+        }
+        return (T) load(key, cacheKey, valueLoader, storeValue);
+    }
+
+    /**
+     * 单飞加载
+     *
+     * @param staleValue ：提前刷新时的旧值，未命中时为 null
+     */
+    private Object load(Object key, String cacheKey, Callable<?> valueLoader, Object staleValue) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> loading = inFlight.putIfAbsent(cacheKey, future);
+        if (loading != null) {
+            // 其它线程正在加载：有旧值时直接使用旧值，否则等待加载结果
+            if (staleValue != null) {
+                return fromStoreValue(staleValue);
+            }
+            coalesced.increment();
+            return await(key, valueLoader, loading);
+        }
+        try {
+            if (staleValue == null) {
+                // 拿到加载权之前，其它线程可能刚刚加载完成
+                Object storeValue = lookup(key);
+                if (storeValue != null) {
+                    Object value = fromStoreValue(storeValue);
+                    future.complete(value);
+                    return value;
+                }
+            } else {
+                earlyRefresh.increment();
+            }
+            long start = System.nanoTime();
+            Object value = valueLoader.call();
+            long elapsed = System.nanoTime() - start;
+            recordLoad(elapsed);
+            put(key, value);
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> loading) {
+        try {
+            return loading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    /**
+     * XFetch：剩余时间 <= delta * beta * -ln(random) 时提前刷新，random 取 (0, 1]
+     *
+     * @param ttlMillis ：剩余过期时间，-1 表示不过期
+     * @return
+     */
+    boolean shouldRefreshEarly(long ttlMillis) {
+        if (ttlMillis < 0) {
+            return false;
+        }
+        double deltaMillis = loadNanos.get() / 1_000_000.0;
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return ttlMillis <= deltaMillis * earlyRefreshBeta * -Math.log(random);
+    }
+
+    private void recordLoad(long elapsedNanos) {
+        meterRegistry.timer("redis.cache.load", "cache", getName()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        loadNanos.updateAndGet(previous -> previous == 0 ? elapsedNanos : (previous * 4 + elapsedNanos) / 5);
+    }
+
+    /**
+     * 一次网络往返读取缓存值与剩余过期时间
+     *
+     * @param cacheKey
+     * @return 缓存不存在时返回 null
+     */
+    private CachedValue lookupWithTtl(String cacheKey) {
+        byte[] rawKey = serializeCacheKey(cacheKey);
+        List<Object> results;
+        RedisConnection connection = connectionFactory.getConnection();
+        try {
+            connection.openPipeline();
+            connection.get(rawKey);
+            connection.pTtl(rawKey);
+            results = connection.closePipeline();
+        } finally {
+            connection.close();
+        }
+        byte[] bytes = (byte[]) results.get(0);
+        if (bytes == null) {
+            return null;
+        }
+        Long ttl = (Long) results.get(1);
+        return new CachedValue(deserializeCacheValue(bytes), ttl == null ? -1 : ttl);
+    }
+
+    /**
+     * 预热或测试时设置平均加载耗时
+     */
+    void setLoadNanos(long nanos) {
+        loadNanos.set(nanos);
+    }
+
+    private static class CachedValue {
+        private final Object storeValue;
+        private final long ttlMillis;
+
+        CachedValue(Object storeValue, long ttlMillis) {
+            this.storeValue = storeValue;
+            this.ttlMillis = ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.wmx.wmxredis.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Map;
+
+/**
+ * 创建 {@link CoalescingRedisCache} 的 RedisCacheManager，其余行为(按名称配置、未配置的缓存使用默认配置)与 RedisCacheManager 相同
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 11:30
+ */
+public class CoalescingRedisCacheManager extends RedisCacheManager {
+
+    private final RedisCacheWriter cacheWriter;
+    private final RedisConnectionFactory connectionFactory;
+    private final double earlyRefreshBeta;
+    private final MeterRegistry meterRegistry;
+
+    public CoalescingRedisCacheManager(RedisConnectionFactory connectionFactory, RedisCacheConfiguration defaultCacheConfiguration,
+                                       Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+                                       double earlyRefreshBeta, MeterRegistry meterRegistry) {
+        this(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), connectionFactory, defaultCacheConfiguration,
+                initialCacheConfigurations, earlyRefreshBeta, meterRegistry);
+    }
+
+    private CoalescingRedisCacheManager(RedisCacheWriter cacheWriter, RedisConnectionFactory connectionFactory,
+                                        RedisCacheConfiguration defaultCacheConfiguration,
+                                        Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+                                        double earlyRefreshBeta, MeterRegistry meterRegistry) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations);
+        this.cacheWriter = cacheWriter;
+        this.connectionFactory = connectionFactory;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
+        return new CoalescingRedisCache(name, cacheWriter, cacheConfig, connectionFactory, earlyRefreshBeta, meterRegistry);
+    }
+}
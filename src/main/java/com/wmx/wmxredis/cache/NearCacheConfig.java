@@ -0,0 +1,64 @@
+package com.wmx.wmxredis.cache;
+
+import com.wmx.wmxredis.hotkey.HotKeyDetector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import javax.annotation.Resource;
+
+/**
+ * 本地近端缓存配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link NearCacheProperties} 配置类交由 Spring 容器管理
+ * 2、RedisMessageListenerContainer 会长期占用连接池中的一个连接用于订阅失效通知。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 15:20
+ */
+@Configuration
+@EnableConfigurationProperties(NearCacheProperties.class)
+public class NearCacheConfig {
+
+    @Resource
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    @Bean
+    public RedisNearCache redisNearCache(NearCacheProperties nearCacheProperties, MeterRegistry meterRegistry,
+                                         HotKeyDetector hotKeyDetector) {
+        return new RedisNearCache(redisTemplate, nearCacheProperties, meterRegistry, hotKeyDetector);
+    }
+
+    /**
+     * 订阅失效通知，未开启本地缓存时不订阅
+     *
+     * @param redisConnectionFactory
+     * @param redisNearCache
+     * @param nearCacheProperties
+     * @param redisProperties
+     * @return
+     */
+    @Bean
+    public RedisMessageListenerContainer nearCacheListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                    RedisNearCache redisNearCache,
+                                                                    NearCacheProperties nearCacheProperties,
+                                                                    RedisProperties redisProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        if (nearCacheProperties.isEnabled()) {
+            container.addMessageListener(redisNearCache, new ChannelTopic(nearCacheProperties.getChannel()));
+            if (nearCacheProperties.isKeyspaceNotifications()) {
+                container.addMessageListener(redisNearCache, new PatternTopic("__keyspace@" + redisProperties.getDatabase() + "__:*"));
+            }
+        }
+        return container;
+    }
+}
@@ -0,0 +1,126 @@
+package com.wmx.wmxredis.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 本地近端缓存(L1)配置
+ * <pre>
+ * redis:
+ *   near-cache:
+ *     enabled: true
+ *     maximum-size: 10000
+ *     expire-after-write: 60s
+ *     channel: wmx:near-cache:invalidate
+ *     keyspace-notifications: false
+ *     hot-keys-only: false
+ *     hot-key-ttl: 5s
+ *     hot-key-maximum-size: 1000
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 14:40
+ */
+@ConfigurationProperties(prefix = "redis.near-cache")
+public class NearCacheProperties {
+
+    /**
+     * 是否开启本地缓存，关闭时所有读取直接访问 Redis
+     */
+    private boolean enabled = true;
+    /**
+     * 本地缓存最多缓存的条目数，超出时按 LRU 淘汰
+     */
+    private long maximumSize = 10000;
+    /**
+     * 写入本地缓存后的存活时间，即使失效通知丢失，数据最多也只会旧这么久
+     */
+    private Duration expireAfterWrite = Duration.ofSeconds(60);
+    /**
+     * 失效通知的发布/订阅频道，多个实例之间通过它互相通知删除本地缓存
+     */
+    private String channel = "wmx:near-cache:invalidate";
+    /**
+     * 是否同时订阅 Redis keyspace 通知，用于感知不经过本地缓存的写入。
+     * 需要 Redis 服务器开启：CONFIG SET notify-keyspace-events KA
+     */
+    private boolean keyspaceNotifications = false;
+    /**
+     * 是否只缓存热点 key(见 {@link com.wmx.wmxredis.hotkey.HotKeyDetector})，其它 key 每次都读取 Redis
+     */
+    private boolean hotKeysOnly = false;
+    /**
+     * 热点 key 晋升到热点缓存后的存活时间，与普通 key 分开，通常较短；为 0 时不晋升，热点 key 与普通 key 一样缓存
+     */
+    private Duration hotKeyTtl = Duration.ofSeconds(5);
+    /**
+     * 热点缓存最多缓存的条目数，超出时按 LRU 淘汰
+     */
+    private long hotKeyMaximumSize = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public boolean isKeyspaceNotifications() {
+        return keyspaceNotifications;
+    }
+
+    public void setKeyspaceNotifications(boolean keyspaceNotifications) {
+        this.keyspaceNotifications = keyspaceNotifications;
+    }
+
+    public boolean isHotKeysOnly() {
+        return hotKeysOnly;
+    }
+
+    public void setHotKeysOnly(boolean hotKeysOnly) {
+        this.hotKeysOnly = hotKeysOnly;
+    }
+
+    public Duration getHotKeyTtl() {
+        return hotKeyTtl;
+    }
+
+    public void setHotKeyTtl(Duration hotKeyTtl) {
+        this.hotKeyTtl = hotKeyTtl;
+    }
+
+    public long getHotKeyMaximumSize() {
+        return hotKeyMaximumSize;
+    }
+
+    public void setHotKeyMaximumSize(long hotKeyMaximumSize) {
+        this.hotKeyMaximumSize = hotKeyMaximumSize;
+    }
+}
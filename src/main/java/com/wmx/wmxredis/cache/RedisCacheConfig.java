@@ -0,0 +1,66 @@
+package com.wmx.wmxredis.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Spring Cache 配置：@Cacheable 等注解的数据保存在 Redis 中
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link RedisCacheProperties} 配置类交由 Spring 容器管理
+ * 2、key 使用字符串，value 使用 redisTemplate 的序列化器(redis.serializer 配置的编码格式)，与 redisTemplate 读写的数据格式一致。
+ * 3、@Cacheable(sync = true) 时同一个 key 只有一个线程回源，并在过期前提前刷新，见 {@link CoalescingRedisCache}。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 11:35
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(RedisCacheProperties.class)
+public class RedisCacheConfig {
+
+    @Bean
+    public CoalescingRedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                                    RedisTemplate<Object, Object> redisTemplate,
+                                                    RedisCacheProperties redisCacheProperties,
+                                                    MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaultConfig = cacheConfiguration(redisTemplate, redisCacheProperties);
+        Map<String, RedisCacheConfiguration> initialConfigs = new LinkedHashMap<>();
+        redisCacheProperties.getTtls().forEach((name, ttl) -> initialConfigs.put(name, defaultConfig.entryTtl(ttl)));
+        return new CoalescingRedisCacheManager(redisConnectionFactory, defaultConfig, initialConfigs,
+                redisCacheProperties.getEarlyRefreshBeta(), meterRegistry);
+    }
+
+    /**
+     * 默认缓存配置
+     *
+     * @param redisTemplate
+     * @param redisCacheProperties
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    static RedisCacheConfiguration cacheConfiguration(RedisTemplate<Object, Object> redisTemplate, RedisCacheProperties redisCacheProperties) {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(redisCacheProperties.getDefaultTtl())
+                // prefixKeysWith 会替换掉缓存名称，不同缓存的相同 key 会冲突，所以前缀中保留缓存名称
+                .computePrefixWith(cacheName -> redisCacheProperties.getKeyPrefix() + cacheName + "::")
+                .serializeKeysWith(SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(SerializationPair.fromSerializer((RedisSerializer<Object>) redisTemplate.getValueSerializer()));
+        if (!redisCacheProperties.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        return config;
+    }
+}
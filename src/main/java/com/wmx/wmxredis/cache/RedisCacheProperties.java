@@ -0,0 +1,88 @@
+package com.wmx.wmxredis.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Spring Cache(@Cacheable) 的 Redis 缓存配置
+ * <pre>
+ * redis:
+ *   cache:
+ *     key-prefix: "wmx:cache:"
+ *     default-ttl: 10m
+ *     ttls:
+ *       person: 30m
+ *     early-refresh-beta: 1.0
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 11:00
+ */
+@ConfigurationProperties(prefix = "redis.cache")
+public class RedisCacheProperties {
+
+    /**
+     * 缓存 key 的前缀，完整的 key 为 前缀 + 缓存名称 + "::" + key
+     */
+    private String keyPrefix = "wmx:cache:";
+    /**
+     * 未在 ttls 中单独配置的缓存的过期时间
+     */
+    private Duration defaultTtl = Duration.ofMinutes(10);
+    /**
+     * 按缓存名称单独配置过期时间
+     */
+    private Map<String, Duration> ttls = new LinkedHashMap<>();
+    /**
+     * 是否缓存 null 值，防止不存在的数据反复穿透到后端
+     */
+    private boolean cacheNullValues = true;
+    /**
+     * 提前刷新(XFetch)系数：越大越早刷新，为 0 时关闭提前刷新，只在过期后重新加载
+     */
+    private double earlyRefreshBeta = 1.0;
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Map<String, Duration> getTtls() {
+        return ttls;
+    }
+
+    public void setTtls(Map<String, Duration> ttls) {
+        this.ttls = ttls;
+    }
+
+    public boolean isCacheNullValues() {
+        return cacheNullValues;
+    }
+
+    public void setCacheNullValues(boolean cacheNullValues) {
+        this.cacheNullValues = cacheNullValues;
+    }
+
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+}
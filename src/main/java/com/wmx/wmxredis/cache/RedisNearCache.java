@@ -0,0 +1,317 @@
+package com.wmx.wmxredis.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.wmx.wmxredis.hotkey.HotKeyDetector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * RedisTemplate 前面的本地近端缓存(L1)
+ * <p>
+ * 1、读取时先查本地缓存，未命中时再查 Redis，并放入本地缓存。本地缓存按条目数(LRU)与写入后存活时间淘汰。
+ * 2、通过本类写入/删除数据后，调用 {@link #invalidate(String...)} 删除本地缓存，并通过发布/订阅通知其它实例删除。
+ * 3、开启 keyspace 通知时，其它途径对 key 的修改同样会删除本地缓存。
+ * 4、读取 Redis 期间如果这个 key 收到了失效通知，本次结果不留在本地缓存中，防止把旧数据缓存下来：
+ * * 失效时先增加 key 的版本号再删除本地缓存，读取时先放入本地缓存再检查版本号，版本号变了就删除刚放入的值，
+ * * 所以失效发生在放入之前还是之后都不会留下旧数据。版本号按 key 的哈希分段保存，其它 key 的失效基本不影响本次读取。
+ * 5、缓存的是反序列化后的对象，调用方不要修改返回的对象。
+ * 6、本地缓存命中时不会访问 Redis，命中的 key 交给 {@link HotKeyDetector} 统计访问次数。
+ * 7、热点 key 晋升：{@link HotKeyDetector} 判定为热点的 key(访问来源包括 RedisTemplate、jedis 包中的原生 Jedis 与本地缓存命中)
+ * * 从 Redis 读取后放入单独的热点缓存，使用较短的存活时间 hot-key-ttl 与单独的容量 hot-key-maximum-size：
+ * * 热点 key 不会被大量普通 key 按 LRU 挤出，数据最多旧 hot-key-ttl；访问量下降后随过期时间自然淘汰，再读取时按普通 key 缓存。
+ * * hot-key-ttl 为 0 时不晋升；hot-keys-only=true 时普通 key 不缓存，只使用热点缓存。
+ * <p>
+ * 指标：cache.gets(hit/miss)、cache.evictions、cache.size(name=redis.near-cache，热点缓存为 redis.near-cache.hot)，
+ * redis.near-cache.hit.ratio：命中率，redis.near-cache.removals：按原因统计的淘汰数，
+ * redis.near-cache.staleness：其它实例写入到本实例删除本地缓存的时间差
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 14:55
+ */
+public class RedisNearCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisNearCache.class);
+
+    private static final String VALUE = "v:";
+    private static final String LIST = "l:";
+    private static final String HASH = "h:";
+    private static final String SEPARATOR = "|";
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+    private final NearCacheProperties properties;
+    private final Cache<String, Object> cache;
+    /**
+     * 热点 key 的短时缓存，hot-key-ttl 为 0 或没有热点 key 探测器时为 null
+     */
+    private final Cache<String, Object> hotCache;
+    private final HotKeyDetector hotKeyDetector;
+    /**
+     * 实例 id，用于忽略自己发出的失效通知
+     */
+    private final String instanceId = UUID.randomUUID().toString().replace("-", "");
+    /**
+     * 版本号分段数
+     */
+    private static final int VERSION_STRIPES = 1024;
+    /**
+     * 按 key 哈希分段的失效次数，读取 Redis 前后不一致时说明期间这个 key(或同一分段的 key)发生过失效
+     */
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final Timer stalenessTimer;
+    private final Map<RemovalCause, Counter> removalCounters = new EnumMap<>(RemovalCause.class);
+
+    public RedisNearCache(RedisTemplate<Object, Object> redisTemplate, NearCacheProperties properties, MeterRegistry meterRegistry) {
+        this(redisTemplate, properties, meterRegistry, null);
+    }
+
+    /**
+     * @param hotKeyDetector ：热点 key 探测器，为 null 时不统计本地缓存命中、不晋升热点 key，hot-keys-only 时不缓存任何 key
+     */
+    public RedisNearCache(RedisTemplate<Object, Object> redisTemplate, NearCacheProperties properties, MeterRegistry meterRegistry,
+                          HotKeyDetector hotKeyDetector) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.hotKeyDetector = hotKeyDetector;
+        for (RemovalCause cause : RemovalCause.values()) {
+            removalCounters.put(cause, Counter.builder("redis.near-cache.removals")
+                    .tag("cause", cause.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.cache = buildCache(properties.getMaximumSize(), properties.getExpireAfterWrite());
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "redis.near-cache");
+        Duration hotKeyTtl = properties.getHotKeyTtl();
+        if (hotKeyDetector != null && hotKeyTtl != null && !hotKeyTtl.isZero() && !hotKeyTtl.isNegative()) {
+            this.hotCache = buildCache(properties.getHotKeyMaximumSize(), hotKeyTtl);
+            GuavaCacheMetrics.monitor(meterRegistry, hotCache, "redis.near-cache.hot");
+        } else {
+            this.hotCache = null;
+        }
+        meterRegistry.gauge("redis.near-cache.hit.ratio", cache, c -> c.stats().hitRate());
+        this.stalenessTimer = Timer.builder("redis.near-cache.staleness")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Cache<String, Object> buildCache(long maximumSize, Duration expireAfterWrite) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .<String, Object>removalListener(notification -> removalCounters.get(notification.getCause()).increment())
+                .build();
+    }
+
+    /**
+     * 相当于 opsForValue().get(key)
+     *
+     * @param key
+     * @return
+     */
+    public Object getValue(String key) {
+        return get(key, VALUE + key, () -> redisTemplate.opsForValue().get(key));
+    }
+
+    /**
+     * 相当于 opsForList().range(key, 0, -1)
+     *
+     * @param key
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> getList(String key) {
+        List<Object> list = (List<Object>) get(key, LIST + key, () -> redisTemplate.opsForList().range(key, 0, -1));
+        return list == null ? null : Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 相当于 opsForHash().get(key, hashKey)，同一个 hash 的字段缓存在一起，失效时一起删除
+     *
+     * @param key
+     * @param hashKey
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public Object getHashValue(String key, String hashKey) {
+        if (!properties.isEnabled()) {
+            return redisTemplate.opsForHash().get(key, hashKey);
+        }
+        ConcurrentMap<String, Object> fields = (ConcurrentMap<String, Object>) lookup(HASH + key);
+        Object value = fields == null ? null : fields.get(hashKey);
+        if (value != null) {
+            recordHit(key);
+            return value;
+        }
+        long version = version(key);
+        value = redisTemplate.opsForHash().get(key, hashKey);
+        Cache<String, Object> target;
+        if (value != null && version == version(key) && (target = admit(key)) != null) {
+            if (fields == null) {
+                fields = (ConcurrentMap<String, Object>) target.asMap().computeIfAbsent(HASH + key, k -> new ConcurrentHashMap<>(8));
+            }
+            fields.put(hashKey, value);
+            if (version != version(key)) {
+                fields.remove(hashKey, value);
+            }
+        }
+        return value;
+    }
+
+    private Object get(String key, String cacheKey, Supplier<Object> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        Object value = lookup(cacheKey);
+        if (value != null) {
+            recordHit(key);
+            return value;
+        }
+        long version = version(key);
+        value = loader.get();
+        Cache<String, Object> target;
+        if (value != null && version == version(key) && (target = admit(key)) != null) {
+            target.put(cacheKey, value);
+            if (version != version(key)) {
+                target.asMap().remove(cacheKey, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 先查热点缓存，再查普通缓存
+     */
+    private Object lookup(String cacheKey) {
+        Object value = hotCache == null ? null : hotCache.getIfPresent(cacheKey);
+        return value != null ? value : cache.getIfPresent(cacheKey);
+    }
+
+    private int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    private long version(String key) {
+        return versions.get(stripe(key));
+    }
+
+    private void recordHit(String key) {
+        if (hotKeyDetector != null) {
+            hotKeyDetector.record(key);
+        }
+    }
+
+    /**
+     * 从 Redis 读取的值放入哪个本地缓存
+     *
+     * @param key
+     * @return 热点 key 放入热点缓存，其它 key 放入普通缓存，hot-keys-only 时不缓存返回 null
+     */
+    private Cache<String, Object> admit(String key) {
+        if (hotKeyDetector != null && hotKeyDetector.isHot(key)) {
+            if (hotCache != null) {
+                return hotCache;
+            }
+            // 关闭晋升时按原来的方式放入普通缓存
+            return cache;
+        }
+        return properties.isHotKeysOnly() ? null : cache;
+    }
+
+    /**
+     * key 是否在热点缓存中
+     *
+     * @param key
+     * @return
+     */
+    boolean isPromoted(String key) {
+        return hotCache != null && (hotCache.getIfPresent(VALUE + key) != null || hotCache.getIfPresent(LIST + key) != null
+                || hotCache.getIfPresent(HASH + key) != null);
+    }
+
+    /**
+     * 删除本地缓存，并通知其它实例删除。key 写入或删除后调用
+     *
+     * @param keys
+     */
+    public void invalidate(String... keys) {
+        if (!properties.isEnabled() || keys.length == 0) {
+            return;
+        }
+        for (String key : keys) {
+            evictLocal(key);
+        }
+        String message = instanceId + SEPARATOR + System.currentTimeMillis() + SEPARATOR + String.join("\n", keys);
+        byte[] channel = properties.getChannel().getBytes(StandardCharsets.UTF_8);
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute(connection -> connection.publish(channel, body), true);
+    }
+
+    /**
+     * 只删除本实例的本地缓存
+     *
+     * @param key
+     */
+    public void evictLocal(String key) {
+        versions.incrementAndGet(stripe(key));
+        List<String> cacheKeys = Arrays.asList(VALUE + key, LIST + key, HASH + key);
+        cache.invalidateAll(cacheKeys);
+        if (hotCache != null) {
+            hotCache.invalidateAll(cacheKeys);
+        }
+    }
+
+    /**
+     * 接收失效通知：自定义频道的消息格式为 实例id|发布时间|key1\nkey2...，keyspace 通知的频道为 __keyspace@db__:key
+     *
+     * @param message
+     * @param pattern
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        try {
+            if (channel.equals(properties.getChannel())) {
+                String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 3);
+                if (parts.length < 3 || instanceId.equals(parts[0])) {
+                    return;
+                }
+                for (String key : parts[2].split("\n")) {
+                    evictLocal(key);
+                }
+                long lag = System.currentTimeMillis() - Long.parseLong(parts[1]);
+                stalenessTimer.record(Math.max(lag, 0), TimeUnit.MILLISECONDS);
+            } else {
+                evictLocal(channel.substring(channel.indexOf(':') + 1));
+            }
+        } catch (Exception e) {
+            log.error("处理本地缓存失效通知失败，channel={}，{}", channel, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 当前本地缓存条目数，包括热点缓存
+     *
+     * @return
+     */
+    public long size() {
+        return cache.size() + (hotCache == null ? 0 : hotCache.size());
+    }
+}
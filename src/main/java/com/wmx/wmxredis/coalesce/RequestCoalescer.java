@@ -0,0 +1,122 @@
+package com.wmx.wmxredis.coalesce;
+
+import com.wmx.wmxredis.routing.ReadRouting;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 合并本实例内相同的并发读取(single-flight)：同一个 (操作, key) 同时只执行一次，其它调用方等待并共享结果
+ * <p>
+ * 1、与具体客户端无关，RedisTemplate、RedissonClient、Jedis 的读取都可以包在 {@link #execute(String, Object, Supplier)} 中。
+ * 2、只合并同时在执行的调用，执行完成后立即移除，不缓存结果，下一次调用重新读取，不会读到旧数据。
+ * 3、等待超过 redis.coalescer.max-wait 时不再等待，自己执行一次，避免一次慢读拖住所有调用方。
+ * 4、当前线程需要从主节点读取(读自己的写)时不会与从副本读取的调用合并，见 {@link ReadRouting#useReplica()}。
+ * 5、只用于读取：共享结果的调用方拿到的是同一个对象，不要修改它。
+ * 6、指标：redis.coalescer.calls(调用次数，标签 operation、role=leader 执行/follower 共享/timeout 等待超时)，
+ * * redis.coalescer.fan.in(每次执行被多少个调用方共享，平均值即合并比例)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 12:00
+ */
+public class RequestCoalescer {
+
+    private final RequestCoalescerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 正在执行的调用，key 为 [操作, key, 是否从副本读取]
+     */
+    private final ConcurrentMap<List<Object>, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(RequestCoalescerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 执行读取，相同的 (操作, key) 正在执行时等待它的结果
+     *
+     * @param operation ：操作名称，如 redis/get，同时作为指标标签，不要包含 key 等取值很多的内容
+     * @param key       ：读取的 key，需要正确实现 equals/hashCode
+     * @param supplier  ：实际的读取
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> supplier) {
+        if (!properties.isEnabled()) {
+            return supplier.get();
+        }
+        List<Object> flightKey = Arrays.asList(operation, key, ReadRouting.useReplica());
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            existing.callers.incrementAndGet();
+            return (T) await(operation, existing, supplier);
+        }
+        count(operation, "leader");
+        try {
+            T value = supplier.get();
+            inFlight.remove(flightKey, flight);
+            flight.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            fanIn(operation).record(flight.callers.get());
+        }
+    }
+
+    private Object await(String operation, Flight flight, Supplier<?> supplier) {
+        long maxWait = properties.getMaxWait().toMillis();
+        try {
+            Object value = maxWait > 0 ? flight.future.get(maxWait, TimeUnit.MILLISECONDS) : flight.future.get();
+            count(operation, "follower");
+            return value;
+        } catch (TimeoutException e) {
+            count(operation, "timeout");
+            return supplier.get();
+        } catch (ExecutionException e) {
+            count(operation, "follower");
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并读取结果时被中断：" + operation, e);
+        }
+    }
+
+    private void count(String operation, String role) {
+        meterRegistry.counter("redis.coalescer.calls", "operation", operation, "role", role).increment();
+    }
+
+    private DistributionSummary fanIn(String operation) {
+        return DistributionSummary.builder("redis.coalescer.fan.in")
+                .description("每次执行被多少个调用方共享")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 一次正在执行的读取
+     */
+    private static class Flight {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        /**
+         * 共享这次执行的调用方个数，包括执行者自己
+         */
+        private final AtomicInteger callers = new AtomicInteger(1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.wmx.wmxredis.coalesce;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 并发读取合并配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link RequestCoalescerProperties} 配置类交由 Spring 容器管理
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 12:15
+ */
+@Configuration
+@EnableConfigurationProperties(RequestCoalescerProperties.class)
+public class RequestCoalescerConfig {
+
+    @Bean
+    public RequestCoalescer requestCoalescer(RequestCoalescerProperties requestCoalescerProperties, MeterRegistry meterRegistry) {
+        return new RequestCoalescer(requestCoalescerProperties, meterRegistry);
+    }
+}
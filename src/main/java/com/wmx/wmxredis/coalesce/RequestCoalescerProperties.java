@@ -0,0 +1,47 @@
+package com.wmx.wmxredis.coalesce;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@link RequestCoalescer} 配置
+ * <pre>
+ * redis:
+ *   coalescer:
+ *     enabled: true
+ *     max-wait: 1s
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 12:10
+ */
+@ConfigurationProperties(prefix = "redis.coalescer")
+public class RequestCoalescerProperties {
+
+    /**
+     * 是否合并相同的并发读取，为 false 时每个调用都直接执行
+     */
+    private boolean enabled = true;
+    /**
+     * 等待其它线程结果的最长时间，超时后自己执行一次，为 0 时一直等待
+     */
+    private Duration maxWait = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
@@ -0,0 +1,74 @@
+package com.wmx.wmxredis.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.util.HashSet;
+
+/**
+ * 非阻塞访问模式：redis.reactive.enabled=true 时，使用 Lettuce 创建 ReactiveRedisConnectionFactory
+ * <p>
+ * 1、Lettuce 基于 Netty，所有请求共享一个多路复用的长连接(shareNativeConnection)，命令发出后不占用线程等待响应，
+ * * 少量线程即可支撑大量并发请求，不需要连接池。
+ * 2、只提供给 ReactiveRedisTemplate 使用，RedisTemplate、jedis 包、管道、Lua 脚本仍然使用 Jedis 连接工厂
+ * * (RedisMetricsConfig 中的 redisConnectionFactory 标记为 @Primary，按类型注入 RedisConnectionFactory 时仍然得到 Jedis)。
+ * 3、连接地址、库、密码、超时沿用 spring.redis 配置，与 RedisTemplate 访问同一个 Redis，
+ * * ReactiveRedisTemplate 与 RedisTemplate 使用相同的序列化器(见 {@link RedisConfig})，两边写入的数据可以互相读取。
+ * 4、Lettuce 执行的命令不经过 Jedis 代理，不会记录到 redis.command 指标中。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 23:20
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "redis.reactive", name = "enabled", havingValue = "true")
+public class ReactiveRedisConfig {
+
+    @Bean
+    public LettuceConnectionFactory reactiveRedisConnectionFactory(RedisProperties redisProperties) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder();
+        if (redisProperties.isSsl()) {
+            builder.useSsl();
+        }
+        if (redisProperties.getTimeout() != null) {
+            builder.commandTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getLettuce().getShutdownTimeout() != null) {
+            builder.shutdownTimeout(redisProperties.getLettuce().getShutdownTimeout());
+        }
+        LettuceClientConfiguration clientConfig = builder.build();
+
+        LettuceConnectionFactory connectionFactory;
+        if (redisProperties.getSentinel() != null) {
+            RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+            RedisSentinelConfiguration config = new RedisSentinelConfiguration(sentinel.getMaster(), new HashSet<>(sentinel.getNodes()));
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+            config.setDatabase(redisProperties.getDatabase());
+            connectionFactory = new LettuceConnectionFactory(config, clientConfig);
+        } else if (redisProperties.getCluster() != null) {
+            RedisProperties.Cluster cluster = redisProperties.getCluster();
+            RedisClusterConfiguration config = new RedisClusterConfiguration(cluster.getNodes());
+            if (cluster.getMaxRedirects() != null) {
+                config.setMaxRedirects(cluster.getMaxRedirects());
+            }
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+            connectionFactory = new LettuceConnectionFactory(config, clientConfig);
+        } else {
+            RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisProperties.getHost(), redisProperties.getPort());
+            config.setDatabase(redisProperties.getDatabase());
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+            connectionFactory = new LettuceConnectionFactory(config, clientConfig);
+        }
+        // 所有请求共享同一个原生连接(默认即为 true，这里显式声明)，阻塞命令(BLPOP 等)与事务会单独创建连接
+        connectionFactory.setShareNativeConnection(true);
+        return connectionFactory;
+    }
+}
@@ -1,24 +1,45 @@
 package com.wmx.wmxredis.config;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wmx.wmxredis.serializer.ClassIdRegistry;
+import com.wmx.wmxredis.serializer.CompactRedisSerializer;
+import com.wmx.wmxredis.serializer.CompressingRedisSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
  * Redis 配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link RedisSerializerProperties} 配置类交由 Spring 容器管理
  *
  * @author wangMaoXiong
  */
 @Configuration
 @SuppressWarnings("Duplicated")
+@EnableConfigurationProperties(RedisSerializerProperties.class)
 public class RedisConfig {
 
+    private final RedisSerializerProperties serializerProperties;
+
+    private final ClassIdRegistry classIdRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    public RedisConfig(RedisSerializerProperties serializerProperties, MeterRegistry meterRegistry) {
+        this.serializerProperties = serializerProperties;
+        this.meterRegistry = meterRegistry;
+        this.classIdRegistry = ClassIdRegistry.of(serializerProperties.getClassIds());
+    }
+
     /**
      * 自定义 RedisTemplate 序列化方式
      *
@@ -32,24 +53,19 @@ public class RedisConfig {
         //绑定 RedisConnectionFactory
         redisTemplate.setConnectionFactory(redisConnectionFactory);
 
-        //创建 Jackson2JsonRedisSerializer 序列方式，对象类型使用 Object 类型，
-        Jackson2JsonRedisSerializer jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer(Object.class);
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        objectMapper.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
-        //设置一下 jackJson 的 ObjectMapper 对象参数
-        jackson2JsonRedisSerializer.setObjectMapper(objectMapper);
+        //value 序列化方式，编码格式由 redis.serializer 配置决定，默认 json
+        RedisSerializer<Object> valueSerializer = valueSerializer("redisTemplate");
 
         // 设置 RedisTemplate 序列化规则。因为 key 通常是普通的字符串，所以使用 StringRedisSerializer 即可。
         // 而 value 是对象时，才需要使用序列化与反序列化
         // key 序列化规则
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         // value 序列化规则
-        redisTemplate.setValueSerializer(jackson2JsonRedisSerializer);
+        redisTemplate.setValueSerializer(valueSerializer);
         // hash key 序列化规则
         redisTemplate.setHashKeySerializer(new StringRedisSerializer());
         // hash value 序列化规则
-        redisTemplate.setHashValueSerializer(jackson2JsonRedisSerializer);
+        redisTemplate.setHashValueSerializer(valueSerializer);
         //属性设置后操作
         redisTemplate.afterPropertiesSet();
         //返回设置好的 RedisTemplate
@@ -82,28 +98,84 @@ public class RedisConfig {
         //绑定 RedisConnectionFactory
         redisTemplate.setConnectionFactory(redisConnectionFactory);
 
-        //创建 Jackson2JsonRedisSerializer 序列方式，对象类型使用 Object 类型，
-        Jackson2JsonRedisSerializer jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer(Object.class);
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        objectMapper.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
-        //设置一下 jackJson 的 ObjectMapper 对象参数
-        jackson2JsonRedisSerializer.setObjectMapper(objectMapper);
+        //value 序列化方式，编码格式由 redis.serializer 配置决定，默认 json
+        RedisSerializer<Object> valueSerializer = valueSerializer("redisTemplateTransactional");
 
         // 设置 RedisTemplate 序列化规则。因为 key 通常是普通的字符串，所以使用 StringRedisSerializer 即可。
         // 而 value 是对象时，才需要使用序列化与反序列化
         // key 序列化规则
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         // value 序列化规则
-        redisTemplate.setValueSerializer(jackson2JsonRedisSerializer);
+        redisTemplate.setValueSerializer(valueSerializer);
         // hash key 序列化规则
         redisTemplate.setHashKeySerializer(new StringRedisSerializer());
         // hash value 序列化规则
-        redisTemplate.setHashValueSerializer(jackson2JsonRedisSerializer);
+        redisTemplate.setHashValueSerializer(valueSerializer);
         //属性设置后操作
         redisTemplate.afterPropertiesSet();
         //返回设置好的 RedisTemplate
         return redisTemplate;
     }
 
+    /**
+     * 非阻塞的 ReactiveRedisTemplate，redis.reactive.enabled=true 时创建，连接工厂见 {@link ReactiveRedisConfig}
+     * 1、key、value、hash key、hash value 的序列化方式与 redisTemplate 相同，两边写入的数据可以互相读取
+     * 2、bean 名称为 reactiveRedisTemplate，Spring Boot 自动配置的同名 ReactiveRedisTemplate(JDK 序列化)不再创建
+     *
+     * @param reactiveRedisConnectionFactory
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "redis.reactive", name = "enabled", havingValue = "true")
+    public ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory reactiveRedisConnectionFactory) {
+        //value 序列化方式，编码格式由 redis.serializer 配置决定，默认 json
+        RedisSerializer<Object> valueSerializer = valueSerializer("reactiveRedisTemplate");
+        // key 与 hash key 使用字符串序列化，与 redisTemplate 相同
+        RedisSerializer<Object> keySerializer = stringKeySerializer();
+        RedisSerializationContext<Object, Object> serializationContext = RedisSerializationContext.<Object, Object>newSerializationContext()
+                .key(keySerializer)
+                .value(valueSerializer)
+                .hashKey(keySerializer)
+                .hashValue(valueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, serializationContext);
+    }
+
+    /**
+     * ReactiveRedisTemplate 的 key 与 hash key 序列化器，按字符串序列化，key 不是字符串时抛出 ClassCastException，与 StringRedisSerializer 相同
+     *
+     * @return
+     */
+    private static RedisSerializer<Object> stringKeySerializer() {
+        StringRedisSerializer stringSerializer = new StringRedisSerializer();
+        return new RedisSerializer<Object>() {
+            @Override
+            public byte[] serialize(Object key) {
+                return stringSerializer.serialize((String) key);
+            }
+
+            @Override
+            public Object deserialize(byte[] bytes) {
+                return stringSerializer.deserialize(bytes);
+            }
+        };
+    }
+
+    /**
+     * 创建 RedisTemplate 的 value 序列化器
+     * 1、写入格式由 redis.serializer.templates.{templateName} 或者 redis.serializer.codec 决定
+     * 2、读取时自动识别 json、smile、cbor 三种格式，切换格式后旧数据仍然可以正常读取
+     * 3、开启 redis.serializer.compression.enabled 时，超过阈值的 value 再进行压缩，未压缩的旧数据仍然可以正常读取
+     * 4、未开启压缩时同样包装一层 CompressingRedisSerializer，只是不再压缩，保证之前已经压缩的数据仍然可以读取
+     *
+     * @param templateName ：RedisTemplate bean 名称
+     * @return
+     */
+    private RedisSerializer<Object> valueSerializer(String templateName) {
+        RedisSerializer<Object> serializer = new CompactRedisSerializer(serializerProperties.codecOf(templateName), classIdRegistry);
+        RedisSerializerProperties.Compression compression = serializerProperties.getCompression();
+        int threshold = compression.isEnabled() ? compression.getThreshold() : Integer.MAX_VALUE;
+        return new CompressingRedisSerializer<>(serializer, compression.getAlgorithm(), threshold, meterRegistry, templateName);
+    }
+
 }
@@ -0,0 +1,130 @@
+package com.wmx.wmxredis.config;
+
+import com.wmx.wmxredis.serializer.CompressionAlgorithm;
+import com.wmx.wmxredis.serializer.ValueCodec;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RedisTemplate value 序列化配置
+ * <pre>
+ * redis:
+ *   serializer:
+ *     codec: json                 # 所有 RedisTemplate 默认的编码格式：json、smile、cbor
+ *     templates:                  # 按 RedisTemplate 的 bean 名称单独指定
+ *       redisTemplate: smile
+ *     class-ids:                  # 类型短 id，100 以下为内置保留
+ *       100: com.wmx.wmxredis.beans.Person
+ *     compression:                # 大 value 透明压缩
+ *       enabled: true
+ *       threshold: 1024           # 序列化后达到多少字节才压缩
+ *       algorithm: lz4            # lz4、deflate
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 11:02
+ */
+@ConfigurationProperties(prefix = "redis.serializer")
+public class RedisSerializerProperties {
+
+    /**
+     * 默认编码格式，默认 json，与旧数据格式一致
+     */
+    private ValueCodec codec = ValueCodec.JSON;
+    /**
+     * 按 RedisTemplate bean 名称指定编码格式，未指定的使用 codec
+     */
+    private Map<String, ValueCodec> templates = new HashMap<>();
+    /**
+     * 类型短 id 注册表，key 为 id，value 为完整类名
+     */
+    private Map<String, String> classIds = new HashMap<>();
+    /**
+     * 大 value 压缩配置
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 获取指定 RedisTemplate 的编码格式
+     *
+     * @param templateName ：RedisTemplate bean 名称
+     * @return
+     */
+    public ValueCodec codecOf(String templateName) {
+        return templates.getOrDefault(templateName, codec);
+    }
+
+    public ValueCodec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(ValueCodec codec) {
+        this.codec = codec;
+    }
+
+    public Map<String, ValueCodec> getTemplates() {
+        return templates;
+    }
+
+    public void setTemplates(Map<String, ValueCodec> templates) {
+        this.templates = templates;
+    }
+
+    public Map<String, String> getClassIds() {
+        return classIds;
+    }
+
+    public void setClassIds(Map<String, String> classIds) {
+        this.classIds = classIds;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    public static class Compression {
+        /**
+         * 是否开启压缩，关闭后已经压缩的数据仍然可以正常读取
+         */
+        private boolean enabled = false;
+        /**
+         * 序列化后的字节数达到该值才压缩，默认 1KB
+         */
+        private int threshold = 1024;
+        /**
+         * 压缩算法，默认 lz4
+         */
+        private CompressionAlgorithm algorithm = CompressionAlgorithm.LZ4;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+
+        public CompressionAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(CompressionAlgorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+    }
+}
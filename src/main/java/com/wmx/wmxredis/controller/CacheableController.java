@@ -0,0 +1,59 @@
+package com.wmx.wmxredis.controller;
+
+import com.wmx.wmxredis.beans.Person;
+import com.wmx.wmxredis.resultAPI.ResultData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Cache 注解缓存示例，缓存保存在 Redis 中，见 {@link com.wmx.wmxredis.cache.RedisCacheConfig}
+ * <p>
+ * 1、返回值由 {@link com.wmx.wmxredis.exceotion.CommonResultAdvice} 统一包装，缓存中保存的是 Person 本身。
+ * 2、sync = true：同一个 key 并发未命中时只有一个请求回源，其它请求等待它的结果，过期前按概率提前刷新。
+ * 3、缓存名称 person 的过期时间由 redis.cache.ttls.person 配置。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 11:40
+ */
+@RestController
+public class CacheableController {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheableController.class);
+
+    /**
+     * http://localhost:8080/cache/person?id=1
+     *
+     * @param id
+     * @return
+     * @throws InterruptedException
+     */
+    @GetMapping("cache/person")
+    @Cacheable(cacheNames = "person", key = "#id", sync = true)
+    public Person getPerson(@RequestParam Integer id) throws InterruptedException {
+        // 模拟耗时的后端查询
+        log.info("查询人员：{}", id);
+        TimeUnit.MILLISECONDS.sleep(500);
+        return new Person(id, "张三" + id, new Date());
+    }
+
+    /**
+     * http://localhost:8080/cache/person/evict?id=1
+     *
+     * @param id
+     * @return
+     */
+    @GetMapping("cache/person/evict")
+    @CacheEvict(cacheNames = "person", key = "#id")
+    public ResultData<Object> evictPerson(@RequestParam Integer id) {
+        return new ResultData<>("已删除缓存：" + id);
+    }
+}
@@ -0,0 +1,206 @@
+package com.wmx.wmxredis.controller;
+
+import com.wmx.wmxredis.beans.Person;
+import com.wmx.wmxredis.cache.RedisNearCache;
+import com.wmx.wmxredis.lua.RedisLuaScripts;
+import com.wmx.wmxredis.resultAPI.ResultCode;
+import com.wmx.wmxredis.resultAPI.ResultData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReactiveRedisTemplate 以非阻塞方式操作 redis，与 {@link RedisController} 中的接口一一对应
+ * <p>
+ * 1、redis.reactive.enabled=true 时生效，命令通过 Lettuce 共享的多路复用连接发送，等待 Redis 响应期间不占用请求线程，
+ * * 也不占用 Jedis 连接池中的连接。
+ * 2、接口返回 Mono，由 Spring MVC 的异步请求处理，Redis 响应后再写回结果。
+ * 3、与 RedisTemplate 使用相同的序列化器，两组接口写入的数据可以互相读取。
+ * 4、本地近端缓存的失效通知仍然通过 RedisTemplate 发布，是阻塞调用，放到 elastic 线程池中执行，不阻塞 Lettuce 的 IO 线程。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 23:30
+ */
+@RestController
+@ConditionalOnProperty(prefix = "redis.reactive", name = "enabled", havingValue = "true")
+public class ReactiveRedisController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRedisController.class);
+
+    /**
+     * key 的值等于 ARGV[1] 时才删除，返回删除 key 的个数
+     */
+    private static final RedisScript<Long> COMPARE_AND_DELETE = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    @Resource
+    private ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate;
+
+    @Resource
+    private RedisNearCache redisNearCache;
+
+    @Resource
+    private RedisLuaScripts redisLuaScripts;
+
+    /**
+     * 保存数据，设置缓存：http://localhost:8080/reactive/redis/save?id=1000&name=张三
+     * <p>
+     * 三个写入命令同时发出，在同一个连接上排队，不需要等待前一个命令的响应，全部成功后再删除本地近端缓存。
+     *
+     * @param person
+     * @return
+     */
+    @GetMapping("reactive/redis/save")
+    public Mono<ResultData<Object>> redisCache(Person person) {
+        person.setBirthday(new Date());
+
+        String stringKey = RedisController.class.getName() + "_string" + person.getId();
+        String listKey = RedisController.class.getName() + "_list" + person.getId();
+        String mapKey = RedisController.class.getName() + "_map";
+        Duration timeout = Duration.ofSeconds(60);
+
+        return Mono.when(reactiveRedisTemplate.opsForValue().set(stringKey, person, timeout),
+                redisLuaScripts.rightPushAllAndExpire(reactiveRedisTemplate, listKey, timeout, person, person),
+                redisLuaScripts.hashPutAndExpire(reactiveRedisTemplate, mapKey, "person" + person.getId(), person, timeout))
+                //删除本实例以及其它实例中的本地缓存
+                .then(Mono.fromRunnable(() -> redisNearCache.invalidate(stringKey, listKey, mapKey)).subscribeOn(Schedulers.elastic()))
+                .then(Mono.just(new ResultData<Object>("缓存成功")))
+                .onErrorResume(e -> {
+                    log.error("缓存失败：{}", e.getMessage(), e);
+                    return Mono.just(new ResultData<Object>(ResultCode.FAIL, e.getMessage()));
+                });
+    }
+
+    /**
+     * http://localhost:8080/reactive/redis/setValue?key=1&value=张三
+     * <p>
+     * 与 {@link RedisController#setValue(String, String)} 相同，key 不是数字时第二步失败，第一步写入的数据不会回滚。
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    @GetMapping("reactive/redis/setValue")
+    public Mono<ResultData<Object>> setValue(@RequestParam String key, @RequestParam String value) {
+        return reactiveRedisTemplate.opsForValue().set(key, value, Duration.ofSeconds(60))
+                .doOnNext(success -> log.debug("缓存 key={}，结果={}", key, success))
+                .then(reactiveRedisTemplate.opsForValue().increment("setValue_count", 1))
+                .map(setValueCount -> new ResultData<Object>(setValueCount));
+    }
+
+    /**
+     * 查询缓存：http://localhost:8080/reactive/redis/get?personId=1000
+     * <p>
+     * 直接读取 Redis，不经过本地近端缓存(近端缓存的加载是阻塞的)。
+     *
+     * @param personId
+     * @return
+     */
+    @GetMapping("reactive/redis/get")
+    public Mono<List<Object>> getRedisCache(@RequestParam Integer personId) {
+        Mono<Object> person = reactiveRedisTemplate.opsForValue().get(RedisController.class.getName() + "_string" + personId);
+        Mono<List<Object>> personList = reactiveRedisTemplate.opsForList()
+                .range(RedisController.class.getName() + "_list" + personId, 0, -1).collectList();
+        Mono<Object> person1 = reactiveRedisTemplate.opsForHash().get(RedisController.class.getName() + "_map", "person" + personId);
+        return Mono.zip(person.map(Collections::singletonList).defaultIfEmpty(Collections.emptyList()),
+                personList,
+                person1.map(Collections::singletonList).defaultIfEmpty(Collections.emptyList()))
+                .map(tuple -> {
+                    log.debug("person={}", tuple.getT1());
+                    log.debug("personList={}", tuple.getT2());
+                    log.debug("person1={}", tuple.getT3());
+                    return tuple.getT2();
+                });
+    }
+
+    /**
+     * 根据缓存的 key 查询缓存的值：http://localhost:8080/reactive/redis/getValueByKey
+     *
+     * @param key
+     * @return
+     * @see RedisController#getValueByKey(String)
+     */
+    @RequestMapping(value = "/reactive/redis/getValueByKey", method = RequestMethod.POST)
+    public Mono<ResultData<Object>> getValueByKey(@RequestBody String key) {
+        log.info("根据 key 查询 redis 缓存值， kye={}", key);
+        if (ObjectUtils.isEmpty(key)) {
+            return Mono.just(new ResultData<Object>(ResultCode.FAIL, "kye 参数错误！"));
+        }
+        long start = System.nanoTime();
+        return reactiveRedisTemplate.type(key).flatMap(dataType -> {
+            if (dataType == DataType.NONE) {
+                return Mono.just(new ResultData<Object>(ResultCode.FAIL, "kye 不存在：" + key));
+            }
+            Mono<?> value;
+            if (dataType == DataType.STRING) {
+                value = reactiveRedisTemplate.opsForValue().get(key);
+            } else if (dataType == DataType.LIST) {
+                value = reactiveRedisTemplate.opsForList().range(key, 0, -1).collectList();
+            } else if (dataType == DataType.SET) {
+                value = reactiveRedisTemplate.opsForSet().members(key).collectList();
+            } else if (dataType == DataType.ZSET) {
+                value = reactiveRedisTemplate.opsForZSet().range(key, Range.unbounded()).collectList();
+            } else if (dataType == DataType.HASH) {
+                value = reactiveRedisTemplate.opsForHash().entries(key).collectMap(Map.Entry::getKey, Map.Entry::getValue);
+            } else {
+                return Mono.just(new ResultData<Object>(ResultCode.FAIL, "kye 的类型错误：" + key));
+            }
+            return value.map(result -> {
+                long elapsed = (System.nanoTime() - start) / 1000000;
+                return new ResultData<Object>(ResultCode.SUCCESS.getCode(), "查询成功！,耗时：" + elapsed + "(毫秒)", result);
+            });
+        }).onErrorResume(e -> {
+            log.error(e.getMessage(), e);
+            return Mono.just(new ResultData<Object>(ResultCode.FAIL, e.getMessage()));
+        });
+    }
+
+    /**
+     * http://localhost:8080/reactive/redis/execute?key=wwww&value=1rui
+     * <p>
+     * 与 {@link RedisController#execute(String, String)} 相同，模拟业务执行的 10 秒使用 Mono.delay 定时，不占用请求线程。
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    @GetMapping("reactive/redis/execute")
+    public Mono<Map<String, Object>> execute(@RequestParam String key, @RequestParam String value) {
+        return reactiveRedisTemplate.opsForValue().setIfAbsent(key, value, Duration.ofSeconds(60)).flatMap(ifAbsent -> {
+            Map<String, Object> returnMap = new HashMap<>(8);
+            if (!ifAbsent) {
+                returnMap.put("code", 500);
+                returnMap.put("msg", "程序正在处理中，请稍后再试！");
+                return Mono.just(returnMap);
+            }
+            //休眠 10 秒，模拟执行业务代码
+            return Mono.delay(Duration.ofSeconds(10))
+                    .doOnNext(tick -> log.debug("执行业务代码，tick={}", tick))
+                    // 接口执行完毕后删除 key，key 不存在时返回 0
+                    .then(reactiveRedisTemplate.execute(COMPARE_AND_DELETE, Collections.singletonList(key), Collections.singletonList(value)).next())
+                    .map(deleted -> {
+                        returnMap.put("data", deleted);
+                        returnMap.put("code", 200);
+                        returnMap.put("msg", "seccess");
+                        return returnMap;
+                    });
+        });
+    }
+}
@@ -3,22 +3,31 @@ package com.wmx.wmxredis.controller;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 import com.wmx.wmxredis.beans.Person;
+import com.wmx.wmxredis.cache.RedisNearCache;
+import com.wmx.wmxredis.coalesce.RequestCoalescer;
+import com.wmx.wmxredis.jedis.RedisValueStreamer;
+import com.wmx.wmxredis.lua.RedisLuaScripts;
+import com.wmx.wmxredis.pipeline.RedisBatch;
+import com.wmx.wmxredis.pipeline.RedisBatchExecutor;
+import com.wmx.wmxredis.pipeline.RedisBatchResult;
 import com.wmx.wmxredis.resultAPI.ResultCode;
 import com.wmx.wmxredis.resultAPI.ResultData;
+import com.wmx.wmxredis.routing.ReadConsistency;
+import com.wmx.wmxredis.routing.ReadFromReplica;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.connection.DataType;
-import org.springframework.data.redis.core.HashOperations;
-import org.springframework.data.redis.core.ListOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -38,31 +47,67 @@ public class RedisController {
     @Resource
     private RedisTemplate redisTemplate;
 
+    /**
+     * RedisTemplate 前面的本地近端缓存
+     */
+    @Resource
+    private RedisNearCache redisNearCache;
+
+    /**
+     * 合并相同的并发读取
+     */
+    @Resource
+    private RequestCoalescer requestCoalescer;
+
+    /**
+     * 管道批量命令执行器
+     */
+    @Resource
+    private RedisBatchExecutor redisBatchExecutor;
+
+    /**
+     * 写入并设置过期时间的 Lua 脚本
+     */
+    @Resource
+    private RedisLuaScripts redisLuaScripts;
+
+    /**
+     * 分页读取大集合并以 JSON 边读边写
+     */
+    @Resource
+    private RedisValueStreamer redisValueStreamer;
+
     /**
      * 保存数据，设置缓存：http://localhost:8080/redis/save?id=1000&name=张三
      * <p>
      * 业务方法未加 Spring @Transactional 事务注解，方法发生异常时，RedisTemplate 的增、删、改等操作不会回滚。
+     * 三种数据类型的写入与过期时间设置放在同一个管道批次中发送，只需要一次网络往返。
+     * 列表、hash 的写入与过期时间通过 Lua 脚本在服务端原子执行，不会出现写入成功但没有过期时间的中间状态。
      *
      * @param person
      * @return
      */
     @GetMapping("redis/save")
     public ResultData<Object> redisCache(Person person) {
-        ValueOperations opsForValue = redisTemplate.opsForValue();
-        ListOperations opsForList = redisTemplate.opsForList();
-        HashOperations opsForHash = redisTemplate.opsForHash();
-
         person.setBirthday(new Date());
 
-        //设置缓存。演示三种数据类型：字符串、列表、hash
-        opsForValue.set(RedisController.class.getName() + "_string" + person.getId(), person);
-        opsForList.rightPushAll(RedisController.class.getName() + "_list" + person.getId(), person, person);
-        opsForHash.put(RedisController.class.getName() + "_map", "person" + person.getId(), person);
+        String stringKey = RedisController.class.getName() + "_string" + person.getId();
+        String listKey = RedisController.class.getName() + "_list" + person.getId();
+        String mapKey = RedisController.class.getName() + "_map";
+        Duration timeout = Duration.ofSeconds(60);
+
+        //设置缓存。演示三种数据类型：字符串、列表、hash，同时设置 key 失效时间
+        RedisBatch batch = redisBatchExecutor.batch().set(stringKey, person, timeout);
+        redisLuaScripts.rightPushAllAndExpire(batch, listKey, timeout, person, person);
+        redisLuaScripts.hashPutAndExpire(batch, mapKey, "person" + person.getId(), person, timeout);
+        RedisBatchResult batchResult = batch.execute();
 
-        //设置 key 失效时间
-        redisTemplate.expire(RedisController.class.getName() + "_string" + person.getId(), 60, TimeUnit.SECONDS);
-        redisTemplate.expire(RedisController.class.getName() + "_list" + person.getId(), 60, TimeUnit.SECONDS);
-        redisTemplate.expire(RedisController.class.getName() + "_map", 60, TimeUnit.SECONDS);
+        //删除本实例以及其它实例中的本地缓存
+        redisNearCache.invalidate(stringKey, listKey, mapKey);
+        if (!batchResult.isSuccess()) {
+            log.error("缓存失败：{}", batchResult.getErrors());
+            return new ResultData<Object>(ResultCode.FAIL, batchResult.getErrors());
+        }
         return new ResultData("缓存成功");
     }
 
@@ -133,21 +178,26 @@ public class RedisController {
 
     /**
      * 查询缓存：http://localhost:8080/redis/get?personId=1000
+     * <p>
+     * 先查本地近端缓存，未命中时才访问 Redis，数据修改时通过发布/订阅删除各个实例的本地缓存。
+     * 同一个 personId 的并发请求合并为一次读取，见 {@link RequestCoalescer}。
      *
      * @param personId
      * @return
      */
     @GetMapping("redis/get")
+    @ReadFromReplica
     public List<Person> getRedisCache(@RequestParam Integer personId) {
         //1、演示三种数据类型：字符串、列表、hash
-        ValueOperations opsForValue = redisTemplate.opsForValue();
-        ListOperations opsForList = redisTemplate.opsForList();
-        HashOperations opsForHash = redisTemplate.opsForHash();
-
         //2、读取缓存，如果 key 不存在，则返回为 null.
-        Person person = (Person) opsForValue.get(RedisController.class.getName() + "_string" + personId);
-        List<Person> personList = opsForList.range(RedisController.class.getName() + "_list" + personId, 0, -1);
-        Person person1 = (Person) opsForHash.get(RedisController.class.getName() + "_map", "person" + personId);
+        //3、同一个 personId 的并发请求只读取一次，共享三次读取的结果
+        List<Object> values = requestCoalescer.execute("redis/get", personId, () -> Arrays.asList(
+                redisNearCache.getValue(RedisController.class.getName() + "_string" + personId),
+                redisNearCache.getList(RedisController.class.getName() + "_list" + personId),
+                redisNearCache.getHashValue(RedisController.class.getName() + "_map", "person" + personId)));
+        Person person = (Person) values.get(0);
+        List<Person> personList = (List) values.get(1);
+        Person person1 = (Person) values.get(2);
         System.out.println("person= " + person);
         System.out.println("personList= " + personList);
         System.out.println("person1= " + person1);
@@ -161,11 +211,13 @@ public class RedisController {
      * 1、DataType type(K key)：查询缓存 key 的类型，DataType 是一个枚举，code(name) 可选值如下：
      * 2、NONE("none"), STRING("string"), LIST("list"), SET("set"), ZSET("zset"), HASH("hash");
      * 3、none 表示 key 不存在，或者类型不确定
+     * 4、列表、集合、hash 一次全部读入内存，元素很多时使用 /redis/getValueByKey/stream
      *
      * @param key
      * @return
      */
     @RequestMapping(value = "/redis/getValueByKey", method = RequestMethod.POST)
+    @ReadFromReplica(consistency = ReadConsistency.EVENTUAL)
     public ResultData getValueByKey(@RequestBody String key) {
         Stopwatch stopwatch = null;
         try {
@@ -205,6 +257,26 @@ public class RedisController {
         }
     }
 
+    /**
+     * 流式查询缓存的值：http://localhost:8080/redis/getValueByKey/stream
+     * <p>
+     * 1、与 getValueByKey 返回的 JSON 相同(多一个 total 元素个数)，但列表、集合、hash 按页读取(LRANGE、ZRANGE 窗口，HSCAN、SSCAN 游标)，
+     * * 每读一页写出一页，不会把几百万个元素一次读入内存，见 {@link RedisValueStreamer}。
+     * 2、直接在请求线程中写响应，没有使用 StreamingResponseBody：后者在 MVC 的异步线程池中执行，默认既没有线程数上限又有 30 秒超时，
+     * * 而且 @ReadFromReplica 的路由只对当前线程有效。
+     *
+     * @param key
+     * @param response
+     * @throws IOException
+     */
+    @RequestMapping(value = "/redis/getValueByKey/stream", method = RequestMethod.POST)
+    @ReadFromReplica(consistency = ReadConsistency.EVENTUAL)
+    public void streamValueByKey(@RequestBody String key, HttpServletResponse response) throws IOException {
+        log.info("根据 key 流式查询 redis 缓存值， kye={}", key);
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        redisValueStreamer.write(key, response.getOutputStream());
+    }
+
     /**
      * http://localhost:8080/redis/execute?key=wwww&value=1rui
      * <p>
@@ -0,0 +1,28 @@
+package com.wmx.wmxredis.delete;
+
+import com.wmx.wmxredis.jedis.JedisKeyScanner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 批量删除配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link BulkDeleteProperties} 配置类交由 Spring 容器管理
+ * 2、应用关闭时停止后台删除线程，正在执行的任务会被中断。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 18:40
+ */
+@Configuration
+@EnableConfigurationProperties(BulkDeleteProperties.class)
+public class BulkDeleteConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public BulkDeleteService bulkDeleteService(StringRedisTemplate stringRedisTemplate, JedisKeyScanner jedisKeyScanner,
+                                               BulkDeleteProperties bulkDeleteProperties) {
+        return new BulkDeleteService(stringRedisTemplate, jedisKeyScanner, bulkDeleteProperties);
+    }
+}
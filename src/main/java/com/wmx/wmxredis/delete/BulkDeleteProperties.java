@@ -0,0 +1,112 @@
+package com.wmx.wmxredis.delete;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 批量删除配置
+ * <pre>
+ * redis:
+ *   bulk-delete:
+ *     scan-count: 1000
+ *     initial-batch-size: 100
+ *     min-batch-size: 10
+ *     max-batch-size: 1000
+ *     latency-budget: 10ms
+ *     max-pause: 1s
+ *     max-finished-tasks: 100
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 18:00
+ */
+@ConfigurationProperties(prefix = "redis.bulk-delete")
+public class BulkDeleteProperties {
+
+    /**
+     * 按模式删除时每次 SCAN 的 COUNT 提示值
+     */
+    private int scanCount = 1000;
+    /**
+     * 每批 UNLINK 的初始 key 个数，之后根据延迟自动调整
+     */
+    private int initialBatchSize = 100;
+    /**
+     * 每批 UNLINK 的最少 key 个数
+     */
+    private int minBatchSize = 10;
+    /**
+     * 每批 UNLINK 的最多 key 个数
+     */
+    private int maxBatchSize = 1000;
+    /**
+     * 延迟预算：最近一批次命令耗时的 p99 超过该值时，减小批次并暂停，给其它客户端的命令让路
+     */
+    private Duration latencyBudget = Duration.ofMillis(10);
+    /**
+     * 超出延迟预算时，两个批次之间的最长暂停时间
+     */
+    private Duration maxPause = Duration.ofSeconds(1);
+    /**
+     * 内存中最多保留的已结束任务个数，超出时删除最早结束的任务
+     */
+    private int maxFinishedTasks = 100;
+
+    public int getScanCount() {
+        return scanCount;
+    }
+
+    public void setScanCount(int scanCount) {
+        this.scanCount = scanCount;
+    }
+
+    public int getInitialBatchSize() {
+        return initialBatchSize;
+    }
+
+    public void setInitialBatchSize(int initialBatchSize) {
+        this.initialBatchSize = initialBatchSize;
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public void setMinBatchSize(int minBatchSize) {
+        this.minBatchSize = minBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getLatencyBudget() {
+        return latencyBudget;
+    }
+
+    public void setLatencyBudget(Duration latencyBudget) {
+        this.latencyBudget = latencyBudget;
+    }
+
+    public Duration getMaxPause() {
+        return maxPause;
+    }
+
+    public void setMaxPause(Duration maxPause) {
+        this.maxPause = maxPause;
+    }
+
+    public int getMaxFinishedTasks() {
+        return maxFinishedTasks;
+    }
+
+    public void setMaxFinishedTasks(int maxFinishedTasks) {
+        this.maxFinishedTasks = maxFinishedTasks;
+    }
+}
@@ -0,0 +1,262 @@
+package com.wmx.wmxredis.delete;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wmx.wmxredis.jedis.JedisKeyScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 不阻塞 Redis 的批量删除
+ * <p>
+ * 1、DEL 删除大 hash、大 set 时需要在服务端同步释放所有元素，会长时间阻塞其它命令；UNLINK 只把 key 从 keyspace 中摘除，
+ * * 内存由后台线程释放。Redis 4.0 之前不支持 UNLINK，第一次返回 unknown command 后自动改用 DEL。
+ * 2、按模式删除时通过 SCAN 遍历，不使用 KEYS；按列表删除时同样分批执行，每批 key 个数由 {@link LatencyThrottle} 根据延迟预算动态调整。
+ * 3、删除任务在单个后台线程中依次执行，提交后立即返回任务，通过 {@link #getTask(String)} 查询进度，可以随时取消。
+ * 4、清空数据库使用 FLUSHDB ASYNC / FLUSHALL ASYNC，Redis 4.0 之前不支持 ASYNC 选项，此时改用同步清空。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 18:30
+ */
+public class BulkDeleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkDeleteService.class);
+
+    private static final byte[] ASYNC = "ASYNC".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JedisKeyScanner jedisKeyScanner;
+    private final BulkDeleteProperties properties;
+    private final ExecutorService executor;
+    private final Map<String, BulkDeleteTask> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * 服务端是否支持 UNLINK，第一次返回 unknown command 后改为 false
+     */
+    private volatile boolean unlinkSupported = true;
+
+    public BulkDeleteService(StringRedisTemplate stringRedisTemplate, JedisKeyScanner jedisKeyScanner, BulkDeleteProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jedisKeyScanner = jedisKeyScanner;
+        this.properties = properties;
+        // 单线程依次执行，多个删除任务同时执行会成倍增加服务端压力；排队的任务有上限，避免无限堆积
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(100),
+                new ThreadFactoryBuilder().setNameFormat("redis-bulk-delete-%d").setDaemon(true).build());
+    }
+
+    /**
+     * 提交按模式删除的后台任务
+     *
+     * @param pattern ：匹配模式，如 user:*，不能为空或者 *，清空整个库请使用 {@link #flushDb()}
+     * @return 任务，可以通过任务 id 查询进度
+     */
+    public BulkDeleteTask deleteByPattern(String pattern) {
+        if (pattern == null || pattern.trim().isEmpty() || "*".equals(pattern.trim())) {
+            throw new IllegalArgumentException("删除的匹配模式不能为空或者 *，清空整个库请使用 FLUSHDB");
+        }
+        BulkDeleteTask task = newTask("pattern=" + pattern);
+        return submit(task, () -> jedisKeyScanner.iterator(pattern, properties.getScanCount(), null));
+    }
+
+    /**
+     * 提交按列表删除的后台任务
+     *
+     * @param keys ：需要删除的 key
+     * @return 任务，可以通过任务 id 查询进度
+     */
+    public BulkDeleteTask deleteKeys(Collection<String> keys) {
+        List<String> copy = new ArrayList<>(keys);
+        BulkDeleteTask task = newTask("keys=" + copy.size());
+        return submit(task, copy::iterator);
+    }
+
+    /**
+     * 异步清空当前数据库：FLUSHDB ASYNC
+     *
+     * @return 状态码 OK
+     */
+    public String flushDb() {
+        return flush("FLUSHDB");
+    }
+
+    /**
+     * 异步清空所有数据库：FLUSHALL ASYNC
+     *
+     * @return 状态码 OK
+     */
+    public String flushAll() {
+        return flush("FLUSHALL");
+    }
+
+    /**
+     * 查询任务进度
+     *
+     * @param id ：任务 id
+     * @return 任务不存在时返回 null
+     */
+    public BulkDeleteTask getTask(String id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * 所有保留在内存中的任务
+     *
+     * @return
+     */
+    public Collection<BulkDeleteTask> getTasks() {
+        return Collections.unmodifiableCollection(tasks.values());
+    }
+
+    /**
+     * 取消任务，正在执行的批次完成后停止，已经删除的 key 不会恢复
+     *
+     * @param id ：任务 id
+     * @return 任务不存在时返回 null
+     */
+    public BulkDeleteTask cancel(String id) {
+        BulkDeleteTask task = tasks.get(id);
+        if (task != null) {
+            task.cancel();
+        }
+        return task;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private BulkDeleteTask newTask(String description) {
+        evictFinishedTasks();
+        BulkDeleteTask task = new BulkDeleteTask(UUID.randomUUID().toString().replace("-", ""), description);
+        tasks.put(task.getId(), task);
+        return task;
+    }
+
+    private BulkDeleteTask submit(BulkDeleteTask task, Callable<Iterator<String>> keys) {
+        try {
+            executor.execute(() -> run(task, keys));
+        } catch (RejectedExecutionException e) {
+            tasks.remove(task.getId());
+            throw new IllegalStateException("等待执行的删除任务过多，请稍后再试", e);
+        }
+        return task;
+    }
+
+    private void run(BulkDeleteTask task, Callable<Iterator<String>> keys) {
+        if (task.isCancelRequested()) {
+            task.finish(BulkDeleteTask.Status.CANCELLED, null);
+            return;
+        }
+        task.running();
+        LatencyThrottle throttle = new LatencyThrottle(properties.getLatencyBudget().toNanos(), properties.getInitialBatchSize(),
+                properties.getMinBatchSize(), properties.getMaxBatchSize(), properties.getMaxPause().toMillis());
+        try {
+            Iterator<String> iterator = keys.call();
+            List<String> batch = new ArrayList<>(throttle.getBatchSize());
+            while (iterator.hasNext()) {
+                if (task.isCancelRequested()) {
+                    task.finish(BulkDeleteTask.Status.CANCELLED, null);
+                    return;
+                }
+                batch.add(iterator.next());
+                if (batch.size() >= throttle.getBatchSize()) {
+                    deleteBatch(task, batch, throttle);
+                }
+            }
+            if (!batch.isEmpty()) {
+                deleteBatch(task, batch, throttle);
+            }
+            task.finish(BulkDeleteTask.Status.DONE, null);
+            log.info("批量删除任务 {}({}) 完成，遍历 {} 个 key，删除 {} 个", task.getId(), task.getDescription(), task.getScanned(), task.getDeleted());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.finish(BulkDeleteTask.Status.CANCELLED, "删除线程被中断");
+        } catch (Exception e) {
+            log.error("批量删除任务 " + task.getId() + "(" + task.getDescription() + ") 失败", e);
+            task.finish(BulkDeleteTask.Status.FAILED, e.getMessage());
+        }
+    }
+
+    private void deleteBatch(BulkDeleteTask task, List<String> batch, LatencyThrottle throttle) throws InterruptedException {
+        if (throttle.getPauseMillis() > 0) {
+            TimeUnit.MILLISECONDS.sleep(throttle.getPauseMillis());
+        }
+        byte[][] rawKeys = new byte[batch.size()][];
+        for (int i = 0; i < batch.size(); i++) {
+            rawKeys[i] = batch.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        long start = System.nanoTime();
+        Long deleted = unlink(rawKeys);
+        throttle.record(System.nanoTime() - start);
+        task.batchDone(batch.size(), deleted == null ? 0 : deleted, throttle);
+        batch.clear();
+    }
+
+    private Long unlink(byte[][] rawKeys) {
+        if (unlinkSupported) {
+            try {
+                return stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.unlink(rawKeys));
+            } catch (DataAccessException e) {
+                if (!isUnsupported(e)) {
+                    throw e;
+                }
+                log.warn("Redis 服务端不支持 UNLINK，改用 DEL 删除：{}", e.getMessage());
+                unlinkSupported = false;
+            }
+        }
+        return stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.del(rawKeys));
+    }
+
+    private String flush(String command) {
+        try {
+            Object status = stringRedisTemplate.execute((RedisCallback<Object>) connection -> connection.execute(command, ASYNC));
+            return status instanceof byte[] ? new String((byte[]) status, StandardCharsets.UTF_8) : String.valueOf(status);
+        } catch (DataAccessException e) {
+            if (!isUnsupported(e)) {
+                throw e;
+            }
+            log.warn("Redis 服务端不支持 {} ASYNC，改用同步清空：{}", command, e.getMessage());
+        }
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            if ("FLUSHALL".equals(command)) {
+                connection.flushAll();
+            } else {
+                connection.flushDb();
+            }
+            return null;
+        });
+        return "OK";
+    }
+
+    /**
+     * 服务端版本过低，不支持命令或者选项
+     */
+    private static boolean isUnsupported(DataAccessException e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).toLowerCase(Locale.ROOT);
+        return message.contains("unknown command") || message.contains("syntax error") || message.contains("wrong number of arguments");
+    }
+
+    private void evictFinishedTasks() {
+        List<BulkDeleteTask> finished = new ArrayList<>();
+        for (BulkDeleteTask task : tasks.values()) {
+            if (task.isFinished()) {
+                finished.add(task);
+            }
+        }
+        if (finished.size() < properties.getMaxFinishedTasks()) {
+            return;
+        }
+        finished.sort(Comparator.comparing(BulkDeleteTask::getEndTime));
+        for (int i = 0; i <= finished.size() - properties.getMaxFinishedTasks(); i++) {
+            tasks.remove(finished.get(i).getId());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.wmx.wmxredis.delete;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 后台批量删除任务的进度，由删除线程更新，查询接口读取
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 18:20
+ */
+public class BulkDeleteTask {
+
+    public enum Status {
+        /**
+         * 等待执行、执行中、执行完成、执行失败、已取消
+         */
+        PENDING, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    private final String id;
+    /**
+     * 任务描述，如 pattern=user:*、keys=3
+     */
+    private final String description;
+    private final Date createTime = new Date();
+    private volatile Date endTime;
+    private volatile Status status = Status.PENDING;
+    private volatile boolean cancelRequested;
+    private volatile String errorMessage;
+    /**
+     * 已经遍历(SCAN 返回或者用户传入)的 key 个数
+     */
+    private final AtomicLong scanned = new AtomicLong();
+    /**
+     * 实际删除的 key 个数，不存在的 key 不计入
+     */
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile int batchSize;
+    private volatile long pauseMillis;
+    private volatile double p99Millis;
+
+    BulkDeleteTask(String id, String description) {
+        this.id = id;
+        this.description = description;
+    }
+
+    void running() {
+        status = Status.RUNNING;
+    }
+
+    void finish(Status status, String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.endTime = new Date();
+        this.status = status;
+    }
+
+    void batchDone(int scanned, long deleted, LatencyThrottle throttle) {
+        this.scanned.addAndGet(scanned);
+        this.deleted.addAndGet(deleted);
+        this.batches.incrementAndGet();
+        this.batchSize = throttle.getBatchSize();
+        this.pauseMillis = throttle.getPauseMillis();
+        this.p99Millis = throttle.p99() / 1_000_000.0;
+    }
+
+    void cancel() {
+        cancelRequested = true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public Date getEndTime() {
+        return endTime;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public long getScanned() {
+        return scanned.get();
+    }
+
+    public long getDeleted() {
+        return deleted.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+}
@@ -0,0 +1,111 @@
+package com.wmx.wmxredis.delete;
+
+import java.util.Arrays;
+
+/**
+ * 基于延迟预算的 AIMD(加性增、乘性减) 限速器，控制批量删除的批次大小与批次之间的暂停时间
+ * <p>
+ * 1、每个批次执行完成后调用 {@link #record(long)} 记录耗时，取最近 {@link #WINDOW} 个批次耗时的 p99 与延迟预算比较。
+ * 2、p99 未超出预算时，批次大小每次加 {@link #INCREASE_STEP}，暂停时间减半，删除速度缓慢提升。
+ * 3、p99 超出预算时，批次大小减半，暂停时间加倍，迅速给其它客户端的命令让路，同时清空窗口重新统计。
+ * 4、UNLINK 在服务端只是把 key 从 keyspace 中摘除，批次耗时主要取决于批次大小与服务端当前负载，可以近似反映其它命令的排队延迟。
+ * 5、非线程安全，一个删除任务使用一个实例。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 18:10
+ */
+public class LatencyThrottle {
+
+    /**
+     * 计算 p99 的滑动窗口大小
+     */
+    static final int WINDOW = 100;
+    /**
+     * 未超出预算时，每次增加的批次大小
+     */
+    static final int INCREASE_STEP = 10;
+    /**
+     * 超出预算后第一次暂停的时间(毫秒)
+     */
+    private static final long INITIAL_PAUSE_MILLIS = 10;
+
+    private final long budgetNanos;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long maxPauseMillis;
+
+    private final long[] samples = new long[WINDOW];
+    private int sampleCount;
+    private int sampleIndex;
+
+    private int batchSize;
+    private long pauseMillis;
+
+    public LatencyThrottle(long budgetNanos, int initialBatchSize, int minBatchSize, int maxBatchSize, long maxPauseMillis) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("批次大小范围不合法：[" + minBatchSize + "," + maxBatchSize + "]");
+        }
+        this.budgetNanos = budgetNanos;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPauseMillis = maxPauseMillis;
+        this.batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, initialBatchSize));
+    }
+
+    /**
+     * 记录一个批次的耗时，并调整下一批次的大小与暂停时间
+     *
+     * @param elapsedNanos ：批次耗时(纳秒)
+     */
+    public void record(long elapsedNanos) {
+        samples[sampleIndex] = elapsedNanos;
+        sampleIndex = (sampleIndex + 1) % WINDOW;
+        if (sampleCount < WINDOW) {
+            sampleCount++;
+        }
+        if (p99() > budgetNanos) {
+            batchSize = Math.max(minBatchSize, batchSize / 2);
+            pauseMillis = Math.min(maxPauseMillis, pauseMillis == 0 ? INITIAL_PAUSE_MILLIS : pauseMillis * 2);
+            // 清空窗口，否则同一个慢批次会在之后的每次判断中都被计入，导致批次大小连续减半
+            sampleCount = 0;
+            sampleIndex = 0;
+        } else {
+            batchSize = Math.min(maxBatchSize, batchSize + INCREASE_STEP);
+            pauseMillis = pauseMillis / 2;
+        }
+    }
+
+    /**
+     * 最近一个窗口内批次耗时的 p99(纳秒)，还没有记录时返回 0
+     *
+     * @return
+     */
+    public long p99() {
+        if (sampleCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(sampleCount * 0.99) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * 下一批次的 key 个数
+     *
+     * @return
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 下一批次执行前需要暂停的时间(毫秒)，为 0 时不暂停
+     *
+     * @return
+     */
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+}
@@ -0,0 +1,87 @@
+package com.wmx.wmxredis.hotkey;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的 Count-Min Sketch：固定内存估算每个 key 的出现次数，只会高估不会低估
+ * <p>
+ * 1、depth 行、每行 width 个计数器，每个 key 在每一行通过不同的哈希选中一个计数器，估算值取各行计数器的最小值。
+ * 2、计数器是 AtomicLongArray，增加计数只需要 depth 次 CAS，不加锁。
+ * 3、{@link #halve()} 把所有计数器减半，用于按时间衰减，与并发的增加计数之间可能丢失少量计数，对估算影响可以忽略。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 13:05
+ */
+class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width ：每行计数器个数，向上取整为 2 的幂
+     * @param depth ：行数
+     */
+    CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width、depth 必须大于 0：" + width + "、" + depth);
+        }
+        int size = Integer.highestOneBit(width - 1 | 1) << 1;
+        this.depth = depth;
+        this.mask = size - 1;
+        this.counters = new AtomicLongArray(size * depth);
+    }
+
+    /**
+     * 增加一次计数
+     *
+     * @param key
+     * @return 增加后的估算次数
+     */
+    long add(String key) {
+        long hash = Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong();
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counters.incrementAndGet(index(i, h1 + i * h2)));
+        }
+        return min;
+    }
+
+    /**
+     * 估算次数
+     *
+     * @param key
+     * @return
+     */
+    long estimate(String key) {
+        long hash = Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong();
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counters.get(index(i, h1 + i * h2)));
+        }
+        return min;
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            if (counters.get(i) > 0) {
+                counters.updateAndGet(i, count -> count >>> 1);
+            }
+        }
+    }
+
+    private int index(int row, int hash) {
+        return row * (mask + 1) + (hash & mask);
+    }
+}
@@ -0,0 +1,30 @@
+package com.wmx.wmxredis.hotkey;
+
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 热点 key 探测配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link HotKeyProperties} 配置类交由 Spring 容器管理
+ * 2、探测器设置到 redisConnectionFactory 上，从它借出的 Jedis 执行的命令都会记录访问的 key；读副本的连接工厂见 ReadRoutingConfig。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 13:20
+ */
+@Configuration
+@EnableConfigurationProperties(HotKeyProperties.class)
+public class HotKeyConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public HotKeyDetector hotKeyDetector(HotKeyProperties hotKeyProperties, MeterRegistry meterRegistry,
+                                         InstrumentedJedisConnectionFactory redisConnectionFactory) {
+        HotKeyDetector hotKeyDetector = new HotKeyDetector(hotKeyProperties, meterRegistry);
+        redisConnectionFactory.setHotKeyDetector(hotKeyDetector);
+        return hotKeyDetector;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wmx.wmxredis.hotkey;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.util.Map;
+
+/**
+ * 查看本实例的热点 key
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 13:25
+ */
+@RestController
+public class HotKeyController {
+
+    @Resource
+    private HotKeyDetector hotKeyDetector;
+
+    /**
+     * 访问次数最多的 key 及估算次数：http://localhost:8080/redis/hotKeys?limit=20
+     *
+     * @param limit ：最多返回的个数，不超过 redis.hot-key.top-k
+     * @return
+     */
+    @GetMapping("redis/hotKeys")
+    public Map<String, Long> hotKeys(@RequestParam(defaultValue = "20") int limit) {
+        return hotKeyDetector.topKeys(limit);
+    }
+}
@@ -0,0 +1,168 @@
+package com.wmx.wmxredis.hotkey;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * 本地热点 key 探测：采样统计每个 key 的访问次数(Count-Min Sketch)，维护访问最多的 top-K
+ * <p>
+ * 1、数据来源：{@link com.wmx.wmxredis.metrics.JedisCommandInterceptor} 记录 RedisTemplate 与 jedis 包中原生 Jedis 执行的单 key 命令
+ * * 与 MGET，{@link com.wmx.wmxredis.cache.RedisNearCache} 记录本地缓存命中的读取(命中时不会访问 Redis)。
+ * 2、按 sample-rate 采样后写入 Count-Min Sketch，整个过程不加锁；估算次数 = 计数 / sample-rate。
+ * 3、估算次数达到 threshold / 2 的 key 进入候选集合，每个 window 计数减半并裁剪到 top-k 个，所以次数近似最近一个 window 的访问量。
+ * 4、估算次数达到 threshold 的 key 是热点 key({@link #isHot(String)})，读取时晋升到本地缓存中单独的热点缓存(redis.near-cache.hot-key-ttl)。
+ * 5、只统计本实例的访问，多个实例的热点 key 需要分别查看 /redis/hotKeys。
+ * 6、指标：redis.hot-key.count(当前热点 key 个数)、redis.hot-key.promotions(成为热点 key 的次数)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 13:10
+ */
+public class HotKeyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyDetector.class);
+
+    private final HotKeyProperties properties;
+    private final CountMinSketch sketch;
+
+    /**
+     * 候选热点 key 与估算次数
+     */
+    private final ConcurrentMap<String, Long> candidates = new ConcurrentHashMap<>();
+    private final Counter promotions;
+    private final ScheduledExecutorService scheduler;
+
+    public HotKeyDetector(HotKeyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.sketch = new CountMinSketch(properties.getWidth(), properties.getDepth());
+        this.promotions = Counter.builder("redis.hot-key.promotions").description("成为热点 key 的次数").register(meterRegistry);
+        Gauge.builder("redis.hot-key.count", this, detector -> detector.hotKeys().size())
+                .description("当前热点 key 个数").register(meterRegistry);
+        if (properties.isEnabled()) {
+            long window = Math.max(properties.getWindow().toMillis(), 10);
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("redis-hot-key-%d").setDaemon(true).build());
+            this.scheduler.scheduleWithFixedDelay(this::decay, window, window, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param key ：String 或者 byte[](按 UTF-8 转为字符串)，其它类型忽略
+     */
+    public void record(Object key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        String name;
+        if (key instanceof String) {
+            name = (String) key;
+        } else if (key instanceof byte[]) {
+            name = new String((byte[]) key, StandardCharsets.UTF_8);
+        } else {
+            return;
+        }
+        long estimate = scale(sketch.add(name));
+        long threshold = properties.getThreshold();
+        if (estimate < threshold / 2) {
+            return;
+        }
+        Long previous = candidates.put(name, estimate);
+        if (estimate >= threshold && (previous == null || previous < threshold)) {
+            promotions.increment();
+            log.info("发现热点 key：{}，估算访问次数：{}", name, estimate);
+        }
+    }
+
+    /**
+     * 是否是热点 key
+     *
+     * @param key
+     * @return
+     */
+    public boolean isHot(String key) {
+        Long estimate = candidates.get(key);
+        return estimate != null && estimate >= properties.getThreshold();
+    }
+
+    /**
+     * 当前的热点 key
+     *
+     * @return
+     */
+    public Set<String> hotKeys() {
+        long threshold = properties.getThreshold();
+        return candidates.entrySet().stream().filter(entry -> entry.getValue() >= threshold)
+                .map(Map.Entry::getKey).collect(Collectors.toSet());
+    }
+
+    /**
+     * 访问次数最多的 key，按估算次数从大到小排序
+     *
+     * @param limit ：最多返回的个数
+     * @return key 与估算次数
+     */
+    public Map<String, Long> topKeys(int limit) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        candidates.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(Math.min(limit, properties.getTopK()))
+                .forEachOrdered(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    /**
+     * 计数减半，重新估算候选 key，只保留 top-k 个
+     */
+    void decay() {
+        try {
+            sketch.halve();
+            long minimum = properties.getThreshold() / 2;
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(candidates.size());
+            for (String key : candidates.keySet()) {
+                long estimate = scale(sketch.estimate(key));
+                if (estimate < minimum || estimate == 0) {
+                    candidates.remove(key);
+                } else {
+                    candidates.put(key, estimate);
+                    entries.add(new AbstractMap.SimpleEntry<>(key, estimate));
+                }
+            }
+            if (entries.size() > properties.getTopK()) {
+                entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+                for (Map.Entry<String, Long> entry : entries.subList(properties.getTopK(), entries.size())) {
+                    candidates.remove(entry.getKey());
+                }
+            }
+        } catch (Exception e) {
+            log.error("热点 key 计数衰减失败：{}", e.getMessage(), e);
+        }
+    }
+
+    private long scale(long count) {
+        double sampleRate = properties.getSampleRate();
+        return sampleRate < 1 ? (long) (count / sampleRate) : count;
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.wmx.wmxredis.hotkey;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 热点 key 探测配置
+ * <pre>
+ * redis:
+ *   hot-key:
+ *     enabled: true
+ *     sample-rate: 0.1
+ *     threshold: 500
+ *     window: 1s
+ *     top-k: 100
+ *     width: 4096
+ *     depth: 4
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 13:00
+ */
+@ConfigurationProperties(prefix = "redis.hot-key")
+public class HotKeyProperties {
+
+    /**
+     * 是否统计 key 的访问次数
+     */
+    private boolean enabled = true;
+    /**
+     * 采样比例，(0, 1]，只统计这个比例的访问，估算次数时按比例放大
+     */
+    private double sampleRate = 0.1;
+    /**
+     * 估算的访问次数达到该值的 key 视为热点 key，每个 window 计数减半，相当于最近一个 window 左右的访问次数
+     */
+    private long threshold = 500;
+    /**
+     * 计数衰减(减半)的间隔
+     */
+    private Duration window = Duration.ofSeconds(1);
+    /**
+     * 保留访问次数最多的 key 的个数
+     */
+    private int topK = 100;
+    /**
+     * Count-Min Sketch 每行的计数器个数，会向上取整为 2 的幂，越大误差越小
+     */
+    private int width = 4096;
+    /**
+     * Count-Min Sketch 的行数(哈希函数个数)，越大高估的概率越小
+     */
+    private int depth = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+}
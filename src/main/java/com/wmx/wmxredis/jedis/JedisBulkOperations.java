@@ -0,0 +1,230 @@
+package com.wmx.wmxredis.jedis;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+
+/**
+ * 任意数量 key 的批量读写：按 key 数与字节数切分为多个 MGET/MSET，分块通过管道发送，可以在多个连接上并行，结果按原顺序组装
+ * <pre>
+ *     List&lt;String&gt; values = jedisBulkOperations.mget(keys);
+ *     jedisBulkOperations.mset(keyValues);
+ * </pre>
+ * 1、切分：每个分块最多 max-keys-per-chunk 个 key、max-bytes-per-chunk 字节(key + value，UTF-8)，
+ * * 避免一次请求生成几 MB 的命令，Redis 单线程解析、执行大命令期间其它客户端的命令都在排队。
+ * 2、发送：分块平均分给 min(parallelism, 分块数) 个连接，每个连接上的分块通过管道一次发送；
+ * * 只有一个分块(小请求)时直接在调用线程中执行，一次网络往返。
+ * 3、并行的分块在共用的 parallelism 个线程中执行，调用线程等待时不持有连接，所有请求合计最多同时占用 parallelism 个连接，
+ * * 不会出现 {@link JedisExecutor} 中说明的嵌套借用连接互相等待的问题。
+ * 4、MSET 只在一个分块内是原子的，分块之间没有原子性，需要整体原子时使用 Lua 脚本或事务(且数据量要小)。
+ * 5、指标：redis.jedis.bulk.chunks(每次请求的分块数，标签 command=MGET/MSET)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 18:10
+ */
+public class JedisBulkOperations {
+
+    private final JedisExecutor jedisExecutor;
+    private final JedisBulkProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService lanes;
+
+    public JedisBulkOperations(JedisExecutor jedisExecutor, JedisBulkProperties properties, MeterRegistry meterRegistry) {
+        this.jedisExecutor = jedisExecutor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.lanes = properties.getParallelism() > 1 ? Executors.newFixedThreadPool(properties.getParallelism(),
+                new ThreadFactoryBuilder().setNameFormat("redis-jedis-bulk-%d").setDaemon(true).build()) : null;
+    }
+
+    /**
+     * 批量读取，相当于不限数量的 MGET
+     *
+     * @param keys
+     * @return 与 keys 一一对应的值，不存在的 key 为 null
+     */
+    public List<String> mget(List<String> keys) {
+        String[] values = new String[keys.size()];
+        List<Chunk> chunks = chunk(keys, null);
+        execute("MGET", chunks, (pipeline, chunk) -> {
+            Response<List<String>> response = pipeline.mget(chunk.args);
+            return () -> {
+                List<String> chunkValues = response.get();
+                for (int i = 0; i < chunkValues.size(); i++) {
+                    values[chunk.from + i] = chunkValues.get(i);
+                }
+            };
+        });
+        return Arrays.asList(values);
+    }
+
+    /**
+     * 批量读取
+     *
+     * @param keys
+     * @return key 与值，不存在的 key 不会放入结果中，顺序与参数一致
+     */
+    public Map<String, String> getAll(Collection<String> keys) {
+        List<String> keyList = new ArrayList<>(keys);
+        List<String> values = mget(keyList);
+        Map<String, String> result = new LinkedHashMap<>(keyList.size() * 4 / 3 + 1);
+        for (int i = 0; i < keyList.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(keyList.get(i), values.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量写入，相当于不限数量的 MSET，分块之间不是原子的
+     *
+     * @param keyValues ：key -> value
+     */
+    public void mset(Map<String, String> keyValues) {
+        List<String> keys = new ArrayList<>(keyValues.keySet());
+        List<String> values = new ArrayList<>(keys.size());
+        keys.forEach(key -> values.add(keyValues.get(key)));
+        List<Chunk> chunks = chunk(keys, values);
+        execute("MSET", chunks, (pipeline, chunk) -> {
+            Response<String> response = pipeline.mset(chunk.args);
+            // 读取回复，命令出错时抛出异常
+            return response::get;
+        });
+    }
+
+    /**
+     * 按 key 数与字节数切分，values 为 null 时为 MGET 的参数，否则为 MSET 的 key value 交替的参数
+     */
+    List<Chunk> chunk(List<String> keys, List<String> values) {
+        int maxKeys = Math.max(properties.getMaxKeysPerChunk(), 1);
+        long maxBytes = Math.max(properties.getMaxBytesPerChunk(), 1);
+        List<Chunk> chunks = new ArrayList<>();
+        int from = 0;
+        long bytes = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            long size = utf8Length(keys.get(i)) + (values == null ? 0 : utf8Length(values.get(i)));
+            if (i > from && (i - from >= maxKeys || bytes + size > maxBytes)) {
+                chunks.add(new Chunk(keys, values, from, i));
+                from = i;
+                bytes = 0;
+            }
+            bytes += size;
+        }
+        if (from < keys.size()) {
+            chunks.add(new Chunk(keys, values, from, keys.size()));
+        }
+        return chunks;
+    }
+
+    /**
+     * 把分块平均分给多个连接，每个连接上的分块通过一个管道发送，sync 之后依次调用 send 返回的回调读取结果
+     */
+    private void execute(String command, List<Chunk> chunks, BiFunction<Pipeline, Chunk, Runnable> send) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        DistributionSummary.builder("redis.jedis.bulk.chunks").description("批量读写每次请求的分块数")
+                .tag("command", command).register(meterRegistry).record(chunks.size());
+        String operation = "JedisBulkOperations." + command;
+        int laneCount = lanes == null ? 1 : Math.min(properties.getParallelism(), chunks.size());
+        if (laneCount == 1) {
+            pipelined(operation, chunks, send);
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(laneCount);
+        for (int lane = 0; lane < laneCount; lane++) {
+            List<Chunk> laneChunks = chunks.subList(lane * chunks.size() / laneCount, (lane + 1) * chunks.size() / laneCount);
+            futures.add(lanes.submit(() -> pipelined(operation, laneChunks, send)));
+        }
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        try {
+            for (Future<?> future : futures) {
+                future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException(operation + " 超过 " + properties.getTimeout().toMillis() + " ms 没有完成", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException(operation + " 等待时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void pipelined(String operation, List<Chunk> chunks, BiFunction<Pipeline, Chunk, Runnable> send) {
+        jedisExecutor.run(operation, jedis -> {
+            Pipeline pipeline = jedis.pipelined();
+            List<Runnable> readers = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                readers.add(send.apply(pipeline, chunk));
+            }
+            pipeline.sync();
+            readers.forEach(Runnable::run);
+        });
+    }
+
+    /**
+     * 字符串按 UTF-8 编码后的字节数，不创建字节数组
+     */
+    static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    public void shutdown() {
+        if (lanes != null) {
+            lanes.shutdownNow();
+        }
+    }
+
+    /**
+     * 一个分块：keys 中 [from, to) 的 key，以及对应命令的参数
+     */
+    static final class Chunk {
+        final int from;
+        final int to;
+        final String[] args;
+
+        Chunk(List<String> keys, List<String> values, int from, int to) {
+            this.from = from;
+            this.to = to;
+            if (values == null) {
+                this.args = keys.subList(from, to).toArray(new String[0]);
+            } else {
+                this.args = new String[(to - from) * 2];
+                for (int i = from; i < to; i++) {
+                    args[(i - from) * 2] = keys.get(i);
+                    args[(i - from) * 2 + 1] = values.get(i);
+                }
+            }
+        }
+    }
+}
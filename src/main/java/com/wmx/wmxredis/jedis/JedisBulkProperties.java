@@ -0,0 +1,73 @@
+package com.wmx.wmxredis.jedis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@link JedisBulkOperations} 配置
+ * <pre>
+ * redis:
+ *   jedis-bulk:
+ *     max-keys-per-chunk: 500
+ *     max-bytes-per-chunk: 262144
+ *     parallelism: 4
+ *     timeout: 10s
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 18:00
+ */
+@ConfigurationProperties(prefix = "redis.jedis-bulk")
+public class JedisBulkProperties {
+
+    /**
+     * 每个 MGET/MSET 命令最多包含的 key 数
+     */
+    private int maxKeysPerChunk = 500;
+    /**
+     * 每个 MGET/MSET 命令的 key 与 value 最多的字节数(UTF-8)，单个超过该大小的键值对单独一个命令
+     */
+    private int maxBytesPerChunk = 256 * 1024;
+    /**
+     * 最多同时使用的连接数(所有请求共用)，为 1 时所有分块在调用线程中通过一个管道发送
+     */
+    private int parallelism = 4;
+    /**
+     * 等待并行分块完成的最长时间
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    public int getMaxKeysPerChunk() {
+        return maxKeysPerChunk;
+    }
+
+    public void setMaxKeysPerChunk(int maxKeysPerChunk) {
+        this.maxKeysPerChunk = maxKeysPerChunk;
+    }
+
+    public int getMaxBytesPerChunk() {
+        return maxBytesPerChunk;
+    }
+
+    public void setMaxBytesPerChunk(int maxBytesPerChunk) {
+        this.maxBytesPerChunk = maxBytesPerChunk;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -3,18 +3,16 @@ package com.wmx.wmxredis.jedis;
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.jedis.JedisConnection;
-import org.springframework.data.redis.core.RedisConnectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import redis.clients.jedis.Jedis;
 
 import javax.annotation.Resource;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Jedis 客户端 API 练习——基础通用命令
@@ -29,16 +27,22 @@ public class JedisCommonController {
     private static final Logger LOG = LoggerFactory.getLogger(JedisStrController.class);
 
     /**
-     * 线程安全的 Redis 连接工厂，{@link RedisAutoConfiguration} 启动已经添加到了容器中，可以直接获取使用
-     * RedisConnectionFactory RedisTemplate.getConnectionFactory(): 也可以获取 RedisConnectionFactory 连接工厂
+     * 回调方式使用原生 Jedis，{@link JedisExecutor} 负责借用、归还连接与泄漏检测
      */
     @Resource
-    private RedisConnectionFactory redisConnectionFactory;
+    private JedisExecutor jedisExecutor;
+
+    /**
+     * 基于 SCAN 游标的 key 遍历，代替 KEYS *
+     */
+    @Resource
+    private JedisKeyScanner jedisKeyScanner;
 
     /**
      * http://localhost:8080/jedis/common
      * <p>
      * Set<String> keys(final String pattern)：返回与全局模式匹配的所有key，如 *、foo*、*foo，'*' 表示任意字符
+     * * KEYS 会一次性遍历整个 keyspace 并阻塞服务端，生产环境禁止使用，改用 {@link JedisKeyScanner} 基于 SCAN 分页遍历
      * <p>
      * 删除指定的 key, 如果给定的 key 不存在，则不会执行任何操作，返回已删除的键数
      * Long del(final String key)
@@ -62,71 +66,83 @@ public class JedisCommonController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            /**
-             * RedisConnectionFactory getRequiredConnectionFactory()：获取 ConnectionFactory 连接工厂，未设置时，抛异常.
-             * RedisConnection getConnection(RedisConnectionFactory factory): 从工厂获取 Redis 连接
-             * * 1、返回绑定到当前线程的任何现有对应连接，例如在使用事务管理器时，否则将始终创建新连接。
-             * * 2、factory：用于创建连接的参数工厂连接工厂
-             * * 3、返回没有事务管理的活动 Redis 连接
-             * RedisConnection getConnection(RedisConnectionFactory factory, boolean enableTranactionSupport)：从工厂获取 Redis 连接
-             * * 1、enableTranactionSupport 如果为 true，则返回带有事务管理的活动 Redis 连接
-             */
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            jedis.setex("jedisHi", 60, "哈喽！");
-
-            // keys中传入的可以用通配符
-            Set<String> keys = jedis.keys("*");
-            System.out.println("keys=" + keys);
-
-            // 返回给定key的过期时间，如果是-1则表示永远有效
-            Long sname = jedis.ttl("jedisHi");
-            System.out.println("sname=" + sname);
-
-            String rename = jedis.rename("jedisHi", "jedisHi2");
-            System.out.println("rename=" + rename);
-
-            //String select(final int index): 选择指定索引的数据库，默认情况下，将自动选择每个新的客户端连接到 DB 0
-            //String select = jedis.select(3);
-            //System.out.println("select=" + select);
-
-            //Long dbSize():返回当前选定数据库中 key 的个数。
-            Long dbSize = jedis.dbSize();
-            System.out.println("dbSize=" + dbSize);
-
-            //String randomKey()：从当前选定的数据库返回随机选择的 key
-            System.out.println(jedis.randomKey());
-
-            //删除当前数据库中所有key。此方法不会失败，慎用
-            jedis.flushDB();
-            //删除所有数据库中的所有key。此方法不会失败，更加慎用
-            jedis.flushAll();
-
-            //Long incr(final String key): 将key上存储的数字增加1,如果key不存在，则执行增量操作前自动新建并设置为0。
-            Long wang = jedis.incr("wang");
-            System.out.println(wang);
-            System.out.println(jedis.incr("wang"));
-            System.out.println(jedis.incr("wang"));
-
-
-            jedis.set("code_1", "20009");
-            int delKeyByScript = delKeyByScript("code_1", "20009");
-            System.out.println("delKeyByScript=" + delKeyByScript);
+            jedisExecutor.run("JedisCommonController.common", jedis -> {
+                jedis.setex("jedisHi", 60, "哈喽！");
+
+                // 匹配模式中可以使用通配符，SCAN 分页遍历不会阻塞服务端，这里只取前 100 个
+                // 回调中已经持有连接，在同一个连接上遍历，不能再从连接池借用第二个连接
+                List<String> keys = jedisKeyScanner.stream(jedis, "*", JedisKeyScanner.DEFAULT_COUNT, null)
+                        .limit(100)
+                        .collect(Collectors.toList());
+                System.out.println("keys=" + keys);
+
+                // 返回给定key的过期时间，如果是-1则表示永远有效
+                Long sname = jedis.ttl("jedisHi");
+                System.out.println("sname=" + sname);
+
+                String rename = jedis.rename("jedisHi", "jedisHi2");
+                System.out.println("rename=" + rename);
+
+                //String select(final int index): 选择指定索引的数据库，默认情况下，将自动选择每个新的客户端连接到 DB 0
+                //String select = jedis.select(3);
+                //System.out.println("select=" + select);
+
+                //Long dbSize():返回当前选定数据库中 key 的个数。
+                Long dbSize = jedis.dbSize();
+                System.out.println("dbSize=" + dbSize);
+
+                //String randomKey()：从当前选定的数据库返回随机选择的 key
+                System.out.println(jedis.randomKey());
+
+                //删除当前数据库中所有key。此方法不会失败，慎用
+                jedis.flushDB();
+                //删除所有数据库中的所有key。此方法不会失败，更加慎用
+                jedis.flushAll();
+
+                //Long incr(final String key): 将key上存储的数字增加1,如果key不存在，则执行增量操作前自动新建并设置为0。
+                Long wang = jedis.incr("wang");
+                System.out.println(wang);
+                System.out.println(jedis.incr("wang"));
+                System.out.println(jedis.incr("wang"));
+
+
+                jedis.set("code_1", "20009");
+                int delKeyByScript = delKeyByScript(jedis, "code_1", "20009");
+                System.out.println("delKeyByScript=" + delKeyByScript);
+            });
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+            getErrMsg(resultMap, e);
+        }
+        return resultMap;
+    }
+
+    /**
+     * 分页遍历 key：http://localhost:8080/jedis/keys?cursor=0&match=jedis*&count=100&type=string
+     * <p>
+     * 第一次 cursor 传 0，之后传上一页返回的 cursor，返回的 cursor 为 0(finished 为 true)时表示遍历结束。
+     * count 只是提示值，一页返回的 key 个数不固定，可能为空但遍历还没有结束。
+     *
+     * @param cursor ：游标
+     * @param match  ：匹配模式，如 *、foo*、*foo
+     * @param count  ：每页 COUNT 提示值
+     * @param type   ：key 的类型，如 string、list、hash、set、zset，为空时不过滤
+     * @return
+     */
+    @GetMapping("/jedis/keys")
+    public Map<String, Object> keys(@RequestParam(defaultValue = "0") String cursor,
+                                    @RequestParam(defaultValue = "*") String match,
+                                    @RequestParam(defaultValue = "100") int count,
+                                    @RequestParam(required = false) String type) {
+        Map<String, Object> resultMap = new HashMap<>(8);
+        resultMap.put("code", 200);
+        resultMap.put("msg", "success");
+        try {
+            resultMap.put("data", jedisKeyScanner.scan(cursor, match, count, type));
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrMsg(resultMap, e);
-        } finally {
-            /**
-             * releaseConnection(@Nullable RedisConnection conn, RedisConnectionFactory factory)：关闭通过给定工厂创建的给定连接（如果未进行外部管理（即未绑定到线程）
-             * * conn: 要关闭的 Redis 连接。
-             * * factory：用于创建连接的 Redis 工厂
-             */
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
@@ -143,26 +159,23 @@ public class JedisCommonController {
      * @return
      */
     public int delKeyByScript(String key, String val) {
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-            Jedis jedis = jedisConnection.getNativeConnection();
-            if (jedis == null) {
-                return 0;
-            }
-            String script = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
-            Object eval = jedis.eval(script, Lists.newArrayList(key), Lists.newArrayList(val));
-            return Integer.valueOf(eval.toString());
+            return jedisExecutor.execute("JedisCommonController.delKeyByScript", jedis -> delKeyByScript(jedis, key, val));
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
-        } finally {
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return 0;
     }
 
+    /**
+     * 使用调用方已经借到的连接执行，避免在 {@link JedisExecutor} 回调中再借用第二个连接
+     */
+    private int delKeyByScript(Jedis jedis, String key, String val) {
+        String script = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+        Object eval = jedis.eval(script, Lists.newArrayList(key), Lists.newArrayList(val));
+        return Integer.valueOf(eval.toString());
+    }
+
 
     private void getErrMsg(Map<String, Object> resultMap, Exception e) {
         resultMap.put("code", 500);
@@ -0,0 +1,230 @@
+package com.wmx.wmxredis.jedis;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnection;
+import org.springframework.data.redis.connection.jedis.JedisConverters;
+import org.springframework.data.redis.core.RedisConnectionUtils;
+import redis.clients.jedis.Jedis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 回调方式使用原生 Jedis 的执行模板，代替手动 getConnection + 强转 + finally 释放
+ * <pre>
+ *     String value = jedisExecutor.execute("JedisStrController.getString", jedis -> jedis.get(key));
+ * </pre>
+ * <p>
+ * 1、连接只在回调内部有效，回调结束(正常返回或抛出异常)后一定归还连接池，不要把 Jedis 保存到回调外部使用。
+ * 2、回调中不要再调用 execute 借用第二个连接：连接池只有 max-active 个连接，并发请求各自持有一个再等待第二个时会互相等待直至耗尽。
+ * 3、借用耗时、持有时间记录到 redis.jedis.borrow、redis.jedis.hold(标签 operation)，操作名称应是固定的方法名，不要带参数。
+ * 4、泄漏检测：借出时记录调用栈，后台线程每隔 leak-check-interval 扫描一次，持有超过 leak-detection-threshold 的连接打印借出位置的调用栈，
+ * * 并累加 redis.jedis.leaks；之后连接归还时再打印一条日志，说明只是持有时间长而不是真正的泄漏。
+ * 5、Jedis 抛出的异常统一转换为 Spring 的 DataAccessException，与 RedisTemplate 保持一致。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 22:00
+ */
+public class JedisExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(JedisExecutor.class);
+
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final RedisCommandMetrics metrics;
+    private final long leakThresholdNanos;
+    private final Counter leakCounter;
+    private final ScheduledExecutorService leakDetector;
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final AtomicLong leaseIds = new AtomicLong();
+
+    public JedisExecutor(RedisConnectionFactory redisConnectionFactory, RedisCommandMetrics metrics, JedisExecutorProperties properties) {
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.metrics = metrics;
+        this.leakThresholdNanos = properties.getLeakDetectionThreshold().toNanos();
+        this.leakCounter = Counter.builder("redis.jedis.leaks")
+                .description("持有时间超过泄漏检测阈值的 Jedis 连接数")
+                .register(metrics.getMeterRegistry());
+        if (leakThresholdNanos > 0) {
+            long interval = Math.max(properties.getLeakCheckInterval().toMillis(), 10);
+            this.leakDetector = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("redis-jedis-leak-detector-%d").setDaemon(true).build());
+            this.leakDetector.scheduleWithFixedDelay(this::detectLeaks, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.leakDetector = null;
+        }
+    }
+
+    /**
+     * 借用一个原生 Jedis 执行回调，执行结束后归还
+     *
+     * @param operation ：操作名称，用于指标标签与泄漏日志，如 JedisStrController.setString
+     * @param callback  ：使用 Jedis 的回调
+     * @param <T>       ：回调返回值类型
+     * @return 回调的返回值
+     */
+    public <T> T execute(String operation, JedisCallback<T> callback) {
+        long start = System.nanoTime();
+        RedisConnection connection = RedisConnectionUtils.getConnection(redisConnectionFactory, true);
+        long borrowed = System.nanoTime();
+        Lease lease = null;
+        try {
+            if (!(connection instanceof JedisConnection)) {
+                throw new InvalidDataAccessApiUsageException("JedisExecutor 需要 Jedis 连接，实际为：" + connection.getClass().getName());
+            }
+            lease = borrow(operation, borrowed);
+            return callback.doInJedis(((JedisConnection) connection).getNativeConnection());
+        } catch (RuntimeException e) {
+            // 非 Jedis 异常(如回调中的业务异常)转换结果为 null，原样抛出
+            DataAccessException translated = JedisConverters.toDataAccessException(e);
+            throw translated != null ? translated : e;
+        } finally {
+            RedisConnectionUtils.releaseConnection(connection, redisConnectionFactory);
+            if (lease != null) {
+                giveBack(lease);
+            }
+            if (metrics.isEnabled()) {
+                metrics.recordConnectionBorrow(operation, borrowed - start);
+                metrics.recordConnectionHold(operation, System.nanoTime() - borrowed);
+            }
+        }
+    }
+
+    /**
+     * 借用一个原生 Jedis 执行没有返回值的回调
+     *
+     * @param operation ：操作名称
+     * @param callback  ：使用 Jedis 的回调
+     */
+    public void run(String operation, JedisConsumer callback) {
+        execute(operation, jedis -> {
+            callback.accept(jedis);
+            return null;
+        });
+    }
+
+    /**
+     * 当前已借出、还未归还的连接
+     *
+     * @return
+     */
+    public Collection<Lease> getLeases() {
+        return new ArrayList<>(leases.values());
+    }
+
+    public void shutdown() {
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+    }
+
+    private Lease borrow(String operation, long borrowedNanos) {
+        // 关闭泄漏检测时不需要记录调用栈，省去每次借用创建异常对象的开销
+        Throwable trace = leakThresholdNanos > 0 ? new Throwable("Jedis 连接借出位置，操作：" + operation) : null;
+        Lease lease = new Lease(leaseIds.incrementAndGet(), operation, Thread.currentThread().getName(), borrowedNanos, trace);
+        leases.put(lease.id, lease);
+        return lease;
+    }
+
+    private void giveBack(Lease lease) {
+        leases.remove(lease.id);
+        if (lease.reported) {
+            log.info("之前报告疑似泄漏的 Jedis 连接已归还，操作：{}，线程：{}，共持有 {} ms",
+                    lease.operation, lease.threadName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lease.borrowedNanos));
+        }
+    }
+
+    /**
+     * 打印持有时间超过阈值的连接的借出位置，每个连接只报告一次
+     */
+    void detectLeaks() {
+        long now = System.nanoTime();
+        List<Lease> leaked = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (!lease.reported && now - lease.borrowedNanos >= leakThresholdNanos) {
+                lease.reported = true;
+                leaked.add(lease);
+            }
+        }
+        for (Lease lease : leaked) {
+            leakCounter.increment();
+            log.warn("Jedis 连接疑似泄漏，操作：{}，线程：{}，已持有 {} ms，当前借出 {} 个连接",
+                    lease.operation, lease.threadName, TimeUnit.NANOSECONDS.toMillis(now - lease.borrowedNanos), leases.size(), lease.trace);
+        }
+    }
+
+    /**
+     * 使用原生 Jedis 的回调，只在回调内部使用 Jedis
+     *
+     * @param <T>
+     */
+    @FunctionalInterface
+    public interface JedisCallback<T> {
+        T doInJedis(Jedis jedis);
+    }
+
+    /**
+     * 没有返回值的回调
+     */
+    @FunctionalInterface
+    public interface JedisConsumer {
+        void accept(Jedis jedis);
+    }
+
+    /**
+     * 一次连接借用
+     */
+    public static class Lease {
+        private final long id;
+        private final String operation;
+        private final String threadName;
+        private final long borrowedNanos;
+        private final Throwable trace;
+        private volatile boolean reported;
+
+        Lease(long id, String operation, String threadName, long borrowedNanos, Throwable trace) {
+            this.id = id;
+            this.operation = operation;
+            this.threadName = threadName;
+            this.borrowedNanos = borrowedNanos;
+            this.trace = trace;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * 已持有的时间(毫秒)
+         */
+        public long getHeldMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - borrowedNanos);
+        }
+
+        /**
+         * 是否已经作为疑似泄漏报告过
+         */
+        public boolean isReported() {
+            return reported;
+        }
+    }
+}
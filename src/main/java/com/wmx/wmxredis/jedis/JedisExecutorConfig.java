@@ -0,0 +1,45 @@
+package com.wmx.wmxredis.jedis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Jedis 原生连接执行模板配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link JedisExecutorProperties} 配置类交由 Spring 容器管理
+ * 2、应用关闭时停止泄漏检测线程。
+ * 3、{@link JedisBulkOperations} 基于 {@link JedisExecutor} 借用连接，配置见 {@link JedisBulkProperties}。
+ * 4、{@link RedisValueStreamer} 分页读取大集合，使用 redisTemplate 的序列化器，配置见 {@link RedisValueStreamProperties}。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 22:15
+ */
+@Configuration
+@EnableConfigurationProperties({JedisExecutorProperties.class, JedisBulkProperties.class, RedisValueStreamProperties.class})
+public class JedisExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public JedisExecutor jedisExecutor(RedisConnectionFactory redisConnectionFactory, RedisCommandMetrics redisCommandMetrics,
+                                       JedisExecutorProperties jedisExecutorProperties) {
+        return new JedisExecutor(redisConnectionFactory, redisCommandMetrics, jedisExecutorProperties);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public JedisBulkOperations jedisBulkOperations(JedisExecutor jedisExecutor, JedisBulkProperties jedisBulkProperties,
+                                                   MeterRegistry meterRegistry) {
+        return new JedisBulkOperations(jedisExecutor, jedisBulkProperties, meterRegistry);
+    }
+
+    @Bean
+    public RedisValueStreamer redisValueStreamer(JedisExecutor jedisExecutor, RedisTemplate<Object, Object> redisTemplate,
+                                                 ObjectMapper objectMapper, RedisValueStreamProperties redisValueStreamProperties) {
+        return new RedisValueStreamer(jedisExecutor, redisTemplate, objectMapper, redisValueStreamProperties);
+    }
+}
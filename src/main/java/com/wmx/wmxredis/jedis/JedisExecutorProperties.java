@@ -0,0 +1,47 @@
+package com.wmx.wmxredis.jedis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@link JedisExecutor} 配置
+ * <pre>
+ * redis:
+ *   jedis-executor:
+ *     leak-detection-threshold: 10s
+ *     leak-check-interval: 1s
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 22:10
+ */
+@ConfigurationProperties(prefix = "redis.jedis-executor")
+public class JedisExecutorProperties {
+
+    /**
+     * 连接借出后超过该时间仍未归还时，打印借出位置的调用栈，为 0 时关闭泄漏检测(借出时也不再记录调用栈)
+     */
+    private Duration leakDetectionThreshold = Duration.ofSeconds(10);
+    /**
+     * 泄漏检测的扫描间隔
+     */
+    private Duration leakCheckInterval = Duration.ofSeconds(1);
+
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public Duration getLeakCheckInterval() {
+        return leakCheckInterval;
+    }
+
+    public void setLeakCheckInterval(Duration leakCheckInterval) {
+        this.leakCheckInterval = leakCheckInterval;
+    }
+}
@@ -2,13 +2,8 @@ package com.wmx.wmxredis.jedis;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.jedis.JedisConnection;
-import org.springframework.data.redis.core.RedisConnectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
-import redis.clients.jedis.Jedis;
 
 import javax.annotation.Resource;
 import java.util.*;
@@ -26,11 +21,10 @@ public class JedisHashController {
     private static final Logger LOG = LoggerFactory.getLogger(JedisHashController.class);
 
     /**
-     * 线程安全的 Redis 连接工厂，{@link RedisAutoConfiguration} 启动已经添加到了容器中，可以直接获取使用
-     * RedisConnectionFactory RedisTemplate.getConnectionFactory(): 也可以获取 RedisConnectionFactory 连接工厂
+     * 回调方式使用原生 Jedis，{@link JedisExecutor} 负责借用、归还连接与泄漏检测
      */
     @Resource
-    private RedisConnectionFactory redisConnectionFactory;
+    private JedisExecutor jedisExecutor;
 
     /**
      * http://localhost:8080/jedis/hashMap
@@ -62,75 +56,69 @@ public class JedisHashController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            Map<String, String> dataMap = new HashMap<>(16);
-            dataMap.put("name", "许仙");
-            dataMap.put("age", "25");
-            dataMap.put("sex", "男");
-            dataMap.put("address", "深圳市");
-            dataMap.put("idCard", "4325261521845211124");
-
-            //hmset=OK
-            String hmset = jedis.hmset("jedisHashMap", dataMap);
-            System.out.println("hmset=" + hmset);
-
-            //hmget=[许仙, null, 25]
-            List<String> hmget = jedis.hmget("jedisHashMap", "name", "id", "age");
-            System.out.println("hmget=" + hmget);
-
-            //删除map中的某个键值
-            Long hdel = jedis.hdel("jedisHashMap", "sex");
-            System.out.println("hdel=" + hdel);
-
-            //获取 map 中的元素个数
-            Long hlen = jedis.hlen("jedisHashMap");
-            System.out.println("hlen=" + hlen);
-
-            //判断map中是否存在指定字段
-            Boolean hexists = jedis.hexists("jedisHashMap", "name");
-            System.out.println("hexists=" + hexists);
-
-            //返回map对象中所有的key
-            Set<String> hkeys = jedis.hkeys("jedisHashMap");
-            System.out.println("hkeys=" + hkeys);
-
-            //返回map对象中所有的value
-            List<String> hvals = jedis.hvals("jedisHashMap");
-            System.out.println("hvals=" + hvals);
-
-            //逐个遍历
-            Iterator<String> iter = jedis.hkeys("jedisHashMap").iterator();
-            while (iter.hasNext()) {
-                String key = iter.next();
-                System.out.println(key + "：" + jedis.hmget("jedisHashMap", key));
-            }
-
-            //添加数据
-            Long hset = jedis.hset("jedisHashMap", "education", "大学本科");
-            System.out.println("hset=" + hset);
-
-            //获取指定的值
-            String hget = jedis.hget("jedisHashMap", "education");
-            System.out.println("hget=" + hget);
-
-            // 为key中的域 field 的值加上增量 increment
-            Long hincrBy = jedis.hincrBy("jedisHashMap", "age", 20);
-            System.out.println("hincrBy=" + hincrBy);
-
-            //获取整个map对象
-            Map<String, String> hgetAll = jedis.hgetAll("jedisHashMap");
-            System.out.println("hgetAll=" + hgetAll);
+            jedisExecutor.run("JedisHashController.hashMap", jedis -> {
+                Map<String, String> dataMap = new HashMap<>(16);
+                dataMap.put("name", "许仙");
+                dataMap.put("age", "25");
+                dataMap.put("sex", "男");
+                dataMap.put("address", "深圳市");
+                dataMap.put("idCard", "4325261521845211124");
+
+                //hmset=OK
+                String hmset = jedis.hmset("jedisHashMap", dataMap);
+                System.out.println("hmset=" + hmset);
+
+                //hmget=[许仙, null, 25]
+                List<String> hmget = jedis.hmget("jedisHashMap", "name", "id", "age");
+                System.out.println("hmget=" + hmget);
+
+                //删除map中的某个键值
+                Long hdel = jedis.hdel("jedisHashMap", "sex");
+                System.out.println("hdel=" + hdel);
+
+                //获取 map 中的元素个数
+                Long hlen = jedis.hlen("jedisHashMap");
+                System.out.println("hlen=" + hlen);
+
+                //判断map中是否存在指定字段
+                Boolean hexists = jedis.hexists("jedisHashMap", "name");
+                System.out.println("hexists=" + hexists);
+
+                //返回map对象中所有的key
+                Set<String> hkeys = jedis.hkeys("jedisHashMap");
+                System.out.println("hkeys=" + hkeys);
+
+                //返回map对象中所有的value
+                List<String> hvals = jedis.hvals("jedisHashMap");
+                System.out.println("hvals=" + hvals);
+
+                //逐个遍历
+                Iterator<String> iter = jedis.hkeys("jedisHashMap").iterator();
+                while (iter.hasNext()) {
+                    String key = iter.next();
+                    System.out.println(key + "：" + jedis.hmget("jedisHashMap", key));
+                }
+
+                //添加数据
+                Long hset = jedis.hset("jedisHashMap", "education", "大学本科");
+                System.out.println("hset=" + hset);
+
+                //获取指定的值
+                String hget = jedis.hget("jedisHashMap", "education");
+                System.out.println("hget=" + hget);
+
+                // 为key中的域 field 的值加上增量 increment
+                Long hincrBy = jedis.hincrBy("jedisHashMap", "age", 20);
+                System.out.println("hincrBy=" + hincrBy);
+
+                //获取整个map对象
+                Map<String, String> hgetAll = jedis.hgetAll("jedisHashMap");
+                System.out.println("hgetAll=" + hgetAll);
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
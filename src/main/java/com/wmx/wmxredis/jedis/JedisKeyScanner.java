@@ -0,0 +1,252 @@
+package com.wmx.wmxredis.jedis;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnection;
+import org.springframework.data.redis.connection.jedis.JedisConverters;
+import org.springframework.data.redis.core.RedisConnectionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 基于 SCAN 游标的 key 遍历，用于代替 KEYS *
+ * <p>
+ * 1、KEYS 会一次性遍历整个 keyspace，期间单线程的 Redis 服务端无法处理其它请求；SCAN 每次只遍历一小段，不会阻塞服务端。
+ * 2、迭代器是懒加载的，每次只在本地保留一页 key，不管 keyspace 有多大，本地内存占用都是固定的。
+ * 3、每一页单独从连接池借用连接，取完立即归还，遍历过程中不会长期占用连接。
+ * * 已经在 {@link JedisExecutor} 回调中持有 Jedis 时使用带 Jedis 参数的重载，在同一个连接上遍历，
+ * * 不能再从连接池借用第二个连接(连接池耗尽时持有连接的线程互相等待)。
+ * 4、SCAN 的特点：遍历期间一直存在的 key 一定会返回，但同一个 key 可能返回多次，遍历期间新增、删除的 key 不保证返回；
+ * * COUNT 只是提示值，一页返回的 key 可能多于或少于 COUNT，也可能为空但游标还没有结束。
+ * 5、Jedis 2.9 的 ScanParams 不支持 TYPE 选项(Redis 6.0 才支持)，指定类型时对每一页的 key 通过管道批量执行 TYPE 在本地过滤，
+ * * 每页多一次网络往返。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 17:40
+ */
+@Component
+public class JedisKeyScanner {
+
+    /**
+     * 默认每次 SCAN 的 COUNT 提示值
+     */
+    public static final int DEFAULT_COUNT = 100;
+
+    @Resource
+    private RedisConnectionFactory redisConnectionFactory;
+
+    /**
+     * 以流的方式遍历匹配的 key，流是懒加载的，配合 limit 使用时只会 SCAN 需要的页数
+     *
+     * @param match ：匹配模式，如 *、foo*、*foo，为空时匹配所有 key
+     * @param count ：每次 SCAN 的 COUNT 提示值，小于 1 时使用默认值
+     * @param type  ：key 的类型，如 string、list、hash、set、zset，为空时不过滤
+     * @return
+     */
+    public Stream<String> stream(String match, int count, String type) {
+        return toStream(iterator(match, count, type));
+    }
+
+    /**
+     * 在已经借用的 Jedis 上以流的方式遍历匹配的 key，用于 {@link JedisExecutor} 回调中，不会再借用连接
+     *
+     * @param jedis ：调用方持有的连接，流必须在归还连接之前使用完
+     * @param match ：匹配模式，为空时匹配所有 key
+     * @param count ：每次 SCAN 的 COUNT 提示值，小于 1 时使用默认值
+     * @param type  ：key 的类型，为空时不过滤
+     * @return
+     */
+    public Stream<String> stream(Jedis jedis, String match, int count, String type) {
+        return toStream(iterator(jedis, match, count, type));
+    }
+
+    /**
+     * 遍历匹配的 key，迭代器是懒加载的，本地只缓存当前页
+     *
+     * @param match ：匹配模式，为空时匹配所有 key
+     * @param count ：每次 SCAN 的 COUNT 提示值，小于 1 时使用默认值
+     * @param type  ：key 的类型，为空时不过滤
+     * @return
+     */
+    public Iterator<String> iterator(String match, int count, String type) {
+        return new KeyIterator(null, match, count, type);
+    }
+
+    /**
+     * 在已经借用的 Jedis 上遍历匹配的 key，不会再借用连接
+     *
+     * @param jedis ：调用方持有的连接
+     * @param match ：匹配模式，为空时匹配所有 key
+     * @param count ：每次 SCAN 的 COUNT 提示值，小于 1 时使用默认值
+     * @param type  ：key 的类型，为空时不过滤
+     * @return
+     */
+    public Iterator<String> iterator(Jedis jedis, String match, int count, String type) {
+        Assert.notNull(jedis, "jedis 不能为空");
+        return new KeyIterator(jedis, match, count, type);
+    }
+
+    /**
+     * 执行一次 SCAN，返回一页 key 与下一次遍历的游标，用于分页接口
+     *
+     * @param cursor ：游标，第一次传 0，之后传上一页返回的游标，返回的游标为 0 时表示遍历结束
+     * @param match  ：匹配模式，为空时匹配所有 key
+     * @param count  ：COUNT 提示值，小于 1 时使用默认值
+     * @param type   ：key 的类型，为空时不过滤
+     * @return
+     */
+    public ScanPage scan(String cursor, String match, int count, String type) {
+        JedisConnection jedisConnection = null;
+        try {
+            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory);
+            return doScan(jedisConnection.getNativeConnection(), cursor, match, count, type);
+        } catch (RuntimeException e) {
+            DataAccessException translated = JedisConverters.toDataAccessException(e);
+            throw translated != null ? translated : e;
+        } finally {
+            if (jedisConnection != null) {
+                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
+            }
+        }
+    }
+
+    /**
+     * 在已经借用的 Jedis 上执行一次 SCAN，不会再借用连接
+     *
+     * @param jedis  ：调用方持有的连接
+     * @param cursor ：游标，第一次传 0
+     * @param match  ：匹配模式，为空时匹配所有 key
+     * @param count  ：COUNT 提示值，小于 1 时使用默认值
+     * @param type   ：key 的类型，为空时不过滤
+     * @return
+     */
+    public ScanPage scan(Jedis jedis, String cursor, String match, int count, String type) {
+        Assert.notNull(jedis, "jedis 不能为空");
+        try {
+            return doScan(jedis, cursor, match, count, type);
+        } catch (RuntimeException e) {
+            DataAccessException translated = JedisConverters.toDataAccessException(e);
+            throw translated != null ? translated : e;
+        }
+    }
+
+    private ScanPage doScan(Jedis jedis, String cursor, String match, int count, String type) {
+        ScanParams scanParams = new ScanParams().count(count < 1 ? DEFAULT_COUNT : count);
+        if (StringUtils.hasText(match)) {
+            scanParams.match(match);
+        }
+        ScanResult<String> scanResult = jedis.scan(StringUtils.hasText(cursor) ? cursor : ScanParams.SCAN_POINTER_START, scanParams);
+        List<String> keys = scanResult.getResult();
+        if (StringUtils.hasText(type) && !keys.isEmpty()) {
+            keys = filterByType(jedis, keys, type);
+        }
+        return new ScanPage(scanResult.getStringCursor(), keys);
+    }
+
+    private static Stream<String> toStream(Iterator<String> iterator) {
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * 管道批量查询一页 key 的类型，只保留指定类型的 key。TYPE 与 SCAN 之间 key 可能已经被删除，此时类型为 none，会被过滤掉。
+     */
+    private List<String> filterByType(Jedis jedis, List<String> keys, String type) {
+        Pipeline pipeline = jedis.pipelined();
+        List<Response<String>> types = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            types.add(pipeline.type(key));
+        }
+        pipeline.sync();
+        List<String> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (type.equalsIgnoreCase(types.get(i).get())) {
+                result.add(keys.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 一页 SCAN 结果
+     */
+    public static class ScanPage {
+        /**
+         * 下一次遍历的游标，为 0 时表示遍历结束
+         */
+        private final String cursor;
+        private final List<String> keys;
+
+        ScanPage(String cursor, List<String> keys) {
+            this.cursor = cursor;
+            this.keys = keys;
+        }
+
+        public String getCursor() {
+            return cursor;
+        }
+
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        public boolean isFinished() {
+            return ScanParams.SCAN_POINTER_START.equals(cursor);
+        }
+    }
+
+    /**
+     * 懒加载迭代器，当前页取完且游标未结束时才 SCAN 下一页
+     */
+    private class KeyIterator implements Iterator<String> {
+        /**
+         * 调用方持有的连接，为 null 时每页从连接池借用
+         */
+        private final Jedis jedis;
+        private final String match;
+        private final int count;
+        private final String type;
+        private String cursor = ScanParams.SCAN_POINTER_START;
+        private Iterator<String> page = Collections.emptyIterator();
+        private boolean finished;
+
+        KeyIterator(Jedis jedis, String match, int count, String type) {
+            this.jedis = jedis;
+            this.match = match;
+            this.count = count;
+            this.type = type;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // 一页可能为空但游标还没有结束，需要继续取下一页
+            while (!page.hasNext() && !finished) {
+                ScanPage scanPage = jedis == null ? scan(cursor, match, count, type) : scan(jedis, cursor, match, count, type);
+                cursor = scanPage.getCursor();
+                finished = scanPage.isFinished();
+                page = scanPage.getKeys().iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
+}
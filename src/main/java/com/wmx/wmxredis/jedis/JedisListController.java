@@ -2,14 +2,9 @@ package com.wmx.wmxredis.jedis;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.jedis.JedisConnection;
-import org.springframework.data.redis.core.RedisConnectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import redis.clients.jedis.Jedis;
 import redis.clients.jedis.SortingParams;
 
 import javax.annotation.Resource;
@@ -30,11 +25,10 @@ public class JedisListController {
     private static final Logger LOG = LoggerFactory.getLogger(JedisListController.class);
 
     /**
-     * 线程安全的 Redis 连接工厂，{@link RedisAutoConfiguration} 启动已经添加到了容器中，可以直接获取使用
-     * RedisConnectionFactory RedisTemplate.getConnectionFactory(): 也可以获取 RedisConnectionFactory 连接工厂
+     * 回调方式使用原生 Jedis，{@link JedisExecutor} 负责借用、归还连接与泄漏检测
      */
     @Resource
-    private RedisConnectionFactory redisConnectionFactory;
+    private JedisExecutor jedisExecutor;
 
     /**
      * 为 list 设置值
@@ -57,35 +51,21 @@ public class JedisListController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-
-            // 有了 Jedis 则可以使用它的任意方法操作 Redis 了
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            if (index != null && index >= 0 && index < jedis.llen(key)) {
-                //更新指定索引位置的元素
-                jedis.lset(key, index, value);
-            } else {
-                //向列表末尾添加元素
-                Long rpush = jedis.rpush(key, value);
-                //向列表头部添加元素
-                //Long lpush = jedis.lpush(key, value);
-            }
-
+            jedisExecutor.run("JedisListController.setList", jedis -> {
+                if (index != null && index >= 0 && index < jedis.llen(key)) {
+                    //更新指定索引位置的元素
+                    jedis.lset(key, index, value);
+                } else {
+                    //向列表末尾添加元素
+                    Long rpush = jedis.rpush(key, value);
+                    //向列表头部添加元素
+                    //Long lpush = jedis.lpush(key, value);
+                }
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            /**
-             * releaseConnection(@Nullable RedisConnection conn, RedisConnectionFactory factory)：关闭通过给定工厂创建的给定连接（如果未进行外部管理（即未绑定到线程）
-             * * conn: 要关闭的 Redis 连接。
-             * * factory：用于创建连接的 Redis 工厂
-             */
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
@@ -111,73 +91,60 @@ public class JedisListController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-
-            // 有了 Jedis 则可以使用它的任意方法操作 Redis 了
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            jedis.del("mylist1");
-            jedis.lpush("mylist1", "1");
-            jedis.lpush("mylist1", "40");
-            jedis.lpush("mylist1", "6");
-            jedis.lpush("mylist1", "45");
-            jedis.lpush("mylist1", "10");
-            jedis.lpush("mylist1", "56");
-
-            //获取列表的长度
-            Long llen = jedis.llen("mylist1");
-            System.out.println("列表长度：" + llen);
-
-            //对返回的元素进行排序，如果元素中存在非数字，则报错：JedisDataException: ERR One or more scores can't be converted into double
-            List<String> sort = jedis.sort("mylist1");
-            System.out.println("sort=" + sort);
-
-            //获取指定范围内的元素
-            List<String> lrange = jedis.lrange("mylist1", 0, -1);
-            System.out.println("lrange=" + lrange);
-
-            jedis.del("mylist");
-            jedis.lpush("mylist", "1");
-            jedis.lpush("mylist", "40");
-            jedis.lpush("mylist", "6");
-            jedis.lpush("mylist", "a");
-            jedis.lpush("mylist", "FK");
-            jedis.lpush("mylist", "AH");
-            jedis.lpush("mylist", "中国");
-
-            //使用排序参数 SortingParams 对数字以外的值进行排序,会改变实际存储的值的顺序
-            //SortingParams desc()：降序排序
-            //SortingParams asc()：升序排序(默认)
-            //SortingParams alpha()：按字典顺序排序(支持任意字符)，默认只能对数字排序
-            //SortingParams limit(final int start, final int count)：分页查询(限制返回的条数), start 开始位置的索引，从零开始；count 获取的数量
-            SortingParams sortingParameters = new SortingParams();
-            sortingParameters.desc();
-            sortingParameters.alpha();
-            sortingParameters.limit(0, jedis.llen("mylist").intValue());
-            List<String> stringList = jedis.sort("mylist", sortingParameters);
-            //[中国, a, FK, AH, 6, 40, 1]
-            System.out.println("sortingParameters=" + stringList);
-
-            System.out.println(jedis.lrange("mylist", 0, -1));
-
-            String lindex = jedis.lindex("mylist", 1);
-            System.out.println("lindex=" + lindex);
-
-            resultMap.put("data", lrange);
+            jedisExecutor.run("JedisListController.getList", jedis -> {
+                jedis.del("mylist1");
+                jedis.lpush("mylist1", "1");
+                jedis.lpush("mylist1", "40");
+                jedis.lpush("mylist1", "6");
+                jedis.lpush("mylist1", "45");
+                jedis.lpush("mylist1", "10");
+                jedis.lpush("mylist1", "56");
+
+                //获取列表的长度
+                Long llen = jedis.llen("mylist1");
+                System.out.println("列表长度：" + llen);
+
+                //对返回的元素进行排序，如果元素中存在非数字，则报错：JedisDataException: ERR One or more scores can't be converted into double
+                List<String> sort = jedis.sort("mylist1");
+                System.out.println("sort=" + sort);
+
+                //获取指定范围内的元素
+                List<String> lrange = jedis.lrange("mylist1", 0, -1);
+                System.out.println("lrange=" + lrange);
+
+                jedis.del("mylist");
+                jedis.lpush("mylist", "1");
+                jedis.lpush("mylist", "40");
+                jedis.lpush("mylist", "6");
+                jedis.lpush("mylist", "a");
+                jedis.lpush("mylist", "FK");
+                jedis.lpush("mylist", "AH");
+                jedis.lpush("mylist", "中国");
+
+                //使用排序参数 SortingParams 对数字以外的值进行排序,会改变实际存储的值的顺序
+                //SortingParams desc()：降序排序
+                //SortingParams asc()：升序排序(默认)
+                //SortingParams alpha()：按字典顺序排序(支持任意字符)，默认只能对数字排序
+                //SortingParams limit(final int start, final int count)：分页查询(限制返回的条数), start 开始位置的索引，从零开始；count 获取的数量
+                SortingParams sortingParameters = new SortingParams();
+                sortingParameters.desc();
+                sortingParameters.alpha();
+                sortingParameters.limit(0, jedis.llen("mylist").intValue());
+                List<String> stringList = jedis.sort("mylist", sortingParameters);
+                //[中国, a, FK, AH, 6, 40, 1]
+                System.out.println("sortingParameters=" + stringList);
+
+                System.out.println(jedis.lrange("mylist", 0, -1));
+
+                String lindex = jedis.lindex("mylist", 1);
+                System.out.println("lindex=" + lindex);
+
+                resultMap.put("data", lrange);
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            /**
-             * releaseConnection(@Nullable RedisConnection conn, RedisConnectionFactory factory)：关闭通过给定工厂创建的给定连接（如果未进行外部管理（即未绑定到线程）
-             * * conn: 要关闭的 Redis 连接。
-             * * factory：用于创建连接的 Redis 工厂
-             */
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
@@ -209,38 +176,27 @@ public class JedisListController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            if (count != null && value != null) {
-                //删除列表中指定的元素 value，count 是累计删除的个数
-                Long lrem = jedis.lrem(key, count.longValue(), value);
-                System.out.println("lrem=" + lrem);
-            }
-
-            if (start != null && stop != null) {
-                //删除访问以外的元素
-                String ltrim = jedis.ltrim(key, start, stop);
-                System.out.println("ltrim=" + ltrim);
-            }
-
-            //删除末尾的元素并返回
-            String rpop = jedis.rpop(key);
-            resultMap.put("data", rpop);
+            jedisExecutor.run("JedisListController.delList", jedis -> {
+                if (count != null && value != null) {
+                    //删除列表中指定的元素 value，count 是累计删除的个数
+                    Long lrem = jedis.lrem(key, count.longValue(), value);
+                    System.out.println("lrem=" + lrem);
+                }
+
+                if (start != null && stop != null) {
+                    //删除访问以外的元素
+                    String ltrim = jedis.ltrim(key, start, stop);
+                    System.out.println("ltrim=" + ltrim);
+                }
+
+                //删除末尾的元素并返回
+                String rpop = jedis.rpop(key);
+                resultMap.put("data", rpop);
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            /**
-             * releaseConnection(@Nullable RedisConnection conn, RedisConnectionFactory factory)：关闭通过给定工厂创建的给定连接（如果未进行外部管理（即未绑定到线程）
-             * * conn: 要关闭的 Redis 连接。
-             * * factory：用于创建连接的 Redis 工厂
-             */
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
@@ -2,13 +2,8 @@ package com.wmx.wmxredis.jedis;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.jedis.JedisConnection;
-import org.springframework.data.redis.core.RedisConnectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
-import redis.clients.jedis.Jedis;
 
 import javax.annotation.Resource;
 import java.util.HashMap;
@@ -28,11 +23,10 @@ public class JedisSetController {
     private static final Logger LOG = LoggerFactory.getLogger(JedisSetController.class);
 
     /**
-     * 线程安全的 Redis 连接工厂，{@link RedisAutoConfiguration} 启动已经添加到了容器中，可以直接获取使用
-     * RedisConnectionFactory RedisTemplate.getConnectionFactory(): 也可以获取 RedisConnectionFactory 连接工厂
+     * 回调方式使用原生 Jedis，{@link JedisExecutor} 负责借用、归还连接与泄漏检测
      */
     @Resource
-    private RedisConnectionFactory redisConnectionFactory;
+    private JedisExecutor jedisExecutor;
 
     /**
      * http://localhost:8080/jedis/disorderSet
@@ -65,65 +59,56 @@ public class JedisSetController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-
-            // 有了 Jedis 则可以使用它的任意方法操作 Redis 了
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            //添加元素
-            jedis.sadd("jedisSet", "1");
-            jedis.sadd("jedisSet", "2");
-            jedis.sadd("jedisSet", "3");
-            jedis.sadd("jedisSet", "4");
-            jedis.sadd("jedisSet", "5");
-            jedis.sadd("jedisSet", "Hi");
-            jedis.sadd("jedisSet", "中国");
-            //查询全部元素
-            Set<String> smembers = jedis.smembers("jedisSet");
-            System.out.println("smembers=" + smembers);
-
-            // 删除元素
-            Long srem = jedis.srem("jedisSet", "1", "21");
-            System.out.println("srem=" + srem);
-
-            //判断元素是否存在
-            Boolean sismember = jedis.sismember("jedisSet", "2");
-            System.out.println("sismember=" + sismember);
-
-            // 获取元素的个数
-            Long scard = jedis.scard("jedisSet");
-            System.out.println("scard=" + scard);
-
-            // 随机出栈
-            Set<String> spop = jedis.spop("jedisSet", 2);
-            System.out.println("spop=" + spop);
-
-            jedis.sadd("sets1", "华山");
-            jedis.sadd("sets1", "泰山");
-            jedis.sadd("sets1", "衡山");
-
-            jedis.sadd("sets2", "武当山");
-            jedis.sadd("sets2", "少室山");
-            jedis.sadd("sets2", "华山");
-            // 交集 [华山]
-            Set<String> sinter = jedis.sinter("sets1", "sets2");
-            System.out.println("sinter=" + sinter);
-            // 并集 [华山, 武当山, 衡山, 泰山, 少室山]
-            Set<String> sunion = jedis.sunion("sets1", "sets2");
-            System.out.println("sunion=" + sunion);
-            // 差集 [衡山, 泰山]
-            Set<String> sdiff = jedis.sdiff("sets1", "sets2");
-            System.out.println("sdiff=" + sdiff);
-
+            jedisExecutor.run("JedisSetController.disorderSet", jedis -> {
+                //添加元素
+                jedis.sadd("jedisSet", "1");
+                jedis.sadd("jedisSet", "2");
+                jedis.sadd("jedisSet", "3");
+                jedis.sadd("jedisSet", "4");
+                jedis.sadd("jedisSet", "5");
+                jedis.sadd("jedisSet", "Hi");
+                jedis.sadd("jedisSet", "中国");
+                //查询全部元素
+                Set<String> smembers = jedis.smembers("jedisSet");
+                System.out.println("smembers=" + smembers);
+
+                // 删除元素
+                Long srem = jedis.srem("jedisSet", "1", "21");
+                System.out.println("srem=" + srem);
+
+                //判断元素是否存在
+                Boolean sismember = jedis.sismember("jedisSet", "2");
+                System.out.println("sismember=" + sismember);
+
+                // 获取元素的个数
+                Long scard = jedis.scard("jedisSet");
+                System.out.println("scard=" + scard);
+
+                // 随机出栈
+                Set<String> spop = jedis.spop("jedisSet", 2);
+                System.out.println("spop=" + spop);
+
+                jedis.sadd("sets1", "华山");
+                jedis.sadd("sets1", "泰山");
+                jedis.sadd("sets1", "衡山");
+
+                jedis.sadd("sets2", "武当山");
+                jedis.sadd("sets2", "少室山");
+                jedis.sadd("sets2", "华山");
+                // 交集 [华山]
+                Set<String> sinter = jedis.sinter("sets1", "sets2");
+                System.out.println("sinter=" + sinter);
+                // 并集 [华山, 武当山, 衡山, 泰山, 少室山]
+                Set<String> sunion = jedis.sunion("sets1", "sets2");
+                System.out.println("sunion=" + sunion);
+                // 差集 [衡山, 泰山]
+                Set<String> sdiff = jedis.sdiff("sets1", "sets2");
+                System.out.println("sdiff=" + sdiff);
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
@@ -152,55 +137,48 @@ public class JedisSetController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            jedis.zadd("orderSet", 200, "华山");
-            jedis.zadd("orderSet", 300, "泰山");
-            jedis.zadd("orderSet", 250, "衡山");
-            jedis.zadd("orderSet", 450, "少室山");
-            jedis.zadd("orderSet", 800, "九华山");
-            jedis.zadd("orderSet", 100, "黄山");
-
-            // 获取整个集合的元素：[黄山, 华山, 衡山, 泰山, 少室山, 九华山]
-            Set<String> zrange = jedis.zrange("orderSet", 0, -1);
-            System.out.println("zrange=" + zrange);
-
-            // 获取索范围内的元素，并反序输出：[九华山, 少室山, 泰山, 衡山, 华山, 黄山]
-            Set<String> zrevrange = jedis.zrevrange("orderSet", 0, -1);
-            System.out.println("zrevrange=" + zrevrange);
-
-            // 获取集合的元素个数
-            System.out.println("zcard=" + jedis.zcard("orderSet"));
-            // 获取元素权重
-            System.out.println("zscore=" + jedis.zscore("orderSet", "少室山"));
-            // 删除元素
-            System.out.println("zrem=" + jedis.zrem("orderSet", "黄山"));
-            // 获取指定权重范围[min.max]内的元素个数
-            System.out.println("zcount=" + jedis.zcount("orderSet", 200, 400));
-
-            // 整个集合值 [华山, 衡山, 泰山, 少室山, 九华山]
-            System.out.println(jedis.zrange("orderSet", 0, -1));
-
-            //返回排序集中权重介于[min,max]之间的所有元素，具有相同分数的元素按ASCII字符串的字典顺序返回
-            //Set<String> zrangeByScore(final String key, final double min, final double max)
-            Set<String> zrangeByScore = jedis.zrangeByScore("orderSet", 100, 500);
-            System.out.println("zrangeByScore=" + zrangeByScore);
-
-            //返回排序集中权重介于[min,max]之间的元素个数
-            //Long zremrangeByScore(final String key, final double min, final double max)
-            Long zremrangeByScore = jedis.zremrangeByScore("orderSet", 100, 500);
-            System.out.println("zremrangeByScore=" + zremrangeByScore);
-
+            jedisExecutor.run("JedisSetController.orderSet", jedis -> {
+                jedis.zadd("orderSet", 200, "华山");
+                jedis.zadd("orderSet", 300, "泰山");
+                jedis.zadd("orderSet", 250, "衡山");
+                jedis.zadd("orderSet", 450, "少室山");
+                jedis.zadd("orderSet", 800, "九华山");
+                jedis.zadd("orderSet", 100, "黄山");
+
+                // 获取整个集合的元素：[黄山, 华山, 衡山, 泰山, 少室山, 九华山]
+                Set<String> zrange = jedis.zrange("orderSet", 0, -1);
+                System.out.println("zrange=" + zrange);
+
+                // 获取索范围内的元素，并反序输出：[九华山, 少室山, 泰山, 衡山, 华山, 黄山]
+                Set<String> zrevrange = jedis.zrevrange("orderSet", 0, -1);
+                System.out.println("zrevrange=" + zrevrange);
+
+                // 获取集合的元素个数
+                System.out.println("zcard=" + jedis.zcard("orderSet"));
+                // 获取元素权重
+                System.out.println("zscore=" + jedis.zscore("orderSet", "少室山"));
+                // 删除元素
+                System.out.println("zrem=" + jedis.zrem("orderSet", "黄山"));
+                // 获取指定权重范围[min.max]内的元素个数
+                System.out.println("zcount=" + jedis.zcount("orderSet", 200, 400));
+
+                // 整个集合值 [华山, 衡山, 泰山, 少室山, 九华山]
+                System.out.println(jedis.zrange("orderSet", 0, -1));
+
+                //返回排序集中权重介于[min,max]之间的所有元素，具有相同分数的元素按ASCII字符串的字典顺序返回
+                //Set<String> zrangeByScore(final String key, final double min, final double max)
+                Set<String> zrangeByScore = jedis.zrangeByScore("orderSet", 100, 500);
+                System.out.println("zrangeByScore=" + zrangeByScore);
+
+                //返回排序集中权重介于[min,max]之间的元素个数
+                //Long zremrangeByScore(final String key, final double min, final double max)
+                Long zremrangeByScore = jedis.zremrangeByScore("orderSet", 100, 500);
+                System.out.println("zremrangeByScore=" + zremrangeByScore);
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
@@ -1,19 +1,18 @@
 package com.wmx.wmxredis.jedis;
 
+import com.wmx.wmxredis.delete.BulkDeleteService;
+import com.wmx.wmxredis.delete.BulkDeleteTask;
+import com.wmx.wmxredis.routing.ReadFromReplica;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.jedis.JedisConnection;
-import org.springframework.data.redis.core.RedisConnectionUtils;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.web.bind.annotation.*;
-import redis.clients.jedis.Jedis;
 
 import javax.annotation.Resource;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -37,11 +36,22 @@ public class JedisStrController {
     private RedisTemplate redisTemplate;
 
     /**
-     * 线程安全的 Redis 连接工厂，{@link RedisAutoConfiguration} 启动已经添加到了容器中，可以直接获取使用
-     * RedisConnectionFactory RedisTemplate.getConnectionFactory(): 也可以获取 RedisConnectionFactory 连接工厂
+     * 回调方式使用原生 Jedis，{@link JedisExecutor} 负责借用、归还连接与泄漏检测
      */
     @Resource
-    private RedisConnectionFactory redisConnectionFactory;
+    private JedisExecutor jedisExecutor;
+
+    /**
+     * 任意数量 key 的批量读写，按 key 数与字节数切分为多个 MGET/MSET
+     */
+    @Resource
+    private JedisBulkOperations jedisBulkOperations;
+
+    /**
+     * 不阻塞 Redis 的批量删除
+     */
+    @Resource
+    private BulkDeleteService bulkDeleteService;
 
     /**
      * 保存、设置字符串值
@@ -80,54 +90,33 @@ public class JedisStrController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            /**
-             * RedisConnectionFactory getRequiredConnectionFactory()：获取 ConnectionFactory 连接工厂，未设置时，抛异常.
-             * RedisConnection getConnection(RedisConnectionFactory factory): 从工厂获取 Redis 连接
-             * * 1、返回绑定到当前线程的任何现有对应连接，例如在使用事务管理器时，否则将始终创建新连接。
-             * * 2、factory：用于创建连接的参数工厂连接工厂
-             * * 3、返回没有事务管理的活动 Redis 连接
-             * RedisConnection getConnection(RedisConnectionFactory factory, boolean enableTranactionSupport)：从工厂获取 Redis 连接
-             * * 1、enableTranactionSupport 如果为 true，则返回带有事务管理的活动 Redis 连接
-             */
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-
-            // 有了 Jedis 则可以使用它的任意方法操作 Redis 了
-            Jedis jedis = jedisConnection.getNativeConnection();
-            if (isAppend != null && isAppend.equals(1)) {
-                jedis.append(key, value);
-            } else {
-                jedis.set(key, value);
-            }
+            jedisExecutor.run("JedisStrController.setStringValue", jedis -> {
+                if (isAppend != null && isAppend.equals(1)) {
+                    jedis.append(key, value);
+                } else {
+                    jedis.set(key, value);
+                }
 
-            //当 key 不存在时才进行设置
-            jedis.setnx(key + "_setnx", value);
-            //设置键值对，并指定过期时间
-            jedis.setex(key + "_setex", 60, value);
+                //当 key 不存在时才进行设置
+                jedis.setnx(key + "_setnx", value);
+                //设置键值对，并指定过期时间
+                jedis.setex(key + "_setex", 60, value);
 
-            String getSet = jedis.getSet(key + "_getSet", value);
-            System.out.println("getSet=" + getSet);
+                String getSet = jedis.getSet(key + "_getSet", value);
+                System.out.println("getSet=" + getSet);
 
-            String setNXKey = jedis.set("NX_KEY", "key不存在时进行设置", "NX", "EX", 60);
-            String setXxKey = jedis.set("XX_KEY", "key存在时进行设置", "XX", "PX", 60 * 1000);
-            System.out.println("setNXKey=" + setNXKey + "," + "setXxKey=" + setXxKey);
+                String setNXKey = jedis.set("NX_KEY", "key不存在时进行设置", "NX", "EX", 60);
+                String setXxKey = jedis.set("XX_KEY", "key存在时进行设置", "XX", "PX", 60 * 1000);
+                System.out.println("setNXKey=" + setNXKey + "," + "setXxKey=" + setXxKey);
 
-            String nxKey = jedis.get("NX_KEY");
-            String xxKey = jedis.get("XX_KEY");
-            System.out.println("nxKey=" + nxKey + "," + "xxKey=" + xxKey);
+                String nxKey = jedis.get("NX_KEY");
+                String xxKey = jedis.get("XX_KEY");
+                System.out.println("nxKey=" + nxKey + "," + "xxKey=" + xxKey);
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            /**
-             * releaseConnection(@Nullable RedisConnection conn, RedisConnectionFactory factory)：关闭通过给定工厂创建的给定连接（如果未进行外部管理（即未绑定到线程）
-             * * conn: 要关闭的 Redis 连接。
-             * * factory：用于创建连接的 Redis 工厂
-             */
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
@@ -141,6 +130,8 @@ public class JedisStrController {
      * String mset(final String... keysvalues) ：返回 OK
      * Long msetnx(final String... keysvalues) ：当 key 不存在时进行设置，如果所有键都设置成功，则返回为1，否则返回0(即至少有一个key已经存在)
      *
+     * 请求体中的键值对数量不限，由 {@link JedisBulkOperations#mset(Map)} 切分为多个 MSET，整体不再是原子操作。
+     *
      * @param dataMap
      * @return
      */
@@ -150,38 +141,25 @@ public class JedisStrController {
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            List<String> keysvalues = new ArrayList<>(dataMap.size() * 2);
+            Map<String, String> keyValues = new LinkedHashMap<>(dataMap.size() * 4 / 3 + 1);
             for (Map.Entry<String, Object> entry : dataMap.entrySet()) {
-                keysvalues.add(entry.getKey());
-                keysvalues.add(String.valueOf(entry.getValue()));
+                keyValues.put(entry.getKey(), String.valueOf(entry.getValue()));
             }
-            if (keysvalues.size() > 0) {
-                String mset = jedis.mset(keysvalues.toArray(new String[keysvalues.size()]));
-                resultMap.put("data", mset);
+            if (keyValues.size() > 0) {
+                jedisBulkOperations.mset(keyValues);
+                resultMap.put("data", "OK");
             }
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            /**
-             * releaseConnection(@Nullable RedisConnection conn, RedisConnectionFactory factory)：关闭通过给定工厂创建的给定连接（如果未进行外部管理（即未绑定到线程）
-             * * conn: 要关闭的 Redis 连接。
-             * * factory：用于创建连接的 Redis 工厂
-             */
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
 
     /**
      * http://localhost:8080/jedis/delKeys?keys=jedis,hi
+     * http://localhost:8080/jedis/delKeys?pattern=jedis*
      * http://localhost:8080/jedis/delKeys?isFlushDb=1
      * http://localhost:8080/jedis/delKeys?isFlushAll=1
      * <p>
@@ -192,46 +170,70 @@ public class JedisStrController {
      * Long del(final byte[]... keys)
      * String flushDB()：删除当前选定数据库的所有键，这个命令永远不会失败。
      * String flushAll()：删除所有现有数据库的所有键，而不仅仅是当前选定的数据库，这个命令永远不会失败
+     * <p>
+     * DEL 删除大 key、FLUSHDB 同步清空都会阻塞 Redis，这里统一交给 {@link BulkDeleteService}：
+     * * 按列表、按模式删除时提交后台任务，分批 UNLINK 并根据延迟预算限速，返回任务进度，通过 /jedis/delKeys/task 查询；
+     * * 清空数据库时使用 FLUSHDB ASYNC / FLUSHALL ASYNC。
      *
      * @param keys       ：用逗号分隔，如 a,b,c
+     * @param pattern    ：匹配模式，如 user:*，删除所有匹配的 key
      * @param isFlushDb  ：是否清空整个 db 库，值为 1 则清空
      * @param isFlushAll ：是否清空所有的 db 库，值为 1 则清空
      * @return
      */
     @GetMapping("/jedis/delKeys")
-    public Map<String, Object> delKeys(String keys, Integer isFlushDb, Integer isFlushAll) {
+    public Map<String, Object> delKeys(String keys, String pattern, Integer isFlushDb, Integer isFlushAll) {
         Map<String, Object> resultMap = new HashMap<>(8);
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
-
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-
-            Jedis jedis = jedisConnection.getNativeConnection();
             Object status = null;
             if (StringUtils.isNotBlank(keys)) {
-                String[] split = keys.split(",");
-                status = jedis.del(split);
+                status = bulkDeleteService.deleteKeys(Arrays.asList(keys.split(",")));
+            }
+            if (StringUtils.isNotBlank(pattern)) {
+                status = bulkDeleteService.deleteByPattern(pattern);
             }
             if (isFlushDb != null && isFlushDb.equals(1)) {
-                status = jedis.flushDB();
+                status = bulkDeleteService.flushDb();
             }
             if (isFlushAll != null && isFlushAll.equals(1)) {
-                status = jedis.flushAll();
+                status = bulkDeleteService.flushAll();
             }
             resultMap.put("data", status);
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
 
+    /**
+     * 查询批量删除任务进度：http://localhost:8080/jedis/delKeys/task?id=xxx
+     * 取消批量删除任务：http://localhost:8080/jedis/delKeys/task?id=xxx&cancel=1
+     * 不传 id 时返回所有任务
+     *
+     * @param id     ：任务 id
+     * @param cancel ：值为 1 时取消任务
+     * @return
+     */
+    @GetMapping("/jedis/delKeys/task")
+    public Map<String, Object> delKeysTask(String id, Integer cancel) {
+        Map<String, Object> resultMap = new HashMap<>(8);
+        resultMap.put("code", 200);
+        resultMap.put("msg", "success");
+        if (StringUtils.isBlank(id)) {
+            resultMap.put("data", bulkDeleteService.getTasks());
+            return resultMap;
+        }
+        BulkDeleteTask task = cancel != null && cancel.equals(1) ? bulkDeleteService.cancel(id) : bulkDeleteService.getTask(id);
+        if (task == null) {
+            resultMap.put("msg", id + " 任务不存在.");
+        }
+        resultMap.put("data", task);
+        return resultMap;
+    }
+
     /**
      * http://localhost:8080/jedis/getString?key=jedis1
      * <p>
@@ -248,41 +250,60 @@ public class JedisStrController {
      * @return
      */
     @GetMapping("/jedis/getString")
+    @ReadFromReplica
     public Map<String, Object> getStringValue(@RequestParam String key) {
         Map<String, Object> resultMap = new HashMap<>(8);
         resultMap.put("code", 200);
         resultMap.put("msg", "success");
 
-        JedisConnection jedisConnection = null;
         try {
-            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory, true);
-            Jedis jedis = jedisConnection.getNativeConnection();
-
-            Boolean exists = jedis.exists(key);
-            if (exists) {
-                String value = jedis.get(key);
-                String getrange = jedis.getrange(key, 0, 2);
-                System.out.println("getrange=" + getrange);
-                resultMap.put("data", value);
+            jedisExecutor.run("JedisStrController.getStringValue", jedis -> {
+                Boolean exists = jedis.exists(key);
+                if (exists) {
+                    String value = jedis.get(key);
+                    String getrange = jedis.getrange(key, 0, 2);
+                    System.out.println("getrange=" + getrange);
+                    resultMap.put("data", value);
 
-                List<String> mget = jedis.mget(key, key + "_setnx", key + "_setex");
-                System.out.println("mget=" + mget);
-            } else {
-                resultMap.put("msg", key + " 键不存在.");
-                resultMap.put("data", null);
-            }
+                    List<String> mget = jedis.mget(key, key + "_setnx", key + "_setex");
+                    System.out.println("mget=" + mget);
+                } else {
+                    resultMap.put("msg", key + " 键不存在.");
+                    resultMap.put("data", null);
+                }
+            });
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             getErrrMsg(resultMap, e);
-        } finally {
-            if (jedisConnection != null) {
-                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
-            }
         }
         return resultMap;
     }
 
 
+    /**
+     * http://localhost:8080/jedis/getStrings
+     * body：["jedis1","jedis2","jedis3"]
+     * <p>
+     * 批量获取字符串值，key 的数量不限，由 {@link JedisBulkOperations#getAll(java.util.Collection)} 切分为多个 MGET，
+     * 返回 key 与值，不存在的 key 不返回，顺序与请求体一致。
+     *
+     * @param keys
+     * @return
+     */
+    @PostMapping("/jedis/getStrings")
+    public Map<String, Object> getStringValues(@RequestBody List<String> keys) {
+        Map<String, Object> resultMap = new HashMap<>(8);
+        resultMap.put("code", 200);
+        resultMap.put("msg", "success");
+        try {
+            resultMap.put("data", jedisBulkOperations.getAll(keys));
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+            getErrrMsg(resultMap, e);
+        }
+        return resultMap;
+    }
+
     private void getErrrMsg(Map<String, Object> resultMap, Exception e) {
         resultMap.put("code", 500);
         resultMap.put("msg", e.getMessage());
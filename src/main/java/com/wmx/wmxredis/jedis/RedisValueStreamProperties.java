@@ -0,0 +1,32 @@
+package com.wmx.wmxredis.jedis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@link RedisValueStreamer} 配置
+ * <pre>
+ * redis:
+ *   value-stream:
+ *     page-size: 1000
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 19:00
+ */
+@ConfigurationProperties(prefix = "redis.value-stream")
+public class RedisValueStreamProperties {
+
+    /**
+     * 每页读取的元素个数：LRANGE/ZRANGE 的窗口大小，HSCAN/SSCAN 的 COUNT 提示值
+     */
+    private int pageSize = 1000;
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+}
@@ -0,0 +1,207 @@
+package com.wmx.wmxredis.jedis;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wmx.wmxredis.resultAPI.ResultCode;
+import com.wmx.wmxredis.resultAPI.ResultData;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.ObjectUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页读取 key 的值并以 JSON 边读边写到输出流，用于查看很大的列表、hash、集合
+ * <p>
+ * 1、RedisTemplate 的 range(key, 0, -1)、members、entries 会把整个集合一次读入内存再整体序列化，
+ * * 几百万个元素时堆内存瞬间暴涨并引起长时间 GC；这里每次只读一页，写出后丢弃，内存占用与集合大小无关。
+ * 2、list、zset 按下标窗口 LRANGE/ZRANGE 读取，保持原来的顺序(zset 按分数排序)；hash、set 用 HSCAN/SSCAN 游标读取。
+ * 3、每页单独从连接池借用连接，取完立即归还，客户端读得慢时不会长期占用连接。
+ * 4、不是快照：读取期间集合被修改时，LRANGE/ZRANGE 窗口可能重复或遗漏元素，HSCAN/SSCAN 可能重复返回元素。
+ * * hash 同一页内重复的字段会去掉；跨页的重复要记住所有字段才能去掉(内存又与集合大小相关)，这时 data 中会出现重复的字段名，
+ * * 消费方需要容忍重复的字段名(Jackson 默认取后一个，开启 STRICT_DUPLICATE_DETECTION 时会报错)，total 同样包含重复的个数。
+ * 5、输出格式与 {@link ResultData} 一致：{"code":200,"data":...,"total":元素个数,"message":"查询成功！,耗时：...(毫秒)"}，
+ * * key 不存在等错误在写出之前检查，返回普通的 ResultData；写出过程中出错时输出已经开始，只能记录日志并中断响应。
+ * 6、key、value 使用 RedisTemplate 的序列化器，value 的 JSON 格式与 getValueByKey 相同；key 必须使用 StringRedisSerializer。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 19:05
+ */
+public class RedisValueStreamer {
+
+    private static final String OPERATION = "RedisValueStreamer";
+    private static final Set<String> TYPES = new HashSet<>(Arrays.asList("string", "list", "set", "zset", "hash"));
+
+    private final JedisExecutor jedisExecutor;
+    private final ObjectMapper objectMapper;
+    private final RedisValueStreamProperties properties;
+    private final StringRedisSerializer keySerializer;
+    private final RedisSerializer<?> valueSerializer;
+    private final RedisSerializer<?> hashKeySerializer;
+    private final RedisSerializer<?> hashValueSerializer;
+
+    public RedisValueStreamer(JedisExecutor jedisExecutor, RedisTemplate<?, ?> redisTemplate, ObjectMapper objectMapper,
+                              RedisValueStreamProperties properties) {
+        this.jedisExecutor = jedisExecutor;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        if (!(redisTemplate.getKeySerializer() instanceof StringRedisSerializer)) {
+            throw new IllegalArgumentException("RedisTemplate 的 key 必须使用 StringRedisSerializer：" + redisTemplate.getKeySerializer());
+        }
+        this.keySerializer = (StringRedisSerializer) redisTemplate.getKeySerializer();
+        this.valueSerializer = redisTemplate.getValueSerializer();
+        this.hashKeySerializer = redisTemplate.getHashKeySerializer();
+        this.hashValueSerializer = redisTemplate.getHashValueSerializer();
+    }
+
+    /**
+     * 把 key 的值以 JSON 写到输出流，不会关闭输出流
+     *
+     * @param key
+     * @param out
+     * @throws IOException
+     */
+    public void write(String key, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        if (ObjectUtils.isEmpty(key)) {
+            writeResult(out, new ResultData<Object>(ResultCode.FAIL, "kye 参数错误！"));
+            return;
+        }
+        byte[] rawKey = keySerializer.serialize(key);
+        String type = jedisExecutor.execute(OPERATION + ".type", jedis -> jedis.type(rawKey));
+        if ("none".equals(type)) {
+            writeResult(out, new ResultData<Object>(ResultCode.FAIL, "kye 不存在：" + key));
+            return;
+        }
+        if (!TYPES.contains(type)) {
+            writeResult(out, new ResultData<Object>(ResultCode.FAIL, "kye 的类型错误：" + key));
+            return;
+        }
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeNumberField("code", ResultCode.SUCCESS.getCode());
+        generator.writeFieldName("data");
+        long total;
+        switch (type) {
+            case "string":
+                byte[] value = jedisExecutor.execute(OPERATION + ".get", jedis -> jedis.get(rawKey));
+                generator.writeObject(valueSerializer.deserialize(value));
+                total = 1;
+                break;
+            case "list":
+                total = writeRange(generator, "lrange", (jedis, from, to) -> jedis.lrange(rawKey, from, to));
+                break;
+            case "zset":
+                total = writeRange(generator, "zrange", (jedis, from, to) -> jedis.zrange(rawKey, from, to));
+                break;
+            case "set":
+                total = writeSet(generator, rawKey);
+                break;
+            default:
+                total = writeHash(generator, rawKey);
+                break;
+        }
+        generator.writeNumberField("total", total);
+        generator.writeStringField("message", "查询成功！,耗时：" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "(毫秒)");
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    /**
+     * 按下标窗口读取 list、zset，返回的元素少于一页时结束
+     */
+    private long writeRange(JsonGenerator generator, String command, RangeQuery query) throws IOException {
+        int pageSize = Math.max(properties.getPageSize(), 1);
+        String operation = OPERATION + "." + command;
+        long total = 0;
+        generator.writeStartArray();
+        while (true) {
+            long from = total;
+            Collection<byte[]> page = jedisExecutor.execute(operation, jedis -> query.range(jedis, from, from + pageSize - 1));
+            for (byte[] element : page) {
+                generator.writeObject(valueSerializer.deserialize(element));
+            }
+            total += page.size();
+            generator.flush();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        generator.writeEndArray();
+        return total;
+    }
+
+    private long writeSet(JsonGenerator generator, byte[] rawKey) throws IOException {
+        ScanParams scanParams = new ScanParams().count(Math.max(properties.getPageSize(), 1));
+        byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+        long total = 0;
+        generator.writeStartArray();
+        do {
+            byte[] pageCursor = cursor;
+            ScanResult<byte[]> page = jedisExecutor.execute(OPERATION + ".sscan", jedis -> jedis.sscan(rawKey, pageCursor, scanParams));
+            for (byte[] member : page.getResult()) {
+                generator.writeObject(valueSerializer.deserialize(member));
+            }
+            total += page.getResult().size();
+            generator.flush();
+            cursor = page.getCursorAsBytes();
+        } while (!isFinished(cursor));
+        generator.writeEndArray();
+        return total;
+    }
+
+    private long writeHash(JsonGenerator generator, byte[] rawKey) throws IOException {
+        ScanParams scanParams = new ScanParams().count(Math.max(properties.getPageSize(), 1));
+        byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+        long total = 0;
+        Set<String> pageFields = new HashSet<>();
+        generator.writeStartObject();
+        do {
+            byte[] pageCursor = cursor;
+            ScanResult<Map.Entry<byte[], byte[]>> page = jedisExecutor.execute(OPERATION + ".hscan",
+                    jedis -> jedis.hscan(rawKey, pageCursor, scanParams));
+            pageFields.clear();
+            for (Map.Entry<byte[], byte[]> entry : page.getResult()) {
+                String field = String.valueOf(hashKeySerializer.deserialize(entry.getKey()));
+                if (pageFields.add(field)) {
+                    generator.writeFieldName(field);
+                    generator.writeObject(hashValueSerializer.deserialize(entry.getValue()));
+                }
+            }
+            total += pageFields.size();
+            generator.flush();
+            cursor = page.getCursorAsBytes();
+        } while (!isFinished(cursor));
+        generator.writeEndObject();
+        return total;
+    }
+
+    private static boolean isFinished(byte[] cursor) {
+        return Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY);
+    }
+
+    private void writeResult(OutputStream out, ResultData<?> resultData) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeObject(resultData);
+        generator.close();
+    }
+
+    /**
+     * 读取 [from, to] 下标范围内的元素
+     */
+    @FunctionalInterface
+    private interface RangeQuery {
+        Collection<byte[]> range(Jedis jedis, long from, long to);
+    }
+}
@@ -0,0 +1,138 @@
+package com.wmx.wmxredis.lock;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 一次成功获取的锁，由 {@link FencedLockService#tryLock} 返回
+ * <pre>
+ *     try (FencedLock lock = fencedLockService.tryLock("payment", orderNumber, Duration.ofSeconds(3))) {
+ *         if (lock == null) {
+ *             return "正在处理中";
+ *         }
+ *         paymentDao.pay(orderNumber, lock.getToken());
+ *     }
+ * </pre>
+ * <p>
+ * 1、令牌(token)：同一个锁每次获取都比上一次大，下游写入时带上令牌，存储端拒绝比已见过的令牌小的写入，
+ * * 即使持有者因为长时间停顿(GC、网络)导致锁过期、被其它持有者获取，旧持有者的写入也不会生效。
+ * 2、{@link #unlock()} 只删除自己持有的锁，锁已经过期并被其它持有者获取时不会误删，可以重复调用。
+ * 3、不可重入：同一个线程再次获取同一个锁会等待到超时。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 14:05
+ */
+public class FencedLock implements AutoCloseable {
+
+    private final FencedLockService service;
+    private final String name;
+    private final String key;
+    private final String owner;
+    private final long token;
+    private final Thread holder;
+    private final long acquiredNanos;
+    /**
+     * 最长持有时间，为 null、0 或负数时不限制
+     */
+    private final Duration maxHoldTime;
+
+    /**
+     * 是否已经释放
+     */
+    private volatile boolean released;
+
+    /**
+     * 续租失败，锁已经过期或者被其它持有者获取
+     */
+    private volatile boolean lost;
+
+    /**
+     * 本地锁是否已经释放，只能释放一次
+     */
+    private final AtomicBoolean localReleased = new AtomicBoolean();
+
+    FencedLock(FencedLockService service, String name, String key, String owner, long token, Thread holder, Duration maxHoldTime) {
+        this.service = service;
+        this.name = name;
+        this.key = key;
+        this.owner = owner;
+        this.token = token;
+        this.holder = holder;
+        this.acquiredNanos = System.nanoTime();
+        this.maxHoldTime = maxHoldTime;
+    }
+
+    /**
+     * 防护令牌，单调递增
+     *
+     * @return
+     */
+    public long getToken() {
+        return token;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 本地判断是否仍然持有锁：未释放且续租没有失败。最近一次续租之后的变化(如 Redis 数据丢失)感知不到，正确性以令牌为准
+     *
+     * @return
+     */
+    public boolean isHeld() {
+        return !released && !lost;
+    }
+
+    /**
+     * 释放锁
+     */
+    public void unlock() {
+        if (released) {
+            return;
+        }
+        released = true;
+        service.release(this);
+    }
+
+    @Override
+    public void close() {
+        unlock();
+    }
+
+    String getOwner() {
+        return owner;
+    }
+
+    Thread getHolder() {
+        return holder;
+    }
+
+    long getAcquiredNanos() {
+        return acquiredNanos;
+    }
+
+    Duration getMaxHoldTime() {
+        return maxHoldTime;
+    }
+
+    boolean isReleased() {
+        return released;
+    }
+
+    void markLost() {
+        lost = true;
+    }
+
+    /**
+     * 第一次调用时返回 true，调用方负责释放本地锁
+     */
+    boolean releaseLocal() {
+        return localReleased.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,39 @@
+package com.wmx.wmxredis.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 带防护令牌的分布式锁配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link FencedLockProperties} 配置类交由 Spring 容器管理
+ * 2、应用关闭时停止续租线程，未释放的锁在租约到期后自动释放。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 14:20
+ */
+@Configuration
+@EnableConfigurationProperties(FencedLockProperties.class)
+public class FencedLockConfig {
+
+    /**
+     * 本地锁，FencedLockService 与直接使用 RLock 的代码共用
+     *
+     * @param fencedLockProperties
+     * @return
+     */
+    @Bean
+    public LocalKeyLocks localKeyLocks(FencedLockProperties fencedLockProperties) {
+        return new LocalKeyLocks(fencedLockProperties.isLocalLock());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public FencedLockService fencedLockService(RedissonClient redissonClient, FencedLockProperties fencedLockProperties,
+                                               MeterRegistry meterRegistry, LocalKeyLocks localKeyLocks) {
+        return new FencedLockService(redissonClient, fencedLockProperties, meterRegistry, localKeyLocks);
+    }
+}
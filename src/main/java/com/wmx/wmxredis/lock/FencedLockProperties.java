@@ -0,0 +1,88 @@
+package com.wmx.wmxredis.lock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@link FencedLockService} 配置
+ * <pre>
+ * redis:
+ *   lock:
+ *     key-prefix: "wmx:lock:"
+ *     lease-time: 10s
+ *     max-hold-time: 60s
+ *     max-retry-interval: 100ms
+ *     local-lock: true
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 14:00
+ */
+@ConfigurationProperties(prefix = "redis.lock")
+public class FencedLockProperties {
+
+    /**
+     * 锁 key 的前缀，完整的 key 为 前缀 + {锁名称:资源}
+     */
+    private String keyPrefix = "wmx:lock:";
+    /**
+     * 租约时间：持有者每隔 1/3 租约时间续租一次，持有者进程或线程退出后最多这么久锁自动释放
+     */
+    private Duration leaseTime = Duration.ofSeconds(10);
+    /**
+     * 默认的最长持有时间：超过后停止续租并把锁标记为丢失，租约到期后自动释放。
+     * 线程池中的线程不会退出，持有线程卡住或者忘记释放时靠它结束续租；必须大于最长的正常临界区，
+     * 临界区更长的调用方通过 {@link FencedLockService#tryLock(String, Object, Duration, Duration)} 单独指定，为 0 时不限制
+     */
+    private Duration maxHoldTime = Duration.ofSeconds(60);
+    /**
+     * 获取锁失败后重试的最大间隔，重试间隔从 5 毫秒开始翻倍，直到该值
+     */
+    private Duration maxRetryInterval = Duration.ofMillis(100);
+    /**
+     * 是否开启本地锁，同一个锁在本实例内只有一个线程竞争 Redis，见 {@link LocalKeyLocks}
+     */
+    private boolean localLock = true;
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public Duration getLeaseTime() {
+        return leaseTime;
+    }
+
+    public void setLeaseTime(Duration leaseTime) {
+        this.leaseTime = leaseTime;
+    }
+
+    public Duration getMaxHoldTime() {
+        return maxHoldTime;
+    }
+
+    public void setMaxHoldTime(Duration maxHoldTime) {
+        this.maxHoldTime = maxHoldTime;
+    }
+
+    public Duration getMaxRetryInterval() {
+        return maxRetryInterval;
+    }
+
+    public void setMaxRetryInterval(Duration maxRetryInterval) {
+        this.maxRetryInterval = maxRetryInterval;
+    }
+
+    public boolean isLocalLock() {
+        return localLock;
+    }
+
+    public void setLocalLock(boolean localLock) {
+        this.localLock = localLock;
+    }
+}
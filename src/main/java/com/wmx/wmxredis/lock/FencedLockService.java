@@ -0,0 +1,249 @@
+package com.wmx.wmxredis.lock;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * 基于 RedissonClient 的租约锁：每次获取返回单调递增的防护令牌，只有持有者存活时才续租，只有持有者才能释放
+ * <p>
+ * 1、获取：Lua 脚本中 SET key owner NX PX lease 成功后 INCR 令牌计数器，两步原子执行；锁 key 与计数器使用相同的 hash tag，集群中在同一个槽。
+ * * 计数器不过期，每个锁(名称 + 资源)在 Redis 中常驻一个整数。
+ * 2、续租：不依赖 Redisson 看门狗(看门狗只要客户端存活就一直续期，持有线程卡死或退出后锁也不会释放)，
+ * * 由本类每隔 1/3 租约时间异步续租一次，持有线程已经退出或者锁已释放时停止续租，租约到期后锁自动释放。
+ * * 线程池中的线程不会退出，持有时间超过 max-hold-time 时同样停止续租，{@link FencedLock#isHeld()} 变为 false；
+ * * 临界区较长的调用方在获取时单独指定最长持有时间，为 0 时不限制(只要持有线程存活就一直续租)。
+ * * 续租失败说明锁已经过期或者被其它持有者获取，{@link FencedLock#isHeld()} 变为 false，并累加 redis.lock.lost。
+ * 3、释放：Lua 脚本比较持有者 id 后删除，不会误删其它持有者的锁(不要再用 isLocked() 判断后 unlock())。
+ * 4、等待：获取失败后按 5 毫秒开始翻倍、不超过 max-retry-interval 的间隔重试，直到 waitTime。
+ * 5、两级锁：先获取本地锁({@link LocalKeyLocks})，同一个锁在本实例内只有一个线程访问 Redis 重试，其它线程在本地等待，
+ * * 持有者释放后直接在进程内唤醒下一个，大量请求集中到同一个节点时 Redis 中的加锁流量只与实例数有关。
+ * * 持有线程退出且没有释放时，续租线程在停止续租的同时释放本地锁。
+ * 6、指标(标签 lock 为锁名称，不包含资源，避免标签值过多)：redis.lock.wait(获取锁的等待时间，标签 result=acquired/timeout)、
+ * * redis.lock.hold(持有时间)、redis.lock.contention(Redis 中第一次尝试没有获取到的次数)、
+ * * redis.lock.local.contention(在本地排队的次数)、redis.lock.lost(续租失败、超过最长持有时间的次数)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 14:10
+ */
+public class FencedLockService {
+
+    private static final Logger log = LoggerFactory.getLogger(FencedLockService.class);
+
+    private static final long MIN_RETRY_INTERVAL = 5;
+
+    private final RedissonClient redissonClient;
+    private final FencedLockProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LocalKeyLocks localLocks;
+    private final ScheduledExecutorService renewalScheduler;
+    private final String acquireScript = script("lua/fenced_lock_acquire.lua");
+    private final String renewScript = script("lua/fenced_lock_renew.lua");
+    private final String releaseScript = script("lua/fenced_lock_release.lua");
+
+    public FencedLockService(RedissonClient redissonClient, FencedLockProperties properties, MeterRegistry meterRegistry) {
+        this(redissonClient, properties, meterRegistry, new LocalKeyLocks(properties.isLocalLock()));
+    }
+
+    public FencedLockService(RedissonClient redissonClient, FencedLockProperties properties, MeterRegistry meterRegistry,
+                             LocalKeyLocks localLocks) {
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.localLocks = localLocks;
+        this.renewalScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("redis-lock-renewal-%d").setDaemon(true).build());
+    }
+
+    /**
+     * 尝试获取锁
+     *
+     * @param name     ：锁名称，如 payment，用于指标标签
+     * @param resource ：被保护的资源，如订单号，与名称一起组成锁 key
+     * @param waitTime ：最长等待时间，为 0 时只尝试一次
+     * @return 获取成功时返回锁，用完后调用 {@link FencedLock#unlock()}；超时返回 null
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public FencedLock tryLock(String name, Object resource, Duration waitTime) throws InterruptedException {
+        return tryLock(name, resource, waitTime, properties.getMaxHoldTime());
+    }
+
+    /**
+     * 尝试获取锁，单独指定最长持有时间
+     *
+     * @param name        ：锁名称，如 payment，用于指标标签
+     * @param resource    ：被保护的资源，如订单号，与名称一起组成锁 key
+     * @param waitTime    ：最长等待时间，为 0 时只尝试一次
+     * @param maxHoldTime ：最长持有时间，必须大于最长的正常临界区；为 null、0 或负数时不限制，持有线程存活时一直续租
+     * @return 获取成功时返回锁，用完后调用 {@link FencedLock#unlock()}；超时返回 null
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public FencedLock tryLock(String name, Object resource, Duration waitTime, Duration maxHoldTime) throws InterruptedException {
+        String key = properties.getKeyPrefix() + "{" + name + ":" + resource + "}";
+        String owner = UUID.randomUUID().toString();
+        long leaseMillis = properties.getLeaseTime().toMillis();
+        long start = System.nanoTime();
+        long deadline = start + waitTime.toNanos();
+        if (!localLocks.tryAcquire(key)) {
+            meterRegistry.counter("redis.lock.local.contention", "lock", name).increment();
+            if (!localLocks.tryAcquire(key, waitTime.toNanos(), TimeUnit.NANOSECONDS)) {
+                recordWait(name, start, "timeout");
+                return null;
+            }
+        }
+        FencedLock lock = null;
+        try {
+            lock = acquire(name, key, owner, leaseMillis, maxHoldTime, start, deadline);
+            return lock;
+        } finally {
+            if (lock == null) {
+                localLocks.release(key);
+            }
+        }
+    }
+
+    /**
+     * 已经持有本地锁，在 Redis 中获取锁，超时返回 null
+     */
+    private FencedLock acquire(String name, String key, String owner, long leaseMillis, Duration maxHoldTime, long start, long deadline)
+            throws InterruptedException {
+        long retryInterval = MIN_RETRY_INTERVAL;
+        boolean contended = false;
+        while (true) {
+            long token = acquire(key, owner, leaseMillis);
+            if (token > 0) {
+                recordWait(name, start, "acquired");
+                FencedLock lock = new FencedLock(this, name, key, owner, token, Thread.currentThread(), maxHoldTime);
+                scheduleRenewal(lock, leaseMillis);
+                return lock;
+            }
+            if (!contended) {
+                contended = true;
+                meterRegistry.counter("redis.lock.contention", "lock", name).increment();
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                recordWait(name, start, "timeout");
+                return null;
+            }
+            long sleep = Math.min(ThreadLocalRandom.current().nextLong(retryInterval / 2, retryInterval + 1),
+                    TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+            TimeUnit.MILLISECONDS.sleep(sleep);
+            retryInterval = Math.min(retryInterval * 2, Math.max(properties.getMaxRetryInterval().toMillis(), MIN_RETRY_INTERVAL));
+        }
+    }
+
+    private long acquire(String key, String owner, long leaseMillis) {
+        Long token = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_WRITE, acquireScript,
+                RScript.ReturnType.INTEGER, Arrays.asList(key, key + ":fence"), owner, String.valueOf(leaseMillis));
+        return token == null ? 0 : token;
+    }
+
+    /**
+     * 每隔 1/3 租约时间续租一次，持有线程退出、锁已释放、超过最长持有时间或者续租失败时停止
+     */
+    private void scheduleRenewal(FencedLock lock, long leaseMillis) {
+        long interval = Math.max(leaseMillis / 3, 1);
+        renewalScheduler.schedule(() -> renew(lock, leaseMillis), interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(FencedLock lock, long leaseMillis) {
+        if (lock.isReleased()) {
+            return;
+        }
+        if (!lock.getHolder().isAlive()) {
+            log.warn("锁 {} 的持有线程 {} 已经退出，停止续租，{} 毫秒内自动释放", lock.getKey(), lock.getHolder().getName(), leaseMillis);
+            releaseLocal(lock);
+            return;
+        }
+        Duration maxHoldTime = lock.getMaxHoldTime();
+        boolean limited = maxHoldTime != null && !maxHoldTime.isZero() && !maxHoldTime.isNegative();
+        if (limited && System.nanoTime() - lock.getAcquiredNanos() >= maxHoldTime.toNanos()) {
+            lock.markLost();
+            meterRegistry.counter("redis.lock.lost", "lock", lock.getName()).increment();
+            log.warn("锁 {} 持有时间超过 {}，停止续租，{} 毫秒内自动释放，令牌：{}", lock.getKey(), maxHoldTime,
+                    leaseMillis, lock.getToken());
+            releaseLocal(lock);
+            return;
+        }
+        List<Object> keys = Collections.singletonList(lock.getKey());
+        redissonClient.getScript(StringCodec.INSTANCE)
+                .<Long>evalAsync(lock.getKey(), RScript.Mode.READ_WRITE, renewScript, RScript.ReturnType.INTEGER, keys,
+                        lock.getOwner(), String.valueOf(leaseMillis))
+                .onComplete((renewed, error) -> {
+                    if (error != null) {
+                        // Redis 暂时不可用时继续尝试，租约到期前恢复即可
+                        log.warn("锁 {} 续租失败：{}", lock.getKey(), error.getMessage());
+                        scheduleRenewal(lock, leaseMillis);
+                    } else if (renewed != null && renewed == 1) {
+                        scheduleRenewal(lock, leaseMillis);
+                    } else if (!lock.isReleased()) {
+                        lock.markLost();
+                        meterRegistry.counter("redis.lock.lost", "lock", lock.getName()).increment();
+                        log.warn("锁 {} 已经过期或者被其它持有者获取，令牌：{}", lock.getKey(), lock.getToken());
+                    }
+                });
+    }
+
+    /**
+     * 只释放自己持有的锁
+     */
+    void release(FencedLock lock) {
+        meterRegistry.timer("redis.lock.hold", "lock", lock.getName())
+                .record(System.nanoTime() - lock.getAcquiredNanos(), TimeUnit.NANOSECONDS);
+        try {
+            Long released = redissonClient.getScript(StringCodec.INSTANCE).eval(lock.getKey(), RScript.Mode.READ_WRITE, releaseScript,
+                    RScript.ReturnType.INTEGER, Collections.singletonList(lock.getKey()), lock.getOwner());
+            if (released == null || released == 0) {
+                log.warn("释放锁 {} 时锁已经过期或者被其它持有者获取，令牌：{}", lock.getKey(), lock.getToken());
+            }
+        } finally {
+            // 先释放 Redis 中的锁，本地等待的线程被唤醒后可以立即获取
+            releaseLocal(lock);
+        }
+    }
+
+    private void releaseLocal(FencedLock lock) {
+        if (lock.releaseLocal()) {
+            localLocks.release(lock.getKey());
+        }
+    }
+
+    private void recordWait(String name, long start, String result) {
+        Timer.builder("redis.lock.wait").description("获取锁的等待时间")
+                .tags("lock", name, "result", result)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String script(String path) {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取 Lua 脚本失败：" + path, e);
+        }
+    }
+
+    public void shutdown() {
+        renewalScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,144 @@
+package com.wmx.wmxredis.lock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式锁前面的本地锁：同一个锁 key 在本实例内只有一个线程去竞争 Redis 中的锁，其它线程在本地排队
+ * <p>
+ * 1、按完整的锁 key 区分，每个 key 一个许可数为 1 的信号量，不同的 key 互不影响：
+ * * 同一个线程可以同时持有多个 key，多个线程按不同顺序获取不同的 key 也不会互相等待。
+ * * 不使用 Guava Striped 分段：不同的 key 落在同一个分段时，持有 a 再获取 b 的线程会等待自己，两个线程交叉获取时互相等待。
+ * 2、信号量带引用计数(持有者 + 等待者)，在 ConcurrentHashMap.compute 中增减，减到 0 时移除，只占用正在使用的 key。
+ * * 使用信号量而不是 ReentrantLock：分布式锁可能在其它线程中释放(续租线程发现持有线程已退出时)，信号量不要求同一个线程释放。
+ * 3、不可重入：同一个线程持有后再次获取同一个 key 会等待到超时。
+ * 4、关闭时所有方法直接返回。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 14:50
+ */
+public class LocalKeyLocks {
+
+    /**
+     * 锁 key -> 信号量，关闭时为 null
+     */
+    private final ConcurrentMap<String, KeyLock> locks;
+
+    /**
+     * @param enabled ：是否开启，为 false 时所有方法直接返回
+     */
+    public LocalKeyLocks(boolean enabled) {
+        this.locks = enabled ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * 立即尝试获取，不等待
+     *
+     * @param key
+     * @return
+     */
+    public boolean tryAcquire(String key) {
+        if (locks == null) {
+            return true;
+        }
+        KeyLock lock = retain(key);
+        if (lock.semaphore.tryAcquire()) {
+            return true;
+        }
+        unretain(key);
+        return false;
+    }
+
+    /**
+     * 在超时时间内获取
+     *
+     * @param key
+     * @param timeout
+     * @param unit
+     * @return 超时返回 false
+     * @throws InterruptedException
+     */
+    public boolean tryAcquire(String key, long timeout, TimeUnit unit) throws InterruptedException {
+        if (locks == null) {
+            return true;
+        }
+        KeyLock lock = retain(key);
+        boolean acquired = false;
+        try {
+            acquired = lock.semaphore.tryAcquire(timeout, unit);
+            return acquired;
+        } finally {
+            if (!acquired) {
+                unretain(key);
+            }
+        }
+    }
+
+    /**
+     * 一直等待直到获取
+     *
+     * @param key
+     * @throws InterruptedException
+     */
+    public void acquire(String key) throws InterruptedException {
+        if (locks == null) {
+            return;
+        }
+        KeyLock lock = retain(key);
+        try {
+            lock.semaphore.acquire();
+        } catch (InterruptedException e) {
+            unretain(key);
+            throw e;
+        }
+    }
+
+    /**
+     * 释放，必须与一次成功的获取对应
+     *
+     * @param key
+     */
+    public void release(String key) {
+        if (locks == null) {
+            return;
+        }
+        KeyLock lock = locks.get(key);
+        if (lock == null) {
+            throw new IllegalStateException("没有持有本地锁：" + key);
+        }
+        lock.semaphore.release();
+        unretain(key);
+    }
+
+    /**
+     * 正在使用(被持有或者有线程等待)的 key 个数
+     *
+     * @return
+     */
+    int size() {
+        return locks == null ? 0 : locks.size();
+    }
+
+    private KeyLock retain(String key) {
+        return locks.compute(key, (k, lock) -> {
+            KeyLock retained = lock == null ? new KeyLock() : lock;
+            retained.references++;
+            return retained;
+        });
+    }
+
+    private void unretain(String key) {
+        locks.computeIfPresent(key, (k, lock) -> --lock.references == 0 ? null : lock);
+    }
+
+    private static final class KeyLock {
+        private final Semaphore semaphore = new Semaphore(1);
+        /**
+         * 持有者与等待者个数，只在 compute 中修改
+         */
+        private int references;
+    }
+}
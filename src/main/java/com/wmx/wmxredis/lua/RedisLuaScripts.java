@@ -0,0 +1,283 @@
+package com.wmx.wmxredis.lua;
+
+import com.wmx.wmxredis.pipeline.RedisBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 常用的"写入并设置过期时间" Lua 脚本，写入与 expire 在服务端原子执行，一次网络往返，没有中间状态
+ * <p>
+ * 1、脚本文件放在 resources/lua 目录下，程序启动时通过 SCRIPT LOAD 预加载到 Redis，之后都通过 EVALSHA 执行。
+ * 2、RedisTemplate.execute 执行 EVALSHA 返回 NOSCRIPT(如 Redis 重启后脚本缓存被清空)时，会自动改用 EVAL 重新执行。
+ * 3、加入 {@link RedisBatch} 管道执行时，脚本确认已加载时使用 EVALSHA，否则使用 EVAL；
+ * * 管道中的 EVALSHA 返回 NOSCRIPT 时，在批次的第二个管道中改用 EVAL 重新执行(EVAL 同时会重新缓存脚本)，
+ * * 不会出现批次中普通命令成功、脚本命令丢失的情况，重新执行的脚本命令排在批次中其它命令之后。
+ * 4、key、value 使用 redisTemplate 的序列化器，写入的数据可以直接用 RedisTemplate 读取。
+ * 5、传入 ReactiveRedisTemplate 的重载方法以非阻塞方式执行，参数同样使用 redisTemplate 的序列化器(两者序列化方式相同)，
+ * * EVALSHA 返回 NOSCRIPT 时同样会自动改用 EVAL(Spring Data Redis 2.1 以 JVM 默认字符集解码脚本内容，
+ * * 默认字符集不是 UTF-8 时脚本中的中文注释会变成乱码，只影响注释，不影响执行)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 17:20
+ */
+@Component
+public class RedisLuaScripts {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisLuaScripts.class);
+
+    /**
+     * 参数已经是序列化后的字节数组，原样传递
+     */
+    private static final RedisSerializer<byte[]> BYTES = new RedisSerializer<byte[]>() {
+        @Override
+        public byte[] serialize(byte[] bytes) {
+            return bytes;
+        }
+
+        @Override
+        public byte[] deserialize(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    private static final RedisSerializer<Long> LONG = new RedisSerializer<Long>() {
+        @Override
+        public byte[] serialize(Long value) {
+            return value == null ? null : String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Long deserialize(byte[] bytes) {
+            return bytes == null ? null : Long.valueOf(new String(bytes, StandardCharsets.UTF_8));
+        }
+    };
+
+    private final LuaScript rightPushAllAndExpire = new LuaScript("lua/rpush_expire.lua");
+    private final LuaScript hashPutAndExpire = new LuaScript("lua/hset_expire.lua");
+    private final LuaScript hashPutAllAndExpire = new LuaScript("lua/hmset_expire.lua");
+
+    @Resource
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    /**
+     * 程序启动时预加载脚本，Redis 暂时不可用时不影响启动，第一次执行时会通过 EVAL 自动加载
+     */
+    @PostConstruct
+    public void load() {
+        for (LuaScript script : Arrays.asList(rightPushAllAndExpire, hashPutAndExpire, hashPutAllAndExpire)) {
+            try {
+                String sha = redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptLoad(script.body));
+                script.loaded = script.redisScript.getSha1().equals(sha);
+            } catch (Exception e) {
+                log.warn("预加载 Lua 脚本 {} 失败：{}", script.path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * RPUSH 追加元素并设置过期时间
+     *
+     * @param key
+     * @param timeout ：过期时间
+     * @param values  ：追加的元素
+     * @return 追加后列表的长度
+     */
+    public Long rightPushAllAndExpire(String key, Duration timeout, Object... values) {
+        return execute(rightPushAllAndExpire, key, rightPushAllArgs(timeout, values));
+    }
+
+    /**
+     * HSET 设置 hash 字段并设置过期时间
+     *
+     * @param key
+     * @param hashKey ：字段
+     * @param value   ：值
+     * @param timeout ：过期时间
+     * @return 新增字段时返回 1，覆盖已有字段时返回 0
+     */
+    public Long hashPutAndExpire(String key, String hashKey, Object value, Duration timeout) {
+        return execute(hashPutAndExpire, key, hashPutArgs(hashKey, value, timeout));
+    }
+
+    /**
+     * HMSET 设置多个 hash 字段并设置过期时间
+     *
+     * @param key
+     * @param map     ：字段与值
+     * @param timeout ：过期时间
+     * @return 设置的字段个数
+     */
+    public Long hashPutAllAndExpire(String key, Map<String, ?> map, Duration timeout) {
+        return execute(hashPutAllAndExpire, key, hashPutAllArgs(map, timeout));
+    }
+
+    /**
+     * 将 {@link #rightPushAllAndExpire(String, Duration, Object...)} 加入管道批次
+     */
+    public RedisBatch rightPushAllAndExpire(RedisBatch batch, String key, Duration timeout, Object... values) {
+        return addToBatch(batch, rightPushAllAndExpire, key, rightPushAllArgs(timeout, values));
+    }
+
+    /**
+     * 将 {@link #hashPutAndExpire(String, String, Object, Duration)} 加入管道批次
+     */
+    public RedisBatch hashPutAndExpire(RedisBatch batch, String key, String hashKey, Object value, Duration timeout) {
+        return addToBatch(batch, hashPutAndExpire, key, hashPutArgs(hashKey, value, timeout));
+    }
+
+    /**
+     * 将 {@link #hashPutAllAndExpire(String, Map, Duration)} 加入管道批次
+     */
+    public RedisBatch hashPutAllAndExpire(RedisBatch batch, String key, Map<String, ?> map, Duration timeout) {
+        return addToBatch(batch, hashPutAllAndExpire, key, hashPutAllArgs(map, timeout));
+    }
+
+    /**
+     * 以非阻塞方式执行 {@link #rightPushAllAndExpire(String, Duration, Object...)}
+     */
+    public Mono<Long> rightPushAllAndExpire(ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate, String key,
+                                            Duration timeout, Object... values) {
+        return Mono.defer(() -> execute(reactiveRedisTemplate, rightPushAllAndExpire, key, rightPushAllArgs(timeout, values)));
+    }
+
+    /**
+     * 以非阻塞方式执行 {@link #hashPutAndExpire(String, String, Object, Duration)}
+     */
+    public Mono<Long> hashPutAndExpire(ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate, String key, String hashKey,
+                                       Object value, Duration timeout) {
+        return Mono.defer(() -> execute(reactiveRedisTemplate, hashPutAndExpire, key, hashPutArgs(hashKey, value, timeout)));
+    }
+
+    /**
+     * 以非阻塞方式执行 {@link #hashPutAllAndExpire(String, Map, Duration)}
+     */
+    public Mono<Long> hashPutAllAndExpire(ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate, String key,
+                                          Map<String, ?> map, Duration timeout) {
+        return Mono.defer(() -> execute(reactiveRedisTemplate, hashPutAllAndExpire, key, hashPutAllArgs(map, timeout)));
+    }
+
+    private Object[] rightPushAllArgs(Duration timeout, Object[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("追加的元素不能为空");
+        }
+        Object[] args = new Object[values.length + 1];
+        args[0] = millis(timeout);
+        for (int i = 0; i < values.length; i++) {
+            args[i + 1] = valueSerializer().serialize(values[i]);
+        }
+        return args;
+    }
+
+    private Object[] hashPutArgs(String hashKey, Object value, Duration timeout) {
+        return new Object[]{millis(timeout), hashKeySerializer().serialize(hashKey), hashValueSerializer().serialize(value)};
+    }
+
+    private Object[] hashPutAllArgs(Map<String, ?> map, Duration timeout) {
+        if (map.isEmpty()) {
+            throw new IllegalArgumentException("hash 字段不能为空");
+        }
+        List<Object> args = new ArrayList<>(map.size() * 2 + 1);
+        args.add(millis(timeout));
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            args.add(hashKeySerializer().serialize(entry.getKey()));
+            args.add(hashValueSerializer().serialize(entry.getValue()));
+        }
+        return args.toArray();
+    }
+
+    private Long execute(LuaScript script, String key, Object[] args) {
+        List<Object> keys = Collections.singletonList(key);
+        return redisTemplate.execute(script.redisScript, BYTES, null, keys, args);
+    }
+
+    private Mono<Long> execute(ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate, LuaScript script, String key, Object[] args) {
+        List<Object> keys = Collections.singletonList(key);
+        // 脚本返回整数，结果不经过 reader 反序列化
+        return reactiveRedisTemplate.execute(script.redisScript, keys, Arrays.asList(args),
+                RedisElementWriter.from(BYTES), RedisElementReader.from(LONG)).next();
+    }
+
+    private RedisBatch addToBatch(RedisBatch batch, LuaScript script, String key, Object[] args) {
+        byte[] rawKey = keySerializer().serialize(key);
+        List<byte[]> rawKeys = Collections.singletonList(rawKey);
+        List<byte[]> rawArgs = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            rawArgs.add((byte[]) arg);
+        }
+        Function<Pipeline, Response<?>> eval = pipeline -> pipeline.eval(script.body, rawKeys, rawArgs);
+        Function<Object, Object> markLoaded = result -> {
+            // EVAL 执行成功后脚本已经缓存在服务端
+            script.loaded = true;
+            return result;
+        };
+        if (script.loaded) {
+            byte[] sha = script.redisScript.getSha1().getBytes(StandardCharsets.UTF_8);
+            // Redis 重启、SCRIPT FLUSH 等原因导致脚本缓存被清空时，在第二个管道中改用 EVAL
+            return batch.add("EVALSHA", key, pipeline -> pipeline.evalsha(sha, rawKeys, rawArgs), markLoaded, null,
+                    error -> String.valueOf(error.getMessage()).startsWith("NOSCRIPT"), eval);
+        }
+        return batch.add("EVAL", key, eval, markLoaded, null);
+    }
+
+    private byte[] millis(Duration timeout) {
+        return String.valueOf(timeout.toMillis()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> keySerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getKeySerializer();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> valueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> hashKeySerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getHashKeySerializer();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> hashValueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+    }
+
+    /**
+     * 一个 Lua 脚本：脚本内容、SHA1、是否已经加载到 Redis
+     */
+    private static class LuaScript {
+        private final String path;
+        private final DefaultRedisScript<Long> redisScript;
+        private final byte[] body;
+        private volatile boolean loaded;
+
+        LuaScript(String path) {
+            this.path = path;
+            this.redisScript = new DefaultRedisScript<>();
+            this.redisScript.setLocation(new ClassPathResource(path));
+            this.redisScript.setResultType(Long.class);
+            this.body = redisScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.wmx.wmxredis.metrics;
+
+import com.wmx.wmxredis.hotkey.HotKeyDetector;
+import com.wmx.wmxredis.routing.ReadRouting;
+import com.wmx.wmxredis.routing.ReplicaConnectionRouter;
+import io.micrometer.core.instrument.Gauge;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.util.Pool;
+
+/**
+ * 带监控的 Jedis 连接工厂，RedisTemplate 与 jedis 包中直接使用原生 Jedis 的代码都从这里获取连接
+ * <p>
+ * 1、fetchJedisConnector：记录从连接池借用连接的等待时间(redis.pool.wait)，并把 Jedis 替换为计时代理，
+ * * RedisTemplate 经 JedisConnection 执行的命令与 getNativeConnection() 得到的原生 Jedis 执行的命令都会被记录。
+ * 2、createRedisPool：保存连接池引用，注册活跃、空闲、等待连接数的 Gauge(redis.pool.active/idle/waiters)；
+ * * 连接池包装为 {@link UnwrappingJedisPool}，连接断开时归还的代理换回真实 Jedis 后再销毁。
+ * 3、集群模式下 Spring Data Redis 使用 JedisCluster，不经过 fetchJedisConnector，命令不会被记录。
+ * 4、设置了 {@link ReplicaConnectionRouter} 时，{@link ReadRouting#useReplica()} 为 true 的线程获取连接时改为使用副本，
+ * * 主节点上执行的命令交给 {@link ReadRouting#onCommand(String)} 跟踪写入(监控关闭时同样会生成代理)。
+ * 5、副本的连接工厂设置了 {@link #setMaster 主节点} 时，副本连接上的写命令转发给从主节点借用的连接执行，
+ * * {@link com.wmx.wmxredis.routing.ReadFromReplica} 方法中的写入不会因为副本只读而失败。
+ * 6、设置了 {@link HotKeyDetector} 时，命令访问的 key 交给它统计访问次数(监控关闭时同样会生成代理)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 19:25
+ */
+public class InstrumentedJedisConnectionFactory extends JedisConnectionFactory {
+
+    private final RedisCommandMetrics metrics;
+
+    /**
+     * 连接池指标的 pool 标签
+     */
+    private String poolName = "jedis";
+
+    private volatile Pool<Jedis> pool;
+
+    private volatile ReplicaConnectionRouter replicaRouter;
+
+    private volatile HotKeyDetector hotKeyDetector;
+
+    private volatile InstrumentedJedisConnectionFactory master;
+
+    public InstrumentedJedisConnectionFactory(RedisStandaloneConfiguration standaloneConfig, JedisClientConfiguration clientConfig,
+                                              RedisCommandMetrics metrics) {
+        super(standaloneConfig, clientConfig);
+        this.metrics = metrics;
+    }
+
+    public InstrumentedJedisConnectionFactory(RedisSentinelConfiguration sentinelConfig, JedisClientConfiguration clientConfig,
+                                              RedisCommandMetrics metrics) {
+        super(sentinelConfig, clientConfig);
+        this.metrics = metrics;
+    }
+
+    public InstrumentedJedisConnectionFactory(RedisClusterConfiguration clusterConfig, JedisClientConfiguration clientConfig,
+                                              RedisCommandMetrics metrics) {
+        super(clusterConfig, clientConfig);
+        this.metrics = metrics;
+    }
+
+    /**
+     * 当前使用的连接池，未使用连接池或者集群模式时为 null
+     *
+     * @return
+     */
+    public Pool<Jedis> getPool() {
+        return pool;
+    }
+
+    public void setPoolName(String poolName) {
+        this.poolName = poolName;
+    }
+
+    /**
+     * 设置读副本路由，为 null 时所有连接都来自主节点
+     *
+     * @param replicaRouter
+     */
+    public void setReplicaRouter(ReplicaConnectionRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    /**
+     * 设置热点 key 探测器，为 null 时不统计 key 的访问次数
+     *
+     * @param hotKeyDetector
+     */
+    public void setHotKeyDetector(HotKeyDetector hotKeyDetector) {
+        this.hotKeyDetector = hotKeyDetector;
+    }
+
+    /**
+     * 当前工厂是副本时设置主节点的连接工厂，副本连接上的写命令改为在主节点上执行；为 null 时写命令直接发给副本
+     *
+     * @param master
+     */
+    public void setMaster(InstrumentedJedisConnectionFactory master) {
+        this.master = master;
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+        ReplicaConnectionRouter router = replicaRouter;
+        if (router != null && !isRedisClusterAware() && ReadRouting.useReplica()) {
+            RedisConnection connection = router.getConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return super.getConnection();
+    }
+
+    /**
+     * 主节点连接，不经过读路由，供副本连接执行写命令
+     *
+     * @return
+     */
+    private RedisConnection getMasterConnection() {
+        return super.getConnection();
+    }
+
+    @Override
+    protected Jedis fetchJedisConnector() {
+        boolean trackWrites = replicaRouter != null;
+        HotKeyDetector hotKeys = hotKeyDetector;
+        InstrumentedJedisConnectionFactory masterFactory = master;
+        if (!metrics.isEnabled() && !trackWrites && hotKeys == null && masterFactory == null) {
+            return super.fetchJedisConnector();
+        }
+        long start = System.nanoTime();
+        Jedis jedis = super.fetchJedisConnector();
+        if (metrics.isEnabled()) {
+            metrics.recordPoolWait(poolName, System.nanoTime() - start);
+        }
+        return JedisCommandInterceptor.proxy(jedis, metrics, trackWrites, hotKeys,
+                masterFactory == null ? null : masterFactory::getMasterConnection);
+    }
+
+    @Override
+    protected Pool<Jedis> createRedisPool() {
+        return registerPool(super.createRedisPool());
+    }
+
+    @Override
+    protected Pool<Jedis> createRedisSentinelPool(RedisSentinelConfiguration config) {
+        return registerPool(super.createRedisSentinelPool(config));
+    }
+
+    private Pool<Jedis> registerPool(Pool<Jedis> jedisPool) {
+        // 连接断开时 Spring Data Redis 归还的是代理，包装后换回真实 Jedis
+        Pool<Jedis> pool = new UnwrappingJedisPool(jedisPool);
+        this.pool = pool;
+        Gauge.builder("redis.pool.active", pool, Pool::getNumActive).description("连接池中已借出的连接数")
+                .tag("pool", poolName).register(metrics.getMeterRegistry());
+        Gauge.builder("redis.pool.idle", pool, Pool::getNumIdle).description("连接池中空闲的连接数")
+                .tag("pool", poolName).register(metrics.getMeterRegistry());
+        Gauge.builder("redis.pool.waiters", pool, Pool::getNumWaiters).description("正在等待借用连接的线程数")
+                .tag("pool", poolName).register(metrics.getMeterRegistry());
+        return pool;
+    }
+}
@@ -0,0 +1,269 @@
+package com.wmx.wmxredis.metrics;
+
+import com.wmx.wmxredis.hotkey.HotKeyDetector;
+import com.wmx.wmxredis.routing.ReadRouting;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.data.redis.connection.RedisConnection;
+import redis.clients.jedis.*;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 为连接池中的 Jedis 生成 CGLIB 代理，记录每个 Redis 命令的耗时、错误与数据大小
+ * <p>
+ * 1、Jedis 是类而不是接口，只能通过 CGLIB 生成子类代理，代理对象只负责计时，方法调用全部转发给连接池中的真实 Jedis，
+ * * close 时真实 Jedis 把自己归还连接池，连接池不会感知到代理对象。
+ * 2、只有 Jedis 命令接口(JedisCommands、BinaryJedisCommands 等)中声明的方法才计时，命令名称为方法名大写，如 hset -> HSET；
+ * * getClient、pipelined、close 等非命令方法直接转发，不计时。
+ * 3、通过 getClient() 直接发送的命令(管道、事务、Spring Data Redis 少数命令)不经过代理，不会被记录。
+ * 4、trackWrites 为 true(主节点连接且开启了读写分离)时，每个命令交给 {@link ReadRouting#onCommand(String)} 跟踪写入。
+ * 5、设置了 {@link HotKeyDetector} 时，单 key 命令(JedisCommands、BinaryJedisCommands 中第一个参数是 key 的方法)与 MGET 访问的 key
+ * * 交给它统计访问次数。
+ * 6、副本连接的代理(设置了 masterConnection)遇到写命令、pipelined、multi 时向主节点借用一个连接，
+ * * 该命令以及之后的所有调用都转发给主节点连接(读到自己刚写的数据)，close 时一起归还；写入由主节点连接的代理跟踪与计时。
+ * 7、连接断开时 Spring Data Redis 把代理交给连接池销毁，连接池由 {@link UnwrappingJedisPool} 包装，通过 {@link #unwrap(Jedis)} 换回真实 Jedis。
+ * 8、代理类只生成一次，之后每次借用连接通过 {@link Factory#newInstance(Callback)} 创建一个轻量的代理对象，
+ * * Jedis 无参构造器不会建立网络连接。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 19:15
+ */
+public class JedisCommandInterceptor implements MethodInterceptor {
+
+    private static final String CLIENT = "jedis";
+
+    /**
+     * 声明了 Redis 命令的接口
+     */
+    private static final List<Class<?>> COMMAND_INTERFACES = Arrays.asList(
+            JedisCommands.class, MultiKeyCommands.class, AdvancedJedisCommands.class, ScriptingCommands.class,
+            BasicCommands.class, ClusterCommands.class, SentinelCommands.class,
+            BinaryJedisCommands.class, MultiKeyBinaryCommands.class, AdvancedBinaryJedisCommands.class, BinaryScriptingCommands.class);
+
+    /**
+     * 第一个参数是 key 的命令接口
+     */
+    private static final List<Class<?>> KEY_COMMAND_INTERFACES = Arrays.asList(JedisCommands.class, BinaryJedisCommands.class);
+
+    /**
+     * 方法 -> 命令名称，非命令方法对应空字符串
+     */
+    private static final ConcurrentMap<Method, String> COMMANDS = new ConcurrentHashMap<>();
+
+    /**
+     * 方法 -> 是否是访问 key 的命令
+     */
+    private static final ConcurrentMap<Method, Boolean> KEY_COMMANDS = new ConcurrentHashMap<>();
+
+    /**
+     * 用于快速创建代理对象的原型，代理类只生成一次
+     */
+    private static volatile Factory prototype;
+
+    private final Jedis target;
+    private final RedisCommandMetrics metrics;
+    private final boolean trackWrites;
+    private final HotKeyDetector hotKeyDetector;
+    /**
+     * 副本连接遇到写命令时获取主节点连接，主节点连接的代理为 null
+     */
+    private final Supplier<RedisConnection> masterConnection;
+    /**
+     * 已经借用的主节点连接，代理对象只在借用连接的线程中使用，不需要同步
+     */
+    private RedisConnection master;
+
+    private JedisCommandInterceptor(Jedis target, RedisCommandMetrics metrics, boolean trackWrites, HotKeyDetector hotKeyDetector,
+                                    Supplier<RedisConnection> masterConnection) {
+        this.target = target;
+        this.metrics = metrics;
+        this.trackWrites = trackWrites;
+        this.hotKeyDetector = hotKeyDetector;
+        this.masterConnection = masterConnection;
+    }
+
+    /**
+     * 返回真实 Jedis 对应的计时代理
+     *
+     * @param target  ：连接池中的真实 Jedis
+     * @param metrics
+     * @return
+     */
+    public static Jedis proxy(Jedis target, RedisCommandMetrics metrics) {
+        return proxy(target, metrics, false);
+    }
+
+    /**
+     * 返回真实 Jedis 对应的代理
+     *
+     * @param target      ：连接池中的真实 Jedis
+     * @param metrics
+     * @param trackWrites ：是否跟踪写命令
+     * @return
+     */
+    public static Jedis proxy(Jedis target, RedisCommandMetrics metrics, boolean trackWrites) {
+        return proxy(target, metrics, trackWrites, null);
+    }
+
+    /**
+     * 返回真实 Jedis 对应的代理
+     *
+     * @param target         ：连接池中的真实 Jedis
+     * @param metrics
+     * @param trackWrites    ：是否跟踪写命令
+     * @param hotKeyDetector ：统计 key 的访问次数，为 null 时不统计
+     * @return
+     */
+    public static Jedis proxy(Jedis target, RedisCommandMetrics metrics, boolean trackWrites, HotKeyDetector hotKeyDetector) {
+        return proxy(target, metrics, trackWrites, hotKeyDetector, null);
+    }
+
+    /**
+     * 返回真实 Jedis 对应的代理
+     *
+     * @param target           ：连接池中的真实 Jedis
+     * @param metrics
+     * @param trackWrites      ：是否跟踪写命令
+     * @param hotKeyDetector   ：统计 key 的访问次数，为 null 时不统计
+     * @param masterConnection ：target 是副本连接时，获取主节点连接执行写命令，为 null 时所有命令都在 target 上执行
+     * @return
+     */
+    public static Jedis proxy(Jedis target, RedisCommandMetrics metrics, boolean trackWrites, HotKeyDetector hotKeyDetector,
+                              Supplier<RedisConnection> masterConnection) {
+        JedisCommandInterceptor interceptor = new JedisCommandInterceptor(target, metrics, trackWrites, hotKeyDetector, masterConnection);
+        Factory factory = prototype;
+        if (factory == null) {
+            Enhancer enhancer = new Enhancer();
+            enhancer.setSuperclass(Jedis.class);
+            enhancer.setCallback(interceptor);
+            Jedis proxy = (Jedis) enhancer.create();
+            prototype = (Factory) proxy;
+            return proxy;
+        }
+        return (Jedis) factory.newInstance(interceptor);
+    }
+
+    /**
+     * 代理换回连接池中的真实 Jedis，不是代理时原样返回；副本代理借用的主节点连接同时归还
+     *
+     * @param jedis
+     * @return
+     */
+    static Jedis unwrap(Jedis jedis) {
+        if (jedis instanceof Factory && ((Factory) jedis).getCallback(0) instanceof JedisCommandInterceptor) {
+            JedisCommandInterceptor interceptor = (JedisCommandInterceptor) ((Factory) jedis).getCallback(0);
+            interceptor.closeMaster();
+            return interceptor.target;
+        }
+        return jedis;
+    }
+
+    @Override
+    public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+        String command = COMMANDS.computeIfAbsent(method, JedisCommandInterceptor::commandOf);
+        if (masterConnection != null) {
+            if ("close".equals(method.getName())) {
+                closeMaster();
+            } else if (master != null || isWrite(method, command)) {
+                return methodProxy.invoke(master(), args);
+            }
+        }
+        if (trackWrites && !command.isEmpty()) {
+            ReadRouting.onCommand(command);
+        }
+        if (hotKeyDetector != null && args.length > 0) {
+            recordKeys(method, command, args[0]);
+        }
+        if (command.isEmpty() || !metrics.isEnabled()) {
+            return methodProxy.invoke(target, args);
+        }
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = methodProxy.invoke(target, args);
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            metrics.record(CLIENT, command, System.nanoTime() - start, error, args, result);
+        }
+    }
+
+    /**
+     * 副本上不能执行的调用：写命令，以及无法预知其中命令的管道与事务
+     */
+    private static boolean isWrite(Method method, String command) {
+        if (command.isEmpty()) {
+            return "pipelined".equals(method.getName()) || "multi".equals(method.getName());
+        }
+        return !ReadRouting.isReadCommand(command);
+    }
+
+    private Jedis master() {
+        if (master == null) {
+            master = masterConnection.get();
+            ReadRouting.markWritten();
+        }
+        return (Jedis) master.getNativeConnection();
+    }
+
+    private void closeMaster() {
+        if (master != null) {
+            RedisConnection connection = master;
+            master = null;
+            connection.close();
+        }
+    }
+
+    private void recordKeys(Method method, String command, Object firstArg) {
+        if (KEY_COMMANDS.computeIfAbsent(method, JedisCommandInterceptor::isKeyCommand)) {
+            hotKeyDetector.record(firstArg);
+        } else if ("MGET".equals(command) && firstArg instanceof Object[]) {
+            for (Object key : (Object[]) firstArg) {
+                hotKeyDetector.record(key);
+            }
+        }
+    }
+
+    private static boolean isKeyCommand(Method method) {
+        if ("echo".equals(method.getName()) || method.getParameterCount() == 0) {
+            return false;
+        }
+        Class<?> firstType = method.getParameterTypes()[0];
+        if (firstType != String.class && firstType != byte[].class) {
+            return false;
+        }
+        for (Class<?> commandInterface : KEY_COMMAND_INTERFACES) {
+            try {
+                commandInterface.getMethod(method.getName(), method.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException e) {
+                // 继续查找下一个接口
+            }
+        }
+        return false;
+    }
+
+    private static String commandOf(Method method) {
+        for (Class<?> commandInterface : COMMAND_INTERFACES) {
+            try {
+                commandInterface.getMethod(method.getName(), method.getParameterTypes());
+                return method.getName().toUpperCase(Locale.ROOT);
+            } catch (NoSuchMethodException e) {
+                // 继续查找下一个接口
+            }
+        }
+        return "";
+    }
+}
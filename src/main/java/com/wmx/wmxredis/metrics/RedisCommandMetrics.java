@@ -0,0 +1,174 @@
+package com.wmx.wmxredis.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 命令级监控指标，Jedis、Redisson 以及管道批次统一通过本类记录
+ * <p>
+ * 1、redis.command：命令耗时，标签 client(jedis/redisson/pipeline)、command、outcome(success/error)，
+ * * 带本地分位数与直方图桶，查看：/actuator/metrics/redis.command?tag=command:GET
+ * 2、redis.command.errors：命令失败次数，额外带 exception 标签。
+ * 3、redis.command.payload：请求、响应数据大小(字节)，标签 direction(request/response)，字符串按 UTF-16 字符数近似计算。
+ * 4、redis.pool.wait：从连接池借用连接的等待时间，标签 pool。
+ * 5、redis.jedis.borrow、redis.jedis.hold：{@link com.wmx.wmxredis.jedis.JedisExecutor} 借用原生连接的耗时与持有时间，标签 operation。
+ * 6、Meter 按 client + command 缓存，命令名称来自方法名，个数有限，不会造成标签爆炸。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 19:05
+ */
+public class RedisCommandMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final RedisMetricsProperties properties;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> errors = new ConcurrentHashMap<>();
+
+    public RedisCommandMetrics(MeterRegistry meterRegistry, RedisMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    /**
+     * 记录一次命令执行
+     *
+     * @param client    ：客户端，如 jedis、redisson、pipeline
+     * @param command   ：命令名称，如 GET、HSET、RBucket.set
+     * @param nanos     ：耗时(纳秒)
+     * @param error     ：执行失败时的异常，成功时为 null
+     * @param request   ：请求参数，用于统计请求大小，可以为 null
+     * @param response  ：响应结果，用于统计响应大小，可以为 null
+     */
+    public void record(String client, String command, long nanos, Throwable error, Object request, Object response) {
+        String outcome = error == null ? "success" : "error";
+        timers.computeIfAbsent(client + '|' + command + '|' + outcome, key -> Timer.builder("redis.command")
+                .description("Redis 命令耗时")
+                .tags("client", client, "command", command, "outcome", outcome)
+                .publishPercentiles(properties.getPercentiles())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (error != null) {
+            String exception = error.getClass().getSimpleName();
+            errors.computeIfAbsent(client + '|' + command + '|' + exception, key -> Counter.builder("redis.command.errors")
+                    .description("Redis 命令失败次数")
+                    .tags("client", client, "command", command, "exception", exception)
+                    .register(meterRegistry))
+                    .increment();
+        }
+        if (request != null) {
+            payload(client, command, "request").record(sizeOf(request));
+        }
+        if (response != null) {
+            payload(client, command, "response").record(sizeOf(response));
+        }
+    }
+
+    /**
+     * 记录从连接池借用连接的等待时间
+     *
+     * @param pool  ：连接池名称，如 jedis
+     * @param nanos ：等待时间(纳秒)
+     */
+    public void recordPoolWait(String pool, long nanos) {
+        timers.computeIfAbsent("pool|" + pool, key -> Timer.builder("redis.pool.wait")
+                .description("从连接池借用连接的等待时间")
+                .tags("pool", pool)
+                .publishPercentiles(properties.getPercentiles())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录 JedisExecutor 借用原生连接的耗时
+     *
+     * @param operation ：操作名称，如 JedisStrController.setString
+     * @param nanos     ：借用耗时(纳秒)
+     */
+    public void recordConnectionBorrow(String operation, long nanos) {
+        connectionTimer("redis.jedis.borrow", "借用 Jedis 原生连接的耗时", operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录 JedisExecutor 持有原生连接的时间(从借出到归还)
+     *
+     * @param operation ：操作名称
+     * @param nanos     ：持有时间(纳秒)
+     */
+    public void recordConnectionHold(String operation, long nanos) {
+        connectionTimer("redis.jedis.hold", "持有 Jedis 原生连接的时间", operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer connectionTimer(String name, String description, String operation) {
+        return timers.computeIfAbsent(name + '|' + operation, key -> Timer.builder(name)
+                .description(description)
+                .tags("operation", operation)
+                .publishPercentiles(properties.getPercentiles())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary payload(String client, String command, String direction) {
+        return summaries.computeIfAbsent(client + '|' + command + '|' + direction, key -> DistributionSummary.builder("redis.command.payload")
+                .description("Redis 命令请求、响应数据大小")
+                .baseUnit("bytes")
+                .tags("client", client, "command", command, "direction", direction)
+                .register(meterRegistry));
+    }
+
+    /**
+     * 估算参数或结果的字节数：byte[]、字符串、数字按内容计算，集合、Map、数组递归累加，其它对象不计入
+     *
+     * @param value
+     * @return
+     */
+    static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        }
+        if (value instanceof Number) {
+            return value.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        long size = 0;
+        if (value instanceof Object[]) {
+            for (Object element : (Object[]) value) {
+                size += sizeOf(element);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                size += sizeOf(element);
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,115 @@
+package com.wmx.wmxredis.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 命令级监控配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link RedisMetricsProperties} 配置类交由 Spring 容器管理
+ * 2、自定义 redisConnectionFactory 后，Spring Boot 自动配置的 JedisConnectionFactory 不再创建(ConditionalOnMissingBean)，
+ * * 这里按 spring.redis 配置(单机、哨兵、集群、连接池、超时)创建 {@link InstrumentedJedisConnectionFactory}。
+ * 3、redis.reactive.enabled=true 时容器中还有 Lettuce 连接工厂(只给 ReactiveRedisTemplate 使用)，这里标记为 @Primary，
+ * * 按类型注入 RedisConnectionFactory 的地方仍然使用 Jedis。
+ * 4、RedissonClient 由 {@link RedissonMetricsPostProcessor} 包装，BeanPostProcessor 必须使用 static 方法创建，避免提前初始化本配置类。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 19:45
+ */
+@Configuration
+@EnableConfigurationProperties(RedisMetricsProperties.class)
+public class RedisMetricsConfig {
+
+    @Bean
+    public RedisCommandMetrics redisCommandMetrics(MeterRegistry meterRegistry, RedisMetricsProperties redisMetricsProperties) {
+        return new RedisCommandMetrics(meterRegistry, redisMetricsProperties);
+    }
+
+    @Bean
+    public static RedissonMetricsPostProcessor redissonMetricsPostProcessor(ObjectProvider<RedisCommandMetrics> redisCommandMetrics) {
+        return new RedissonMetricsPostProcessor(redisCommandMetrics);
+    }
+
+    @Bean
+    @Primary
+    public InstrumentedJedisConnectionFactory redisConnectionFactory(RedisProperties redisProperties, RedisCommandMetrics redisCommandMetrics) {
+        JedisClientConfiguration clientConfig = clientConfiguration(redisProperties);
+        if (redisProperties.getSentinel() != null) {
+            RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+            RedisSentinelConfiguration config = new RedisSentinelConfiguration();
+            config.master(sentinel.getMaster());
+            config.setSentinels(createNodes(sentinel.getNodes()));
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+            config.setDatabase(redisProperties.getDatabase());
+            return new InstrumentedJedisConnectionFactory(config, clientConfig, redisCommandMetrics);
+        }
+        if (redisProperties.getCluster() != null) {
+            RedisProperties.Cluster cluster = redisProperties.getCluster();
+            RedisClusterConfiguration config = new RedisClusterConfiguration(cluster.getNodes());
+            if (cluster.getMaxRedirects() != null) {
+                config.setMaxRedirects(cluster.getMaxRedirects());
+            }
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+            return new InstrumentedJedisConnectionFactory(config, clientConfig, redisCommandMetrics);
+        }
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisProperties.getHost(), redisProperties.getPort());
+        config.setDatabase(redisProperties.getDatabase());
+        config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+        return new InstrumentedJedisConnectionFactory(config, clientConfig, redisCommandMetrics);
+    }
+
+    /**
+     * 按 spring.redis 配置创建 Jedis 客户端配置(SSL、超时、连接池)，读副本的连接工厂同样使用
+     *
+     * @param redisProperties
+     * @return
+     */
+    public static JedisClientConfiguration clientConfiguration(RedisProperties redisProperties) {
+        JedisClientConfiguration.JedisClientConfigurationBuilder builder = JedisClientConfiguration.builder();
+        if (redisProperties.isSsl()) {
+            builder.useSsl();
+        }
+        Duration timeout = redisProperties.getTimeout();
+        if (timeout != null) {
+            builder.readTimeout(timeout).connectTimeout(timeout);
+        }
+        RedisProperties.Pool pool = redisProperties.getJedis().getPool();
+        if (pool != null) {
+            JedisPoolConfig poolConfig = new JedisPoolConfig();
+            poolConfig.setMaxTotal(pool.getMaxActive());
+            poolConfig.setMaxIdle(pool.getMaxIdle());
+            poolConfig.setMinIdle(pool.getMinIdle());
+            if (pool.getMaxWait() != null) {
+                poolConfig.setMaxWaitMillis(pool.getMaxWait().toMillis());
+            }
+            builder.usePooling().poolConfig(poolConfig);
+        }
+        return builder.build();
+    }
+
+    private List<RedisNode> createNodes(List<String> nodes) {
+        List<RedisNode> redisNodes = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            String[] parts = node.split(":");
+            redisNodes.add(new RedisNode(parts[0], Integer.parseInt(parts[1])));
+        }
+        return redisNodes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.wmx.wmxredis.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Redis 命令级监控指标配置
+ * <pre>
+ * redis:
+ *   metrics:
+ *     enabled: true
+ *     percentile-histogram: true
+ *     percentiles: 0.5,0.95,0.99
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 19:00
+ */
+@ConfigurationProperties(prefix = "redis.metrics")
+public class RedisMetricsProperties {
+
+    /**
+     * 是否记录 Jedis、Redisson 每个命令的耗时、错误数、数据大小以及连接池等待时间
+     */
+    private boolean enabled = true;
+    /**
+     * 是否发布耗时直方图的桶，供 Prometheus 等监控系统跨实例聚合计算分位数
+     */
+    private boolean percentileHistogram = true;
+    /**
+     * 在本地计算的耗时分位数，可以直接在 /actuator/metrics 中查看
+     */
+    private double[] percentiles = {0.5, 0.95, 0.99};
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+}
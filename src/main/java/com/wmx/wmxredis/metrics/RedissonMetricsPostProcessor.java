@@ -0,0 +1,97 @@
+package com.wmx.wmxredis.metrics;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+/**
+ * 为容器中的 RedissonClient 生成 JDK 动态代理，记录 Redisson 对象每个方法的耗时与错误
+ * <p>
+ * 1、RedissonClient.getXxx 返回的 RBucket、RMap、RLock 等对象再包装一层代理，之后调用的每个方法都按
+ * * "返回类型.方法名" 记录为一个命令，如 RBucket.set、RLock.tryLock，client 标签为 redisson。
+ * 2、xxxAsync 方法返回 RFuture，在 RFuture 完成时记录耗时，而不是方法返回时。
+ * 3、Redisson 的参数、结果是业务对象，编码后的大小在 Redisson 内部，这里不统计数据大小。
+ * 4、RedissonClient 本身的方法(getXxx、shutdown 等)只是创建对象或者管理客户端，不计时。
+ * 5、代理只实现 RedissonClient 接口，注入时必须使用接口类型，不能使用 Redisson 实现类。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 19:35
+ */
+public class RedissonMetricsPostProcessor implements BeanPostProcessor {
+
+    private static final String CLIENT = "redisson";
+
+    /**
+     * 延迟获取，BeanPostProcessor 创建时 MeterRegistry 可能还没有创建
+     */
+    private final ObjectProvider<RedisCommandMetrics> metricsProvider;
+
+    public RedissonMetricsPostProcessor(ObjectProvider<RedisCommandMetrics> metricsProvider) {
+        this.metricsProvider = metricsProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof RedissonClient)) {
+            return bean;
+        }
+        RedissonClient client = (RedissonClient) bean;
+        return Proxy.newProxyInstance(ClassUtils.getDefaultClassLoader(), new Class<?>[]{RedissonClient.class}, (proxy, method, args) -> {
+            Object result = invoke(client, method, args);
+            Class<?> returnType = method.getReturnType();
+            if (result == null || !returnType.isInterface() || !returnType.getName().startsWith("org.redisson.api.")) {
+                return result;
+            }
+            return wrapObject(result, returnType);
+        });
+    }
+
+    private Object wrapObject(Object target, Class<?> type) {
+        String prefix = type.getSimpleName() + ".";
+        InvocationHandler handler = (proxy, method, args) -> {
+            RedisCommandMetrics metrics = metricsProvider.getIfAvailable();
+            if (metrics == null || !metrics.isEnabled() || method.getDeclaringClass() == Object.class) {
+                return invoke(target, method, args);
+            }
+            String command = prefix + method.getName();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(target, method, args);
+            } catch (Throwable e) {
+                metrics.record(CLIENT, command, System.nanoTime() - start, e, null, null);
+                throw e;
+            }
+            if (result instanceof RFuture) {
+                ((RFuture<?>) result).onComplete((value, error) ->
+                        metrics.record(CLIENT, command, System.nanoTime() - start, error, null, null));
+            } else {
+                metrics.record(CLIENT, command, System.nanoTime() - start, null, null, null);
+            }
+            return result;
+        };
+        // 只代理公开接口，Redisson 实现类上的内部接口无法被其它包的代理类实现
+        Class<?>[] interfaces = Arrays.stream(ClassUtils.getAllInterfaces(target))
+                .filter(i -> Modifier.isPublic(i.getModifiers()))
+                .toArray(Class<?>[]::new);
+        return Proxy.newProxyInstance(ClassUtils.getDefaultClassLoader(), interfaces, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.wmx.wmxredis.metrics;
+
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.Jedis;
+import redis.clients.util.Pool;
+
+/**
+ * 连接池包装：归还连接时把 {@link JedisCommandInterceptor} 代理换回连接池中的真实 Jedis
+ * <p>
+ * 1、连接工厂交给 Spring Data Redis 的是代理，连接断开(broken)时 JedisConnection.close() 调用 pool.returnBrokenResource(代理)，
+ * * commons-pool 按对象身份查找，不认识代理会抛出 "Could not return the broken resource to the pool"，
+ * * 真实 Jedis 既没有归还也没有销毁，每断开一次连接池就永久少一个连接。
+ * 2、所有方法转发给原来的连接池(JedisPool、JedisSentinelPool)，自身的 internalPool 不使用。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/20 15:00
+ */
+class UnwrappingJedisPool extends Pool<Jedis> {
+
+    private final Pool<Jedis> delegate;
+
+    UnwrappingJedisPool(Pool<Jedis> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Jedis getResource() {
+        return delegate.getResource();
+    }
+
+    @Override
+    public void returnBrokenResource(Jedis resource) {
+        delegate.returnBrokenResource(JedisCommandInterceptor.unwrap(resource));
+    }
+
+    @Override
+    public void returnResource(Jedis resource) {
+        delegate.returnResource(JedisCommandInterceptor.unwrap(resource));
+    }
+
+    @Override
+    public void returnResourceObject(Jedis resource) {
+        delegate.returnResourceObject(JedisCommandInterceptor.unwrap(resource));
+    }
+
+    @Override
+    public void initPool(GenericObjectPoolConfig poolConfig, PooledObjectFactory<Jedis> factory) {
+        delegate.initPool(poolConfig, factory);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public void destroy() {
+        delegate.destroy();
+    }
+
+    @Override
+    public int getNumActive() {
+        return delegate.getNumActive();
+    }
+
+    @Override
+    public int getNumIdle() {
+        return delegate.getNumIdle();
+    }
+
+    @Override
+    public int getNumWaiters() {
+        return delegate.getNumWaiters();
+    }
+
+    @Override
+    public long getMeanBorrowWaitTimeMillis() {
+        return delegate.getMeanBorrowWaitTimeMillis();
+    }
+
+    @Override
+    public long getMaxBorrowWaitTimeMillis() {
+        return delegate.getMaxBorrowWaitTimeMillis();
+    }
+
+    @Override
+    public void addObjects(int count) {
+        delegate.addObjects(count);
+    }
+}
@@ -0,0 +1,276 @@
+package com.wmx.wmxredis.pipeline;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.jedis.JedisConverters;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 一个批次的 Redis 命令，命令先在本地排队，调用 {@link #execute()} 时通过管道一次性发送，只需要一次网络往返
+ * <pre>
+ *     RedisBatchResult result = redisBatchExecutor.batch()
+ *             .set("k1", person, Duration.ofSeconds(60))
+ *             .rightPushAll("k2", person, person)
+ *             .expire("k2", Duration.ofSeconds(60))
+ *             .execute();
+ * </pre>
+ * 1、key、value 的序列化方式与 RedisTemplate 保持一致，写入的数据可以直接用 RedisTemplate 读取。
+ * 2、管道不是事务，命令之间不是原子的，需要原子性时使用 Lua 脚本。
+ * 3、非线程安全，一个批次只在一个线程中使用，execute 之后不能再继续添加命令。
+ * 4、命令可以指定失败后的重试命令(如 EVALSHA 返回 NOSCRIPT 时改用 EVAL)，所有需要重试的命令在第二个管道中一起发送，
+ * * 多一次网络往返；重试的命令在批次中其它命令之后执行，相互之间保持加入的顺序。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 16:25
+ */
+public class RedisBatch {
+
+    private final RedisBatchExecutor executor;
+    private final List<QueuedCommand> commands = new ArrayList<>();
+    private boolean executed;
+
+    RedisBatch(RedisBatchExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * SET key value
+     */
+    public RedisBatch set(String key, Object value) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawValue = rawValue(value);
+        return add("SET", key, pipeline -> pipeline.set(rawKey, rawValue));
+    }
+
+    /**
+     * PSETEX key milliseconds value：设置值的同时设置过期时间，原子操作
+     */
+    public RedisBatch set(String key, Object value, Duration timeout) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawValue = rawValue(value);
+        long millis = timeout.toMillis();
+        return add("PSETEX", key, pipeline -> pipeline.psetex(rawKey, millis, rawValue));
+    }
+
+    /**
+     * RPUSH key value1 value2 ...，返回列表长度
+     */
+    public RedisBatch rightPushAll(String key, Object... values) {
+        byte[] rawKey = rawKey(key);
+        byte[][] rawValues = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            rawValues[i] = rawValue(values[i]);
+        }
+        return add("RPUSH", key, pipeline -> pipeline.rpush(rawKey, rawValues));
+    }
+
+    /**
+     * HSET key field value，新增字段时返回 1，覆盖时返回 0
+     */
+    public RedisBatch hashPut(String key, String hashKey, Object value) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawHashKey = executor.hashKeySerializer().serialize(hashKey);
+        byte[] rawHashValue = executor.hashValueSerializer().serialize(value);
+        return add("HSET", key, pipeline -> pipeline.hset(rawKey, rawHashKey, rawHashValue));
+    }
+
+    /**
+     * HMSET key field1 value1 field2 value2 ...
+     */
+    public RedisBatch hashPutAll(String key, Map<String, ?> map) {
+        byte[] rawKey = rawKey(key);
+        Map<byte[], byte[]> rawMap = new LinkedHashMap<>(map.size() * 2);
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            rawMap.put(executor.hashKeySerializer().serialize(entry.getKey()), executor.hashValueSerializer().serialize(entry.getValue()));
+        }
+        return add("HMSET", key, pipeline -> pipeline.hmset(rawKey, rawMap));
+    }
+
+    /**
+     * PEXPIRE key milliseconds，设置成功返回 true，key 不存在时返回 false
+     */
+    public RedisBatch expire(String key, Duration timeout) {
+        byte[] rawKey = rawKey(key);
+        long millis = timeout.toMillis();
+        return add("PEXPIRE", key, pipeline -> pipeline.pexpire(rawKey, millis), RedisBatch::toBoolean);
+    }
+
+    /**
+     * DEL key，返回删除的 key 个数
+     */
+    public RedisBatch delete(String key) {
+        byte[] rawKey = rawKey(key);
+        return add("DEL", key, pipeline -> pipeline.del(rawKey));
+    }
+
+    /**
+     * 添加自定义命令，供 Lua 脚本等扩展使用
+     *
+     * @param command   ：命令名称，用于结果展示
+     * @param key       ：命令操作的 key，用于结果展示
+     * @param action    ：往管道中添加命令
+     * @param converter ：结果转换
+     * @param onError   ：命令执行失败时的回调，可以为 null
+     * @return
+     */
+    public RedisBatch add(String command, String key, Function<Pipeline, Response<?>> action, Function<Object, Object> converter,
+                          Consumer<Exception> onError) {
+        return add(command, key, action, converter, onError, null, null);
+    }
+
+    /**
+     * 添加失败后可以重试的自定义命令
+     *
+     * @param command     ：命令名称，用于结果展示
+     * @param key         ：命令操作的 key，用于结果展示
+     * @param action      ：往管道中添加命令
+     * @param converter   ：结果转换，重试命令的结果同样经过转换
+     * @param onError     ：命令(重试后仍然)执行失败时的回调，可以为 null
+     * @param retryOn     ：哪些错误需要重试
+     * @param retryAction ：往第二个管道中添加的重试命令
+     * @return
+     */
+    public RedisBatch add(String command, String key, Function<Pipeline, Response<?>> action, Function<Object, Object> converter,
+                          Consumer<Exception> onError, Predicate<Exception> retryOn, Function<Pipeline, Response<?>> retryAction) {
+        if (executed) {
+            throw new IllegalStateException("RedisBatch 已经执行，不能再添加命令");
+        }
+        commands.add(new QueuedCommand(command, key, action, converter, onError, retryOn, retryAction));
+        return this;
+    }
+
+    private RedisBatch add(String command, String key, Function<Pipeline, Response<?>> action, Function<Object, Object> converter) {
+        return add(command, key, action, converter, null);
+    }
+
+    private RedisBatch add(String command, String key, Function<Pipeline, Response<?>> action) {
+        return add(command, key, action, Function.identity(), null);
+    }
+
+    /**
+     * 已经加入批次的命令个数
+     *
+     * @return
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * 通过管道一次性发送所有命令，并按加入的顺序返回每个命令的结果
+     *
+     * @return
+     * @throws DataAccessException 管道发送或读取失败时抛出
+     */
+    public RedisBatchResult execute() {
+        if (executed) {
+            throw new IllegalStateException("RedisBatch 已经执行");
+        }
+        executed = true;
+        if (commands.isEmpty()) {
+            return new RedisBatchResult(Collections.emptyList());
+        }
+        List<Response<?>> responses = executor.pipelined(pipeline -> {
+            List<Response<?>> list = new ArrayList<>(commands.size());
+            for (QueuedCommand command : commands) {
+                list.add(command.action.apply(pipeline));
+            }
+            return list;
+        });
+        // 第一次执行失败、需要重试的命令下标
+        List<Integer> retries = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            QueuedCommand command = commands.get(i);
+            if (command.retryOn == null) {
+                continue;
+            }
+            Exception failure = failure(responses.get(i));
+            if (failure != null && command.retryOn.test(failure)) {
+                retries.add(i);
+            }
+        }
+        if (!retries.isEmpty()) {
+            List<Response<?>> retried = executor.pipelined(pipeline -> {
+                List<Response<?>> list = new ArrayList<>(retries.size());
+                for (Integer index : retries) {
+                    list.add(commands.get(index).retryAction.apply(pipeline));
+                }
+                return list;
+            });
+            for (int i = 0; i < retries.size(); i++) {
+                responses.set(retries.get(i), retried.get(i));
+            }
+        }
+        List<RedisBatchResult.CommandResult> results = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            QueuedCommand command = commands.get(i);
+            Object value = null;
+            DataAccessException error = null;
+            try {
+                value = command.converter.apply(responses.get(i).get());
+            } catch (Exception e) {
+                // 转换结果出错等非 Jedis 异常无法翻译，包装后同样记为失败
+                DataAccessException translated = JedisConverters.toDataAccessException(e);
+                error = translated != null ? translated : new RedisSystemException(e.getMessage(), e);
+                if (command.onError != null) {
+                    command.onError.accept(e);
+                }
+            }
+            results.add(new RedisBatchResult.CommandResult(command.name, command.key, value, error));
+        }
+        return new RedisBatchResult(results);
+    }
+
+    /**
+     * 命令执行失败时返回异常，成功时返回 null
+     */
+    private static Exception failure(Response<?> response) {
+        try {
+            response.get();
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private byte[] rawKey(String key) {
+        return executor.keySerializer().serialize(key);
+    }
+
+    private byte[] rawValue(Object value) {
+        return executor.valueSerializer().serialize(value);
+    }
+
+    private static Object toBoolean(Object value) {
+        return value == null ? null : ((Long) value) == 1L;
+    }
+
+    private static class QueuedCommand {
+        private final String name;
+        private final String key;
+        private final Function<Pipeline, Response<?>> action;
+        private final Function<Object, Object> converter;
+        private final Consumer<Exception> onError;
+        private final Predicate<Exception> retryOn;
+        private final Function<Pipeline, Response<?>> retryAction;
+
+        QueuedCommand(String name, String key, Function<Pipeline, Response<?>> action, Function<Object, Object> converter,
+                      Consumer<Exception> onError, Predicate<Exception> retryOn, Function<Pipeline, Response<?>> retryAction) {
+            this.name = name;
+            this.key = key;
+            this.action = action;
+            this.converter = converter;
+            this.onError = onError;
+            this.retryOn = retryOn;
+            this.retryAction = retryAction;
+        }
+    }
+}
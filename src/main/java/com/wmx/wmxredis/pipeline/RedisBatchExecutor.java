@@ -0,0 +1,107 @@
+package com.wmx.wmxredis.pipeline;
+
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.routing.ReadRouting;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnection;
+import org.springframework.data.redis.connection.jedis.JedisConverters;
+import org.springframework.data.redis.core.RedisConnectionUtils;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import javax.annotation.Resource;
+import java.util.function.Function;
+
+/**
+ * 基于 Jedis Pipeline 的批量命令执行器
+ * <p>
+ * 1、RedisTemplate.executePipelined 返回的结果会丢弃 SET、HMSET 等状态回复，无法与命令一一对应，
+ * * 所以这里直接使用 Jedis 原生 Pipeline，每个命令都有自己的 Response，执行失败的命令单独记录异常。
+ * 2、key、value 使用容器中 redisTemplate 的序列化器，与 RedisTemplate 读写的数据完全兼容。
+ * 3、每个批次的耗时记录为 redis.command{client=pipeline,command=BATCH}。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 16:50
+ */
+@Component
+public class RedisBatchExecutor {
+
+    @Resource
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    @Resource
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Resource
+    private RedisCommandMetrics redisCommandMetrics;
+
+    /**
+     * 创建一个新的批次
+     *
+     * @return
+     */
+    public RedisBatch batch() {
+        return new RedisBatch(this);
+    }
+
+    /**
+     * 从连接池获取连接，在管道中执行 callback 添加的命令，然后同步读取所有回复，最后释放连接
+     *
+     * @param callback ：往管道中添加命令
+     * @param <T>
+     * @return callback 的返回值，一般为命令的 Response
+     */
+    <T> T pipelined(Function<Pipeline, T> callback) {
+        JedisConnection jedisConnection = null;
+        long start = System.nanoTime();
+        RuntimeException error = null;
+        try {
+            jedisConnection = (JedisConnection) RedisConnectionUtils.getConnection(redisConnectionFactory);
+            Jedis jedis = jedisConnection.getNativeConnection();
+            Pipeline pipeline = jedis.pipelined();
+            // 管道中的命令不经过 Jedis 代理，无法逐个识别，按写入处理(读自己的写)
+            ReadRouting.markWritten();
+            T result = callback.apply(pipeline);
+            pipeline.sync();
+            return result;
+        } catch (RuntimeException e) {
+            // 非 Jedis 异常(如 callback 中的异常)转换结果为 null，原样抛出
+            DataAccessException translated = JedisConverters.toDataAccessException(e);
+            error = translated != null ? translated : e;
+            throw error;
+        } finally {
+            if (jedisConnection != null) {
+                RedisConnectionUtils.releaseConnection(jedisConnection, redisConnectionFactory);
+            }
+            // 管道中的命令直接通过 Client 发送，不经过 Jedis 计时代理，这里按整个批次记录一次
+            if (redisCommandMetrics.isEnabled()) {
+                redisCommandMetrics.record("pipeline", "BATCH", System.nanoTime() - start, error, null, null);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    RedisSerializer<Object> keySerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getKeySerializer();
+    }
+
+    @SuppressWarnings("unchecked")
+    RedisSerializer<Object> valueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+
+    @SuppressWarnings("unchecked")
+    RedisSerializer<Object> hashKeySerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getHashKeySerializer();
+    }
+
+    @SuppressWarnings("unchecked")
+    RedisSerializer<Object> hashValueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+    }
+}
@@ -0,0 +1,128 @@
+package com.wmx.wmxredis.pipeline;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.dao.DataAccessException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量命令的执行结果，与加入批次的命令一一对应
+ * <p>
+ * 1、管道中的命令互不影响，某个命令执行失败(如类型错误)时，其它命令照常执行，失败的命令在 error 中记录异常。
+ * 2、整个管道发送失败(如网络中断)时不会返回本对象，而是直接抛出 DataAccessException。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 16:10
+ */
+public class RedisBatchResult {
+
+    private final List<CommandResult> results;
+
+    RedisBatchResult(List<CommandResult> results) {
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    public List<CommandResult> getResults() {
+        return results;
+    }
+
+    /**
+     * 第 index 个命令的结果，index 从 0 开始
+     *
+     * @param index
+     * @return
+     */
+    public CommandResult get(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * 所有命令都执行成功时返回 true
+     *
+     * @return
+     */
+    public boolean isSuccess() {
+        for (CommandResult result : results) {
+            if (!result.isSuccess()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 执行失败的命令
+     *
+     * @return
+     */
+    public List<CommandResult> getErrors() {
+        List<CommandResult> errors = new ArrayList<>();
+        for (CommandResult result : results) {
+            if (!result.isSuccess()) {
+                errors.add(result);
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "RedisBatchResult" + results;
+    }
+
+    /**
+     * 单个命令的执行结果
+     */
+    public static class CommandResult {
+        /**
+         * 命令名称，如 SET、RPUSH、PEXPIRE
+         */
+        private final String command;
+        private final String key;
+        /**
+         * 命令返回值，读取命令已经反序列化
+         */
+        private final Object value;
+        private final DataAccessException error;
+
+        CommandResult(String command, String key, Object value, DataAccessException error) {
+            this.command = command;
+            this.key = key;
+            this.value = value;
+            this.error = error;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @JsonIgnore
+        public DataAccessException getError() {
+            return error;
+        }
+
+        public String getErrorMessage() {
+            return error == null ? null : error.getMessage();
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return command + " " + key + " -> " + (error == null ? value : error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.wmx.wmxredis.pool;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.util.Pool;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池自适应大小控制器：定时采样借用等待时间与使用率，在配置的范围内扩容、缩容
+ * <p>
+ * 1、Jedis：直接调整 commons-pool2 连接池的 maxTotal/maxIdle，立即生效；平均等待时间取 GenericObjectPool 最近 100 次借用的统计，
+ * * 本周期没有借用时按 0 计算。
+ * 2、借用等待有上限：连接池 maxWaitMillis 为负数(无限等待)或者超过 max-wait 时改为 max-wait，连接池耗尽时请求快速失败，
+ * * 抛出 JedisConnectionException(Could not get a resource from the pool)，而不是让请求线程一直排队。
+ * 3、Redisson：3.13 创建后不能调整连接池大小，只根据使用率计算建议值，建议值变化时打印日志，需要修改 connectionPoolSize 后重启生效。
+ * 4、指标：redis.pool.max(当前连接池大小，标签 pool)、redis.pool.recommended(Redisson 建议值)、
+ * * redis.pool.resize(调整次数，标签 pool、direction)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 23:00
+ */
+public class AdaptivePoolController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolController.class);
+
+    private static final Field INTERNAL_POOL = ReflectionUtils.findField(Pool.class, "internalPool");
+
+    static {
+        ReflectionUtils.makeAccessible(INTERNAL_POOL);
+    }
+
+    private final PoolSizingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final GenericObjectPool<Jedis> jedisPool;
+    private final RedissonPoolProbe redissonPoolProbe;
+    private final PoolSizer jedisSizer;
+    private final PoolSizer redissonSizer;
+    private ScheduledExecutorService scheduler;
+
+    private long lastBorrowedCount;
+    private volatile int redissonRecommended;
+
+    /**
+     * @param properties        ：配置
+     * @param meterRegistry     ：指标注册表
+     * @param jedisPool         ：Jedis 连接池，未使用连接池或者集群模式时为 null
+     * @param redissonPoolProbe ：Redisson 连接池使用情况
+     */
+    @SuppressWarnings("unchecked")
+    public AdaptivePoolController(PoolSizingProperties properties, MeterRegistry meterRegistry, Pool<Jedis> jedisPool,
+                                  RedissonPoolProbe redissonPoolProbe) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.jedisPool = jedisPool == null ? null : (GenericObjectPool<Jedis>) ReflectionUtils.getField(INTERNAL_POOL, jedisPool);
+        this.redissonPoolProbe = redissonPoolProbe;
+        this.jedisSizer = properties.newSizer(properties.getJedis());
+        this.redissonSizer = properties.newSizer(properties.getRedisson());
+    }
+
+    public void start() {
+        if (jedisPool != null) {
+            long maxWait = properties.getMaxWait().toMillis();
+            if (jedisPool.getMaxWaitMillis() < 0 || jedisPool.getMaxWaitMillis() > maxWait) {
+                log.info("Jedis 连接池借用等待时间 {} ms 改为 {} ms，连接池耗尽时快速失败", jedisPool.getMaxWaitMillis(), maxWait);
+                jedisPool.setMaxWaitMillis(maxWait);
+            }
+            jedisPool.setBlockWhenExhausted(true);
+            lastBorrowedCount = jedisPool.getBorrowedCount();
+            Gauge.builder("redis.pool.max", jedisPool, GenericObjectPool::getMaxTotal).description("连接池大小")
+                    .tag("pool", "jedis").register(meterRegistry);
+        }
+        Gauge.builder("redis.pool.max", this, controller -> {
+            RedissonPoolProbe.Usage usage = controller.redissonPoolProbe.usage();
+            return usage == null ? 0 : usage.getSize();
+        }).description("连接池大小").tag("pool", "redisson").register(meterRegistry);
+        Gauge.builder("redis.pool.recommended", this, controller -> controller.redissonRecommended)
+                .description("根据使用率计算的建议连接池大小").tag("pool", "redisson").register(meterRegistry);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("redis-pool-sizing-%d").setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                adjust();
+            } catch (RuntimeException e) {
+                log.warn("调整连接池大小失败：{}", e.getMessage(), e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 采样一次并调整连接池大小
+     */
+    void adjust() {
+        if (jedisPool != null) {
+            adjustJedis();
+        }
+        RedissonPoolProbe.Usage usage = redissonPoolProbe.usage();
+        if (usage != null) {
+            adjustRedisson(usage);
+        }
+    }
+
+    private void adjustJedis() {
+        long borrowedCount = jedisPool.getBorrowedCount();
+        long meanWaitNanos = borrowedCount > lastBorrowedCount ? TimeUnit.MILLISECONDS.toNanos(jedisPool.getMeanBorrowWaitTimeMillis()) : 0;
+        lastBorrowedCount = borrowedCount;
+        int current = jedisPool.getMaxTotal();
+        int active = jedisPool.getNumActive();
+        int waiters = jedisPool.getNumWaiters();
+        int next = jedisSizer.next(current, active, waiters, meanWaitNanos);
+        if (next == current) {
+            return;
+        }
+        // maxIdle 与 maxTotal 保持一致：扩容后归还的连接不会因为超过 maxIdle 被销毁，缩容后多出的空闲连接归还时销毁
+        jedisPool.setMaxIdle(next);
+        jedisPool.setMaxTotal(next);
+        resized("jedis", current, next);
+        log.info("Jedis 连接池大小 {} -> {}，已借出 {}，等待 {}，平均借用等待 {} ms", current, next, active, waiters,
+                TimeUnit.NANOSECONDS.toMillis(meanWaitNanos));
+    }
+
+    private void adjustRedisson(RedissonPoolProbe.Usage usage) {
+        int current = redissonRecommended == 0 ? usage.getSize() : redissonRecommended;
+        // Redisson 借用连接在内部排队，拿不到等待线程数，连接全部借出时视为有等待
+        int waiters = usage.getActive() >= usage.getSize() ? 1 : 0;
+        int next = redissonSizer.next(current, usage.getActive(), waiters, 0);
+        if (next != redissonRecommended) {
+            redissonRecommended = next;
+            if (next != usage.getSize()) {
+                log.info("Redisson 连接池建议大小 {}(当前 {}，已借出 {})，修改 connectionPoolSize 后重启生效", next, usage.getSize(), usage.getActive());
+            }
+        }
+    }
+
+    private void resized(String pool, int from, int to) {
+        Counter.builder("redis.pool.resize").description("连接池大小调整次数")
+                .tags("pool", pool, "direction", to > from ? "grow" : "shrink")
+                .register(meterRegistry).increment();
+    }
+
+    /**
+     * Redisson 连接池建议大小，还没有采样时为 0
+     */
+    public int getRedissonRecommended() {
+        return redissonRecommended;
+    }
+
+    GenericObjectPool<Jedis> getJedisPool() {
+        return jedisPool;
+    }
+}
@@ -0,0 +1,88 @@
+package com.wmx.wmxredis.pool;
+
+/**
+ * 根据借用等待时间与使用率计算连接池大小：快速扩容、缓慢缩容
+ * <p>
+ * 1、每个采样周期调用一次 {@link #next(int, int, int, long)}，传入当前大小、已借出连接数、等待线程数、平均借用等待时间。
+ * 2、有线程在等待、平均等待时间达到 growWait、或者使用率达到 highUtilization 时扩容为当前的 1.5 倍(至少加 1)，
+ * * 突发流量时几个周期内就能扩到位，避免请求线程长时间排队。
+ * 3、连续 idleSamplesBeforeShrink 个周期使用率都不超过 lowUtilization 且没有等待时才缩容，每次只减 1，
+ * * 不会缩到已借出的连接数以下，避免流量短暂回落时来回抖动。
+ * 4、结果始终在 [minSize, maxSize] 之内。
+ * 5、非线程安全，一个连接池使用一个实例。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 22:40
+ */
+public class PoolSizer {
+
+    /**
+     * 扩容倍数
+     */
+    static final double GROW_FACTOR = 1.5;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long growWaitNanos;
+    private final double highUtilization;
+    private final double lowUtilization;
+    private final int idleSamplesBeforeShrink;
+
+    private int idleSamples;
+
+    public PoolSizer(int minSize, int maxSize, long growWaitNanos, double highUtilization, double lowUtilization,
+                     int idleSamplesBeforeShrink) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("连接池大小范围不合法：[" + minSize + "," + maxSize + "]");
+        }
+        if (lowUtilization >= highUtilization) {
+            throw new IllegalArgumentException("low-utilization 必须小于 high-utilization");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.growWaitNanos = growWaitNanos;
+        this.highUtilization = highUtilization;
+        this.lowUtilization = lowUtilization;
+        this.idleSamplesBeforeShrink = Math.max(1, idleSamplesBeforeShrink);
+    }
+
+    /**
+     * 根据一次采样计算下一个周期的连接池大小
+     *
+     * @param current       ：当前连接池大小
+     * @param active        ：已借出的连接数
+     * @param waiters       ：正在等待借用连接的线程数
+     * @param meanWaitNanos ：本周期内的平均借用等待时间(纳秒)，本周期没有借用时传 0
+     * @return 下一个周期的连接池大小
+     */
+    public int next(int current, int active, int waiters, long meanWaitNanos) {
+        int size = clamp(current);
+        double utilization = (double) active / size;
+        if (waiters > 0 || meanWaitNanos >= growWaitNanos || utilization >= highUtilization) {
+            idleSamples = 0;
+            return clamp(Math.max(size + 1, (int) Math.ceil(size * GROW_FACTOR)));
+        }
+        if (utilization > lowUtilization) {
+            idleSamples = 0;
+            return size;
+        }
+        if (++idleSamples < idleSamplesBeforeShrink) {
+            return size;
+        }
+        idleSamples = 0;
+        return clamp(Math.max(active, size - 1));
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+}
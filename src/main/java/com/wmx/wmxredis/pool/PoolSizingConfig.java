@@ -0,0 +1,35 @@
+package com.wmx.wmxredis.pool;
+
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 连接池自适应大小配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link PoolSizingProperties} 配置类交由 Spring 容器管理
+ * 2、{@link RedissonPoolProbe} 是 BeanPostProcessor，必须使用 static 方法创建，避免提前初始化本配置类。
+ * 3、redis.pool-sizing.enabled=false 时不再调整大小，但仍然限制借用等待时间并发布 redis.pool.max 指标。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 23:05
+ */
+@Configuration
+@EnableConfigurationProperties(PoolSizingProperties.class)
+public class PoolSizingConfig {
+
+    @Bean
+    public static RedissonPoolProbe redissonPoolProbe() {
+        return new RedissonPoolProbe();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public AdaptivePoolController adaptivePoolController(PoolSizingProperties poolSizingProperties, MeterRegistry meterRegistry,
+                                                         InstrumentedJedisConnectionFactory redisConnectionFactory,
+                                                         RedissonPoolProbe redissonPoolProbe) {
+        return new AdaptivePoolController(poolSizingProperties, meterRegistry, redisConnectionFactory.getPool(), redissonPoolProbe);
+    }
+}
@@ -0,0 +1,182 @@
+package com.wmx.wmxredis.pool;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 连接池自适应大小配置
+ * <pre>
+ * redis:
+ *   pool-sizing:
+ *     enabled: true
+ *     interval: 5s
+ *     max-wait: 500ms
+ *     grow-wait: 5ms
+ *     high-utilization: 0.8
+ *     low-utilization: 0.3
+ *     idle-samples-before-shrink: 6
+ *     jedis:
+ *       min-size: 4
+ *       max-size: 64
+ *     redisson:
+ *       min-size: 8
+ *       max-size: 64
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 22:45
+ */
+@ConfigurationProperties(prefix = "redis.pool-sizing")
+public class PoolSizingProperties {
+
+    /**
+     * 是否根据借用等待时间与使用率自动调整连接池大小
+     */
+    private boolean enabled = true;
+    /**
+     * 采样、调整的间隔
+     */
+    private Duration interval = Duration.ofSeconds(5);
+    /**
+     * 借用连接的最长等待时间，超时立即失败，不允许无限等待(spring.redis.jedis.pool.max-wait 为负数或者更大时以这里为准)
+     */
+    private Duration maxWait = Duration.ofMillis(500);
+    /**
+     * 平均借用等待时间达到该值时扩容
+     */
+    private Duration growWait = Duration.ofMillis(5);
+    /**
+     * 使用率(已借出 / 连接池大小)达到该值时扩容
+     */
+    private double highUtilization = 0.8;
+    /**
+     * 使用率不超过该值的周期连续达到 idle-samples-before-shrink 个时缩容
+     */
+    private double lowUtilization = 0.3;
+    private int idleSamplesBeforeShrink = 6;
+    /**
+     * Jedis 连接池大小范围
+     */
+    private Bounds jedis = new Bounds(4, 64);
+    /**
+     * Redisson 连接池大小范围，Redisson 创建后不能调整连接池大小，只计算建议值
+     */
+    private Bounds redisson = new Bounds(8, 64);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Duration getGrowWait() {
+        return growWait;
+    }
+
+    public void setGrowWait(Duration growWait) {
+        this.growWait = growWait;
+    }
+
+    public double getHighUtilization() {
+        return highUtilization;
+    }
+
+    public void setHighUtilization(double highUtilization) {
+        this.highUtilization = highUtilization;
+    }
+
+    public double getLowUtilization() {
+        return lowUtilization;
+    }
+
+    public void setLowUtilization(double lowUtilization) {
+        this.lowUtilization = lowUtilization;
+    }
+
+    public int getIdleSamplesBeforeShrink() {
+        return idleSamplesBeforeShrink;
+    }
+
+    public void setIdleSamplesBeforeShrink(int idleSamplesBeforeShrink) {
+        this.idleSamplesBeforeShrink = idleSamplesBeforeShrink;
+    }
+
+    public Bounds getJedis() {
+        return jedis;
+    }
+
+    public void setJedis(Bounds jedis) {
+        this.jedis = jedis;
+    }
+
+    public Bounds getRedisson() {
+        return redisson;
+    }
+
+    public void setRedisson(Bounds redisson) {
+        this.redisson = redisson;
+    }
+
+    /**
+     * 根据本配置创建一个连接池的 {@link PoolSizer}
+     *
+     * @param bounds ：连接池大小范围
+     * @return
+     */
+    public PoolSizer newSizer(Bounds bounds) {
+        return new PoolSizer(bounds.getMinSize(), bounds.getMaxSize(), growWait.toNanos(), highUtilization, lowUtilization,
+                idleSamplesBeforeShrink);
+    }
+
+    /**
+     * 连接池大小范围
+     */
+    public static class Bounds {
+        private int minSize;
+        private int maxSize;
+
+        public Bounds() {
+        }
+
+        public Bounds(int minSize, int maxSize) {
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+}
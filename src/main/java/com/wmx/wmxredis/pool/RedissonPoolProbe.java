@@ -0,0 +1,94 @@
+package com.wmx.wmxredis.pool;
+
+import org.redisson.Redisson;
+import org.redisson.connection.ClientConnectionsEntry;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 读取 Redisson 主节点连接池的使用情况
+ * <p>
+ * 1、容器中的 RedissonClient 会被 {@link com.wmx.wmxredis.metrics.RedissonMetricsPostProcessor} 包装为只实现接口的代理，
+ * * 拿不到 Redisson 实现类，这里在初始化之前(postProcessBeforeInitialization)记录原始的 Redisson 实例。
+ * 2、单机模式下主节点不在 MasterSlaveEntry.getAllEntries() 中，只能通过 masterEntry 字段读取，Redisson 升级后需要确认该字段仍然存在。
+ * 3、Redisson 3.13 创建后不能调整连接池大小，这里只读取，不修改。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 22:55
+ */
+public class RedissonPoolProbe implements BeanPostProcessor {
+
+    private static final Field MASTER_ENTRY = ReflectionUtils.findField(MasterSlaveEntry.class, "masterEntry");
+
+    static {
+        if (MASTER_ENTRY != null) {
+            ReflectionUtils.makeAccessible(MASTER_ENTRY);
+        }
+    }
+
+    private final List<Redisson> clients = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof Redisson) {
+            clients.add((Redisson) bean);
+        }
+        return bean;
+    }
+
+    /**
+     * 所有 Redisson 客户端主节点连接池的汇总，没有 Redisson 客户端时返回 null
+     *
+     * @return
+     */
+    public Usage usage() {
+        if (MASTER_ENTRY == null) {
+            return null;
+        }
+        int size = 0;
+        int free = 0;
+        for (Redisson client : clients) {
+            ConnectionManager connectionManager = client.getConnectionManager();
+            if (connectionManager.isShuttingDown()) {
+                continue;
+            }
+            int poolSize = connectionManager.getConfig().getMasterConnectionPoolSize();
+            for (MasterSlaveEntry entry : connectionManager.getEntrySet()) {
+                ClientConnectionsEntry master = (ClientConnectionsEntry) ReflectionUtils.getField(MASTER_ENTRY, entry);
+                if (master != null) {
+                    size += poolSize;
+                    free += master.getFreeAmount();
+                }
+            }
+        }
+        return size == 0 ? null : new Usage(size, size - free);
+    }
+
+    /**
+     * 连接池大小与已借出的连接数
+     */
+    public static class Usage {
+        private final int size;
+        private final int active;
+
+        Usage(int size, int active) {
+            this.size = size;
+            this.active = active;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getActive() {
+            return active;
+        }
+    }
+}
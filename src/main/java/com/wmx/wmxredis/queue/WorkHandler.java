@@ -0,0 +1,23 @@
+package com.wmx.wmxredis.queue;
+
+import java.util.Map;
+
+/**
+ * 工作队列的消息处理器，正常返回表示处理成功，消息被确认；抛出异常时消息保留在待确认列表中，稍后重新投递
+ * <p>
+ * 消息至少投递一次，处理器需要保证幂等，如按消息 id 或业务主键去重。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 17:10
+ */
+@FunctionalInterface
+public interface WorkHandler {
+
+    /**
+     * @param id      ：消息 id，如 1666666666666-0
+     * @param message ：消息内容，字段 -> 值
+     * @throws Exception
+     */
+    void handle(String id, Map<String, String> message) throws Exception;
+}
@@ -0,0 +1,421 @@
+package com.wmx.wmxredis.queue;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.redisson.api.*;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 基于 Redis 流与消费组的持久化工作队列，消息至少处理一次，增加实例即可水平扩展
+ * <p>
+ * 1、发布：XADD MAXLEN ~ max-len 追加到流 前缀 + 队列名称，{@link #publishAll(String, List)} 批量发布只有一次网络往返。
+ * 2、消费：每个订阅的队列一个读取线程，XREADGROUP 每次最多读取 batch-size 条(没有消息时阻塞 block-timeout)，
+ * * 交给共用的 worker-threads 个处理线程并行处理，整批处理完成后成功的消息一次 XACK 确认，再读取下一批。
+ * * 所有实例使用同一个消费组 group，每条消息只投递给其中一个实例；消费者名称为实例 id。
+ * 3、重新投递：处理失败或者消费者宕机的消息留在消费组的待确认列表(PEL)中，每隔 claim-interval 用 XPENDING 找出超过 claim-idle
+ * * 没有确认的消息，XCLAIM 认领后重新处理；XCLAIM 带最小空闲时间，多个实例同时认领时只有一个成功。
+ * * Redis 6.2 的 XAUTOCLAIM 可以一次完成查找与认领，但 Redisson 3.13 不支持，这里用 XPENDING + XCLAIM 实现同样的效果。
+ * 4、死信：投递次数达到 max-deliveries 的消息不再重试，连同原消息 id 与投递次数追加到死信队列 前缀 + 队列名称 + :dead 后确认。
+ * 5、指标(标签 queue 为队列名称)：redis.queue.process(每条消息的处理时间，标签 result=success/failed)、
+ * * redis.queue.claimed(重新认领的消息数)、redis.queue.dead(转入死信队列的消息数)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 17:20
+ */
+public class WorkQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkQueue.class);
+
+    /**
+     * 死信消息中记录原消息 id 与投递次数的字段
+     */
+    public static final String DEAD_ID_FIELD = "_id";
+    public static final String DEAD_DELIVERIES_FIELD = "_deliveries";
+
+    private final RedissonClient redissonClient;
+    private final WorkQueueProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String consumerName = UUID.randomUUID().toString().replace("-", "");
+    private final ConcurrentMap<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final String pendingScript = script("lua/queue_pending.lua");
+    private final ExecutorService readers;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService claimer;
+    private volatile boolean stopped;
+
+    public WorkQueue(RedissonClient redissonClient, WorkQueueProperties properties, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (properties.isEnabled()) {
+            this.readers = Executors.newCachedThreadPool(
+                    new ThreadFactoryBuilder().setNameFormat("redis-queue-reader-%d").setDaemon(true).build());
+            this.workers = Executors.newFixedThreadPool(Math.max(properties.getWorkerThreads(), 1),
+                    new ThreadFactoryBuilder().setNameFormat("redis-queue-worker-%d").setDaemon(true).build());
+            this.claimer = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("redis-queue-claimer-%d").setDaemon(true).build());
+        } else {
+            this.readers = null;
+            this.workers = null;
+            this.claimer = null;
+        }
+    }
+
+    /**
+     * 发布一条消息
+     *
+     * @param queue   ：队列名称
+     * @param message ：消息内容，字段 -> 值，不能为空
+     * @return 消息 id
+     */
+    public String publish(String queue, Map<String, String> message) {
+        return stream(queue).addAll(message, properties.getMaxLen(), false).toString();
+    }
+
+    /**
+     * 批量发布，所有消息在一次网络往返中发送
+     *
+     * @param queue    ：队列名称
+     * @param messages ：消息内容，每条不能为空
+     * @return 消息 id，与 messages 顺序相同
+     */
+    public List<String> publishAll(String queue, List<Map<String, String>> messages) {
+        RBatch batch = redissonClient.createBatch();
+        RStreamAsync<String, String> stream = batch.getStream(streamName(queue), StringCodec.INSTANCE);
+        List<RFuture<StreamMessageId>> futures = new ArrayList<>(messages.size());
+        for (Map<String, String> message : messages) {
+            futures.add(stream.addAllAsync(message, properties.getMaxLen(), false));
+        }
+        batch.execute();
+        List<String> ids = new ArrayList<>(futures.size());
+        futures.forEach(future -> ids.add(future.getNow().toString()));
+        return ids;
+    }
+
+    /**
+     * 订阅队列，消费组不存在时创建(从队列中最早的消息开始消费)
+     *
+     * @param queue   ：队列名称，每个队列在本实例只能订阅一次
+     * @param handler ：消息处理器，需要保证幂等
+     */
+    public void subscribe(String queue, WorkHandler handler) {
+        Subscription subscription = new Subscription(queue, handler);
+        if (subscriptions.putIfAbsent(queue, subscription) != null) {
+            throw new IllegalStateException("队列已经订阅：" + queue);
+        }
+        if (!properties.isEnabled()) {
+            log.info("工作队列消费未开启，队列 {} 的消息不在本实例处理", queue);
+            return;
+        }
+        createGroup(queue);
+        readers.execute(() -> read(subscription));
+        long interval = Math.max(properties.getClaimInterval().toMillis(), 10);
+        claimer.scheduleWithFixedDelay(() -> claim(subscription), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 队列状态
+     *
+     * @param queue ：队列名称
+     * @return length(队列长度)、pending(已投递未确认的消息数)、dead(死信队列长度)
+     */
+    public Map<String, Object> stats(String queue) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("length", stream(queue).size());
+        stats.put("pending", pending(queue));
+        stats.put("dead", deadStream(queue).size());
+        return stats;
+    }
+
+    /**
+     * 已投递未确认的消息数，消费组不存在时为 0
+     * <p>
+     * 不使用 RStream.getPendingInfo：Redisson 3.13 解析没有待确认消息的 XPENDING 汇总回复时抛出空指针异常。
+     *
+     * @param queue ：队列名称
+     * @return
+     */
+    public long pending(String queue) {
+        String key = streamName(queue);
+        Long pending = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_ONLY, pendingScript,
+                RScript.ReturnType.INTEGER, Collections.singletonList(key), properties.getGroup());
+        return pending == null ? 0 : pending;
+    }
+
+    /**
+     * 死信队列中最早的消息
+     *
+     * @param queue ：队列名称
+     * @param count ：最多返回的条数
+     * @return 消息 id -> 消息内容(含原消息 id 与投递次数)
+     */
+    public Map<String, Map<String, String>> deadLetters(String queue, int count) {
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+        deadStream(queue).range(count, StreamMessageId.MIN, StreamMessageId.MAX)
+                .forEach((id, message) -> result.put(id.toString(), message));
+        return result;
+    }
+
+    public String getConsumerName() {
+        return consumerName;
+    }
+
+    private void createGroup(String queue) {
+        try {
+            stream(queue).createGroup(properties.getGroup(), StreamMessageId.ALL);
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 读取线程：读取一批新消息，处理完成后再读取下一批
+     */
+    private void read(Subscription subscription) {
+        RStream<String, String> stream = stream(subscription.queue);
+        while (!stopped) {
+            try {
+                Map<StreamMessageId, Map<String, String>> batch = stream.readGroup(properties.getGroup(), consumerName,
+                        properties.getBatchSize(), properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                if (batch != null && !batch.isEmpty()) {
+                    process(subscription, batch);
+                }
+            } catch (Exception e) {
+                if (stopped) {
+                    break;
+                }
+                log.error("读取队列 {} 失败：{}", subscription.queue, e.getMessage(), e);
+                if (e.getMessage() != null && e.getMessage().contains("NOGROUP")) {
+                    // 队列被删除后重新创建消费组
+                    createGroup(subscription.queue);
+                }
+                sleep(properties.getBlockTimeout().toMillis());
+            }
+        }
+    }
+
+    /**
+     * 在处理线程中并行处理一批消息，等待全部完成后一次确认成功的消息；失败的消息留在待确认列表中，由 {@link #claim} 重新投递
+     */
+    private void process(Subscription subscription, Map<StreamMessageId, Map<String, String>> batch) {
+        List<StreamMessageId> ids = new ArrayList<>(batch.keySet());
+        List<Future<Boolean>> results = new ArrayList<>(ids.size());
+        for (StreamMessageId id : ids) {
+            Map<String, String> message = batch.get(id);
+            results.add(workers.submit(() -> handle(subscription, id, message)));
+        }
+        List<StreamMessageId> succeeded = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            try {
+                if (results.get(i).get()) {
+                    succeeded.add(ids.get(i));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // handle 已经捕获处理器的异常，这里不会出现
+            }
+        }
+        if (!succeeded.isEmpty()) {
+            stream(subscription.queue).ack(properties.getGroup(), succeeded.toArray(new StreamMessageId[0]));
+        }
+    }
+
+    private boolean handle(Subscription subscription, StreamMessageId id, Map<String, String> message) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            subscription.handler.handle(id.toString(), message);
+            success = true;
+        } catch (Exception e) {
+            log.error("处理队列 {} 的消息 {} 失败：{}", subscription.queue, id, e.getMessage(), e);
+        }
+        Timer.builder("redis.queue.process").description("工作队列消息处理时间")
+                .tags("queue", subscription.queue, "result", success ? "success" : "failed")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return success;
+    }
+
+    /**
+     * 认领超过 claim-idle 没有确认的消息：投递次数未达到上限的重新处理，达到上限的转入死信队列
+     */
+    private void claim(Subscription subscription) {
+        if (stopped) {
+            return;
+        }
+        try {
+            RStream<String, String> stream = stream(subscription.queue);
+            long minIdle = properties.getClaimIdle().toMillis();
+            int pageSize = Math.max(properties.getBatchSize(), 1);
+            StreamMessageId start = StreamMessageId.MIN;
+            while (!stopped) {
+                List<PendingEntry> page = stream.listPending(properties.getGroup(), start, StreamMessageId.MAX, pageSize);
+                List<StreamMessageId> retry = new ArrayList<>();
+                List<StreamMessageId> dead = new ArrayList<>();
+                for (PendingEntry entry : page) {
+                    if (entry.getIdleTime() < minIdle) {
+                        continue;
+                    }
+                    // getLastTimeDelivered 是投递次数
+                    if (entry.getLastTimeDelivered() >= properties.getMaxDeliveries()) {
+                        dead.add(entry.getId());
+                    } else {
+                        retry.add(entry.getId());
+                    }
+                }
+                if (!dead.isEmpty()) {
+                    deadLetter(subscription, stream, page, dead);
+                }
+                if (!retry.isEmpty()) {
+                    Map<StreamMessageId, Map<String, String>> claimed = claim(stream, retry);
+                    if (!claimed.isEmpty()) {
+                        Counter.builder("redis.queue.claimed").description("重新认领的消息数").tag("queue", subscription.queue)
+                                .register(meterRegistry).increment(claimed.size());
+                        log.warn("认领队列 {} 中 {} 条超时未确认的消息", subscription.queue, claimed.size());
+                        process(subscription, claimed);
+                    }
+                }
+                if (page.size() < pageSize) {
+                    break;
+                }
+                StreamMessageId last = page.get(page.size() - 1).getId();
+                start = new StreamMessageId(last.getId0(), last.getId1() + 1);
+            }
+        } catch (Exception e) {
+            log.error("认领队列 {} 的待确认消息失败：{}", subscription.queue, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * XCLAIM 认领消息，已经被删除(队列裁剪)的消息直接确认，避免一直留在待确认列表中
+     */
+    private Map<StreamMessageId, Map<String, String>> claim(RStream<String, String> stream, List<StreamMessageId> ids) {
+        Map<StreamMessageId, Map<String, String>> claimed = stream.claim(properties.getGroup(), consumerName,
+                properties.getClaimIdle().toMillis(), TimeUnit.MILLISECONDS, ids.toArray(new StreamMessageId[0]));
+        if (claimed == null) {
+            claimed = Collections.emptyMap();
+        }
+        List<StreamMessageId> missing = new ArrayList<>();
+        for (StreamMessageId id : ids) {
+            // 没有认领到：已经被其它实例认领，或者消息已经删除
+            if (!claimed.containsKey(id) && stream.range(id, id).isEmpty()) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            stream.ack(properties.getGroup(), missing.toArray(new StreamMessageId[0]));
+        }
+        return claimed;
+    }
+
+    private void deadLetter(Subscription subscription, RStream<String, String> stream, List<PendingEntry> page, List<StreamMessageId> ids) {
+        Map<StreamMessageId, Long> deliveries = new HashMap<>();
+        page.forEach(entry -> deliveries.put(entry.getId(), entry.getLastTimeDelivered()));
+        Map<StreamMessageId, Map<String, String>> claimed = claim(stream, ids);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        RStream<String, String> deadStream = deadStream(subscription.queue);
+        for (Map.Entry<StreamMessageId, Map<String, String>> entry : claimed.entrySet()) {
+            Map<String, String> message = new LinkedHashMap<>(entry.getValue());
+            message.put(DEAD_ID_FIELD, entry.getKey().toString());
+            message.put(DEAD_DELIVERIES_FIELD, String.valueOf(deliveries.get(entry.getKey())));
+            deadStream.addAll(message, properties.getMaxLen(), false);
+        }
+        stream.ack(properties.getGroup(), claimed.keySet().toArray(new StreamMessageId[0]));
+        Counter.builder("redis.queue.dead").description("转入死信队列的消息数").tag("queue", subscription.queue)
+                .register(meterRegistry).increment(claimed.size());
+        log.error("队列 {} 中 {} 条消息投递 {} 次仍然失败，转入死信队列", subscription.queue, claimed.size(), properties.getMaxDeliveries());
+    }
+
+    private String streamName(String queue) {
+        return properties.getKeyPrefix() + queue;
+    }
+
+    private RStream<String, String> stream(String queue) {
+        return redissonClient.getStream(streamName(queue), StringCodec.INSTANCE);
+    }
+
+    private RStream<String, String> deadStream(String queue) {
+        return redissonClient.getStream(streamName(queue) + ":dead", StringCodec.INSTANCE);
+    }
+
+    private static String script(String path) {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取 Lua 脚本失败：" + path, e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 停止消费：读取线程在当前阻塞读取结束后退出，等待正在处理的一批消息处理完成并确认；
+     * * 超时未完成的消息留在待确认列表中，由其它实例重新处理。没有未确认消息时从消费组中删除本消费者。
+     */
+    public void shutdown() {
+        stopped = true;
+        if (readers == null) {
+            return;
+        }
+        claimer.shutdownNow();
+        readers.shutdown();
+        workers.shutdown();
+        try {
+            long timeout = properties.getBlockTimeout().toMillis() + properties.getClaimIdle().toMillis();
+            readers.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+            workers.awaitTermination(properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (String queue : subscriptions.keySet()) {
+            try {
+                RStream<String, String> stream = stream(queue);
+                if (stream.listPending(properties.getGroup(), consumerName, StreamMessageId.MIN, StreamMessageId.MAX, 1).isEmpty()) {
+                    stream.removeConsumer(properties.getGroup(), consumerName);
+                }
+            } catch (Exception e) {
+                log.warn("从队列 {} 的消费组中删除消费者失败：{}", queue, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 一个订阅的队列
+     */
+    private static final class Subscription {
+        private final String queue;
+        private final WorkHandler handler;
+
+        Subscription(String queue, WorkHandler handler) {
+            this.queue = queue;
+            this.handler = handler;
+        }
+    }
+}
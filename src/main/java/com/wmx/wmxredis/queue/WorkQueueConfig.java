@@ -0,0 +1,27 @@
+package com.wmx.wmxredis.queue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 工作队列配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link WorkQueueProperties} 配置类交由 Spring 容器管理
+ * 2、应用关闭时等待正在处理的消息确认，未完成的消息由其它实例重新处理。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 17:30
+ */
+@Configuration
+@EnableConfigurationProperties(WorkQueueProperties.class)
+public class WorkQueueConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public WorkQueue workQueue(RedissonClient redissonClient, WorkQueueProperties workQueueProperties, MeterRegistry meterRegistry) {
+        return new WorkQueue(redissonClient, workQueueProperties, meterRegistry);
+    }
+}
@@ -0,0 +1,87 @@
+package com.wmx.wmxredis.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.*;
+
+/**
+ * 工作队列演示：发布消息、查看队列状态与死信，demo 队列的消息由所有实例分摊处理
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 17:35
+ */
+@RestController
+public class WorkQueueController {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkQueueController.class);
+
+    @Resource
+    private WorkQueue workQueue;
+
+    @PostConstruct
+    public void init() {
+        workQueue.subscribe("demo", (id, message) -> {
+            log.info("处理 demo 队列的消息 {}：{}", id, message);
+            if (Boolean.parseBoolean(message.get("fail"))) {
+                // 模拟处理失败，消息在 claim-idle 之后重新投递，max-deliveries 次后转入死信队列
+                throw new IllegalStateException("模拟处理失败");
+            }
+        });
+    }
+
+    /**
+     * 发布消息：http://localhost:8080/queue/publish?queue=demo&message=hello&count=10&fail=false
+     *
+     * @param queue   ：队列名称
+     * @param message ：消息内容
+     * @param count   ：发布的条数，大于 1 时批量发布
+     * @param fail    ：是否模拟处理失败(demo 队列)
+     * @return 消息 id
+     */
+    @GetMapping("queue/publish")
+    public List<String> publish(@RequestParam(defaultValue = "demo") String queue,
+                                @RequestParam(defaultValue = "hello") String message,
+                                @RequestParam(defaultValue = "1") int count,
+                                @RequestParam(defaultValue = "false") boolean fail) {
+        List<Map<String, String>> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, String> body = new LinkedHashMap<>();
+            body.put("message", message);
+            body.put("index", String.valueOf(i));
+            body.put("fail", String.valueOf(fail));
+            messages.add(body);
+        }
+        return count == 1 ? Collections.singletonList(workQueue.publish(queue, messages.get(0))) : workQueue.publishAll(queue, messages);
+    }
+
+    /**
+     * 队列状态：http://localhost:8080/queue/stats?queue=demo
+     *
+     * @param queue ：队列名称
+     * @return
+     */
+    @GetMapping("queue/stats")
+    public Map<String, Object> stats(@RequestParam(defaultValue = "demo") String queue) {
+        return workQueue.stats(queue);
+    }
+
+    /**
+     * 死信队列中最早的消息：http://localhost:8080/queue/dead?queue=demo&count=20
+     *
+     * @param queue ：队列名称
+     * @param count ：最多返回的条数
+     * @return
+     */
+    @GetMapping("queue/dead")
+    public Map<String, Map<String, String>> dead(@RequestParam(defaultValue = "demo") String queue,
+                                                 @RequestParam(defaultValue = "20") int count) {
+        return workQueue.deadLetters(queue, count);
+    }
+}
@@ -0,0 +1,151 @@
+package com.wmx.wmxredis.queue;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@link WorkQueue} 配置
+ * <pre>
+ * redis:
+ *   work-queue:
+ *     enabled: true
+ *     key-prefix: "wmx:queue:"
+ *     group: workers
+ *     worker-threads: 8
+ *     batch-size: 16
+ *     block-timeout: 2s
+ *     max-len: 100000
+ *     claim-interval: 10s
+ *     claim-idle: 60s
+ *     max-deliveries: 5
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 17:00
+ */
+@ConfigurationProperties(prefix = "redis.work-queue")
+public class WorkQueueProperties {
+
+    /**
+     * 是否在本实例消费，关闭后只能发布消息，订阅的处理器不会执行
+     */
+    private boolean enabled = true;
+    /**
+     * 队列(流)的 key 前缀，死信队列为 前缀 + 队列名称 + :dead
+     */
+    private String keyPrefix = "wmx:queue:";
+    /**
+     * 消费组名称，所有实例使用同一个消费组，每条消息只投递给其中一个消费者
+     */
+    private String group = "workers";
+    /**
+     * 处理消息的线程数，所有队列共用
+     */
+    private int workerThreads = 8;
+    /**
+     * 每次最多读取的消息数，一批消息处理完成后一次确认
+     */
+    private int batchSize = 16;
+    /**
+     * 没有新消息时阻塞等待的时间，每个订阅的队列阻塞时占用一个 Redisson 连接
+     */
+    private Duration blockTimeout = Duration.ofSeconds(2);
+    /**
+     * 队列最多保留的消息数(近似裁剪)，超过后最早的消息被删除，无论是否已经处理
+     */
+    private int maxLen = 100000;
+    /**
+     * 检查待确认消息的间隔
+     */
+    private Duration claimInterval = Duration.ofSeconds(10);
+    /**
+     * 消息投递后超过这么久没有确认(消费者宕机或处理失败)，由其它消费者认领后重新处理，需要大于处理一批消息的最长时间
+     */
+    private Duration claimIdle = Duration.ofSeconds(60);
+    /**
+     * 最多投递次数，达到后不再重试，转入死信队列
+     */
+    private int maxDeliveries = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public void setBlockTimeout(Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public int getMaxLen() {
+        return maxLen;
+    }
+
+    public void setMaxLen(int maxLen) {
+        this.maxLen = maxLen;
+    }
+
+    public Duration getClaimInterval() {
+        return claimInterval;
+    }
+
+    public void setClaimInterval(Duration claimInterval) {
+        this.claimInterval = claimInterval;
+    }
+
+    public Duration getClaimIdle() {
+        return claimIdle;
+    }
+
+    public void setClaimIdle(Duration claimIdle) {
+        this.claimIdle = claimIdle;
+    }
+
+    public int getMaxDeliveries() {
+        return maxDeliveries;
+    }
+
+    public void setMaxDeliveries(int maxDeliveries) {
+        this.maxDeliveries = maxDeliveries;
+    }
+}
@@ -2,7 +2,10 @@ package com.wmx.wmxredis.redisson;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.config.BaseMasterSlaveServersConfig;
 import org.redisson.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -14,6 +17,8 @@ import java.io.IOException;
  * Redisson 自定义 Redisson  配置选项配置类
  * <p>
  * 1、EnableConfigurationProperties：将 {@link RedssionProperties} 配置类交由 Spring 容器管理
+ * 2、redisson.type 支持 stand-alone(单机)、cluster(集群)、sentinel(哨兵)、replicated(主从复制)，
+ * * 未配置 redisson.type 时不创建，使用 {@link RedissonConfig2} 读取 redisson-config.yml 文件。
  *
  * @author wangMaoXiong
  * @version 1.0
@@ -23,6 +28,8 @@ import java.io.IOException;
 @EnableConfigurationProperties(RedssionProperties.class)
 public class RedissonConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(RedissonConfig.class);
+
     private final RedssionProperties redssionProperties;
 
     /**
@@ -38,35 +45,87 @@ public class RedissonConfig {
 
     /**
      * 自定义 Redisson  配置选项
-     * redis 服务器单机部署时，创建 RedissonClient 实例，交由 Spring 容器管理
-     * 只有当配置了 redisson.type=stand-alone 时，才继续生成 RedissonClient 实例并交由 Spring 容器管理
+     * 根据 redisson.type 创建单机、集群、哨兵、主从复制部署的 RedissonClient 实例，交由 Spring 容器管理
+     * 只有当配置了 redisson.type 时，才继续生成 RedissonClient 实例并交由 Spring 容器管理，否则使用 {@link RedissonConfig2} 的 yml 文件方式配置
      *
      * @return
      */
     @Bean
-    @ConditionalOnProperty(prefix = "redisson", name = "type", havingValue = "stand-alone")
+    @ConditionalOnProperty(prefix = "redisson", name = "type")
     public RedissonClient redissonClient() throws IOException {
-        /**
-         * Config：Redisson 配置基类，SingleServerConfig：单机部署配置类，MasterSlaveServersConfig：主从复制部署配置
-         * SentinelServersConfig：哨兵模式配置，ClusterServersConfig：集群部署配置类。
-         * useSingleServer()：初始化 redis 单服务器配置。即 redis 服务器单机部署
-         * setAddress(String address)：设置 redis 服务器地址。格式 -- redis://主机:端口，不写时，默认为 redis://127.0.0.1:6379
-         * setDatabase(int database): 设置连接的 redis 数据库，默认为 0
-         * setPassword(String password)：设置 redis 服务器认证密码，没有时设置为 null，默认为 null
-         * RedissonClient create(Config config): 使用提供的配置创建同步/异步 Redisson 实例
-         * Redisson 类实现了 RedissonClient 接口，真正需要使用的就是这两个 API
-         */
-        Config config = new Config();
-        config.useSingleServer()
-                .setAddress(redssionProperties.getAddress())
-                .setDatabase(redssionProperties.getDatabase())
-                .setPassword(redssionProperties.getPassword())
-                .setConnectionPoolSize(redssionProperties.getConnectionPoolSize())
-                .setConnectionMinimumIdleSize(redssionProperties.getConnectionMinimumIdleSize())
-                .setTimeout(redssionProperties.getTimeout())
-                .setConnectTimeout(redssionProperties.getConnectTimeout());
+        Config config = createConfig(redssionProperties);
         RedissonClient redissonClient = Redisson.create(config);
-        System.out.println("1:" + config.toYAML());
+        log.info("Redisson 配置:{}", config.toYAML());
         return redissonClient;
     }
+
+    /**
+     * 按部署类型创建 Redisson 配置
+     * <p>
+     * Config：Redisson 配置基类，SingleServerConfig：单机部署配置类，MasterSlaveServersConfig：主从复制部署配置
+     * SentinelServersConfig：哨兵模式配置，ClusterServersConfig：集群部署配置类，ReplicatedServersConfig：云托管等主从复制部署配置类
+     * useSingleServer()：初始化 redis 单服务器配置。即 redis 服务器单机部署
+     * setAddress(String address)：设置 redis 服务器地址。格式 -- redis://主机:端口，不写时，默认为 redis://127.0.0.1:6379
+     * setDatabase(int database): 设置连接的 redis 数据库，默认为 0，集群不支持
+     * setPassword(String password)：设置 redis 服务器认证密码，没有时设置为 null，默认为 null
+     * addNodeAddress(String... addresses)：集群、哨兵、主从复制部署的节点地址
+     * setScanInterval(int scanInterval)：扫描拓扑变化的时间间隔，主从切换、槽迁移后自动更新路由
+     * setReadMode(ReadMode readMode)：读命令发送到主节点、从节点还是主从轮询，写命令总是发送到主节点，
+     * * 对整个客户端生效(RList.readAll、RMap.readAllMap 等)，不能按请求切换，需要读自己的写时保持 MASTER
+     * 集群部署时连接池大小是每个主节点的大小
+     *
+     * @param properties
+     * @return
+     */
+    static Config createConfig(RedssionProperties properties) {
+        Config config = new Config();
+        String type = properties.getType();
+        if ("stand-alone".equals(type)) {
+            config.useSingleServer()
+                    .setAddress(properties.getAddress())
+                    .setDatabase(properties.getDatabase())
+                    .setPassword(properties.getPassword())
+                    .setConnectionPoolSize(properties.getConnectionPoolSize())
+                    .setConnectionMinimumIdleSize(properties.getConnectionMinimumIdleSize())
+                    .setTimeout(properties.getTimeout())
+                    .setConnectTimeout(properties.getConnectTimeout());
+            return config;
+        }
+        String[] nodeAddresses = properties.getNodeAddresses().toArray(new String[0]);
+        if (nodeAddresses.length == 0) {
+            throw new IllegalArgumentException("redisson.type=" + type + " 时必须配置 redisson.node-addresses");
+        }
+        BaseMasterSlaveServersConfig<?> serversConfig;
+        if ("cluster".equals(type)) {
+            if (properties.getDatabase() != 0) {
+                throw new IllegalArgumentException("集群部署只支持 0 号库，redisson.database=" + properties.getDatabase());
+            }
+            serversConfig = config.useClusterServers()
+                    .addNodeAddress(nodeAddresses)
+                    .setScanInterval(properties.getScanInterval());
+        } else if ("sentinel".equals(type)) {
+            if (properties.getMasterName() == null) {
+                throw new IllegalArgumentException("redisson.type=sentinel 时必须配置 redisson.master-name");
+            }
+            serversConfig = config.useSentinelServers()
+                    .setMasterName(properties.getMasterName())
+                    .addSentinelAddress(nodeAddresses)
+                    .setDatabase(properties.getDatabase())
+                    .setScanInterval(properties.getScanInterval());
+        } else if ("replicated".equals(type)) {
+            serversConfig = config.useReplicatedServers()
+                    .addNodeAddress(nodeAddresses)
+                    .setDatabase(properties.getDatabase())
+                    .setScanInterval(properties.getScanInterval());
+        } else {
+            throw new IllegalArgumentException("不支持的 redisson.type：" + type + "，可选值 stand-alone、cluster、sentinel、replicated");
+        }
+        serversConfig.setPassword(properties.getPassword())
+                .setReadMode(properties.getReadMode())
+                .setMasterConnectionPoolSize(properties.getConnectionPoolSize())
+                .setMasterConnectionMinimumIdleSize(properties.getConnectionMinimumIdleSize())
+                .setTimeout(properties.getTimeout())
+                .setConnectTimeout(properties.getConnectTimeout());
+        return config;
+    }
 }
@@ -5,6 +5,7 @@ import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,12 +14,16 @@ import java.net.URL;
 
 /**
  * Redisson  yml 文件方式配置
+ * <p>
+ * 1、未配置 redisson.type 时生效，配置了 redisson.type 时由 {@link RedissonConfig} 按属性创建，两者只能二选一。
+ * 2、集群、哨兵、主从复制部署时将 redisson-config.yml 中的 singleServerConfig 换成对应的配置(文件中有注释掉的示例)。
  *
  * @author wangMaoXiong
  * @version 1.0
  * @date 2020/9/24 19:28
  */
 @Configuration
+@ConditionalOnExpression("'${redisson.type:}'.isEmpty()")
 public class RedissonConfig2 {
 
     private static final Logger log = LoggerFactory.getLogger(RedissonConfig2.class);
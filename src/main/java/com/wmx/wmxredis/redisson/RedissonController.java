@@ -1,5 +1,8 @@
 package com.wmx.wmxredis.redisson;
 
+import com.wmx.wmxredis.lock.FencedLock;
+import com.wmx.wmxredis.lock.FencedLockService;
+import com.wmx.wmxredis.lock.LocalKeyLocks;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
@@ -9,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -23,9 +27,23 @@ public class RedissonController {
 
     private static Logger logger = LoggerFactory.getLogger(RedissonController.class);
 
+    /**
+     * payment3 的最长持有时间，大于支付的临界区(约 80 秒)
+     */
+    private static final Duration PAYMENT_MAX_HOLD_TIME = Duration.ofMinutes(2);
+
     @Resource
     private RedissonClient redissonClient;
 
+    @Resource
+    private FencedLockService fencedLockService;
+
+    /**
+     * 分布式锁前面的本地锁
+     */
+    @Resource
+    private LocalKeyLocks localKeyLocks;
+
     /**
      * 未加锁做任何限制时
      * <p>
@@ -55,6 +73,7 @@ public class RedissonController {
     /**
      * RedissonClient.getLock(String name)：可重入锁,按名称返回锁实例，实现了一个非公平的可重入锁，因此不能保证线程获得顺序
      * lock(): 获取锁，如果锁不可用，则当前线程将处于休眠状态，直到获得锁为止
+     * 先获取本地锁 {@link LocalKeyLocks}，同一个订单在本实例内只有一个线程订阅、竞争 Redis 中的锁，其它线程在本地等待
      * <p>
      * 支付：http://localhost:8080/redisson/payment2?orderNumber=885867878
      *
@@ -62,13 +81,19 @@ public class RedissonController {
      * @return
      */
     @GetMapping("redisson/payment2")
-    public String payment2(@RequestParam Integer orderNumber) {
+    public String payment2(@RequestParam Integer orderNumber) throws InterruptedException {
         String result = "订单【" + orderNumber + "】支付成功!";
         logger.info("用户请求支付订单【" + orderNumber + "】");
 
         String key = "com.wmx.wmxredis.redisson.RedissonController.payment2_" + orderNumber;
         RLock lock = redissonClient.getLock(key);
-        lock.lock();
+        localKeyLocks.acquire(key);
+        try {
+            lock.lock();
+        } catch (RuntimeException e) {
+            localKeyLocks.release(key);
+            throw e;
+        }
         try {
             logger.info("查询支付状态.");
             TimeUnit.SECONDS.sleep(4);
@@ -83,24 +108,26 @@ public class RedissonController {
              * unlock()：释放锁， Lock 接口的实现类通常会对线程释放锁（通常只有锁的持有者才能释放锁）施加限制，
              * 如果违反了限制，则可能会抛出（未检查的）异常。
              * 注意：如果锁已经被释放了，重复释放时，会抛出异常.
+             * isLocked() 判断的是锁是否被任何线程持有，可能删掉其它线程的锁，所以使用 isHeldByCurrentThread()
              */
-            if (lock.isLocked()) {
+            if (lock.isHeldByCurrentThread()) {
                 lock.unlock();
             }
+            localKeyLocks.release(key);
         }
         return result;
     }
 
     /**
-     * RedissonClient.getLock(String name)：可重入锁, 实现了一个非公平的可重入锁，因此不能保证线程获得顺序
-     * boolean tryLock(long waitTime, long leaseTime, TimeUnit unit)：尝试获取锁
-     * * 1、waitTime：获取锁时的等待时间，超时自动放弃，线程不再继续阻塞，方法返回 false
-     * * 2、leaseTime：获取到锁后，指定加锁的时间，超时后自动解锁
-     * * 3、如果成功获取锁，则返回 true，否则返回 false。
-     * boolean tryLock()：仅当锁在调用时可用时才获取锁。
-     * * 1、如果锁可用，则获取锁并立即返回值 true.
-     * * 2、如果锁不可用，则此方法将立即返回值 false.
-     * lock():获取锁，如果锁不可用，则当前线程将处于休眠状态，直到获得锁为止
+     * 带防护令牌的租约锁 {@link FencedLockService}：
+     * * 1、等待最多 30 秒，获取不到时返回正在支付中。
+     * * 2、不需要预估业务时长(原来的 leaseTime 为 180 秒，持有者宕机后要等 3 分钟才能重试)，持有线程存活时自动续租，
+     * * 宕机后 redis.lock.lease-time 内自动释放。
+     * * 3、令牌随支付请求一起传给下游，下游拒绝比已处理过的令牌小的请求，锁过期后旧持有者的写入不会生效。
+     * * 4、只释放自己持有的锁。
+     * * 5、同一个订单的并发请求先在本地锁上排队，只有一个线程轮询 Redis。
+     * * 6、支付的临界区约 80 秒，超过默认的 redis.lock.max-hold-time(60 秒)，这里单独指定最长持有时间为 2 分钟；
+     * * 提交支付前检查 isHeld()，锁已经丢失(续租失败、超过最长持有时间)时不再支付，其它请求可能已经获取了锁。
      * <p>
      * http://localhost:8080/redisson/payment3?orderNumber=8856767
      *
@@ -108,42 +135,30 @@ public class RedissonController {
      * @return
      */
     @GetMapping("redisson/payment3")
-    public String payment3(@RequestParam Integer orderNumber) {
+    public String payment3(@RequestParam Integer orderNumber) throws InterruptedException {
         String result = "订单【" + orderNumber + "】支付成功.";
         logger.info("用户请求支付订单【" + orderNumber + "】.");
 
-        String key = "com.wmx.wmxredis.redisson.RedissonController.payment3_" + orderNumber;
-        RLock lock = redissonClient.getLock(key);
-        boolean tryLock = false;
-        try {
-            tryLock = lock.tryLock(30, 180, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        if (!tryLock) {
-            return "订单【" + orderNumber + "】正在支付中，请耐心等待！";
-        }
-        try {
-            logger.info("查询支付状态");
-            TimeUnit.SECONDS.sleep(40);
-            logger.info("开始支付订单【" + orderNumber + "】");
-            TimeUnit.SECONDS.sleep(40);
-        } catch (Exception e) {
-            e.printStackTrace();
-            result = "订单【" + orderNumber + "】支付失败：" + e.getMessage();
-        } finally {
-            logger.info("结束支付订单【" + orderNumber + "】");
-            /**
-             * boolean isLocked():检查锁是否被任何线程锁定，被锁定时返回 true，否则返回 false.
-             * unlock()：释放锁， Lock 接口的实现类通常会对线程释放锁（通常只有锁的持有者才能释放锁）施加限制，
-             * 如果违反了限制，则可能会抛出（未检查的）异常。如果锁已经被释放，重复释放时，会抛出异常。
-             */
-            if (lock.isLocked()) {
-                lock.unlock();
+        try (FencedLock lock = fencedLockService.tryLock("payment", orderNumber, Duration.ofSeconds(30), PAYMENT_MAX_HOLD_TIME)) {
+            if (lock == null) {
+                return "订单【" + orderNumber + "】正在支付中，请耐心等待！";
+            }
+            try {
+                logger.info("查询支付状态，令牌：" + lock.getToken());
+                TimeUnit.SECONDS.sleep(40);
+                if (!lock.isHeld()) {
+                    logger.warn("订单【" + orderNumber + "】的锁已经丢失，放弃支付，令牌：" + lock.getToken());
+                    return "订单【" + orderNumber + "】支付超时，请重试！";
+                }
+                logger.info("开始支付订单【" + orderNumber + "】，令牌：" + lock.getToken());
+                TimeUnit.SECONDS.sleep(40);
+            } catch (Exception e) {
+                e.printStackTrace();
+                result = "订单【" + orderNumber + "】支付失败：" + e.getMessage();
+            } finally {
+                logger.info("结束支付订单【" + orderNumber + "】");
             }
         }
         return result;
     }
-
-
 }
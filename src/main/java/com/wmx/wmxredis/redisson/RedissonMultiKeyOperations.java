@@ -0,0 +1,165 @@
+package com.wmx.wmxredis.redisson;
+
+import org.redisson.api.BatchOptions;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+import redis.clients.util.JedisClusterCRC16;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisson 多 key 批量读写：按哈希槽分组后分批，各批次的管道并行发送到各个节点
+ * <p>
+ * 1、key 先按哈希槽(CRC16(key) % 16384，支持 {hash tag})排序，再按 redisson.batch-size 切分为多个 RBatch，
+ * * 集群中每个主节点负责连续的槽范围，排序后每个批次只涉及少数几个节点，同一个槽的 key 总是在一起。
+ * 2、RBatch 内部按节点拆分，每个节点的命令通过管道一次发送，多个节点并行执行；多个批次同样异步并行执行，最后统一等待结果。
+ * 3、与 MGET/MSET 不同，不要求所有 key 在同一个槽，集群部署时不会出现 CROSSSLOT 错误；单机部署时所有批次发往同一个节点，同样只需要少量网络往返。
+ * 4、value 使用 RedissonClient 的编码器(Codec)，与 RBucket 读写的数据兼容。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 09:20
+ */
+@Component
+public class RedissonMultiKeyOperations {
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private RedssionProperties redssionProperties;
+
+    public RedissonMultiKeyOperations() {
+    }
+
+    RedissonMultiKeyOperations(RedissonClient redissonClient, RedssionProperties redssionProperties) {
+        this.redissonClient = redissonClient;
+        this.redssionProperties = redssionProperties;
+    }
+
+    /**
+     * 批量读取，相当于跨槽的 MGET
+     *
+     * @param keys
+     * @param <V>
+     * @return key 与值，不存在的 key 不会放入结果中，顺序与参数一致
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Map<String, V> getAll(Collection<String> keys) {
+        List<List<String>> batches = partition(keys, redssionProperties.getBatchSize());
+        List<RFuture<BatchResult<?>>> futures = new ArrayList<>(batches.size());
+        for (List<String> batchKeys : batches) {
+            RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+            for (String key : batchKeys) {
+                batch.getBucket(key).getAsync();
+            }
+            futures.add(batch.executeAsync());
+        }
+        Map<String, V> values = new HashMap<>(keys.size() * 4 / 3 + 1);
+        for (int i = 0; i < batches.size(); i++) {
+            List<?> responses = futures.get(i).syncUninterruptibly().getNow().getResponses();
+            List<String> batchKeys = batches.get(i);
+            for (int j = 0; j < batchKeys.size(); j++) {
+                if (responses.get(j) != null) {
+                    values.put(batchKeys.get(j), (V) responses.get(j));
+                }
+            }
+        }
+        Map<String, V> result = new LinkedHashMap<>(values.size() * 4 / 3 + 1);
+        for (String key : keys) {
+            V value = values.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量写入，相当于跨槽的 MSET
+     *
+     * @param map ：key 与值
+     */
+    public void setAll(Map<String, ?> map) {
+        setAll(map, null);
+    }
+
+    /**
+     * 批量写入并设置过期时间，每个 key 执行 PSETEX
+     *
+     * @param map     ：key 与值
+     * @param timeout ：过期时间，为 null 时不过期
+     */
+    public void setAll(Map<String, ?> map, Duration timeout) {
+        List<RFuture<BatchResult<?>>> futures = new ArrayList<>();
+        for (List<String> batchKeys : partition(map.keySet(), redssionProperties.getBatchSize())) {
+            // 写入不需要返回结果
+            RBatch batch = redissonClient.createBatch(BatchOptions.defaults().skipResult());
+            for (String key : batchKeys) {
+                RBucketAsync<Object> bucket = batch.getBucket(key);
+                if (timeout == null) {
+                    bucket.setAsync(map.get(key));
+                } else {
+                    bucket.setAsync(map.get(key), timeout.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+            futures.add(batch.executeAsync());
+        }
+        for (RFuture<BatchResult<?>> future : futures) {
+            future.syncUninterruptibly();
+        }
+    }
+
+    /**
+     * key 按哈希槽排序后，按批次大小切分，同一个槽的 key 不会拆到不同批次(单个槽超过批次大小时除外)
+     *
+     * @param keys
+     * @param batchSize ：每个批次最多的 key 个数
+     * @return
+     */
+    static List<List<String>> partition(Collection<String> keys, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于 0：" + batchSize);
+        }
+        TreeMap<Integer, List<String>> slots = new TreeMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            slots.computeIfAbsent(slot(key), slot -> new ArrayList<>()).add(key);
+        }
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        for (List<String> slotKeys : slots.values()) {
+            if (!batch.isEmpty() && batch.size() + slotKeys.size() > batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            for (String key : slotKeys) {
+                if (batch.size() == batchSize) {
+                    batches.add(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+                batch.add(key);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * key 所在的哈希槽，与 Redis 集群的计算方式一致
+     *
+     * @param key
+     * @return
+     */
+    static int slot(String key) {
+        return JedisClusterCRC16.getSlot(key);
+    }
+}
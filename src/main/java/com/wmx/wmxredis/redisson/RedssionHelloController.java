@@ -3,6 +3,7 @@ package com.wmx.wmxredis.redisson;
 import cn.hutool.core.map.MapUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.wmx.wmxredis.coalesce.RequestCoalescer;
 import org.redisson.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -38,6 +39,12 @@ public class RedssionHelloController {
     @Autowired
     private RedissonClient redissonClient;
 
+    /**
+     * 合并相同的并发读取
+     */
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
     // ========================== String =======================
 
     /**
@@ -88,6 +95,19 @@ public class RedssionHelloController {
         return map;
     }
 
+    /**
+     * http://localhost:8080/redssion/hello/string/get/redssionS
+     * <p>
+     * 只读取字符串的值，同一个 key 的并发请求只读取一次 Redis，见 {@link RequestCoalescer}
+     *
+     * @param key
+     * @return
+     */
+    @GetMapping("/string/get/{key}")
+    public Object getString(@PathVariable String key) {
+        return requestCoalescer.execute("redisson/bucket/get", key, () -> redissonClient.getBucket(key).get());
+    }
+
     // ========================== Map =======================
 
     /**
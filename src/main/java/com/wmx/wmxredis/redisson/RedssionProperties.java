@@ -2,9 +2,13 @@ package com.wmx.wmxredis.redisson;
 
 import org.redisson.config.BaseConfig;
 import org.redisson.config.Config;
+import org.redisson.config.ReadMode;
 import org.redisson.config.SingleServerConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author wangMaoXiong
  * <p>
@@ -16,8 +20,10 @@ public class RedssionProperties {
 
     /**
      * redis服务器部署类型。
-     * stand-alone:单机部署
-     * cluster：机器部署.
+     * stand-alone:单机部署，使用 address
+     * cluster：集群部署，使用 node-addresses(部分节点即可，其余节点自动发现)
+     * sentinel：哨兵部署，使用 node-addresses(哨兵地址)、master-name
+     * replicated：主从复制部署(如云托管的主从 Redis)，使用 node-addresses(所有节点地址)，自动识别主节点
      */
     private String type = "stand-alone";
     /**
@@ -25,7 +31,28 @@ public class RedssionProperties {
      */
     private String address;
     /**
-     * 用于Redis连接的数据库索引
+     * 集群、哨兵、主从复制部署时的节点地址，格式 redis://主机:端口
+     */
+    private List<String> nodeAddresses = new ArrayList<>();
+    /**
+     * 哨兵部署时主节点名称
+     */
+    private String masterName;
+    /**
+     * 集群、哨兵、主从复制部署时扫描拓扑变化(主从切换、槽迁移)的时间间隔（毫秒）
+     */
+    private int scanInterval = 1000;
+    /**
+     * 集群、哨兵、主从复制部署时读命令发送到哪里：MASTER(主节点，默认)、SLAVE(从节点)、MASTER_SLAVE(主从轮询)，
+     * 写命令总是发送到主节点。从节点读取可能读到主从复制延迟之前的旧数据。
+     */
+    private ReadMode readMode = ReadMode.MASTER;
+    /**
+     * 多 key 批量读写时每个批次最多的 key 个数，见 {@link RedissonMultiKeyOperations}
+     */
+    private int batchSize = 500;
+    /**
+     * 用于Redis连接的数据库索引，集群部署时只能为 0
      */
     private int database = 0;
     /**
@@ -65,6 +92,46 @@ public class RedssionProperties {
         this.address = address;
     }
 
+    public List<String> getNodeAddresses() {
+        return nodeAddresses;
+    }
+
+    public void setNodeAddresses(List<String> nodeAddresses) {
+        this.nodeAddresses = nodeAddresses;
+    }
+
+    public String getMasterName() {
+        return masterName;
+    }
+
+    public void setMasterName(String masterName) {
+        this.masterName = masterName;
+    }
+
+    public int getScanInterval() {
+        return scanInterval;
+    }
+
+    public void setScanInterval(int scanInterval) {
+        this.scanInterval = scanInterval;
+    }
+
+    public ReadMode getReadMode() {
+        return readMode;
+    }
+
+    public void setReadMode(ReadMode readMode) {
+        this.readMode = readMode;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public int getDatabase() {
         return database;
     }
@@ -0,0 +1,20 @@
+package com.wmx.wmxredis.routing;
+
+/**
+ * 从副本读取时的一致性要求
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:00
+ */
+public enum ReadConsistency {
+    /**
+     * 总是从副本读取，可能读到主从复制延迟之前的旧数据
+     */
+    EVENTUAL,
+    /**
+     * 读自己的写：当前请求(或者最外层的 {@link ReadFromReplica} 方法)中已经写过 Redis 时改为从主节点读取，
+     * * 保证能读到自己刚写入的数据；没有写过时从副本读取
+     */
+    READ_YOUR_WRITES
+}
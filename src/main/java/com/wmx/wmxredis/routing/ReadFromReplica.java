@@ -0,0 +1,27 @@
+package com.wmx.wmxredis.routing;
+
+import java.lang.annotation.*;
+
+/**
+ * 标注的方法(或者类中的所有方法)中，RedisTemplate 与 JedisExecutor 的命令发送到副本(从节点)，减轻主节点的读压力
+ * <p>
+ * 1、只在配置了 redis.read-routing.replicas 时生效，否则仍然访问主节点。
+ * 2、副本是只读的，方法中的写命令(以及管道、事务)会从主节点借用连接执行，同一个连接之后的命令也在主节点上执行；
+ * * 这只是兜底，先写后读的方法不应该标注，否则每次调用要占用副本与主节点两个连接。
+ * 3、嵌套调用时以最内层的注解为准。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:00
+ * @see ReadRoutingAspect
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+
+    /**
+     * 一致性要求，默认读自己的写
+     */
+    ReadConsistency consistency() default ReadConsistency.READ_YOUR_WRITES;
+}
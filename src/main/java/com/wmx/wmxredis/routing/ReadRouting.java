@@ -0,0 +1,132 @@
+package com.wmx.wmxredis.routing;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 当前线程的读路由状态：是否从副本读取、当前作用域内是否已经写过 Redis
+ * <p>
+ * 1、路由：{@link ReadRoutingAspect} 进入 {@link ReadFromReplica} 方法时设置一致性要求，退出时恢复，
+ * * 连接工厂获取连接时通过 {@link #useReplica()} 决定使用主节点还是副本。
+ * 2、写入跟踪：主节点连接上执行的命令不是只读命令时记为已写入，未识别的命令一律按写命令处理(宁可多读主节点)。
+ * * 作用域是一次 HTTP 请求({@link ReadRoutingFilter})，不在请求中时是最外层的 {@link ReadFromReplica} 方法，作用域结束时清除。
+ * 3、不在任何作用域中时不跟踪写入，READ_YOUR_WRITES 按主节点读取处理。
+ * 4、从副本读取的方法中执行了写命令时，副本连接把写命令转发给主节点(见 {@link com.wmx.wmxredis.metrics.JedisCommandInterceptor})，
+ * * 同时记为已写入。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:05
+ */
+public final class ReadRouting {
+
+    /**
+     * 只读命令，其余命令都视为写命令；名称为 Jedis 方法名大写(如 hgetAll -> HGETALL)，GETDB 是 Jedis 本地方法
+     */
+    private static final Set<String> READ_COMMANDS = new HashSet<>(Arrays.asList(
+            "GET", "MGET", "GETRANGE", "STRLEN", "GETBIT", "BITCOUNT", "BITPOS", "EXISTS", "TYPE", "TTL", "PTTL",
+            "KEYS", "SCAN", "RANDOMKEY", "DBSIZE", "DUMP", "OBJECT",
+            "HGET", "HMGET", "HGETALL", "HKEYS", "HVALS", "HLEN", "HEXISTS", "HSTRLEN", "HSCAN",
+            "LRANGE", "LINDEX", "LLEN",
+            "SMEMBERS", "SISMEMBER", "SCARD", "SRANDMEMBER", "SINTER", "SUNION", "SDIFF", "SSCAN",
+            "ZRANGE", "ZREVRANGE", "ZRANGEBYSCORE", "ZREVRANGEBYSCORE", "ZRANGEBYLEX", "ZREVRANGEBYLEX", "ZSCORE",
+            "ZRANK", "ZREVRANK", "ZCARD", "ZCOUNT", "ZLEXCOUNT", "ZSCAN",
+            "PFCOUNT", "GEOPOS", "GEODIST", "GEOHASH",
+            "PING", "ECHO", "SELECT", "GETDB", "INFO", "TIME", "AUTH", "CLIENTSETNAME", "CLIENTGETNAME", "SCRIPTEXISTS", "SCRIPTLOAD"));
+
+    private static final ThreadLocal<ReadConsistency> CONSISTENCY = new ThreadLocal<>();
+
+    /**
+     * 当前作用域内是否已经写过 Redis，为 null 时表示不在作用域中
+     */
+    private static final ThreadLocal<boolean[]> WRITTEN = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * 本次获取连接是否应该使用副本
+     *
+     * @return
+     */
+    public static boolean useReplica() {
+        ReadConsistency consistency = CONSISTENCY.get();
+        if (consistency == null) {
+            return false;
+        }
+        if (consistency == ReadConsistency.EVENTUAL) {
+            return true;
+        }
+        boolean[] written = WRITTEN.get();
+        return written != null && !written[0];
+    }
+
+    /**
+     * 进入从副本读取的方法
+     *
+     * @param consistency
+     * @return 之前的一致性要求，退出时传给 {@link #exit(ReadConsistency)}
+     */
+    public static ReadConsistency enter(ReadConsistency consistency) {
+        ReadConsistency previous = CONSISTENCY.get();
+        CONSISTENCY.set(consistency);
+        return previous;
+    }
+
+    public static void exit(ReadConsistency previous) {
+        if (previous == null) {
+            CONSISTENCY.remove();
+        } else {
+            CONSISTENCY.set(previous);
+        }
+    }
+
+    /**
+     * 开始跟踪写入，已经在作用域中时返回 false
+     *
+     * @return 是否新开了作用域，为 true 时需要调用 {@link #endScope()}
+     */
+    public static boolean beginScope() {
+        if (WRITTEN.get() != null) {
+            return false;
+        }
+        WRITTEN.set(new boolean[1]);
+        return true;
+    }
+
+    public static void endScope() {
+        WRITTEN.remove();
+    }
+
+    /**
+     * 是否是只读命令，副本上只能执行只读命令
+     *
+     * @param command ：命令名称，如 GET
+     * @return
+     */
+    public static boolean isReadCommand(String command) {
+        return READ_COMMANDS.contains(command);
+    }
+
+    /**
+     * 主节点上执行了一个命令
+     *
+     * @param command ：命令名称，如 SET
+     */
+    public static void onCommand(String command) {
+        if (!isReadCommand(command)) {
+            markWritten();
+        }
+    }
+
+    /**
+     * 记录当前作用域已经写过 Redis，如管道、事务等无法识别命令的写入
+     */
+    public static void markWritten() {
+        boolean[] written = WRITTEN.get();
+        if (written != null) {
+            written[0] = true;
+        }
+    }
+}
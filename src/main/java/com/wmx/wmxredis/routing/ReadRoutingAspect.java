@@ -0,0 +1,42 @@
+package com.wmx.wmxredis.routing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * 处理 {@link ReadFromReplica}：方法执行期间设置读路由，执行完成后恢复
+ * <p>
+ * 方法上的注解优先于类上的注解；不在 HTTP 请求中时(如定时任务)，最外层的注解方法就是写入跟踪的作用域。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:10
+ */
+@Aspect
+public class ReadRoutingAspect {
+
+    @Around("@annotation(com.wmx.wmxredis.routing.ReadFromReplica) || @within(com.wmx.wmxredis.routing.ReadFromReplica)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        ReadFromReplica readFromReplica = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), ReadFromReplica.class);
+        if (readFromReplica == null) {
+            readFromReplica = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), ReadFromReplica.class);
+        }
+        if (readFromReplica == null) {
+            return joinPoint.proceed();
+        }
+        boolean newScope = ReadRouting.beginScope();
+        ReadConsistency previous = ReadRouting.enter(readFromReplica.consistency());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadRouting.exit(previous);
+            if (newScope) {
+                ReadRouting.endScope();
+            }
+        }
+    }
+}
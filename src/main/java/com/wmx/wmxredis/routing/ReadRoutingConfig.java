@@ -0,0 +1,78 @@
+package com.wmx.wmxredis.routing;
+
+import com.wmx.wmxredis.hotkey.HotKeyDetector;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link ReadRoutingProperties} 配置类交由 Spring 容器管理
+ * 2、配置了 redis.read-routing.replicas 时，为每个副本创建一个连接工厂(密码、库、超时、连接池与 spring.redis 相同)，
+ * * 并设置到主节点的 redisConnectionFactory 上，RedisTemplate、JedisExecutor 等不需要修改。
+ * 3、只支持单机主节点 + 副本；哨兵、集群部署时 spring.redis 连接的是主节点，副本需要单独配置地址。
+ * 4、Redisson 的读写分离由 redisson.read-mode 配置(见 {@link com.wmx.wmxredis.redisson.RedissonConfig})。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:25
+ */
+@Configuration
+@EnableConfigurationProperties(ReadRoutingProperties.class)
+public class ReadRoutingConfig {
+
+    @Bean
+    public ReadRoutingAspect readRoutingAspect() {
+        return new ReadRoutingAspect();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadRoutingFilter> readRoutingFilter() {
+        FilterRegistrationBean<ReadRoutingFilter> registration = new FilterRegistrationBean<>(new ReadRoutingFilter());
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean(destroyMethod = "destroy")
+    @ConditionalOnProperty(prefix = "redis.read-routing", name = "replicas[0]")
+    public ReplicaConnectionRouter replicaConnectionRouter(ReadRoutingProperties readRoutingProperties, RedisProperties redisProperties,
+                                                           RedisCommandMetrics redisCommandMetrics,
+                                                           InstrumentedJedisConnectionFactory redisConnectionFactory,
+                                                           ObjectProvider<HotKeyDetector> hotKeyDetector) {
+        JedisClientConfiguration clientConfig = RedisMetricsConfig.clientConfiguration(redisProperties);
+        List<InstrumentedJedisConnectionFactory> replicas = new ArrayList<>();
+        for (String replica : readRoutingProperties.getReplicas()) {
+            String[] parts = replica.split(":");
+            RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(parts[0], Integer.parseInt(parts[1]));
+            config.setDatabase(redisProperties.getDatabase());
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+            InstrumentedJedisConnectionFactory connectionFactory = new InstrumentedJedisConnectionFactory(config, clientConfig, redisCommandMetrics);
+            connectionFactory.setPoolName("jedis-replica-" + replicas.size());
+            // 从副本读取的 key 同样统计访问次数
+            hotKeyDetector.ifAvailable(connectionFactory::setHotKeyDetector);
+            // 从副本读取的方法中的写命令转发给主节点
+            connectionFactory.setMaster(redisConnectionFactory);
+            connectionFactory.afterPropertiesSet();
+            replicas.add(connectionFactory);
+        }
+        ReplicaConnectionRouter router = new ReplicaConnectionRouter(replicas);
+        redisConnectionFactory.setReplicaRouter(router);
+        return router;
+    }
+}
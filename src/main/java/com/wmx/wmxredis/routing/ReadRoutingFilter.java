@@ -0,0 +1,32 @@
+package com.wmx.wmxredis.routing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 每个 HTTP 请求是一个写入跟踪的作用域：请求中写过 Redis 后，READ_YOUR_WRITES 的读取改为访问主节点，请求结束时清除
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:10
+ */
+public class ReadRoutingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean newScope = ReadRouting.beginScope();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (newScope) {
+                ReadRouting.endScope();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.wmx.wmxredis.routing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:15
+ */
+@ConfigurationProperties(prefix = "redis.read-routing")
+public class ReadRoutingProperties {
+
+    /**
+     * 副本(从节点)地址，格式 主机:端口，多个副本轮询；为空时所有命令都访问主节点。
+     * 密码、库、超时、连接池配置与 spring.redis 相同。
+     */
+    private List<String> replicas = new ArrayList<>();
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<String> replicas) {
+        this.replicas = replicas;
+    }
+}
@@ -0,0 +1,60 @@
+package com.wmx.wmxredis.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 副本连接路由：多个副本轮询获取连接，副本不可用时返回 null，由调用方改为使用主节点
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:20
+ */
+public class ReplicaConnectionRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaConnectionRouter.class);
+
+    private final List<? extends JedisConnectionFactory> replicas;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param replicas ：已经初始化(afterPropertiesSet)的副本连接工厂
+     */
+    public ReplicaConnectionRouter(List<? extends JedisConnectionFactory> replicas) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("副本不能为空");
+        }
+        this.replicas = replicas;
+    }
+
+    /**
+     * 依次尝试每个副本，全部不可用时返回 null
+     *
+     * @return
+     */
+    public RedisConnection getConnection() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            JedisConnectionFactory replica = replicas.get((start + i) % replicas.size());
+            try {
+                return replica.getConnection();
+            } catch (DataAccessException e) {
+                log.warn("副本 {}:{} 不可用，尝试下一个：{}", replica.getHostName(), replica.getPort(), e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public void destroy() {
+        for (JedisConnectionFactory replica : replicas) {
+            replica.destroy();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.wmx.wmxredis.schedule;
+
+/**
+ * 由 {@link ClusterScheduler} 在集群中分片执行的任务
+ * <p>
+ * 1、每次触发时任务的每个分片执行一次，不同分片可能在不同的实例上同时执行，任务按 partition 只处理属于自己的那部分数据，
+ * * 如 id % partitions == partition。
+ * 2、至少执行一次：实例在执行过程中宕机时，分片由其它实例接管后重新执行，所以任务需要能够重复执行(幂等)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 15:05
+ */
+@FunctionalInterface
+public interface ClusterJob {
+
+    /**
+     * 执行一个分片
+     *
+     * @param fireTime   ：本次触发时间(毫秒时间戳)，同一次触发的所有分片相同
+     * @param partition  ：分片序号，[0, partitions)
+     * @param partitions ：分片总数
+     * @throws Exception 执行失败，记录到执行记录中，本次触发不再重试
+     */
+    void execute(long fireTime, int partition, int partitions) throws Exception;
+}
@@ -0,0 +1,518 @@
+package com.wmx.wmxredis.schedule;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wmx.wmxredis.lock.FencedLock;
+import com.wmx.wmxredis.lock.FencedLockProperties;
+import com.wmx.wmxredis.lock.FencedLockService;
+import com.wmx.wmxredis.lock.LocalKeyLocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.redisson.api.*;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.support.CronSequenceGenerator;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 基于 Redis 的集群定时任务调度：主节点按 cron 触发任务，所有实例分摊任务的分片，执行记录保存在流中
+ * <p>
+ * 1、心跳：每个实例每隔 heartbeat-interval 把自己的 id 与时间写入有序集合 {前缀}instances，超过 lease-time 没有心跳的实例被移除，
+ * * 剩下的实例个数用于计算每个实例应该认领的分片数。
+ * 2、主节点：通过 {@link FencedLockService} 获取租约锁，持有锁的实例是主节点，租约由心跳线程存活时自动续租，
+ * * 主节点宕机后最多 lease-time 由其它实例接管。租约不受 redis.lock.max-hold-time 限制，不会每隔一段时间丢失一次。主节点只负责按 cron 计算触发时间，写入 {前缀}{任务名称}:state，
+ * * 写入时带上锁的防护令牌，旧主节点(令牌更小)的写入被拒绝。
+ * 3、分片：每个分片也是一把租约锁，每个实例认领 ceil(分片数 / 存活实例数) 个，实例增加时多出的分片(未在执行的)被释放给新实例，
+ * * 实例宕机后它的分片在租约到期后被其它实例认领。
+ * 4、执行：分片在 {前缀}{任务名称}:done 中记录已经执行过的触发时间，小于任务当前触发时间的分片交给工作线程执行，
+ * * 执行完成(成功或失败)后更新，执行过程中实例宕机的分片没有更新，被接管后重新执行(至少一次)。
+ * 5、错过的触发：集群停机或没有主节点期间错过的多次触发合并为最近的一次，立即触发并在执行记录中记一条 misfire。
+ * 6、执行记录：{前缀}history 流，每个分片执行一次、每次错过触发追加一条，最多保留 history-max-len 条，查看：/scheduler/history。
+ * 7、指标(标签 job 为任务名称)：redis.scheduler.execution(分片执行时间，标签 result=success/failed)、
+ * * redis.scheduler.misfires(错过的触发次数)、redis.scheduler.partitions(本实例持有的分片数)、redis.scheduler.leader(本实例是否主节点)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 15:10
+ */
+public class ClusterScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterScheduler.class);
+
+    /**
+     * 连续错过的触发最多计算这么多次，避免停机很久后逐个计算
+     */
+    private static final int MAX_MISSED_FIRES = 10000;
+
+    private final RedissonClient redissonClient;
+    private final ClusterSchedulerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final FencedLockService lockService;
+    private final String instanceId = UUID.randomUUID().toString().replace("-", "");
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final String fireScript = script("lua/scheduler_fire.lua");
+    private final ScheduledExecutorService heartbeat;
+    private final ExecutorService workers;
+
+    /**
+     * 主节点租约，只在心跳线程中修改
+     */
+    private volatile FencedLock leaderLock;
+    private volatile boolean stopped;
+
+    public ClusterScheduler(RedissonClient redissonClient, ClusterSchedulerProperties properties, MeterRegistry meterRegistry) {
+        this(redissonClient, properties, meterRegistry, new FencedLockProperties());
+    }
+
+    /**
+     * @param lockProperties ：主节点与分片锁的配置，前缀、租约时间与最长持有时间在这里覆盖
+     */
+    ClusterScheduler(RedissonClient redissonClient, ClusterSchedulerProperties properties, MeterRegistry meterRegistry,
+                     FencedLockProperties lockProperties) {
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        // 主节点与分片的锁都由心跳线程获取，不需要在本地排队，关闭本地锁
+        lockProperties.setKeyPrefix(properties.getKeyPrefix() + "lock:");
+        lockProperties.setLeaseTime(properties.getLeaseTime());
+        // 主节点与分片的租约需要一直持有，只在实例宕机或者心跳线程退出时释放，不限制最长持有时间
+        lockProperties.setMaxHoldTime(Duration.ZERO);
+        this.lockService = new FencedLockService(redissonClient, lockProperties, meterRegistry, new LocalKeyLocks(false));
+        Gauge.builder("redis.scheduler.leader", this, scheduler -> scheduler.isLeader() ? 1 : 0)
+                .description("本实例是否调度主节点").register(meterRegistry);
+        if (properties.isEnabled()) {
+            this.workers = Executors.newFixedThreadPool(Math.max(properties.getWorkerThreads(), 1),
+                    new ThreadFactoryBuilder().setNameFormat("redis-scheduler-worker-%d").setDaemon(true).build());
+            this.heartbeat = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("redis-scheduler-%d").setDaemon(true).build());
+            long interval = Math.max(properties.getHeartbeatInterval().toMillis(), 10);
+            this.heartbeat.scheduleWithFixedDelay(this::heartbeat, 0, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.workers = null;
+            this.heartbeat = null;
+        }
+    }
+
+    /**
+     * 注册任务，分片数使用 redis.scheduler.partitions
+     *
+     * @param name ：任务名称，集群内唯一，所有实例注册相同的任务
+     * @param cron ：cron 表达式，如 0 0/1 * * * ?
+     * @param job
+     */
+    public void schedule(String name, String cron, ClusterJob job) {
+        schedule(name, cron, properties.getPartitions(), job);
+    }
+
+    /**
+     * 注册任务
+     *
+     * @param name       ：任务名称，集群内唯一，所有实例注册相同的任务
+     * @param cron       ：cron 表达式，如 0 0/1 * * * ?
+     * @param partitions ：分片数，所有实例必须相同，修改分片数时需要先删除 {前缀}{任务名称}:done
+     * @param job
+     */
+    public void schedule(String name, String cron, int partitions, ClusterJob job) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("分片数必须大于 0：" + partitions);
+        }
+        Job registered = new Job(name, cron, partitions, job);
+        if (jobs.putIfAbsent(name, registered) != null) {
+            throw new IllegalStateException("任务已经注册：" + name);
+        }
+        Gauge.builder("redis.scheduler.partitions", registered, Job::ownedCount).tag("job", name)
+                .description("本实例持有的分片数").register(meterRegistry);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public boolean isLeader() {
+        FencedLock lock = leaderLock;
+        return lock != null && lock.isHeld();
+    }
+
+    /**
+     * 已注册任务的状态
+     *
+     * @return 任务名称 -> cron、分片数、最近触发时间、下次触发时间、本实例持有的分片
+     */
+    public Map<String, Map<String, Object>> jobs() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (Job job : jobs.values()) {
+            Map<String, String> state = stateMap(job).readAllMap();
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("cron", job.expression);
+            status.put("partitions", job.partitions);
+            status.put("fire", state.get("fire"));
+            status.put("next", state.get("next"));
+            status.put("owned", job.ownedPartitions());
+            status.put("running", new TreeSet<>(job.running));
+            result.put(job.name, status);
+        }
+        return result;
+    }
+
+    /**
+     * 最近的执行记录，从新到旧
+     *
+     * @param count ：最多返回的条数
+     * @return 每条记录包含 id(流中的消息 id)、job、partition、fire、instance、result、millis、error 等
+     */
+    public List<Map<String, String>> history(int count) {
+        Map<StreamMessageId, Map<String, String>> entries = historyStream().rangeReversed(count, StreamMessageId.MAX, StreamMessageId.MIN);
+        List<Map<String, String>> result = new ArrayList<>(entries.size());
+        for (Map.Entry<StreamMessageId, Map<String, String>> entry : entries.entrySet()) {
+            Map<String, String> record = new LinkedHashMap<>();
+            record.put("id", entry.getKey().toString());
+            record.putAll(entry.getValue());
+            result.add(record);
+        }
+        return result;
+    }
+
+    private void heartbeat() {
+        if (stopped) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            int instances = refreshInstances(now);
+            electLeader();
+            for (Job job : jobs.values()) {
+                try {
+                    long fire = isLeader() ? fire(job, now) : currentFire(job);
+                    balance(job, instances);
+                    runDue(job, fire);
+                } catch (Exception e) {
+                    log.error("调度任务 {} 失败：{}", job.name, e.getMessage(), e);
+                }
+            }
+        } catch (Exception e) {
+            log.error("集群调度心跳失败：{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 上报心跳并移除心跳超时的实例，返回存活的实例数
+     */
+    private int refreshInstances(long now) {
+        RScoredSortedSet<String> instances = redissonClient.getScoredSortedSet(properties.getKeyPrefix() + "instances", StringCodec.INSTANCE);
+        instances.add(now, instanceId);
+        instances.removeRangeByScore(Double.NEGATIVE_INFINITY, true, now - properties.getLeaseTime().toMillis(), false);
+        return Math.max(instances.size(), 1);
+    }
+
+    private void electLeader() throws InterruptedException {
+        FencedLock lock = leaderLock;
+        if (lock != null && !lock.isHeld()) {
+            log.warn("实例 {} 失去调度主节点租约，令牌：{}", instanceId, lock.getToken());
+            leaderLock = null;
+        }
+        if (leaderLock == null) {
+            leaderLock = lockService.tryLock("leader", "cluster", Duration.ZERO);
+            if (leaderLock != null) {
+                log.info("实例 {} 成为调度主节点，令牌：{}", instanceId, leaderLock.getToken());
+            }
+        }
+    }
+
+    /**
+     * 主节点计算任务的触发时间，返回任务当前的触发时间(没有触发过时为 0)
+     */
+    private long fire(Job job, long now) {
+        Map<String, String> state = stateMap(job).readAllMap();
+        long fire = parse(state.get("fire"));
+        String nextValue = state.get("next");
+        if (nextValue == null) {
+            // 第一次调度，从下一个时间点开始
+            updateFire(job, fire, job.next(now));
+            return fire;
+        }
+        long next = Long.parseLong(nextValue);
+        if (next > now) {
+            return fire;
+        }
+        // 停机期间错过的多次触发合并为最近的一次
+        long due = next;
+        int missed = 0;
+        for (long time = job.next(next); time <= now && missed < MAX_MISSED_FIRES; time = job.next(time)) {
+            due = time;
+            missed++;
+        }
+        if (!updateFire(job, due, job.next(now))) {
+            return fire;
+        }
+        if (missed > 0) {
+            Counter.builder("redis.scheduler.misfires").description("错过的触发次数").tag("job", job.name)
+                    .register(meterRegistry).increment(missed);
+            log.warn("任务 {} 错过 {} 次触发，合并为 {} 触发一次", job.name, missed, new Date(due));
+            Map<String, String> record = record(job, due, "misfire");
+            record.put("missed", String.valueOf(missed));
+            record.put("from", String.valueOf(next));
+            appendHistory(record);
+        }
+        return due;
+    }
+
+    private boolean updateFire(Job job, long fire, long next) {
+        FencedLock lock = leaderLock;
+        String key = stateMap(job).getName();
+        Long updated = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_WRITE, fireScript,
+                RScript.ReturnType.INTEGER, Collections.singletonList(key),
+                String.valueOf(lock.getToken()), String.valueOf(fire), String.valueOf(next));
+        if (updated == null || updated == 0) {
+            log.warn("实例 {} 的主节点令牌 {} 已经过期，放弃主节点", instanceId, lock.getToken());
+            lock.unlock();
+            leaderLock = null;
+            return false;
+        }
+        return true;
+    }
+
+    private long currentFire(Job job) {
+        return parse(stateMap(job).get("fire"));
+    }
+
+    /**
+     * 按存活实例数调整本实例持有的分片：释放失去租约与多出的分片，认领不足的分片
+     */
+    private void balance(Job job, int instances) throws InterruptedException {
+        int share = (job.partitions + instances - 1) / instances;
+        int owned = 0;
+        for (int partition = 0; partition < job.partitions; partition++) {
+            FencedLock lock = job.owned.get(partition);
+            if (lock == null) {
+                continue;
+            }
+            if (!lock.isHeld() && !job.running.contains(partition)) {
+                log.warn("任务 {} 的分片 {} 租约已经失效", job.name, partition);
+                job.owned.set(partition, null);
+            } else if (owned >= share && !job.running.contains(partition)) {
+                // 有新实例加入，释放给其它实例
+                lock.unlock();
+                job.owned.set(partition, null);
+            } else {
+                owned++;
+            }
+        }
+        // 不同实例从不同的位置开始认领，减少冲突
+        int offset = Math.floorMod(instanceId.hashCode(), job.partitions);
+        for (int i = 0; i < job.partitions && owned < share; i++) {
+            int partition = (offset + i) % job.partitions;
+            if (job.owned.get(partition) != null) {
+                continue;
+            }
+            FencedLock lock = lockService.tryLock("partition", job.name + ":" + partition, Duration.ZERO);
+            if (lock != null) {
+                job.owned.set(partition, lock);
+                owned++;
+            }
+        }
+    }
+
+    /**
+     * 持有的分片中还没有执行当前触发的，交给工作线程执行
+     */
+    private void runDue(Job job, long fire) {
+        if (fire <= 0) {
+            return;
+        }
+        List<Integer> idle = new ArrayList<>();
+        for (int partition = 0; partition < job.partitions; partition++) {
+            FencedLock lock = job.owned.get(partition);
+            if (lock != null && lock.isHeld() && !job.running.contains(partition)) {
+                idle.add(partition);
+            }
+        }
+        if (idle.isEmpty()) {
+            return;
+        }
+        Set<String> fields = new HashSet<>();
+        idle.forEach(partition -> fields.add(String.valueOf(partition)));
+        Map<String, String> done = doneMap(job).getAll(fields);
+        for (int partition : idle) {
+            if (parse(done.get(String.valueOf(partition))) >= fire) {
+                continue;
+            }
+            FencedLock lock = job.owned.get(partition);
+            job.running.add(partition);
+            try {
+                workers.execute(() -> execute(job, partition, fire, lock));
+            } catch (RejectedExecutionException e) {
+                job.running.remove(partition);
+            }
+        }
+    }
+
+    private void execute(Job job, int partition, long fire, FencedLock lock) {
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            job.task.execute(fire, partition, job.partitions);
+        } catch (Exception e) {
+            error = e.toString();
+            log.error("任务 {} 的分片 {} 执行失败：{}", job.name, partition, e.getMessage(), e);
+        }
+        long elapsed = System.nanoTime() - start;
+        String result = error == null ? "success" : "failed";
+        Timer.builder("redis.scheduler.execution").description("任务分片执行时间")
+                .tags("job", job.name, "result", result)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        try {
+            // 关闭过程中被中断的分片不记录，由其它实例重新执行；租约已经失效时其它实例可能已经接管，同样不记录
+            if (!stopped && lock.isHeld()) {
+                doneMap(job).fastPut(String.valueOf(partition), String.valueOf(fire));
+            }
+            Map<String, String> record = record(job, fire, result);
+            record.put("partition", String.valueOf(partition));
+            record.put("millis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(elapsed)));
+            if (error != null) {
+                record.put("error", error);
+            }
+            appendHistory(record);
+        } catch (Exception e) {
+            log.error("记录任务 {} 分片 {} 的执行结果失败：{}", job.name, partition, e.getMessage(), e);
+        } finally {
+            job.running.remove(partition);
+        }
+    }
+
+    private Map<String, String> record(Job job, long fire, String result) {
+        Map<String, String> record = new LinkedHashMap<>();
+        record.put("job", job.name);
+        record.put("fire", String.valueOf(fire));
+        record.put("instance", instanceId);
+        record.put("result", result);
+        return record;
+    }
+
+    private void appendHistory(Map<String, String> record) {
+        historyStream().addAll(record, properties.getHistoryMaxLen(), false);
+    }
+
+    private RStream<String, String> historyStream() {
+        return redissonClient.getStream(properties.getKeyPrefix() + "history", StringCodec.INSTANCE);
+    }
+
+    /**
+     * 任务状态：fire(当前触发时间)、next(下次触发时间)、epoch(写入的主节点令牌)，key 使用任务名称作为 hash tag
+     */
+    private RMap<String, String> stateMap(Job job) {
+        return redissonClient.getMap(properties.getKeyPrefix() + "{" + job.name + "}:state", StringCodec.INSTANCE);
+    }
+
+    /**
+     * 分片 -> 已经执行过的触发时间
+     */
+    private RMap<String, String> doneMap(Job job) {
+        return redissonClient.getMap(properties.getKeyPrefix() + "{" + job.name + "}:done", StringCodec.INSTANCE);
+    }
+
+    private static long parse(String value) {
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private static String script(String path) {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取 Lua 脚本失败：" + path, e);
+        }
+    }
+
+    /**
+     * 停止调度：等待心跳结束，中断正在执行的分片，释放持有的分片与主节点，其它实例可以立即接管
+     */
+    public void shutdown() {
+        stopped = true;
+        if (heartbeat != null) {
+            heartbeat.shutdown();
+            workers.shutdownNow();
+            try {
+                heartbeat.awaitTermination(properties.getLeaseTime().toMillis(), TimeUnit.MILLISECONDS);
+                workers.awaitTermination(properties.getHeartbeatInterval().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                for (Job job : jobs.values()) {
+                    for (int partition = 0; partition < job.partitions; partition++) {
+                        FencedLock lock = job.owned.getAndSet(partition, null);
+                        if (lock != null) {
+                            lock.unlock();
+                        }
+                    }
+                }
+                FencedLock lock = leaderLock;
+                if (lock != null) {
+                    lock.unlock();
+                    leaderLock = null;
+                }
+                redissonClient.getScoredSortedSet(properties.getKeyPrefix() + "instances", StringCodec.INSTANCE).remove(instanceId);
+            } catch (Exception e) {
+                log.warn("释放调度租约失败，租约到期后自动释放：{}", e.getMessage());
+            }
+        }
+        lockService.shutdown();
+    }
+
+    /**
+     * 一个注册的任务
+     */
+    private static final class Job {
+        private final String name;
+        private final String expression;
+        private final CronSequenceGenerator cron;
+        private final int partitions;
+        private final ClusterJob task;
+
+        /**
+         * 本实例持有的分片锁，下标为分片序号，只在心跳线程中修改
+         */
+        private final AtomicReferenceArray<FencedLock> owned;
+        private final Set<Integer> running = ConcurrentHashMap.newKeySet();
+
+        Job(String name, String expression, int partitions, ClusterJob task) {
+            this.name = name;
+            this.expression = expression;
+            this.cron = new CronSequenceGenerator(expression);
+            this.partitions = partitions;
+            this.task = task;
+            this.owned = new AtomicReferenceArray<>(partitions);
+        }
+
+        long next(long time) {
+            return cron.next(new Date(time)).getTime();
+        }
+
+        List<Integer> ownedPartitions() {
+            List<Integer> result = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                FencedLock lock = owned.get(partition);
+                if (lock != null && lock.isHeld()) {
+                    result.add(partition);
+                }
+            }
+            return result;
+        }
+
+        int ownedCount() {
+            return ownedPartitions().size();
+        }
+    }
+}
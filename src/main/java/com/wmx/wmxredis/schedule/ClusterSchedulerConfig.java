@@ -0,0 +1,28 @@
+package com.wmx.wmxredis.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 集群定时任务调度配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link ClusterSchedulerProperties} 配置类交由 Spring 容器管理
+ * 2、应用关闭时释放本实例持有的分片与主节点租约，其它实例在下一次心跳时接管，不用等待租约到期。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 15:20
+ */
+@Configuration
+@EnableConfigurationProperties(ClusterSchedulerProperties.class)
+public class ClusterSchedulerConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ClusterScheduler clusterScheduler(RedissonClient redissonClient, ClusterSchedulerProperties clusterSchedulerProperties,
+                                             MeterRegistry meterRegistry) {
+        return new ClusterScheduler(redissonClient, clusterSchedulerProperties, meterRegistry);
+    }
+}
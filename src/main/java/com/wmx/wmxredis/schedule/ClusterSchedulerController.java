@@ -0,0 +1,44 @@
+package com.wmx.wmxredis.schedule;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查看集群定时任务的状态与执行记录
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 15:25
+ */
+@RestController
+public class ClusterSchedulerController {
+
+    @Resource
+    private ClusterScheduler clusterScheduler;
+
+    /**
+     * 已注册的任务，以及本实例持有的分片：http://localhost:8080/scheduler/jobs
+     *
+     * @return
+     */
+    @GetMapping("scheduler/jobs")
+    public Map<String, Map<String, Object>> jobs() {
+        return clusterScheduler.jobs();
+    }
+
+    /**
+     * 集群中最近的执行记录，从新到旧：http://localhost:8080/scheduler/history?count=20
+     *
+     * @param count ：最多返回的条数
+     * @return
+     */
+    @GetMapping("scheduler/history")
+    public List<Map<String, String>> history(@RequestParam(defaultValue = "20") int count) {
+        return clusterScheduler.history(count);
+    }
+}
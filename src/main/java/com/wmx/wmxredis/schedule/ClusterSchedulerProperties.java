@@ -0,0 +1,113 @@
+package com.wmx.wmxredis.schedule;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@link ClusterScheduler} 配置
+ * <pre>
+ * redis:
+ *   scheduler:
+ *     enabled: true
+ *     key-prefix: "wmx:scheduler:"
+ *     heartbeat-interval: 1s
+ *     lease-time: 10s
+ *     partitions: 8
+ *     worker-threads: 4
+ *     history-max-len: 1000
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 15:00
+ */
+@ConfigurationProperties(prefix = "redis.scheduler")
+public class ClusterSchedulerProperties {
+
+    /**
+     * 是否参与集群调度，关闭后本实例不竞选主节点、不认领分片，注册的任务不会在本实例执行
+     */
+    private boolean enabled = true;
+    /**
+     * 调度相关 key 的前缀
+     */
+    private String keyPrefix = "wmx:scheduler:";
+    /**
+     * 心跳间隔：每隔这么久上报一次存活、检查主节点与分片、执行到期的任务
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+    /**
+     * 租约时间：主节点与分片由持有者每 1/3 租约时间续租一次，实例宕机后最多这么久由其它实例接管；
+     * * 心跳超过这么久没有更新的实例不再参与分片
+     */
+    private Duration leaseTime = Duration.ofSeconds(10);
+    /**
+     * 注册任务时未指定分片数时的默认分片数
+     */
+    private int partitions = 8;
+    /**
+     * 执行任务分片的线程数
+     */
+    private int workerThreads = 4;
+    /**
+     * 执行记录流最多保留的条数(近似裁剪)
+     */
+    private int historyMaxLen = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Duration getLeaseTime() {
+        return leaseTime;
+    }
+
+    public void setLeaseTime(Duration leaseTime) {
+        this.leaseTime = leaseTime;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getHistoryMaxLen() {
+        return historyMaxLen;
+    }
+
+    public void setHistoryMaxLen(int historyMaxLen) {
+        this.historyMaxLen = historyMaxLen;
+    }
+}
@@ -0,0 +1,90 @@
+package com.wmx.wmxredis.schedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 统计 @Scheduled 方法的执行时间与重叠执行，按分组的 overlap 配置跳过上一次还没有执行完的任务
+ * <p>
+ * 1、@Async 的拦截器在最外层，本切面在线程池的线程中执行，统计的是实际执行时间，不包含排队时间(见 scheduled.task.lag)。
+ * 2、分组：方法或类上 @Async 的 value，为空时是默认分组；没有 @Async 的方法在调度线程中同步执行，分组为 sync，允许重叠。
+ * 3、指标(标签 task 为 类名#方法名)：scheduled.task.duration(执行时间，标签 group、result=success/failed)、
+ * * scheduled.task.overlap(开始时上一次还在执行的次数)、scheduled.task.skipped(因此跳过的次数)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 16:30
+ */
+@Aspect
+public class ScheduledTaskAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTaskAspect.class);
+
+    private final ScheduledTaskExecutors executors;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 任务 -> 正在执行的个数
+     */
+    private final ConcurrentMap<String, AtomicInteger> running = new ConcurrentHashMap<>();
+
+    public ScheduledTaskAspect(ScheduledTaskExecutors executors, MeterRegistry meterRegistry) {
+        this.executors = executors;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        String task = targetClass.getSimpleName() + "#" + method.getName();
+        Async async = AnnotatedElementUtils.findMergedAnnotation(method, Async.class);
+        if (async == null) {
+            async = AnnotatedElementUtils.findMergedAnnotation(targetClass, Async.class);
+        }
+        String group = async == null ? "sync" : executors.resolve(async.value());
+        ScheduledTaskProperties.Group config = async == null ? null : executors.getGroup(group);
+
+        AtomicInteger counter = running.computeIfAbsent(task, key -> new AtomicInteger());
+        if (counter.incrementAndGet() > 1) {
+            Counter.builder("scheduled.task.overlap").description("开始执行时上一次还没有执行完的次数")
+                    .tag("task", task).register(meterRegistry).increment();
+            if (config != null && config.getOverlap() == ScheduledTaskProperties.Overlap.SKIP) {
+                counter.decrementAndGet();
+                Counter.builder("scheduled.task.skipped").description("上一次还没有执行完而跳过的次数")
+                        .tag("task", task).register(meterRegistry).increment();
+                log.warn("定时任务 {} 上一次还没有执行完，跳过本次执行", task);
+                return null;
+            }
+        }
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            result = "failed";
+            throw e;
+        } finally {
+            counter.decrementAndGet();
+            Timer.builder("scheduled.task.duration").description("定时任务执行时间")
+                    .tags("task", task, "group", group, "result", result)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.wmx.wmxredis.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 定时任务线程池配置
+ * <p>
+ * 1、EnableConfigurationProperties：将 {@link ScheduledTaskProperties} 配置类交由 Spring 容器管理
+ * 2、AsyncConfigurer：没有指定分组的 @Async 使用 scheduled-task.default-group 分组的线程池，
+ * * 线程池在第一次提交任务时才获取，避免 @EnableAsync 初始化时提前创建 MeterRegistry 等 bean。
+ * 3、应用关闭时等待正在执行的任务完成，最长 await-termination。
+ * 4、分组线程池注册为 Executor bean，Spring Boot 的 applicationTaskExecutor 是 @ConditionalOnMissingBean(Executor.class)，
+ * * 是否创建取决于条件判断与分组 bean 注册的先后顺序；缺少它时 Spring MVC 异步请求(Callable、WebAsyncTask)
+ * * 退回到每次新建线程的 SimpleAsyncTaskExecutor，这里按 Spring Boot 相同的方式(spring.task.execution 配置)显式注册。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 16:40
+ */
+@Configuration
+@EnableConfigurationProperties(ScheduledTaskProperties.class)
+public class ScheduledTaskExecutorConfig implements AsyncConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTaskExecutorConfig.class);
+
+    private final ObjectProvider<ScheduledTaskExecutors> scheduledTaskExecutors;
+
+    public ScheduledTaskExecutorConfig(ObjectProvider<ScheduledTaskExecutors> scheduledTaskExecutors) {
+        this.scheduledTaskExecutors = scheduledTaskExecutors;
+    }
+
+    @Bean
+    public static ScheduledTaskExecutorRegistrar scheduledTaskExecutorRegistrar() {
+        return new ScheduledTaskExecutorRegistrar();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledTaskExecutors scheduledTaskExecutors(ScheduledTaskProperties scheduledTaskProperties, MeterRegistry meterRegistry) {
+        return new ScheduledTaskExecutors(scheduledTaskProperties, meterRegistry);
+    }
+
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder taskExecutorBuilder) {
+        return taskExecutorBuilder.build();
+    }
+
+    @Bean
+    public ScheduledTaskAspect scheduledTaskAspect(ScheduledTaskExecutors scheduledTaskExecutors, MeterRegistry meterRegistry) {
+        return new ScheduledTaskAspect(scheduledTaskExecutors, meterRegistry);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return task -> scheduledTaskExecutors.getObject().get(null).execute(task);
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> log.error("异步方法 {} 执行失败：{}", method, e.getMessage(), e);
+    }
+}
@@ -0,0 +1,52 @@
+package com.wmx.wmxredis.schedule;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * 把每个定时任务分组的线程池注册为以分组名称命名的 bean，@Async("分组名称") 按 bean 名称查找线程池
+ * <p>
+ * 分组在启动时从配置 scheduled-task.groups 中读取，线程池实例由 {@link ScheduledTaskExecutors} 创建与关闭。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 16:35
+ */
+public class ScheduledTaskExecutorRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+        BeanFactory beanFactory = (BeanFactory) registry;
+        Map<String, ScheduledTaskProperties.Group> groups = Binder.get(environment)
+                .bind("scheduled-task.groups", Bindable.mapOf(String.class, ScheduledTaskProperties.Group.class))
+                .orElse(Collections.emptyMap());
+        for (String name : groups.keySet()) {
+            registry.registerBeanDefinition(name, BeanDefinitionBuilder
+                    .genericBeanDefinition(Executor.class, () -> beanFactory.getBean(ScheduledTaskExecutors.class).get(name))
+                    .getBeanDefinition());
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    }
+}
@@ -0,0 +1,145 @@
+package com.wmx.wmxredis.schedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 {@link ScheduledTaskProperties} 为每个定时任务分组创建有界的线程池
+ * <p>
+ * 1、普通线程池：{@link ThreadPoolTaskExecutor}，core-size 个核心线程，队列满了之后才扩容到 max-size，线程名称为 task-分组名称-序号。
+ * * 不配置时 @Async 使用 Spring Boot 默认的 applicationTaskExecutor(队列无界)，执行慢的定时任务会在队列中无限堆积。
+ * 2、virtual=true 且 JDK 支持虚拟线程时使用 {@link VirtualThreadTaskExecutor}，同样受 max-size 与 queue-capacity 限制。
+ * 3、线程与队列都满了时按 rejection 处理：丢弃(默认)、抛出异常、在调度线程中执行。
+ * 4、指标(标签 name 为分组名称)：executor.active、executor.queued、executor.pool.size、executor.completed(普通线程池)，
+ * * scheduled.task.lag(任务从提交到开始执行的等待时间)、scheduled.task.rejected(被拒绝的次数)。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 16:20
+ */
+public class ScheduledTaskExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTaskExecutors.class);
+
+    private final ScheduledTaskProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Executor> executors = new LinkedHashMap<>();
+
+    public ScheduledTaskExecutors(ScheduledTaskProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (!properties.getGroups().containsKey(properties.getDefaultGroup())) {
+            throw new IllegalStateException("scheduled-task.default-group 必须在 scheduled-task.groups 中配置：" + properties.getDefaultGroup());
+        }
+        properties.getGroups().forEach((name, group) -> executors.put(name, create(name, group)));
+    }
+
+    /**
+     * 分组的线程池
+     *
+     * @param name ：分组名称，为空时返回默认分组
+     * @return
+     */
+    public Executor get(String name) {
+        Executor executor = executors.get(resolve(name));
+        if (executor == null) {
+            throw new IllegalArgumentException("未配置的定时任务分组：" + name);
+        }
+        return executor;
+    }
+
+    /**
+     * 分组的配置
+     *
+     * @param name ：分组名称，为空时返回默认分组
+     * @return 未配置的分组返回 null
+     */
+    public ScheduledTaskProperties.Group getGroup(String name) {
+        return properties.getGroups().get(resolve(name));
+    }
+
+    /**
+     * 空的分组名称转换为默认分组
+     */
+    public String resolve(String name) {
+        return name == null || name.isEmpty() ? properties.getDefaultGroup() : name;
+    }
+
+    private Executor create(String name, ScheduledTaskProperties.Group group) {
+        Timer lag = Timer.builder("scheduled.task.lag").description("定时任务从提交到开始执行的等待时间")
+                .tag("name", name).register(meterRegistry);
+        Counter rejectedCounter = Counter.builder("scheduled.task.rejected").description("线程与队列已满被拒绝的次数")
+                .tag("name", name).register(meterRegistry);
+        if (group.isVirtual()) {
+            ThreadFactory threadFactory = VirtualThreadTaskExecutor.virtualThreadFactory("task-" + name + "-");
+            if (threadFactory != null) {
+                VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor(threadFactory, group.getMaxSize(),
+                        group.getQueueCapacity(), (task, shutdown) -> reject(name, group, rejectedCounter, task, shutdown));
+                Tags tags = Tags.of("name", name);
+                Gauge.builder("executor.active", executor, VirtualThreadTaskExecutor::getActiveCount).tags(tags).register(meterRegistry);
+                Gauge.builder("executor.queued", executor, VirtualThreadTaskExecutor::getQueueSize).tags(tags).register(meterRegistry);
+                executor.setTaskDecorator(task -> measureLag(lag, task));
+                log.info("定时任务分组 {} 使用虚拟线程，最多同时执行 {} 个", name, group.getMaxSize());
+                return executor;
+            }
+            log.warn("当前 JDK 不支持虚拟线程，定时任务分组 {} 使用普通线程池", name);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(group.getCoreSize());
+        executor.setMaxPoolSize(Math.max(group.getMaxSize(), group.getCoreSize()));
+        executor.setQueueCapacity(group.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) group.getKeepAlive().getSeconds());
+        executor.setThreadNamePrefix("task-" + name + "-");
+        executor.setTaskDecorator(task -> measureLag(lag, task));
+        executor.setRejectedExecutionHandler((task, pool) -> reject(name, group, rejectedCounter, task, pool.isShutdown()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds((int) group.getAwaitTermination().getSeconds());
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    private static Runnable measureLag(Timer lag, Runnable task) {
+        long submitted = System.nanoTime();
+        return () -> {
+            lag.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            task.run();
+        };
+    }
+
+    private void reject(String name, ScheduledTaskProperties.Group group, Counter rejectedCounter, Runnable task, boolean shutdown) {
+        rejectedCounter.increment();
+        if (group.getRejection() == ScheduledTaskProperties.Rejection.ABORT) {
+            throw new TaskRejectedException("定时任务分组 " + name + " 的线程与队列已满");
+        }
+        if (group.getRejection() == ScheduledTaskProperties.Rejection.CALLER_RUNS && !shutdown) {
+            task.run();
+            return;
+        }
+        log.warn("定时任务分组 {} 的线程与队列已满{}，丢弃本次执行", name, shutdown ? "(已关闭)" : "");
+    }
+
+    public void shutdown() {
+        executors.forEach((name, executor) -> {
+            if (executor instanceof ThreadPoolTaskExecutor) {
+                ((ThreadPoolTaskExecutor) executor).shutdown();
+            } else if (executor instanceof VirtualThreadTaskExecutor) {
+                ((VirtualThreadTaskExecutor) executor).shutdown(properties.getGroups().get(name).getAwaitTermination());
+            }
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package com.wmx.wmxredis.schedule;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 定时任务(@Scheduled + @Async)的有界线程池配置，每个分组一个线程池，分组名称就是线程池的 bean 名称，@Async("分组名称") 指定
+ * <pre>
+ * scheduled-task:
+ *   default-group: timerExecutor
+ *   groups:
+ *     timerExecutor:
+ *       core-size: 2
+ *       max-size: 4
+ *       queue-capacity: 10
+ *       overlap: skip
+ *       rejection: discard
+ *     clusterTimerExecutor:
+ *       core-size: 1
+ *       max-size: 1
+ *       queue-capacity: 0
+ *       virtual: true
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 16:00
+ */
+@ConfigurationProperties(prefix = "scheduled-task")
+public class ScheduledTaskProperties {
+
+    /**
+     * @Async 没有指定分组时使用的分组，必须在 groups 中配置
+     */
+    private String defaultGroup = "timerExecutor";
+    /**
+     * 分组名称 -> 线程池配置
+     */
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    public String getDefaultGroup() {
+        return defaultGroup;
+    }
+
+    public void setDefaultGroup(String defaultGroup) {
+        this.defaultGroup = defaultGroup;
+    }
+
+    public Map<String, Group> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(Map<String, Group> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * 同一个定时任务上一次还没有执行完时的处理方式
+     */
+    public enum Overlap {
+        /**
+         * 同时执行
+         */
+        ALLOW,
+        /**
+         * 跳过本次执行
+         */
+        SKIP
+    }
+
+    /**
+     * 线程与队列都满了时的处理方式
+     */
+    public enum Rejection {
+        /**
+         * 丢弃本次执行，打印警告日志
+         */
+        DISCARD,
+        /**
+         * 抛出 TaskRejectedException，由调用方(调度线程)处理
+         */
+        ABORT,
+        /**
+         * 在调用方线程中执行，定时任务的调度线程会被占用，后面的任务延迟触发
+         */
+        CALLER_RUNS
+    }
+
+    public static class Group {
+        /**
+         * 核心线程数
+         */
+        private int coreSize = 1;
+        /**
+         * 最大线程数，队列满了之后才会创建核心线程以外的线程
+         */
+        private int maxSize = 4;
+        /**
+         * 等待队列长度，为 0 时不排队
+         */
+        private int queueCapacity = 10;
+        /**
+         * 核心线程以外的线程空闲多久后回收
+         */
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private Overlap overlap = Overlap.SKIP;
+        private Rejection rejection = Rejection.DISCARD;
+        /**
+         * 是否使用虚拟线程(JDK 21+)，JDK 不支持时使用普通线程池；虚拟线程同样最多 max-size 个同时执行，最多 queue-capacity 个等待
+         */
+        private boolean virtual = false;
+        /**
+         * 应用关闭时等待正在执行的任务完成的最长时间
+         */
+        private Duration awaitTermination = Duration.ofSeconds(10);
+
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Overlap getOverlap() {
+            return overlap;
+        }
+
+        public void setOverlap(Overlap overlap) {
+            this.overlap = overlap;
+        }
+
+        public Rejection getRejection() {
+            return rejection;
+        }
+
+        public void setRejection(Rejection rejection) {
+            this.rejection = rejection;
+        }
+
+        public boolean isVirtual() {
+            return virtual;
+        }
+
+        public void setVirtual(boolean virtual) {
+            this.virtual = virtual;
+        }
+
+        public Duration getAwaitTermination() {
+            return awaitTermination;
+        }
+
+        public void setAwaitTermination(Duration awaitTermination) {
+            this.awaitTermination = awaitTermination;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
  * 1、EnableAsync：开启并发执行所有定时任务，这个不是必须的，可以不配置。
  * 2、EnableScheduling：开启定时任务
  * 3、默认情况下一个组件中的所有 @Scheduled 采用一个单线程执行，即一个 @Scheduled 执行完成后，另一个 @Scheduled 才能执行
+ * 4、@Async("分组名称") 指定执行的线程池，线程池有界并带指标，配置见 scheduled-task，上一次还没有执行完时默认跳过本次执行。
  *
  * @author wangMaoXiong
  * @version 1.0
@@ -40,11 +41,15 @@ public class SystemTimer {
     public void init() {
         instanceName = UUID.randomUUID().toString().replace("-", "").toUpperCase();
         System.out.println("\n==============初始化实例名称：" + instanceName + "\n");
+        clusterScheduler.schedule("SystemTimer#time5", "0 0/1 * * * ?", 8, this::time5);
     }
 
     @Resource
     private RedisTemplate redisTemplate;
 
+    @Resource
+    private ClusterScheduler clusterScheduler;
+
     /**
      * 每隔 cron 约定时间执行一次。上一次任务执行完成如果没有超时，则会继续延迟，如果已经超时，下一次任务则会立即执行
      * 1、Async ：并发执行此任务，这个不是必须的，可以不配置。
@@ -54,7 +59,7 @@ public class SystemTimer {
      * @throws InterruptedException
      */
     @Scheduled(cron = "0 0/1 * * * ?")
-    @Async
+    @Async("timerExecutor")
     public void time1() {
         try {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -73,7 +78,7 @@ public class SystemTimer {
      * @throws InterruptedException
      */
     @Scheduled(fixedDelay = 60 * 1000)
-    @Async
+    @Async("timerExecutor")
     public void time2() {
         try {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -92,7 +97,7 @@ public class SystemTimer {
      * @throws InterruptedException
      */
     @Scheduled(fixedRate = 60 * 1000)
-    @Async
+    @Async("timerExecutor")
     public void time3() {
         try {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -110,9 +115,10 @@ public class SystemTimer {
      * 2、缓存的 key 的过期时间可以根据任务执行的时间间隔来定：
      * * 2.1、比如任务是每天晚上 0 点执行，则过期时间设置为 1 个小时都行，因为第二天又是全新的。
      * * 2.2、间隔执行时，过期时间设置为间隔时间减去方法执行时间，这样即使不同实例不是同一时间启动，也能保证间隔时间内只会有一个实例执行。
+     * 3、缺点：整个任务只在抢到 key 的一个实例上执行，执行中宕机也不会补执行；耗时的任务使用 {@link ClusterScheduler} 分片到所有实例执行，见 time5。
      */
     @Scheduled(cron = "0 0/1 * * * ?")
-    @Async
+    @Async("clusterTimerExecutor")
     public void time4() {
         try {
             //定时任务执行的间隔时间(毫秒)
@@ -148,4 +154,20 @@ public class SystemTimer {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * 由 {@link ClusterScheduler} 调度的分片任务：每分钟触发一次，8 个分片分摊到所有存活的实例上执行
+     * 1、每个分片只处理属于自己的数据，如 id % partitions == partition。
+     * 2、执行中实例宕机时，分片在租约到期后由其它实例重新执行；执行记录查看 /scheduler/history。
+     *
+     * @param fireTime   ：本次触发时间
+     * @param partition  ：分片序号
+     * @param partitions ：分片总数
+     * @throws InterruptedException
+     */
+    public void time5(long fireTime, int partition, int partitions) throws InterruptedException {
+        String time = DateUtil.date(fireTime).toString();
+        System.out.println("==============" + time + " 实例【" + instanceName + "】执行分片 " + partition + "/" + partitions);
+        //模拟业务操作耗时.
+        TimeUnit.MILLISECONDS.sleep(1000 + new SecureRandom().nextInt(3000));
+    }
+}
@@ -0,0 +1,144 @@
+package com.wmx.wmxredis.schedule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 有界的虚拟线程执行器：每个任务一个虚拟线程，同时执行的任务数与等待的任务数都有上限
+ * <p>
+ * 1、项目按 Java 8 编译，虚拟线程(JDK 21+)通过反射创建：Thread.ofVirtual().name(前缀, 0).factory()，
+ * * JDK 不支持时 {@link #virtualThreadFactory(String)} 返回 null，由调用方改用普通线程池。
+ * 2、最多 maxSize 个任务同时执行，再多 queueCapacity 个任务的虚拟线程在信号量上等待(相当于队列)，超过后交给 rejected 处理。
+ * 3、关闭后不再接受任务，等待正在执行与等待的任务完成，超时后中断。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 16:10
+ */
+public class VirtualThreadTaskExecutor implements TaskExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadTaskExecutor.class);
+
+    private final ThreadFactory threadFactory;
+    private final int maxSize;
+    private final int capacity;
+    private final Semaphore running;
+    private final Semaphore admitted;
+    private final BiConsumer<Runnable, Boolean> rejected;
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private TaskDecorator taskDecorator;
+    private volatile boolean shutdown;
+
+    /**
+     * @param threadFactory ：虚拟线程工厂，见 {@link #virtualThreadFactory(String)}
+     * @param maxSize       ：最多同时执行的任务数
+     * @param queueCapacity ：最多等待的任务数
+     * @param rejected      ：任务被拒绝时调用，参数为任务与执行器是否已经关闭
+     */
+    public VirtualThreadTaskExecutor(ThreadFactory threadFactory, int maxSize, int queueCapacity,
+                                     BiConsumer<Runnable, Boolean> rejected) {
+        this.threadFactory = threadFactory;
+        this.maxSize = Math.max(maxSize, 1);
+        this.capacity = this.maxSize + Math.max(queueCapacity, 0);
+        this.running = new Semaphore(this.maxSize);
+        this.admitted = new Semaphore(capacity);
+        this.rejected = rejected;
+    }
+
+    /**
+     * 创建虚拟线程工厂，线程名称为 前缀 + 序号
+     *
+     * @param prefix
+     * @return JDK 不支持虚拟线程时返回 null
+     */
+    public static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 提交任务时包装任务，与 ThreadPoolTaskExecutor 的 taskDecorator 相同，被拒绝的任务同样经过包装
+     *
+     * @param taskDecorator
+     */
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Runnable task = taskDecorator == null ? command : taskDecorator.decorate(command);
+        if (shutdown || !admitted.tryAcquire()) {
+            rejected.accept(task, shutdown);
+            return;
+        }
+        Thread thread = threadFactory.newThread(() -> {
+            try {
+                running.acquire();
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                admitted.release();
+                threads.remove(Thread.currentThread());
+            }
+        });
+        threads.add(thread);
+        thread.start();
+    }
+
+    /**
+     * 正在执行的任务数
+     */
+    public int getActiveCount() {
+        return maxSize - running.availablePermits();
+    }
+
+    /**
+     * 等待执行的任务数
+     */
+    public int getQueueSize() {
+        return Math.max(capacity - admitted.availablePermits() - getActiveCount(), 0);
+    }
+
+    /**
+     * 不再接受任务，等待已接受的任务完成，超时后中断
+     *
+     * @param awaitTermination ：最长等待时间
+     */
+    public void shutdown(Duration awaitTermination) {
+        shutdown = true;
+        try {
+            if (admitted.tryAcquire(capacity, awaitTermination.toMillis(), TimeUnit.MILLISECONDS)) {
+                admitted.release(capacity);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("虚拟线程执行器关闭超时，中断 {} 个未完成的任务", threads.size());
+        threads.forEach(Thread::interrupt);
+    }
+}
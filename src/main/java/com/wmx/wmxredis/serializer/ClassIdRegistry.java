@@ -0,0 +1,95 @@
+package com.wmx.wmxredis.serializer;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类型 id 注册表：序列化时用短 id 代替完整类名写入类型信息
+ * <p>
+ * 1、0～99 为内置 id，预留给常用的 JDK 集合与日期类型，如 ["1",[...]] 代替 ["java.util.ArrayList",[...]]
+ * 2、100 及以上由配置文件 redis.serializer.class-ids 注册业务类，如 100: com.wmx.wmxredis.beans.Person
+ * 3、id 一旦投入使用就不能再修改或者复用，否则已经缓存的数据会反序列化为错误的类型。
+ * 4、未注册的类型仍然写完整类名，不影响正常使用。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 10:20
+ */
+public class ClassIdRegistry {
+
+    /**
+     * 业务类可使用的最小 id
+     */
+    public static final int MIN_USER_ID = 100;
+
+    private final Map<Class<?>, String> classToId = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> idToClass = new ConcurrentHashMap<>();
+
+    public ClassIdRegistry() {
+        register(1, ArrayList.class);
+        register(2, HashMap.class);
+        register(3, LinkedHashMap.class);
+        register(4, Date.class);
+        register(5, HashSet.class);
+        register(6, LinkedHashSet.class);
+        register(7, LinkedList.class);
+        register(8, TreeMap.class);
+        register(9, TreeSet.class);
+        register(10, java.sql.Timestamp.class);
+        register(11, java.math.BigDecimal.class);
+        register(12, java.math.BigInteger.class);
+    }
+
+    /**
+     * 根据配置注册业务类
+     *
+     * @param classIds ：key 为 id，value 为完整类名
+     * @return
+     */
+    public static ClassIdRegistry of(Map<String, String> classIds) {
+        ClassIdRegistry registry = new ClassIdRegistry();
+        if (classIds == null) {
+            return registry;
+        }
+        for (Map.Entry<String, String> entry : classIds.entrySet()) {
+            int id = Integer.parseInt(entry.getKey().trim());
+            if (id < MIN_USER_ID) {
+                throw new IllegalArgumentException("类型 id 必须大于等于 " + MIN_USER_ID + "：" + entry);
+            }
+            Class<?> clazz = ClassUtils.resolveClassName(entry.getValue().trim(), ClassIdRegistry.class.getClassLoader());
+            registry.register(id, clazz);
+        }
+        return registry;
+    }
+
+    private void register(int id, Class<?> clazz) {
+        String key = String.valueOf(id);
+        Class<?> exist = idToClass.putIfAbsent(key, clazz);
+        if (exist != null && exist != clazz) {
+            throw new IllegalArgumentException("类型 id " + id + " 重复注册：" + exist.getName() + "、" + clazz.getName());
+        }
+        classToId.put(clazz, key);
+    }
+
+    /**
+     * 获取类型的短 id，未注册时返回 null
+     *
+     * @param clazz
+     * @return
+     */
+    public String idOf(Class<?> clazz) {
+        return classToId.get(clazz);
+    }
+
+    /**
+     * 根据短 id 获取类型，未注册时返回 null
+     *
+     * @param id
+     * @return
+     */
+    public Class<?> classOf(String id) {
+        return idToClass.get(id);
+    }
+}
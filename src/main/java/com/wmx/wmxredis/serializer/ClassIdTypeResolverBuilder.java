@@ -0,0 +1,73 @@
+package com.wmx.wmxredis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * 与 enableDefaultTyping(NON_FINAL) 相同的默认类型处理，只是类型 id 优先使用 {@link ClassIdRegistry} 中的短 id
+ * <p>
+ * 1、writeIds=false 时只在读取时识别短 id，写入仍然是完整类名，用于兼容旧格式的 JSON。
+ * 2、读取时短 id 与完整类名都能识别。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 10:35
+ */
+public class ClassIdTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ClassIdRegistry registry;
+    private final boolean writeIds;
+
+    public ClassIdTypeResolverBuilder(ClassIdRegistry registry, boolean writeIds) {
+        super(ObjectMapper.DefaultTyping.NON_FINAL);
+        this.registry = registry;
+        this.writeIds = writeIds;
+        init(JsonTypeInfo.Id.CLASS, null);
+        inclusion(JsonTypeInfo.As.WRAPPER_ARRAY);
+    }
+
+    @Override
+    protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType, Collection<NamedType> subtypes,
+                                        boolean forSer, boolean forDeser) {
+        return new ClassIdResolver(baseType, config.getTypeFactory());
+    }
+
+    private class ClassIdResolver extends ClassNameIdResolver {
+
+        ClassIdResolver(JavaType baseType, TypeFactory typeFactory) {
+            super(baseType, typeFactory);
+        }
+
+        @Override
+        protected String _idFrom(Object value, Class<?> cls, TypeFactory typeFactory) {
+            if (writeIds) {
+                String id = registry.idOf(cls);
+                if (id != null) {
+                    return id;
+                }
+            }
+            return super._idFrom(value, cls, typeFactory);
+        }
+
+        @Override
+        protected JavaType _typeFromId(String id, DatabindContext ctxt) throws IOException {
+            Class<?> clazz = registry.classOf(id);
+            if (clazz != null) {
+                return ctxt.getTypeFactory().constructSpecializedType(_baseType, clazz);
+            }
+            return super._typeFromId(id, ctxt);
+        }
+    }
+}
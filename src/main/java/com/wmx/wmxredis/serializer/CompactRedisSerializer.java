@@ -0,0 +1,70 @@
+package com.wmx.wmxredis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 可切换编码格式的 RedisTemplate value 序列化器，用于代替 Jackson2JsonRedisSerializer
+ * <p>
+ * 1、写入使用构造时指定的 {@link ValueCodec}，读取时根据数据头自动识别格式，三种格式的数据可以混合存在。
+ * 2、ObjectMapper 的配置与原来 RedisConfig 中保持一致：所有字段可见、NON_FINAL 默认类型。
+ * 3、ObjectMapper 线程安全，每种格式只创建一个实例。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 10:48
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    private final ValueCodec codec;
+    private final Map<ValueCodec, ObjectMapper> objectMappers = new EnumMap<>(ValueCodec.class);
+
+    public CompactRedisSerializer(ValueCodec codec, ClassIdRegistry registry) {
+        this.codec = codec;
+        for (ValueCodec valueCodec : ValueCodec.values()) {
+            // JSON 仍然写完整类名，保证与旧版本应用实例之间可以互相读取
+            boolean writeIds = valueCodec != ValueCodec.JSON;
+            ObjectMapper objectMapper = new ObjectMapper(valueCodec.newFactory());
+            objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+            objectMapper.setDefaultTyping(new ClassIdTypeResolverBuilder(registry, writeIds));
+            objectMappers.put(valueCodec, objectMapper);
+        }
+    }
+
+    public ValueCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY_ARRAY;
+        }
+        try {
+            return objectMappers.get(codec).writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not write " + codec + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        ValueCodec valueCodec = ValueCodec.detect(bytes);
+        try {
+            return objectMappers.get(valueCodec).readValue(bytes, Object.class);
+        } catch (Exception e) {
+            throw new SerializationException("Could not read " + valueCodec + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.wmx.wmxredis.serializer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 透明压缩的 RedisSerializer，包装在任意 RedisSerializer 外面使用
+ * <p>
+ * 1、delegate 序列化后的字节数达到 threshold 时才压缩，小 value 压缩收益很低，直接原样写入。
+ * 2、压缩后的数据格式：魔数(0xFE 0x7A) + 算法 id(1 字节) + 原始长度(4 字节) + 压缩数据。
+ * 3、读取时没有魔数的数据原样交给 delegate，所以开启压缩前缓存的旧数据仍然可以正常读取。
+ * 4、0xFE 不会出现在 UTF-8 文本、Smile、CBOR、JDK 序列化数据的第一个字节，不会误判。
+ * 5、压缩后反而更大时(如已经压缩过的图片)，放弃压缩，原样写入。
+ * <p>
+ * 指标(Micrometer，可以通过 /actuator/metrics 查看)：
+ * redis.serializer.compress / redis.serializer.decompress：压缩、解压耗时
+ * redis.serializer.compression.ratio：压缩比(原始大小/压缩后大小)
+ * redis.serializer.values：写入的 value 个数，tag compressed=true/false
+ * redis.serializer.bytes.saved：压缩节省的字节数
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 13:30
+ */
+public class CompressingRedisSerializer<T> implements RedisSerializer<T> {
+
+    private static final byte MAGIC_0 = (byte) 0xFE;
+    private static final byte MAGIC_1 = (byte) 0x7A;
+    private static final int HEADER_LENGTH = 7;
+    /**
+     * 解压时允许的最大原始长度，与 Redis 字符串最大长度 512MB 一致，防止损坏的数据头导致分配超大数组
+     */
+    private static final int MAX_ORIGINAL_LENGTH = 512 * 1024 * 1024;
+
+    private final RedisSerializer<T> delegate;
+    private final CompressionAlgorithm algorithm;
+    private final int threshold;
+
+    private final Timer compressTimer;
+    private final Timer decompressTimer;
+    private final DistributionSummary ratioSummary;
+    private final Counter compressedCounter;
+    private final Counter plainCounter;
+    private final Counter savedBytesCounter;
+
+    /**
+     * @param delegate      ：实际的序列化器
+     * @param algorithm     ：压缩算法
+     * @param threshold     ：序列化后达到多少字节才压缩
+     * @param meterRegistry ：指标注册中心
+     * @param name          ：指标 tag，一般为 RedisTemplate bean 名称
+     */
+    public CompressingRedisSerializer(RedisSerializer<T> delegate, CompressionAlgorithm algorithm, int threshold,
+                                      MeterRegistry meterRegistry, String name) {
+        this.delegate = delegate;
+        this.algorithm = algorithm;
+        this.threshold = threshold;
+        String algorithmName = algorithm.name().toLowerCase();
+        this.compressTimer = Timer.builder("redis.serializer.compress")
+                .tag("template", name).tag("algorithm", algorithmName)
+                .register(meterRegistry);
+        this.decompressTimer = Timer.builder("redis.serializer.decompress")
+                .tag("template", name).tag("algorithm", algorithmName)
+                .register(meterRegistry);
+        this.ratioSummary = DistributionSummary.builder("redis.serializer.compression.ratio")
+                .tag("template", name).tag("algorithm", algorithmName)
+                .register(meterRegistry);
+        this.compressedCounter = Counter.builder("redis.serializer.values")
+                .tag("template", name).tag("compressed", "true")
+                .register(meterRegistry);
+        this.plainCounter = Counter.builder("redis.serializer.values")
+                .tag("template", name).tag("compressed", "false")
+                .register(meterRegistry);
+        this.savedBytesCounter = Counter.builder("redis.serializer.bytes.saved")
+                .tag("template", name).baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes == null || bytes.length < threshold) {
+            plainCounter.increment();
+            return bytes;
+        }
+        long start = System.nanoTime();
+        byte[] compressed = algorithm.compress(bytes, HEADER_LENGTH);
+        compressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (compressed.length >= bytes.length) {
+            plainCounter.increment();
+            return bytes;
+        }
+        compressed[0] = MAGIC_0;
+        compressed[1] = MAGIC_1;
+        compressed[2] = algorithm.getId();
+        compressed[3] = (byte) (bytes.length >>> 24);
+        compressed[4] = (byte) (bytes.length >>> 16);
+        compressed[5] = (byte) (bytes.length >>> 8);
+        compressed[6] = (byte) bytes.length;
+
+        compressedCounter.increment();
+        ratioSummary.record((double) bytes.length / compressed.length);
+        savedBytesCounter.increment(bytes.length - compressed.length);
+        return compressed;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (!isCompressed(bytes)) {
+            return delegate.deserialize(bytes);
+        }
+        int originalLength = ((bytes[3] & 0xFF) << 24) | ((bytes[4] & 0xFF) << 16) | ((bytes[5] & 0xFF) << 8) | (bytes[6] & 0xFF);
+        if (originalLength < 0 || originalLength > MAX_ORIGINAL_LENGTH) {
+            throw new SerializationException("Invalid compressed value length: " + originalLength);
+        }
+        byte[] original;
+        long start = System.nanoTime();
+        try {
+            original = CompressionAlgorithm.of(bytes[2]).decompress(bytes, HEADER_LENGTH, originalLength);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decompress value: " + e.getMessage(), e);
+        } finally {
+            decompressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return delegate.deserialize(original);
+    }
+
+    /**
+     * 是否为本序列化器压缩过的数据
+     *
+     * @param bytes
+     * @return
+     */
+    public static boolean isCompressed(byte[] bytes) {
+        return bytes != null && bytes.length > HEADER_LENGTH && bytes[0] == MAGIC_0 && bytes[1] == MAGIC_1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.wmx.wmxredis.serializer;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * value 压缩算法
+ * <p>
+ * 1、LZ4：压缩率一般，但压缩/解压速度极快，适合热点 key，默认使用。
+ * 2、DEFLATE：JDK 自带，压缩率更高但更耗 CPU，适合体积大、读写不频繁的 value。
+ * 3、id 会写入数据头，已经使用的 id 不能修改。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 13:10
+ */
+public enum CompressionAlgorithm {
+
+    LZ4((byte) 1) {
+        private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+        private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+        @Override
+        public byte[] compress(byte[] bytes, int headerLength) {
+            byte[] dest = new byte[headerLength + compressor.maxCompressedLength(bytes.length)];
+            int length = compressor.compress(bytes, 0, bytes.length, dest, headerLength);
+            return Arrays.copyOf(dest, headerLength + length);
+        }
+
+        @Override
+        public byte[] decompress(byte[] bytes, int offset, int originalLength) {
+            byte[] dest = new byte[originalLength];
+            decompressor.decompress(bytes, offset, dest, 0, originalLength);
+            return dest;
+        }
+    },
+
+    DEFLATE((byte) 2) {
+        @Override
+        public byte[] compress(byte[] bytes, int headerLength) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(bytes);
+                deflater.finish();
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2 + headerLength);
+                outputStream.write(new byte[headerLength], 0, headerLength);
+                byte[] buffer = new byte[4096];
+                while (!deflater.finished()) {
+                    int length = deflater.deflate(buffer);
+                    outputStream.write(buffer, 0, length);
+                }
+                return outputStream.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] decompress(byte[] bytes, int offset, int originalLength) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(bytes, offset, bytes.length - offset);
+                byte[] dest = new byte[originalLength];
+                int length = 0;
+                while (length < originalLength && !inflater.finished()) {
+                    int n = inflater.inflate(dest, length, originalLength - length);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += n;
+                }
+                if (length != originalLength) {
+                    throw new IllegalStateException("DEFLATE 解压后长度不一致：" + length + " != " + originalLength);
+                }
+                return dest;
+            } catch (DataFormatException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    private final byte id;
+
+    CompressionAlgorithm(byte id) {
+        this.id = id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * 压缩，返回结果的前 headerLength 个字节留空，由调用方写入数据头，避免再复制一次数组
+     *
+     * @param bytes        ：原始数据
+     * @param headerLength ：数据头长度
+     * @return
+     */
+    public abstract byte[] compress(byte[] bytes, int headerLength);
+
+    /**
+     * 解压
+     *
+     * @param bytes          ：压缩后的数据(含数据头)
+     * @param offset         ：压缩数据的起始位置
+     * @param originalLength ：原始数据长度
+     * @return
+     */
+    public abstract byte[] decompress(byte[] bytes, int offset, int originalLength);
+
+    public static CompressionAlgorithm of(byte id) {
+        for (CompressionAlgorithm algorithm : values()) {
+            if (algorithm.id == id) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("未知的压缩算法 id：" + id);
+    }
+}
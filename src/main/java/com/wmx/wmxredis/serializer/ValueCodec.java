@@ -0,0 +1,73 @@
+package com.wmx.wmxredis.serializer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * RedisTemplate value 的编码格式
+ * <p>
+ * 1、JSON：与原来 Jackson2JsonRedisSerializer + enableDefaultTyping(NON_FINAL) 完全一致的格式，类型信息写完整类名，兼容旧数据。
+ * 2、SMILE：Jackson 二进制 JSON，重复的属性名/短字符串只写一次引用，类型信息写 {@link ClassIdRegistry} 中的短 id。
+ * 3、CBOR：RFC 7049 二进制格式，类型信息同样写短 id。
+ * 4、无论写入时使用哪种格式，读取时都会根据数据头自动识别，所以切换格式不影响已经缓存的旧数据。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 10:12
+ */
+public enum ValueCodec {
+
+    JSON {
+        @Override
+        public JsonFactory newFactory() {
+            return new JsonFactory();
+        }
+    },
+
+    SMILE {
+        @Override
+        public JsonFactory newFactory() {
+            SmileFactory smileFactory = new SmileFactory();
+            // 数据头 ":)\n" 必须写，读取时依靠它识别格式
+            smileFactory.configure(SmileGenerator.Feature.WRITE_HEADER, true);
+            smileFactory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+            return smileFactory;
+        }
+    },
+
+    CBOR {
+        @Override
+        public JsonFactory newFactory() {
+            CBORFactory cborFactory = new CBORFactory();
+            // 写入自描述标签 0xD9D9F7，读取时依靠它识别格式
+            cborFactory.configure(CBORGenerator.Feature.WRITE_TYPE_HEADER, true);
+            return cborFactory;
+        }
+    };
+
+    /**
+     * 创建对应格式的 JsonFactory
+     *
+     * @return
+     */
+    public abstract JsonFactory newFactory();
+
+    /**
+     * 根据数据头识别编码格式，无法识别时视为 JSON
+     *
+     * @param bytes ：Redis 中读取的原始字节
+     * @return
+     */
+    public static ValueCodec detect(byte[] bytes) {
+        if (bytes.length >= 3 && bytes[0] == ':' && bytes[1] == ')' && bytes[2] == '\n') {
+            return SMILE;
+        }
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xD9 && (bytes[1] & 0xFF) == 0xD9 && (bytes[2] & 0xFF) == 0xF7) {
+            return CBOR;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,8 @@
+-- 获取带防护令牌的锁，原子操作
+-- KEYS[1]：锁 key，KEYS[2]：令牌计数器 key(与锁 key 使用相同的 hash tag，集群中在同一个槽)
+-- ARGV[1]：持有者 id，ARGV[2]：租约时间(毫秒)
+-- 获取成功返回单调递增的令牌(>= 1)，锁被占用时返回 0
+if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+    return redis.call('incr', KEYS[2])
+end
+return 0
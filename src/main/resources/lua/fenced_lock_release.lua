@@ -0,0 +1,8 @@
+-- 持有者释放锁，原子操作，不会删除其它持有者的锁
+-- KEYS[1]：锁 key
+-- ARGV[1]：持有者 id
+-- 释放成功返回 1，锁已过期或者被其它持有者获取时返回 0
+if redis.call('get', KEYS[1]) == ARGV[1] then
+    return redis.call('del', KEYS[1])
+end
+return 0
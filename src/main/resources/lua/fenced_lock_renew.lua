@@ -0,0 +1,8 @@
+-- 持有者续租，原子操作
+-- KEYS[1]：锁 key
+-- ARGV[1]：持有者 id，ARGV[2]：租约时间(毫秒)
+-- 续租成功返回 1，锁已过期或者被其它持有者获取时返回 0
+if redis.call('get', KEYS[1]) == ARGV[1] then
+    return redis.call('pexpire', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,10 @@
+-- hash 设置多个字段并设置过期时间，原子操作
+-- KEYS[1]：hash key
+-- ARGV[1]：过期时间(毫秒)，ARGV[2..n]：字段1,值1,字段2,值2...
+-- 返回设置的字段个数
+-- unpack 参数个数受 Lua 栈大小限制，分段设置，每段必须是偶数个参数
+for i = 2, #ARGV, 5000 do
+    redis.call('hmset', KEYS[1], unpack(ARGV, i, math.min(i + 4999, #ARGV)))
+end
+redis.call('pexpire', KEYS[1], ARGV[1])
+return (#ARGV - 1) / 2
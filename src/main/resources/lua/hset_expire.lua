@@ -0,0 +1,7 @@
+-- hash 设置单个字段并设置过期时间，原子操作
+-- KEYS[1]：hash key
+-- ARGV[1]：过期时间(毫秒)，ARGV[2]：字段，ARGV[3]：值
+-- 新增字段时返回 1，覆盖已有字段时返回 0
+local result = redis.call('hset', KEYS[1], ARGV[2], ARGV[3])
+redis.call('pexpire', KEYS[1], ARGV[1])
+return result
@@ -0,0 +1,12 @@
+-- 消费组中已投递未确认的消息总数，流或消费组不存在时返回 0
+-- Redisson 3.13 解析 XPENDING 汇总回复时，没有待确认消息(回复 0 nil nil nil)会抛出空指针异常，这里只返回总数
+-- KEYS[1]：流
+-- ARGV[1]：消费组
+if redis.call('exists', KEYS[1]) == 0 then
+    return 0
+end
+local summary = redis.pcall('xpending', KEYS[1], ARGV[1])
+if summary['err'] then
+    return 0
+end
+return summary[1]
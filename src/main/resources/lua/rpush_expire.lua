@@ -0,0 +1,11 @@
+-- 列表追加元素并设置过期时间，原子操作
+-- KEYS[1]：列表 key
+-- ARGV[1]：过期时间(毫秒)，ARGV[2..n]：追加的元素
+-- 返回追加后列表的长度
+local length = 0
+-- unpack 参数个数受 Lua 栈大小限制，分段追加
+for i = 2, #ARGV, 5000 do
+    length = redis.call('rpush', KEYS[1], unpack(ARGV, i, math.min(i + 4999, #ARGV)))
+end
+redis.call('pexpire', KEYS[1], ARGV[1])
+return length
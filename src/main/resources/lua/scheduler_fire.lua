@@ -0,0 +1,10 @@
+-- 主节点记录任务的触发时间，原子操作
+-- KEYS[1]：任务状态 hash
+-- ARGV[1]：主节点的防护令牌，ARGV[2]：本次触发时间(毫秒)，ARGV[3]：下次触发时间(毫秒)
+-- 令牌不小于已记录的令牌时写入并返回 1，旧主节点(令牌更小)的写入被拒绝，返回 0
+local epoch = tonumber(redis.call('hget', KEYS[1], 'epoch') or '0')
+if tonumber(ARGV[1]) < epoch then
+    return 0
+end
+redis.call('hset', KEYS[1], 'epoch', ARGV[1], 'fire', ARGV[2], 'next', ARGV[3])
+return 1
@@ -0,0 +1,145 @@
+package com.wmx.wmxredis.cache;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link CoalescingRedisCache}、{@link CoalescingRedisCacheManager}、{@link RedisCacheConfig} 单元测试，使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 11:50
+ */
+public class CoalescingRedisCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmbeddedRedisServer server;
+    private JedisConnectionFactory connectionFactory;
+    private RedisCacheConfiguration cacheConfig;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().build());
+        connectionFactory.afterPropertiesSet();
+
+        RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.setKeyPrefix("test:");
+        cacheConfig = RedisCacheConfig.cacheConfiguration(redisTemplate, properties);
+    }
+
+    @After
+    public void tearDown() {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private CoalescingRedisCache cache(String name, double beta) {
+        return new CoalescingRedisCache(name, RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                cacheConfig, connectionFactory, beta, meterRegistry);
+    }
+
+    @Test
+    public void coalescesConcurrentLoads() throws Exception {
+        CoalescingRedisCache cache = cache("person", 1.0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("1", () -> {
+                        loads.incrementAndGet();
+                        TimeUnit.MILLISECONDS.sleep(300);
+                        return "value";
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("value", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals("value", cache.get("1", () -> "other"));
+        assertEquals(1, meterRegistry.get("redis.cache.load").tag("cache", "person").timer().count());
+    }
+
+    @Test
+    public void propagatesLoaderFailure() {
+        CoalescingRedisCache cache = cache("person", 1.0);
+        try {
+            cache.get("2", () -> {
+                throw new IllegalStateException("backend down");
+            });
+            fail();
+        } catch (Cache.ValueRetrievalException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // 失败后不会一直占用加载权
+        assertEquals("value", cache.get("2", () -> "value"));
+    }
+
+    @Test
+    public void refreshesEarlyNearExpiry() {
+        CoalescingRedisCache eager = cache("eager", 1_000_000);
+        eager.put("1", "old");
+        // 平均加载 1 秒、系数很大，剩余 10 分钟也会提前刷新
+        eager.setLoadNanos(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("new", eager.get("1", () -> "new"));
+        assertEquals(1.0, meterRegistry.get("redis.cache.early.refresh").tag("cache", "eager").counter().count(), 0);
+
+        CoalescingRedisCache disabled = cache("disabled", 0);
+        disabled.put("1", "old");
+        disabled.setLoadNanos(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("old", disabled.get("1", () -> "new"));
+
+        // 没有过期时间的缓存不会提前刷新
+        assertFalse(eager.shouldRefreshEarly(-1));
+    }
+
+    @Test
+    public void appliesPerCacheTtl() {
+        CoalescingRedisCacheManager cacheManager = new CoalescingRedisCacheManager(connectionFactory, cacheConfig,
+                Collections.singletonMap("person", cacheConfig.entryTtl(Duration.ofSeconds(30))), 1.0, meterRegistry);
+        cacheManager.afterPropertiesSet();
+        assertTrue(cacheManager.getCache("person") instanceof CoalescingRedisCache);
+        cacheManager.getCache("person").put("1", "value");
+        cacheManager.getCache("order").put("1", "value");
+
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        long personTtl = redisTemplate.getExpire("test:person::1", TimeUnit.SECONDS);
+        long orderTtl = redisTemplate.getExpire("test:order::1", TimeUnit.SECONDS);
+        assertTrue(personTtl > 0 && personTtl <= 30);
+        assertTrue(orderTtl > 30 && orderTtl <= 600);
+    }
+}
@@ -0,0 +1,181 @@
+package com.wmx.wmxredis.cache;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.hotkey.HotKeyDetector;
+import com.wmx.wmxredis.hotkey.HotKeyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RedisNearCache} 单元测试：读取期间发生失效时不缓存旧值、其它 key 的失效不影响读取、多个实例之间通过发布/订阅删除本地缓存、热点 key 晋升，
+ * 使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/20 10:00
+ */
+public class RedisNearCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NearCacheProperties properties = new NearCacheProperties();
+    /**
+     * 服务端执行 GET 次数
+     */
+    private final AtomicInteger gets = new AtomicInteger();
+    /**
+     * 服务端执行 GET 时调用，模拟读取 Redis 期间收到失效通知
+     */
+    private volatile Runnable duringGet;
+    private EmbeddedRedisServer server;
+    private JedisConnectionFactory connectionFactory;
+    private RedisTemplate<Object, Object> redisTemplate;
+    private RedisMessageListenerContainer container;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        server.getCommands().register("GET", 1, 1, (s, a) -> {
+            gets.incrementAndGet();
+            Runnable hook = duringGet;
+            if (hook != null) {
+                hook.run();
+            }
+            return server.getCommands().getStore().db(s.getDb()).getString(a.get(0));
+        });
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().build());
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private RedisNearCache nearCache() {
+        return new RedisNearCache(redisTemplate, properties, meterRegistry);
+    }
+
+    @Test
+    public void invalidationDuringLoadIsNotCached() {
+        RedisNearCache nearCache = nearCache();
+        redisTemplate.opsForValue().set("a", "old");
+        duringGet = () -> nearCache.evictLocal("a");
+
+        assertEquals("old", nearCache.getValue("a"));
+        assertEquals(0, nearCache.size());
+
+        duringGet = null;
+        assertEquals("old", nearCache.getValue("a"));
+        assertEquals("old", nearCache.getValue("a"));
+        assertEquals(1, nearCache.size());
+        assertEquals(2, gets.get());
+    }
+
+    @Test
+    public void invalidationOfOtherKeyDoesNotDiscardLoad() {
+        RedisNearCache nearCache = nearCache();
+        redisTemplate.opsForValue().set("a", "1");
+        duringGet = () -> nearCache.evictLocal("b");
+
+        assertEquals("1", nearCache.getValue("a"));
+        assertEquals(1, nearCache.size());
+    }
+
+    @Test
+    public void invalidationIsPublishedToOtherInstances() throws Exception {
+        RedisNearCache first = nearCache();
+        RedisNearCache second = nearCache();
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(first, new ChannelTopic(properties.getChannel()));
+        container.addMessageListener(second, new ChannelTopic(properties.getChannel()));
+        container.afterPropertiesSet();
+        container.start();
+
+        redisTemplate.opsForValue().set("k", "v1");
+        assertEquals("v1", first.getValue("k"));
+        assertEquals(1, first.size());
+
+        // 订阅是异步建立的，订阅成功之前发出的通知会丢失，重复写入直到第一个实例删除了本地缓存
+        int version = 2;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (first.size() > 0 && System.nanoTime() < deadline) {
+            redisTemplate.opsForValue().set("k", "v" + version++);
+            second.invalidate("k");
+            await(() -> first.size() == 0, 100);
+        }
+        assertEquals(0, first.size());
+        assertEquals("v" + (version - 1), first.getValue("k"));
+    }
+
+    @Test
+    public void hotKeysArePromotedWithShortTtl() throws Exception {
+        HotKeyProperties hotKeyProperties = new HotKeyProperties();
+        hotKeyProperties.setSampleRate(1);
+        hotKeyProperties.setThreshold(100);
+        hotKeyProperties.setWindow(Duration.ofHours(1));
+        HotKeyDetector detector = new HotKeyDetector(hotKeyProperties, meterRegistry);
+        try {
+            properties.setHotKeyTtl(Duration.ofMillis(200));
+            RedisNearCache nearCache = new RedisNearCache(redisTemplate, properties, meterRegistry, detector);
+            redisTemplate.opsForValue().set("hot", "h");
+            redisTemplate.opsForValue().set("plain", "p");
+            // 模拟 jedis 包中的接口频繁访问，热点 key 由连接代理统计，不经过本地缓存
+            for (int i = 0; i < 100; i++) {
+                detector.record("hot");
+            }
+            assertEquals("h", nearCache.getValue("hot"));
+            assertEquals("p", nearCache.getValue("plain"));
+            assertTrue(nearCache.isPromoted("hot"));
+            assertFalse(nearCache.isPromoted("plain"));
+            assertEquals(2, nearCache.size());
+            assertEquals("h", nearCache.getValue("hot"));
+            assertEquals(2, gets.get());
+
+            // 热点缓存过期后重新读取 Redis，普通缓存不受影响
+            TimeUnit.MILLISECONDS.sleep(300);
+            assertEquals("h", nearCache.getValue("hot"));
+            assertEquals("p", nearCache.getValue("plain"));
+            assertEquals(3, gets.get());
+
+            nearCache.evictLocal("hot");
+            assertFalse(nearCache.isPromoted("hot"));
+            assertEquals(1, nearCache.size());
+        } finally {
+            detector.shutdown();
+        }
+    }
+
+    private static void await(BooleanSupplier condition, long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
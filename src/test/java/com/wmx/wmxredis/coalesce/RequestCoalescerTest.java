@@ -0,0 +1,128 @@
+package com.wmx.wmxredis.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RequestCoalescer} 单元测试
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 12:30
+ */
+public class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescerProperties properties = new RequestCoalescerProperties();
+    private final RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<Future<String>> submit(int callers, String key, Callable<String> read) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return coalescer.execute("get", key, () -> {
+                    try {
+                        return read.call();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }));
+        }
+        start.countDown();
+        return futures;
+    }
+
+    @Test
+    public void sharesConcurrentReads() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        List<Future<String>> futures = submit(8, "1", () -> {
+            reads.incrementAndGet();
+            TimeUnit.MILLISECONDS.sleep(300);
+            return "value";
+        });
+        for (Future<String> future : futures) {
+            assertEquals("value", future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, reads.get());
+        assertEquals(8.0, meterRegistry.get("redis.coalescer.fan.in").summary().totalAmount(), 0);
+        assertEquals(7.0, meterRegistry.get("redis.coalescer.calls").tag("role", "follower").counter().count(), 0);
+
+        // 执行完成后不再共享，重新读取
+        assertEquals("again", coalescer.execute("get", "1", () -> "again"));
+    }
+
+    @Test
+    public void keepsDifferentKeysApart() {
+        // 读取 a 的过程中读取 b、其它操作读取 a，都不会等待 a 的结果
+        String value = coalescer.execute("get", "a", () -> coalescer.execute("get", "b", () -> "b")
+                + coalescer.execute("other", "a", () -> "x"));
+        assertEquals("bx", value);
+    }
+
+    @Test
+    public void readsItselfAfterMaxWait() throws Exception {
+        properties.setMaxWait(Duration.ofMillis(50));
+        AtomicInteger reads = new AtomicInteger();
+        List<Future<String>> futures = submit(2, "1", () -> {
+            // 第一次读取很慢，第二个调用方等待超时后自己读取
+            if (reads.incrementAndGet() == 1) {
+                TimeUnit.MILLISECONDS.sleep(500);
+            }
+            return "value";
+        });
+        for (Future<String> future : futures) {
+            assertEquals("value", future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, reads.get());
+        assertEquals(1.0, meterRegistry.get("redis.coalescer.calls").tag("role", "timeout").counter().count(), 0);
+    }
+
+    @Test
+    public void sharesFailures() throws Exception {
+        List<Future<String>> futures = submit(4, "1", () -> {
+            TimeUnit.MILLISECONDS.sleep(200);
+            throw new IllegalArgumentException("backend down");
+        });
+        for (Future<String> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertEquals("value", coalescer.execute("get", "1", () -> "value"));
+    }
+
+    @Test
+    public void disabledRunsEveryRead() throws Exception {
+        properties.setEnabled(false);
+        AtomicInteger reads = new AtomicInteger();
+        for (Future<String> future : submit(4, "1", () -> {
+            reads.incrementAndGet();
+            TimeUnit.MILLISECONDS.sleep(100);
+            return "value";
+        })) {
+            assertEquals("value", future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(4, reads.get());
+    }
+}
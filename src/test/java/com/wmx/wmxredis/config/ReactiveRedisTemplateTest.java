@@ -0,0 +1,101 @@
+package com.wmx.wmxredis.config;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.lua.RedisLuaScripts;
+import com.wmx.wmxredis.serializer.ValueCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RedisConfig#reactiveRedisTemplate} 单元测试：Lettuce 与 Jedis 访问同一个内嵌 Redis 服务端，两边写入的数据可以互相读取
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 23:40
+ */
+public class ReactiveRedisTemplateTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private EmbeddedRedisServer server;
+    private JedisConnectionFactory jedisConnectionFactory;
+    private LettuceConnectionFactory lettuceConnectionFactory;
+    private RedisTemplate<Object, Object> redisTemplate;
+    private ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        RedisSerializerProperties serializerProperties = new RedisSerializerProperties();
+        // 两个模板使用不同的编码格式，读取时都能自动识别
+        serializerProperties.getTemplates().put("reactiveRedisTemplate", ValueCodec.SMILE);
+        RedisConfig redisConfig = new RedisConfig(serializerProperties, new SimpleMeterRegistry());
+
+        jedisConnectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()));
+        jedisConnectionFactory.afterPropertiesSet();
+        redisTemplate = redisConfig.redisTemplate(jedisConnectionFactory);
+
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.setPort(server.getPort());
+        redisProperties.setTimeout(TIMEOUT);
+        lettuceConnectionFactory = new ReactiveRedisConfig().reactiveRedisConnectionFactory(redisProperties);
+        lettuceConnectionFactory.afterPropertiesSet();
+        reactiveRedisTemplate = redisConfig.reactiveRedisTemplate(lettuceConnectionFactory);
+    }
+
+    @After
+    public void tearDown() {
+        lettuceConnectionFactory.destroy();
+        jedisConnectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void readsValuesWrittenByRedisTemplate() {
+        Map<String, Object> value = Collections.singletonMap("name", "张三");
+        redisTemplate.opsForValue().set("string", value);
+        redisTemplate.opsForHash().put("hash", "field", Arrays.asList(1, 2, 3));
+
+        assertEquals(value, reactiveRedisTemplate.opsForValue().get("string").block(TIMEOUT));
+        assertEquals(Arrays.asList(1, 2, 3), reactiveRedisTemplate.opsForHash().get("hash", "field").block(TIMEOUT));
+    }
+
+    @Test
+    public void redisTemplateReadsValuesWrittenReactively() {
+        Map<String, Object> value = Collections.singletonMap("name", "李四");
+        assertTrue(reactiveRedisTemplate.opsForValue().set("string", value, Duration.ofSeconds(60)).block(TIMEOUT));
+        assertEquals(value, redisTemplate.opsForValue().get("string"));
+
+        RedisLuaScripts redisLuaScripts = new RedisLuaScripts();
+        ReflectionTestUtils.setField(redisLuaScripts, "redisTemplate", redisTemplate);
+        // 与程序启动时一样先预加载，之后都通过 EVALSHA 执行
+        redisLuaScripts.load();
+        assertEquals(Long.valueOf(2), redisLuaScripts.rightPushAllAndExpire(reactiveRedisTemplate, "list", Duration.ofSeconds(60), "a", "b")
+                .block(TIMEOUT));
+        assertEquals(Long.valueOf(1), redisLuaScripts.hashPutAndExpire(reactiveRedisTemplate, "hash", "field", value, Duration.ofSeconds(60))
+                .block(TIMEOUT));
+
+        List<Object> list = redisTemplate.opsForList().range("list", 0, -1);
+        assertEquals(Arrays.asList("a", "b"), list);
+        assertEquals(value, redisTemplate.opsForHash().get("hash", "field"));
+        assertTrue(redisTemplate.getExpire("hash") > 0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.wmx.wmxredis.delete;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link LatencyThrottle} 单元测试，不需要连接 Redis
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 18:50
+ */
+public class LatencyThrottleTest {
+
+    private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private LatencyThrottle throttle() {
+        return new LatencyThrottle(BUDGET, 100, 10, 1000, 1000);
+    }
+
+    @Test
+    public void growsAdditivelyWithinBudget() {
+        LatencyThrottle throttle = throttle();
+        for (int i = 0; i < 5; i++) {
+            throttle.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(100 + 5 * LatencyThrottle.INCREASE_STEP, throttle.getBatchSize());
+        assertEquals(0, throttle.getPauseMillis());
+    }
+
+    @Test
+    public void backsOffMultiplicativelyOverBudget() {
+        LatencyThrottle throttle = throttle();
+        throttle.record(TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(50, throttle.getBatchSize());
+        assertTrue(throttle.getPauseMillis() > 0);
+        long pause = throttle.getPauseMillis();
+        throttle.record(TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(25, throttle.getBatchSize());
+        assertEquals(pause * 2, throttle.getPauseMillis());
+    }
+
+    @Test
+    public void singleSlowBatchDoesNotKeepShrinking() {
+        LatencyThrottle throttle = throttle();
+        throttle.record(TimeUnit.MILLISECONDS.toNanos(50));
+        int afterBackoff = throttle.getBatchSize();
+        throttle.record(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(afterBackoff + LatencyThrottle.INCREASE_STEP, throttle.getBatchSize());
+    }
+
+    @Test
+    public void staysWithinBounds() {
+        LatencyThrottle throttle = throttle();
+        for (int i = 0; i < 20; i++) {
+            throttle.record(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertEquals(10, throttle.getBatchSize());
+        assertEquals(1000, throttle.getPauseMillis());
+        for (int i = 0; i < 500; i++) {
+            throttle.record(0);
+        }
+        assertEquals(1000, throttle.getBatchSize());
+        assertEquals(0, throttle.getPauseMillis());
+    }
+}
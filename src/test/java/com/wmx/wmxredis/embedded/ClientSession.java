@@ -0,0 +1,136 @@
+package com.wmx.wmxredis.embedded;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 一个客户端连接的状态：当前库、客户端名称、订阅的频道、事务中排队的命令
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:15
+ */
+public class ClientSession {
+
+    private final long id;
+    private int db;
+    private String name;
+    private boolean closeRequested;
+
+    private final Set<String> channels = new LinkedHashSet<>();
+    private final Set<String> patterns = new LinkedHashSet<>();
+    private Consumer<Object> pushListener = message -> {
+    };
+
+    /**
+     * MULTI 之后排队的命令，不在事务中时为 null
+     */
+    private List<List<String>> transaction;
+    private boolean transactionFailed;
+    private final Map<String, String> watched = new HashMap<>();
+
+    public ClientSession(long id) {
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getDb() {
+        return db;
+    }
+
+    public void setDb(int db) {
+        this.db = db;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * QUIT 之后回复发送完成即关闭连接
+     */
+    public boolean isCloseRequested() {
+        return closeRequested;
+    }
+
+    public void requestClose() {
+        this.closeRequested = true;
+    }
+
+    public Set<String> getChannels() {
+        return channels;
+    }
+
+    public Set<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * 订阅了频道或者模式后，连接进入订阅模式，只能执行订阅相关的命令
+     */
+    public boolean isSubscribed() {
+        return !channels.isEmpty() || !patterns.isEmpty();
+    }
+
+    public int getSubscriptionCount() {
+        return channels.size() + patterns.size();
+    }
+
+    /**
+     * 其它连接 PUBLISH 的消息通过该回调推送给本连接
+     */
+    public void push(Object message) {
+        pushListener.accept(message);
+    }
+
+    public void setPushListener(Consumer<Object> pushListener) {
+        this.pushListener = pushListener;
+    }
+
+    public boolean isInTransaction() {
+        return transaction != null;
+    }
+
+    public List<List<String>> getTransaction() {
+        return transaction;
+    }
+
+    public void beginTransaction() {
+        this.transaction = new ArrayList<>();
+        this.transactionFailed = false;
+    }
+
+    /**
+     * 结束事务(EXEC、DISCARD)，同时取消 WATCH
+     */
+    public void endTransaction() {
+        this.transaction = null;
+        this.transactionFailed = false;
+        this.watched.clear();
+    }
+
+    public boolean isTransactionFailed() {
+        return transactionFailed;
+    }
+
+    /**
+     * 事务中排队的命令有错误(命令不存在、参数个数错误)时，EXEC 直接返回 EXECABORT
+     */
+    public void failTransaction() {
+        this.transactionFailed = true;
+    }
+
+    /**
+     * WATCH 的 key -> WATCH 时的数据快照
+     */
+    public Map<String, String> getWatched() {
+        return watched;
+    }
+}
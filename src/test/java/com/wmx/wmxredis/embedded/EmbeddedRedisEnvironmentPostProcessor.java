@@ -0,0 +1,56 @@
+package com.wmx.wmxredis.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.io.IOException;
+
+/**
+ * 测试启动 Spring 容器时自动启动内嵌 Redis 服务端，RedisTest、WmxRedisApplicationTests 等测试不再依赖本机安装的 Redis
+ * <p>
+ * 1、只在测试 classpath 中通过 META-INF/spring.factories 注册，不影响应用正常运行。
+ * 2、监听 spring.redis.port(默认 6379)，与 application.yml、redisson-config.yml 中的地址一致，不需要修改任何配置。
+ * 3、端口已经被占用(本机已经运行了 Redis)时不启动，测试仍然连接已有的 Redis。
+ * 4、-Dembedded-redis.enabled=false 关闭自动启动。
+ * 5、整个测试进程只启动一次，多个 Spring 容器共用，进程退出时随守护线程结束。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:50
+ */
+public class EmbeddedRedisEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedRedisEnvironmentPostProcessor.class);
+
+    private static EmbeddedRedisServer server;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("embedded-redis.enabled", Boolean.class, true)) {
+            return;
+        }
+        String host = environment.getProperty("spring.redis.host", "localhost");
+        if (!"localhost".equals(host) && !"127.0.0.1".equals(host)) {
+            return;
+        }
+        start(environment.getProperty("spring.redis.port", Integer.class, 6379));
+    }
+
+    private static synchronized void start(int port) {
+        if (server != null && server.isRunning()) {
+            return;
+        }
+        if (EmbeddedRedisServer.isListening(port)) {
+            log.info("端口 {} 已被占用，使用已经运行的 Redis", port);
+            return;
+        }
+        try {
+            server = new EmbeddedRedisServer(port).start();
+        } catch (IOException e) {
+            log.warn("内嵌 Redis 服务端启动失败，端口：{}，{}", port, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.wmx.wmxredis.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内的 RESP2 服务端，供单元测试与基准测试使用，替代本地安装的 Redis
+ * <p>
+ * 1、单个守护线程 + NIO Selector 处理所有连接，与 Redis 一样命令串行执行，天然原子，不需要加锁。
+ * 2、支持管道：一次读到的多个命令依次执行，回复按顺序写回。
+ * 3、只实现项目用到的命令(见 {@link RedisCommands})，Lua 脚本见 {@link LuaScriptRegistry}。
+ * * 支持字符串、列表、hash、集合、有序集合、流与消费组、过期时间、事务(MULTI/EXEC/WATCH)、发布/订阅。
+ * 4、端口传 0 时由系统分配空闲端口，启动后通过 {@link #getPort()} 获取。
+ * 5、阻塞命令(XREADGROUP BLOCK)没有数据时连接暂停处理后续命令，每隔 {@link #BLOCK_RETRY_MILLIS} 毫秒重新执行，直到有数据或超时。
+ * <pre>
+ *     EmbeddedRedisServer server = new EmbeddedRedisServer(0).start();
+ *     Jedis jedis = new Jedis("127.0.0.1", server.getPort());
+ *     ...
+ *     server.stop();
+ * </pre>
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:40
+ */
+public class EmbeddedRedisServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedRedisServer.class);
+
+    /**
+     * 过期 key 的主动清理间隔(毫秒)，访问时还会惰性删除
+     */
+    private static final long EVICT_INTERVAL_MILLIS = 100;
+    /**
+     * 阻塞中的命令重新执行的间隔(毫秒)
+     */
+    private static final long BLOCK_RETRY_MILLIS = 5;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final int requestedPort;
+    private final RedisDataStore store = new RedisDataStore();
+    private final RedisCommands commands;
+    private final AtomicLong clientIds = new AtomicLong();
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+    private int port;
+
+    public EmbeddedRedisServer(int port) {
+        this.requestedPort = port;
+        this.commands = new RedisCommands(store, LuaScriptRegistry.defaults());
+    }
+
+    /**
+     * 本机端口上是否已经有服务在监听(如本机已经运行了 Redis)
+     * <p>
+     * 通过连接判断而不是尝试绑定：上一次测试留下的 TIME_WAIT 连接会导致绑定检测误判为占用。
+     */
+    public static boolean isListening(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 500);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public synchronized EmbeddedRedisServer start() throws IOException {
+        if (running) {
+            return this;
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(new InetSocketAddress("127.0.0.1", requestedPort));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        port = ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        running = true;
+        CountDownLatch started = new CountDownLatch(1);
+        thread = new Thread(() -> {
+            started.countDown();
+            loop();
+        }, "embedded-redis-" + port);
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("内嵌 Redis 服务端已启动，端口：{}", port);
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 命令表，测试中可以登记额外的命令
+     */
+    public RedisCommands getCommands() {
+        return commands;
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("内嵌 Redis 服务端已停止，端口：{}", port);
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void loop() {
+        long lastEvict = System.currentTimeMillis();
+        boolean blocked = false;
+        try {
+            while (running) {
+                selector.select(blocked ? BLOCK_RETRY_MILLIS : EVICT_INTERVAL_MILLIS);
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        // 客户端断开连接
+                        closeQuietly(key);
+                    }
+                }
+                blocked = retryBlocked();
+                long now = System.currentTimeMillis();
+                if (now - lastEvict >= EVICT_INTERVAL_MILLIS) {
+                    store.evictExpired();
+                    lastEvict = now;
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            log.error("内嵌 Redis 服务端异常退出：{}", e.getMessage(), e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // 关闭失败不影响测试
+            }
+            running = false;
+        }
+    }
+
+    /**
+     * 重新执行所有阻塞中的命令，返回是否还有连接处于阻塞中
+     */
+    private boolean retryBlocked() {
+        boolean blocked = false;
+        for (SelectionKey key : selector.keys()) {
+            if (!key.isValid() || !(key.attachment() instanceof Connection) || !((Connection) key.attachment()).isBlocked()) {
+                continue;
+            }
+            Connection connection = (Connection) key.attachment();
+            try {
+                connection.process(commands);
+                if (connection.hasOutput()) {
+                    write(key);
+                }
+            } catch (IOException e) {
+                closeQuietly(key);
+                continue;
+            }
+            blocked |= connection.isBlocked();
+        }
+        return blocked;
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(new ClientSession(clientIds.incrementAndGet()));
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        // 其它连接 PUBLISH 的消息直接写入本连接的输出，由 Selector 在可写时发送
+        connection.session.setPushListener(message -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Resp.write(message, out);
+            connection.enqueue(out.toByteArray());
+            if (connection.key.isValid()) {
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        });
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        int read;
+        while ((read = channel.read(buffer)) > 0) {
+            connection.append(buffer.array(), read);
+            buffer.clear();
+        }
+        connection.process(commands);
+        if (connection.hasOutput()) {
+            write(key);
+        }
+        if (read < 0) {
+            closeQuietly(key);
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer output = connection.output;
+        if (output != null) {
+            channel.write(output);
+            if (!output.hasRemaining()) {
+                connection.output = null;
+            }
+        }
+        if (connection.output == null && connection.session.isCloseRequested()) {
+            closeQuietly(key);
+            return;
+        }
+        key.interestOps(connection.output == null ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void closeQuietly(SelectionKey key) {
+        if (key.attachment() instanceof Connection) {
+            commands.disconnect(((Connection) key.attachment()).session);
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // 关闭失败不影响其它连接
+        }
+    }
+
+    /**
+     * 一个客户端连接：未解析完的输入 + 待发送的回复
+     */
+    private static class Connection {
+        private final ClientSession session;
+        private byte[] input = new byte[READ_BUFFER_SIZE];
+        private int length;
+        private ByteBuffer output;
+        private SelectionKey key;
+        /**
+         * 阻塞中的命令与超时时间，没有阻塞时为 null
+         */
+        private List<String> blockedCommand;
+        private long blockedUntil;
+
+        Connection(ClientSession session) {
+            this.session = session;
+        }
+
+        void append(byte[] bytes, int count) {
+            if (length + count > input.length) {
+                input = Arrays.copyOf(input, Math.max(input.length * 2, length + count));
+            }
+            System.arraycopy(bytes, 0, input, length, count);
+            length += count;
+        }
+
+        /**
+         * 执行输入中所有完整的命令，不完整的部分留到下次读取
+         */
+        void process(RedisCommands commands) {
+            ByteArrayOutputStream replies = new ByteArrayOutputStream();
+            if (blockedCommand != null && !unblock(commands, replies)) {
+                return;
+            }
+            int position = 0;
+            while (position < length && !session.isCloseRequested() && blockedCommand == null) {
+                List<String> args = new ArrayList<>();
+                int end;
+                try {
+                    end = Resp.parse(input, position, length, args);
+                } catch (RespException e) {
+                    Resp.write(e, replies);
+                    session.requestClose();
+                    break;
+                }
+                if (end < 0) {
+                    break;
+                }
+                position = end;
+                if (!args.isEmpty()) {
+                    Object reply = commands.execute(session, args);
+                    if (reply instanceof Resp.Blocked) {
+                        // 后续的命令等到解除阻塞后再执行
+                        long timeout = ((Resp.Blocked) reply).getTimeoutMillis();
+                        blockedCommand = args;
+                        blockedUntil = timeout == 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeout;
+                    } else {
+                        Resp.write(reply, replies);
+                    }
+                }
+            }
+            if (position > 0) {
+                System.arraycopy(input, position, input, 0, length - position);
+                length -= position;
+            }
+            if (replies.size() > 0) {
+                enqueue(replies.toByteArray());
+            }
+        }
+
+        boolean isBlocked() {
+            return blockedCommand != null;
+        }
+
+        /**
+         * 重新执行阻塞中的命令，有数据或者已经超时时写出回复并返回 true
+         */
+        private boolean unblock(RedisCommands commands, ByteArrayOutputStream replies) {
+            Object reply = commands.execute(session, blockedCommand);
+            if (reply instanceof Resp.Blocked) {
+                if (System.currentTimeMillis() < blockedUntil) {
+                    return false;
+                }
+                reply = Resp.NIL_ARRAY;
+            }
+            Resp.write(reply, replies);
+            blockedCommand = null;
+            return true;
+        }
+
+        /**
+         * 追加到待发送的数据之后
+         */
+        void enqueue(byte[] bytes) {
+            ByteBuffer pending = output;
+            if (pending == null || !pending.hasRemaining()) {
+                output = ByteBuffer.wrap(bytes);
+            } else {
+                ByteBuffer merged = ByteBuffer.allocate(pending.remaining() + bytes.length);
+                merged.put(pending).put(bytes);
+                merged.flip();
+                output = merged;
+            }
+        }
+
+        boolean hasOutput() {
+            return output != null && output.hasRemaining() || session.isCloseRequested();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.wmx.wmxredis.embedded;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 内嵌 Redis 服务端的协议与命令测试，使用 Jedis 作为客户端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:50
+ */
+public class EmbeddedRedisServerTest {
+
+    private static EmbeddedRedisServer server;
+    private Jedis jedis;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+    }
+
+    @Before
+    public void connect() {
+        jedis = new Jedis("127.0.0.1", server.getPort());
+        jedis.flushAll();
+    }
+
+    @After
+    public void disconnect() {
+        jedis.close();
+    }
+
+    @Test
+    public void strings() {
+        Assert.assertEquals("PONG", jedis.ping());
+        Assert.assertEquals("OK", jedis.set("k", "v"));
+        Assert.assertEquals("v", jedis.get("k"));
+        Assert.assertNull(jedis.get("missing"));
+        Assert.assertEquals(3L, (long) jedis.incrBy("n", 3));
+        Assert.assertEquals(Arrays.asList("v", null, "3"), jedis.mget("k", "missing", "n"));
+        Assert.assertEquals(2L, (long) jedis.append("k", "w"));
+        Assert.assertNull(jedis.set("k", "x", "NX"));
+        // 二进制值原样保存
+        byte[] value = "中文\u0000ÿ".getBytes(StandardCharsets.UTF_8);
+        jedis.set("b".getBytes(), value);
+        Assert.assertArrayEquals(value, jedis.get("b".getBytes()));
+    }
+
+    @Test
+    public void expire() throws InterruptedException {
+        jedis.psetex("k", 50L, "v");
+        Assert.assertTrue(jedis.pttl("k") > 0);
+        jedis.set("n", "1");
+        Assert.assertEquals(-1L, (long) jedis.ttl("n"));
+        Thread.sleep(80);
+        Assert.assertNull(jedis.get("k"));
+        Assert.assertEquals(-2L, (long) jedis.pttl("k"));
+    }
+
+    @Test
+    public void collections() {
+        jedis.rpush("list", "a", "b", "c");
+        Assert.assertEquals(Arrays.asList("b", "c"), jedis.lrange("list", 1, -1));
+        jedis.hmset("hash", Collections.singletonMap("f", "1"));
+        Assert.assertEquals(Arrays.asList("1", null), jedis.hmget("hash", "f", "g"));
+        Assert.assertEquals(2L, (long) jedis.hincrBy("hash", "f", 1));
+        jedis.zadd("zset", 2, "b");
+        jedis.zadd("zset", 1, "a");
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("a", "b")), jedis.zrange("zset", 0, -1));
+        Assert.assertEquals(Double.valueOf(2), jedis.zscore("zset", "b"));
+        Assert.assertEquals("zset", jedis.type("zset"));
+        try {
+            jedis.get("list");
+            Assert.fail();
+        } catch (JedisDataException e) {
+            Assert.assertTrue(e.getMessage().startsWith("WRONGTYPE"));
+        }
+    }
+
+    @Test
+    public void scanAndPipeline() {
+        Pipeline pipeline = jedis.pipelined();
+        for (int i = 0; i < 250; i++) {
+            pipeline.set("key:" + i, String.valueOf(i));
+        }
+        pipeline.set("other", "x");
+        Assert.assertEquals(251, pipeline.syncAndReturnAll().size());
+        Set<String> keys = new HashSet<>();
+        String cursor = ScanParams.SCAN_POINTER_START;
+        do {
+            ScanResult<String> page = jedis.scan(cursor, new ScanParams().match("key:*").count(100));
+            keys.addAll(page.getResult());
+            cursor = page.getStringCursor();
+        } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+        Assert.assertEquals(250, keys.size());
+        Assert.assertEquals(250, jedis.keys("key:*").size());
+    }
+
+    @Test
+    public void scripts() throws IOException {
+        String body = StreamUtils.copyToString(new ClassPathResource("lua/rpush_expire.lua").getInputStream(), StandardCharsets.UTF_8);
+        String sha = jedis.scriptLoad(body);
+        Assert.assertEquals(LuaScriptRegistry.sha1(body), sha);
+        Assert.assertEquals(2L, jedis.evalsha(sha, Collections.singletonList("list"), Arrays.asList("10000", "a", "b")));
+        Assert.assertTrue(jedis.pttl("list") > 0);
+        jedis.scriptFlush();
+        try {
+            jedis.evalsha(sha, Collections.singletonList("list"), Arrays.asList("10000", "c"));
+            Assert.fail();
+        } catch (JedisDataException e) {
+            Assert.assertTrue(e.getMessage().startsWith("NOSCRIPT"));
+        }
+    }
+
+    @Test
+    public void sets() {
+        jedis.sadd("s1", "a", "b", "c");
+        jedis.sadd("s2", "b", "c", "d");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("b", "c")), jedis.sinter("s1", "s2"));
+        Assert.assertEquals(4, jedis.sunion("s1", "s2").size());
+        Assert.assertEquals(Collections.singleton("a"), jedis.sdiff("s1", "s2"));
+        Assert.assertEquals(1L, (long) jedis.smove("s1", "s2", "a"));
+        Assert.assertTrue(jedis.sismember("s2", "a"));
+        Assert.assertNotNull(jedis.spop("s1"));
+        Assert.assertEquals(1L, (long) jedis.scard("s1"));
+    }
+
+    @Test
+    public void transaction() {
+        jedis.set("counter", "1");
+        Transaction transaction = jedis.multi();
+        transaction.incr("counter");
+        transaction.incr("counter");
+        Assert.assertEquals(Arrays.asList(2L, 3L), transaction.exec());
+
+        // WATCH 的 key 被其它连接修改后，EXEC 放弃执行
+        jedis.watch("counter");
+        try (Jedis other = new Jedis("127.0.0.1", server.getPort())) {
+            other.set("counter", "100");
+        }
+        transaction = jedis.multi();
+        transaction.incr("counter");
+        Assert.assertNull(transaction.exec());
+        Assert.assertEquals("100", jedis.get("counter"));
+    }
+
+    @Test
+    public void publishSubscribe() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        CountDownLatch subscribed = new CountDownLatch(2);
+        JedisPubSub listener = new JedisPubSub() {
+            @Override
+            public void onMessage(String channel, String message) {
+                received.add(channel + "=" + message);
+            }
+
+            @Override
+            public void onPMessage(String pattern, String channel, String message) {
+                received.add(pattern + ":" + channel + "=" + message);
+                punsubscribe();
+                unsubscribe();
+            }
+
+            @Override
+            public void onSubscribe(String channel, int subscribedChannels) {
+                subscribed.countDown();
+            }
+
+            @Override
+            public void onPSubscribe(String pattern, int subscribedChannels) {
+                subscribed.countDown();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Jedis subscriber = new Jedis("127.0.0.1", server.getPort())) {
+            Future<?> future = executor.submit(() -> subscriber.subscribe(listener, "news"));
+            Assert.assertTrue(waitFor(() -> listener.getSubscribedChannels() == 1));
+            listener.psubscribe("new*");
+            Assert.assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(2L, (long) jedis.publish("news", "hello"));
+            Assert.assertEquals("news=hello", received.poll(5, TimeUnit.SECONDS));
+            Assert.assertEquals("new*:news=hello", received.poll(5, TimeUnit.SECONDS));
+            future.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(0L, (long) jedis.publish("news", "bye"));
+    }
+
+    @Test
+    public void redissonLock() throws Exception {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + server.getPort())
+                .setConnectionMinimumIdleSize(1).setConnectionPoolSize(4)
+                .setSubscriptionConnectionMinimumIdleSize(1).setSubscriptionConnectionPoolSize(2);
+        RedissonClient redissonClient = Redisson.create(config);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RLock lock = redissonClient.getLock("lock");
+            lock.lock();
+            lock.lock();
+            Assert.assertEquals(2, lock.getHoldCount());
+            // 其它线程等待锁，解锁后通过发布/订阅被唤醒
+            Future<Boolean> waiting = executor.submit(() -> {
+                RLock other = redissonClient.getLock("lock");
+                boolean locked = other.tryLock(10, 5, TimeUnit.SECONDS);
+                if (locked) {
+                    other.unlock();
+                }
+                return locked;
+            });
+            Thread.sleep(200);
+            lock.unlock();
+            Assert.assertTrue(lock.isLocked());
+            lock.unlock();
+            Assert.assertTrue(waiting.get(10, TimeUnit.SECONDS));
+            Assert.assertFalse(lock.isLocked());
+        } finally {
+            executor.shutdownNow();
+            redissonClient.shutdown();
+        }
+    }
+
+    private static boolean waitFor(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.call()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
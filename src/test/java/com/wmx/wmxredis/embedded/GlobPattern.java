@@ -0,0 +1,84 @@
+package com.wmx.wmxredis.embedded;
+
+/**
+ * Redis 风格的 glob 匹配：* 任意个字符、? 单个字符、[abc] / [^a] / [a-z] 字符集合、\ 转义
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:25
+ */
+public final class GlobPattern {
+
+    private GlobPattern() {
+    }
+
+    public static boolean matches(String pattern, String value) {
+        return matches(pattern, 0, value, 0);
+    }
+
+    private static boolean matches(String pattern, int p, String value, int v) {
+        while (p < pattern.length()) {
+            char c = pattern.charAt(p);
+            if (c == '*') {
+                while (p + 1 < pattern.length() && pattern.charAt(p + 1) == '*') {
+                    p++;
+                }
+                if (p + 1 == pattern.length()) {
+                    return true;
+                }
+                for (int i = v; i <= value.length(); i++) {
+                    if (matches(pattern, p + 1, value, i)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (v >= value.length()) {
+                return false;
+            }
+            if (c == '?') {
+                p++;
+                v++;
+            } else if (c == '[') {
+                int end = pattern.indexOf(']', p + 1);
+                if (end < 0) {
+                    return false;
+                }
+                if (!matchesClass(pattern.substring(p + 1, end), value.charAt(v))) {
+                    return false;
+                }
+                p = end + 1;
+                v++;
+            } else {
+                if (c == '\\' && p + 1 < pattern.length()) {
+                    c = pattern.charAt(++p);
+                }
+                if (c != value.charAt(v)) {
+                    return false;
+                }
+                p++;
+                v++;
+            }
+        }
+        return v == value.length();
+    }
+
+    private static boolean matchesClass(String set, char c) {
+        boolean negate = set.startsWith("^");
+        if (negate) {
+            set = set.substring(1);
+        }
+        boolean matched = false;
+        for (int i = 0; i < set.length(); i++) {
+            if (i + 2 < set.length() && set.charAt(i + 1) == '-') {
+                if (c >= set.charAt(i) && c <= set.charAt(i + 2)) {
+                    matched = true;
+                }
+                i += 2;
+            } else if (set.charAt(i) == c) {
+                matched = true;
+            }
+        }
+        return negate != matched;
+    }
+}
@@ -0,0 +1,267 @@
+package com.wmx.wmxredis.embedded;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * 内嵌服务端支持的 Lua 脚本
+ * <p>
+ * 1、内嵌服务端没有 Lua 解释器，EVAL 只支持项目中实际使用的脚本：按脚本内容的 SHA1 找到对应的 Java 实现执行，
+ * * 同样是原子的(服务端单线程)。Java 实现是按脚本手写的副本，脚本文件本身没有被执行，
+ * * 修改脚本时需要同步修改这里，并用 {@link com.wmx.wmxredis.lua.LuaScriptsIT}(mvn verify -P redis-it)在真实 Redis 中验证。
+ * 2、未登记的脚本执行时返回错误，需要新增脚本时在 {@link #defaults()} 中登记对应的 Java 实现，
+ * * 脚本内容必须与客户端发送的完全一致(包括空格)，否则 SHA1 不同。
+ * 3、SCRIPT LOAD 记录已加载的 SHA1，EVALSHA 未加载的脚本时返回 NOSCRIPT，与 Redis 一致。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:20
+ */
+public class LuaScriptRegistry {
+
+    /**
+     * 脚本的 Java 实现，keys、args 与 Lua 中的 KEYS、ARGV 一一对应
+     */
+    public interface Script {
+        Object run(RedisCommands commands, ClientSession session, List<String> keys, List<String> args);
+    }
+
+    private final Map<String, Script> scripts = new HashMap<>();
+    private final Set<String> loaded = new HashSet<>();
+
+    /**
+     * 登记项目中使用的脚本
+     *
+     * @return
+     */
+    public static LuaScriptRegistry defaults() {
+        LuaScriptRegistry registry = new LuaScriptRegistry();
+        // RedisLuaScripts：列表追加并设置过期时间
+        registry.register(resource("lua/rpush_expire.lua"), (commands, session, keys, args) -> {
+            Object length = commands.call(session, "RPUSH", keys.get(0), args.subList(1, args.size()));
+            commands.call(session, "PEXPIRE", keys.get(0), args.get(0));
+            return length;
+        });
+        // RedisLuaScripts：hash 设置单个字段并设置过期时间
+        registry.register(resource("lua/hset_expire.lua"), (commands, session, keys, args) -> {
+            Object result = commands.call(session, "HSET", keys.get(0), args.get(1), args.get(2));
+            commands.call(session, "PEXPIRE", keys.get(0), args.get(0));
+            return result;
+        });
+        // RedisLuaScripts：hash 设置多个字段并设置过期时间
+        registry.register(resource("lua/hmset_expire.lua"), (commands, session, keys, args) -> {
+            commands.call(session, "HMSET", keys.get(0), args.subList(1, args.size()));
+            commands.call(session, "PEXPIRE", keys.get(0), args.get(0));
+            return (long) (args.size() - 1) / 2;
+        });
+        // JedisCommonController.delKeyByScript、RedisController：值相等时才删除，用于释放 setIfAbsent 实现的锁
+        registry.register("if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+                (commands, session, keys, args) -> args.get(0).equals(commands.call(session, "GET", keys.get(0)))
+                        ? commands.call(session, "DEL", keys.get(0)) : 0L);
+        // FencedLockService：获取锁并生成防护令牌、续租、释放
+        registry.register(resource("lua/fenced_lock_acquire.lua"), (commands, session, keys, args) -> {
+            if (commands.call(session, "SET", keys.get(0), args.get(0), "NX", "PX", args.get(1)) == null) {
+                return 0L;
+            }
+            return commands.call(session, "INCR", keys.get(1));
+        });
+        registry.register(resource("lua/fenced_lock_renew.lua"), (commands, session, keys, args) ->
+                args.get(0).equals(commands.call(session, "GET", keys.get(0)))
+                        ? toLong(commands.call(session, "PEXPIRE", keys.get(0), args.get(1))) : 0L);
+        registry.register(resource("lua/fenced_lock_release.lua"), (commands, session, keys, args) ->
+                args.get(0).equals(commands.call(session, "GET", keys.get(0)))
+                        ? toLong(commands.call(session, "DEL", keys.get(0))) : 0L);
+        // ClusterScheduler：主节点带令牌记录任务的触发时间
+        registry.register(resource("lua/scheduler_fire.lua"), (commands, session, keys, args) -> {
+            Object epoch = commands.call(session, "HGET", keys.get(0), "epoch");
+            if (Long.parseLong(args.get(0)) < (epoch == null ? 0 : Long.parseLong((String) epoch))) {
+                return 0L;
+            }
+            commands.call(session, "HSET", keys.get(0), "epoch", args.get(0), "fire", args.get(1), "next", args.get(2));
+            return 1L;
+        });
+        // WorkQueue：消费组待确认的消息总数
+        registry.register(resource("lua/queue_pending.lua"), (commands, session, keys, args) -> {
+            try {
+                return ((List<?>) commands.call(session, "XPENDING", keys.get(0), args.get(0))).get(0);
+            } catch (RespException e) {
+                return 0L;
+            }
+        });
+        registerRedissonLock(registry);
+        return registry;
+    }
+
+    /**
+     * Redisson 3.13 RLock 使用的脚本(RedissonLock 中的原文)：加锁、看门狗续期、解锁、强制解锁
+     */
+    private static void registerRedissonLock(LuaScriptRegistry registry) {
+        // tryLockInnerAsync：KEYS[1] 锁名称，ARGV[1] 过期时间，ARGV[2] 持有者(连接 id:线程 id)，加锁成功返回 nil，否则返回剩余时间
+        registry.register("if (redis.call('exists', KEYS[1]) == 0) then " +
+                "redis.call('hincrby', KEYS[1], ARGV[2], 1); " +
+                "redis.call('pexpire', KEYS[1], ARGV[1]); " +
+                "return nil; " +
+                "end; " +
+                "if (redis.call('hexists', KEYS[1], ARGV[2]) == 1) then " +
+                "redis.call('hincrby', KEYS[1], ARGV[2], 1); " +
+                "redis.call('pexpire', KEYS[1], ARGV[1]); " +
+                "return nil; " +
+                "end; " +
+                "return redis.call('pttl', KEYS[1]);", (commands, session, keys, args) -> {
+            if (toLong(commands.call(session, "EXISTS", keys.get(0))) == 0
+                    || toLong(commands.call(session, "HEXISTS", keys.get(0), args.get(1))) == 1) {
+                commands.call(session, "HINCRBY", keys.get(0), args.get(1), 1);
+                commands.call(session, "PEXPIRE", keys.get(0), args.get(0));
+                return null;
+            }
+            return commands.call(session, "PTTL", keys.get(0));
+        });
+        // renewExpirationAsync：看门狗续期
+        registry.register("if (redis.call('hexists', KEYS[1], ARGV[2]) == 1) then " +
+                "redis.call('pexpire', KEYS[1], ARGV[1]); " +
+                "return 1; " +
+                "end; " +
+                "return 0;", (commands, session, keys, args) -> {
+            if (toLong(commands.call(session, "HEXISTS", keys.get(0), args.get(1))) == 1) {
+                commands.call(session, "PEXPIRE", keys.get(0), args.get(0));
+                return 1L;
+            }
+            return 0L;
+        });
+        // unlockInnerAsync：KEYS[2] 解锁通知频道，ARGV[1] 解锁消息，ARGV[2] 过期时间，ARGV[3] 持有者
+        registry.register("if (redis.call('hexists', KEYS[1], ARGV[3]) == 0) then " +
+                "return nil;" +
+                "end; " +
+                "local counter = redis.call('hincrby', KEYS[1], ARGV[3], -1); " +
+                "if (counter > 0) then " +
+                "redis.call('pexpire', KEYS[1], ARGV[2]); " +
+                "return 0; " +
+                "else " +
+                "redis.call('del', KEYS[1]); " +
+                "redis.call('publish', KEYS[2], ARGV[1]); " +
+                "return 1; " +
+                "end; " +
+                "return nil;", (commands, session, keys, args) -> {
+            if (toLong(commands.call(session, "HEXISTS", keys.get(0), args.get(2))) == 0) {
+                return null;
+            }
+            long counter = toLong(commands.call(session, "HINCRBY", keys.get(0), args.get(2), -1));
+            if (counter > 0) {
+                commands.call(session, "PEXPIRE", keys.get(0), args.get(1));
+                return 0L;
+            }
+            commands.call(session, "DEL", keys.get(0));
+            commands.call(session, "PUBLISH", keys.get(1), args.get(0));
+            return 1L;
+        });
+        // forceUnlockAsync
+        registry.register("if (redis.call('del', KEYS[1]) == 1) then " +
+                "redis.call('publish', KEYS[2], ARGV[1]); " +
+                "return 1 " +
+                "else " +
+                "return 0 " +
+                "end", (commands, session, keys, args) -> {
+            if (toLong(commands.call(session, "DEL", keys.get(0))) == 1) {
+                commands.call(session, "PUBLISH", keys.get(1), args.get(0));
+                return 1L;
+            }
+            return 0L;
+        });
+    }
+
+    /**
+     * 命令的整数返回值，Lua 中 Redis 整数回复与 Boolean 都是 number
+     */
+    private static long toLong(Object reply) {
+        if (reply instanceof Boolean) {
+            return (Boolean) reply ? 1 : 0;
+        }
+        return ((Number) reply).longValue();
+    }
+
+    /**
+     * 登记脚本
+     *
+     * @param body   ：脚本内容
+     * @param script ：对应的 Java 实现
+     */
+    public void register(String body, Script script) {
+        scripts.put(sha1(body), script);
+    }
+
+    /**
+     * 脚本内容(UTF-8 文本)的 SHA1
+     */
+    public static String sha1(String body) {
+        return sha1Hex(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * EVAL：执行脚本并记录为已加载
+     */
+    public Object eval(RedisCommands commands, ClientSession session, String body, List<String> keys, List<String> args) {
+        String sha = sha1Hex(Resp.bytes(body));
+        loaded.add(sha);
+        return run(commands, session, sha, keys, args);
+    }
+
+    /**
+     * EVALSHA：执行已经加载的脚本
+     */
+    public Object evalSha(RedisCommands commands, ClientSession session, String sha, List<String> keys, List<String> args) {
+        if (!loaded.contains(sha.toLowerCase(Locale.ROOT))) {
+            throw new RespException("NOSCRIPT No matching script. Please use EVAL.");
+        }
+        return run(commands, session, sha.toLowerCase(Locale.ROOT), keys, args);
+    }
+
+    public String load(String body) {
+        String sha = sha1Hex(Resp.bytes(body));
+        loaded.add(sha);
+        return sha;
+    }
+
+    public boolean exists(String sha) {
+        return loaded.contains(sha.toLowerCase(Locale.ROOT));
+    }
+
+    public void flush() {
+        loaded.clear();
+    }
+
+    private Object run(RedisCommands commands, ClientSession session, String sha, List<String> keys, List<String> args) {
+        Script script = scripts.get(sha);
+        if (script == null) {
+            throw new RespException("ERR embedded server does not support script " + sha);
+        }
+        return script.run(commands, session, keys, args);
+    }
+
+    private static String resource(String path) {
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("读取脚本 " + path + " 失败", e);
+        }
+    }
+
+    private static String sha1Hex(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            StringBuilder builder = new StringBuilder(40);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
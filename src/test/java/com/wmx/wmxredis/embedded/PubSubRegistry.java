@@ -0,0 +1,141 @@
+package com.wmx.wmxredis.embedded;
+
+import java.util.*;
+
+/**
+ * 发布/订阅：频道、模式 -> 订阅的连接
+ * <p>
+ * 1、与所有命令一样只在服务端线程中访问，不需要加锁。
+ * 2、消息推送格式与 Redis 一致：["message", 频道, 消息]、["pmessage", 模式, 频道, 消息]。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 21:40
+ */
+public class PubSubRegistry {
+
+    private final Map<String, Set<ClientSession>> channels = new HashMap<>();
+    private final Map<String, Set<ClientSession>> patterns = new HashMap<>();
+
+    public Object subscribe(ClientSession session, List<String> names) {
+        Resp.Replies replies = new Resp.Replies();
+        for (String channel : names) {
+            channels.computeIfAbsent(channel, key -> new LinkedHashSet<>()).add(session);
+            session.getChannels().add(channel);
+            replies.add(Arrays.asList("subscribe", channel, (long) session.getSubscriptionCount()));
+        }
+        return replies;
+    }
+
+    public Object psubscribe(ClientSession session, List<String> names) {
+        Resp.Replies replies = new Resp.Replies();
+        for (String pattern : names) {
+            patterns.computeIfAbsent(pattern, key -> new LinkedHashSet<>()).add(session);
+            session.getPatterns().add(pattern);
+            replies.add(Arrays.asList("psubscribe", pattern, (long) session.getSubscriptionCount()));
+        }
+        return replies;
+    }
+
+    /**
+     * 取消订阅，names 为空时取消所有频道
+     */
+    public Object unsubscribe(ClientSession session, List<String> names) {
+        return remove(session, names.isEmpty() ? new ArrayList<>(session.getChannels()) : names,
+                session.getChannels(), channels, "unsubscribe");
+    }
+
+    public Object punsubscribe(ClientSession session, List<String> names) {
+        return remove(session, names.isEmpty() ? new ArrayList<>(session.getPatterns()) : names,
+                session.getPatterns(), patterns, "punsubscribe");
+    }
+
+    private Object remove(ClientSession session, List<String> names, Set<String> subscribed,
+                          Map<String, Set<ClientSession>> registry, String kind) {
+        Resp.Replies replies = new Resp.Replies();
+        if (names.isEmpty()) {
+            replies.add(Arrays.asList(kind, null, (long) session.getSubscriptionCount()));
+            return replies;
+        }
+        for (String name : names) {
+            subscribed.remove(name);
+            Set<ClientSession> sessions = registry.get(name);
+            if (sessions != null) {
+                sessions.remove(session);
+                if (sessions.isEmpty()) {
+                    registry.remove(name);
+                }
+            }
+            replies.add(Arrays.asList(kind, name, (long) session.getSubscriptionCount()));
+        }
+        return replies;
+    }
+
+    /**
+     * 连接关闭时取消它的所有订阅
+     */
+    public void removeAll(ClientSession session) {
+        for (String channel : session.getChannels()) {
+            Set<ClientSession> sessions = channels.get(channel);
+            if (sessions != null && sessions.remove(session) && sessions.isEmpty()) {
+                channels.remove(channel);
+            }
+        }
+        for (String pattern : session.getPatterns()) {
+            Set<ClientSession> sessions = patterns.get(pattern);
+            if (sessions != null && sessions.remove(session) && sessions.isEmpty()) {
+                patterns.remove(pattern);
+            }
+        }
+        session.getChannels().clear();
+        session.getPatterns().clear();
+    }
+
+    /**
+     * 发布消息
+     *
+     * @return 收到消息的订阅数
+     */
+    public long publish(String channel, String message) {
+        long receivers = 0;
+        Set<ClientSession> sessions = channels.get(channel);
+        if (sessions != null) {
+            for (ClientSession session : new ArrayList<>(sessions)) {
+                session.push(Arrays.asList("message", channel, message));
+                receivers++;
+            }
+        }
+        for (Map.Entry<String, Set<ClientSession>> entry : new ArrayList<>(patterns.entrySet())) {
+            if (GlobPattern.matches(entry.getKey(), channel)) {
+                for (ClientSession session : new ArrayList<>(entry.getValue())) {
+                    session.push(Arrays.asList("pmessage", entry.getKey(), channel, message));
+                    receivers++;
+                }
+            }
+        }
+        return receivers;
+    }
+
+    /**
+     * PUBSUB CHANNELS：有订阅者的频道
+     */
+    public List<String> channels(String pattern) {
+        List<String> result = new ArrayList<>();
+        for (String channel : channels.keySet()) {
+            if (pattern == null || GlobPattern.matches(pattern, channel)) {
+                result.add(channel);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    public long numsub(String channel) {
+        Set<ClientSession> sessions = channels.get(channel);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    public long numpat() {
+        return patterns.size();
+    }
+}
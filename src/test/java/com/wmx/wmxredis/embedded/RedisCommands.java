@@ -0,0 +1,1552 @@
+package com.wmx.wmxredis.embedded;
+
+import java.util.*;
+
+/**
+ * 内嵌服务端的命令表
+ * <p>
+ * 1、命令实现尽量与 Redis 5 的行为保持一致(返回值、错误信息、边界处理)，只覆盖项目与测试中用到的命令。
+ * 2、命令的参数不包含命令名称本身，参数个数在执行前统一校验。
+ * 3、脚本的 Java 实现通过 {@link #call(ClientSession, String, Object...)} 执行命令，相当于 Lua 中的 redis.call。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:30
+ */
+public class RedisCommands {
+
+    /**
+     * 一个命令的实现
+     */
+    public interface Command {
+        Object execute(ClientSession session, List<String> args);
+    }
+
+    private static class Spec {
+        private final int minArgs;
+        private final int maxArgs;
+        private final Command command;
+
+        Spec(int minArgs, int maxArgs, Command command) {
+            this.minArgs = minArgs;
+            this.maxArgs = maxArgs;
+            this.command = command;
+        }
+    }
+
+    /**
+     * 订阅模式下允许执行的命令
+     */
+    private static final Set<String> SUBSCRIBED_COMMANDS = new HashSet<>(Arrays.asList(
+            "SUBSCRIBE", "PSUBSCRIBE", "UNSUBSCRIBE", "PUNSUBSCRIBE", "PING", "QUIT"));
+
+    /**
+     * 事务中直接执行而不是排队的命令
+     */
+    private static final Set<String> TRANSACTION_COMMANDS = new HashSet<>(Arrays.asList(
+            "EXEC", "DISCARD", "MULTI", "WATCH", "QUIT"));
+
+    private final Map<String, Spec> commands = new HashMap<>();
+    private final RedisDataStore store;
+    private final LuaScriptRegistry scripts;
+    private final PubSubRegistry pubSub = new PubSubRegistry();
+    private final Random random = new Random();
+
+    public RedisCommands(RedisDataStore store, LuaScriptRegistry scripts) {
+        this.store = store;
+        this.scripts = scripts;
+        registerConnection();
+        registerKeys();
+        registerStrings();
+        registerHashes();
+        registerLists();
+        registerSets();
+        registerZSets();
+        registerStreams();
+        registerScripting();
+        registerPubSub();
+        registerTransactions();
+    }
+
+    /**
+     * 登记命令
+     *
+     * @param name    ：命令名称
+     * @param minArgs ：最少参数个数
+     * @param maxArgs ：最多参数个数，-1 表示不限制
+     * @param command
+     */
+    public void register(String name, int minArgs, int maxArgs, Command command) {
+        commands.put(name.toUpperCase(Locale.ROOT), new Spec(minArgs, maxArgs, command));
+    }
+
+    /**
+     * 执行命令，命令错误以 {@link RespException} 返回而不是抛出
+     *
+     * @param session
+     * @param args    ：第一个为命令名称
+     * @return
+     */
+    public Object execute(ClientSession session, List<String> args) {
+        try {
+            String name = args.isEmpty() ? "" : args.get(0).toUpperCase(Locale.ROOT);
+            if (session.isSubscribed() && !SUBSCRIBED_COMMANDS.contains(name)) {
+                throw new RespException("ERR only (P)SUBSCRIBE / (P)UNSUBSCRIBE / PING / QUIT allowed in this context");
+            }
+            if (session.isInTransaction() && !TRANSACTION_COMMANDS.contains(name)) {
+                return queue(session, args);
+            }
+            return dispatch(session, args);
+        } catch (RespException e) {
+            return e;
+        } catch (RuntimeException e) {
+            return new RespException("ERR " + e);
+        }
+    }
+
+    /**
+     * 脚本中执行命令，相当于 Lua 中的 redis.call，参数可以是字符串、数字或者字符串集合(展开为多个参数)，出错时抛出异常
+     */
+    public Object call(ClientSession session, String name, Object... args) {
+        List<String> list = new ArrayList<>();
+        list.add(name);
+        for (Object arg : args) {
+            if (arg instanceof Collection) {
+                for (Object element : (Collection<?>) arg) {
+                    list.add(String.valueOf(element));
+                }
+            } else {
+                list.add(String.valueOf(arg));
+            }
+        }
+        return nonBlocking(dispatch(session, list));
+    }
+
+    public RedisDataStore getStore() {
+        return store;
+    }
+
+    /**
+     * 连接关闭时清理连接相关的状态
+     */
+    public void disconnect(ClientSession session) {
+        pubSub.removeAll(session);
+    }
+
+    private Object dispatch(ClientSession session, List<String> args) {
+        if (args.isEmpty()) {
+            throw new RespException("ERR empty command");
+        }
+        String name = args.get(0).toUpperCase(Locale.ROOT);
+        Spec spec = commands.get(name);
+        if (spec == null) {
+            throw new RespException("ERR unknown command '" + args.get(0) + "'");
+        }
+        List<String> params = args.subList(1, args.size());
+        if (params.size() < spec.minArgs || spec.maxArgs >= 0 && params.size() > spec.maxArgs) {
+            throw RespException.wrongArgs(name);
+        }
+        return spec.command.execute(session, params);
+    }
+
+    /**
+     * 脚本与事务中的阻塞命令不等待，没有数据时立即返回空
+     */
+    private static Object nonBlocking(Object reply) {
+        return reply instanceof Resp.Blocked ? Resp.NIL_ARRAY : reply;
+    }
+
+    private RedisDataStore.Database db(ClientSession session) {
+        return store.db(session.getDb());
+    }
+
+    // ------------------------------------------------------------------ 连接、服务端
+
+    private void registerConnection() {
+        register("PING", 0, 1, (s, a) -> {
+            if (s.isSubscribed()) {
+                return Arrays.asList("pong", a.isEmpty() ? "" : a.get(0));
+            }
+            return a.isEmpty() ? Resp.PONG : a.get(0);
+        });
+        register("ECHO", 1, 1, (s, a) -> a.get(0));
+        register("QUIT", 0, 0, (s, a) -> {
+            s.requestClose();
+            return Resp.OK;
+        });
+        // 不校验密码，方便使用带密码的配置连接
+        register("AUTH", 1, 1, (s, a) -> Resp.OK);
+        register("SELECT", 1, 1, (s, a) -> {
+            int index = toInt(a.get(0));
+            store.db(index);
+            s.setDb(index);
+            return Resp.OK;
+        });
+        register("CLIENT", 1, -1, (s, a) -> {
+            String sub = a.get(0).toUpperCase(Locale.ROOT);
+            if ("SETNAME".equals(sub) && a.size() == 2) {
+                s.setName(a.get(1));
+                return Resp.OK;
+            } else if ("GETNAME".equals(sub)) {
+                return s.getName();
+            } else if ("ID".equals(sub)) {
+                return s.getId();
+            } else if ("LIST".equals(sub)) {
+                return "id=" + s.getId() + " name=" + (s.getName() == null ? "" : s.getName()) + " db=" + s.getDb() + "\n";
+            }
+            throw RespException.syntax();
+        });
+        register("INFO", 0, 1, (s, a) -> "# Server\r\nredis_version:5.0.0\r\nredis_mode:standalone\r\nos:embedded\r\n"
+                + "# Replication\r\nrole:master\r\nconnected_slaves:0\r\n"
+                + "# Keyspace\r\ndb" + s.getDb() + ":keys=" + db(s).size() + ",expires=0,avg_ttl=0\r\n");
+        register("COMMAND", 0, -1, (s, a) -> Collections.emptyList());
+        // 没有可配置项：CONFIG GET 返回空，CONFIG SET 直接成功(如开启 notify-keyspace-events)
+        register("CONFIG", 1, -1, (s, a) -> "GET".equalsIgnoreCase(a.get(0)) ? Collections.emptyList() : Resp.OK);
+        register("DBSIZE", 0, 0, (s, a) -> (long) db(s).size());
+        register("FLUSHDB", 0, 1, (s, a) -> {
+            checkAsync(a);
+            db(s).flush();
+            return Resp.OK;
+        });
+        register("FLUSHALL", 0, 1, (s, a) -> {
+            checkAsync(a);
+            store.flushAll();
+            return Resp.OK;
+        });
+        register("TIME", 0, 0, (s, a) -> {
+            long micros = System.currentTimeMillis() * 1000;
+            return Arrays.asList(String.valueOf(micros / 1_000_000), String.valueOf(micros % 1_000_000));
+        });
+    }
+
+    private static void checkAsync(List<String> args) {
+        if (!args.isEmpty() && !"ASYNC".equalsIgnoreCase(args.get(0))) {
+            throw RespException.syntax();
+        }
+    }
+
+    // ------------------------------------------------------------------ key
+
+    private void registerKeys() {
+        Command delete = (s, a) -> {
+            long count = 0;
+            for (String key : a) {
+                if (db(s).remove(key)) {
+                    count++;
+                }
+            }
+            return count;
+        };
+        register("DEL", 1, -1, delete);
+        register("UNLINK", 1, -1, delete);
+        register("EXISTS", 1, -1, (s, a) -> {
+            long count = 0;
+            for (String key : a) {
+                if (db(s).exists(key)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        register("EXPIRE", 2, 2, (s, a) -> db(s).expireAt(a.get(0), System.currentTimeMillis() + toLong(a.get(1)) * 1000));
+        register("PEXPIRE", 2, 2, (s, a) -> db(s).expireAt(a.get(0), System.currentTimeMillis() + toLong(a.get(1))));
+        register("EXPIREAT", 2, 2, (s, a) -> db(s).expireAt(a.get(0), toLong(a.get(1)) * 1000));
+        register("PEXPIREAT", 2, 2, (s, a) -> db(s).expireAt(a.get(0), toLong(a.get(1))));
+        register("PERSIST", 1, 1, (s, a) -> db(s).persist(a.get(0)));
+        register("PTTL", 1, 1, (s, a) -> db(s).pttl(a.get(0)));
+        register("TTL", 1, 1, (s, a) -> {
+            long pttl = db(s).pttl(a.get(0));
+            return pttl < 0 ? pttl : (pttl + 500) / 1000;
+        });
+        register("TYPE", 1, 1, (s, a) -> new Resp.Status(db(s).type(a.get(0))));
+        register("RENAME", 2, 2, (s, a) -> {
+            db(s).rename(a.get(0), a.get(1));
+            return Resp.OK;
+        });
+        register("RENAMENX", 2, 2, (s, a) -> {
+            if (db(s).exists(a.get(1))) {
+                if (!db(s).exists(a.get(0))) {
+                    throw new RespException("ERR no such key");
+                }
+                return 0L;
+            }
+            db(s).rename(a.get(0), a.get(1));
+            return 1L;
+        });
+        register("KEYS", 1, 1, (s, a) -> {
+            List<String> keys = new ArrayList<>();
+            for (String key : db(s).keys()) {
+                if (GlobPattern.matches(a.get(0), key)) {
+                    keys.add(key);
+                }
+            }
+            return keys;
+        });
+        register("RANDOMKEY", 0, 0, (s, a) -> {
+            List<String> keys = db(s).keys();
+            return keys.isEmpty() ? null : keys.get(new Random().nextInt(keys.size()));
+        });
+        register("SCAN", 1, -1, (s, a) -> {
+            ScanOptions options = ScanOptions.parse(a, 1);
+            List<String> keys = db(s).keys();
+            List<String> page = new ArrayList<>();
+            int cursor = toInt(a.get(0));
+            int next = cursor;
+            while (next < keys.size() && next - cursor < options.count) {
+                String key = keys.get(next++);
+                if (options.matches(key) && (options.type == null || options.type.equalsIgnoreCase(db(s).type(key)))) {
+                    page.add(key);
+                }
+            }
+            return Arrays.asList(next >= keys.size() ? "0" : String.valueOf(next), page);
+        });
+    }
+
+    // ------------------------------------------------------------------ 字符串
+
+    private void registerStrings() {
+        register("GET", 1, 1, (s, a) -> db(s).getString(a.get(0)));
+        register("SET", 2, -1, (s, a) -> {
+            String key = a.get(0);
+            long expireAt = 0;
+            boolean nx = false;
+            boolean xx = false;
+            for (int i = 2; i < a.size(); i++) {
+                String option = a.get(i).toUpperCase(Locale.ROOT);
+                if ("NX".equals(option)) {
+                    nx = true;
+                } else if ("XX".equals(option)) {
+                    xx = true;
+                } else if (("EX".equals(option) || "PX".equals(option)) && i + 1 < a.size()) {
+                    long time = toLong(a.get(++i));
+                    if (time <= 0) {
+                        throw new RespException("ERR invalid expire time in set");
+                    }
+                    expireAt = System.currentTimeMillis() + ("EX".equals(option) ? time * 1000 : time);
+                } else {
+                    throw RespException.syntax();
+                }
+            }
+            boolean exists = db(s).exists(key);
+            if (nx && exists || xx && !exists) {
+                return null;
+            }
+            db(s).setString(key, a.get(1));
+            if (expireAt > 0) {
+                db(s).expireAt(key, expireAt);
+            }
+            return Resp.OK;
+        });
+        register("SETNX", 2, 2, (s, a) -> {
+            if (db(s).exists(a.get(0))) {
+                return 0L;
+            }
+            db(s).setString(a.get(0), a.get(1));
+            return 1L;
+        });
+        register("SETEX", 3, 3, (s, a) -> call(s, "SET", a.get(0), a.get(2), "EX", a.get(1)));
+        register("PSETEX", 3, 3, (s, a) -> call(s, "SET", a.get(0), a.get(2), "PX", a.get(1)));
+        register("GETSET", 2, 2, (s, a) -> {
+            String old = db(s).getString(a.get(0));
+            db(s).setString(a.get(0), a.get(1));
+            return old;
+        });
+        register("MGET", 1, -1, (s, a) -> {
+            List<String> values = new ArrayList<>(a.size());
+            for (String key : a) {
+                Object value = db(s).get(key);
+                values.add(value instanceof String ? (String) value : null);
+            }
+            return values;
+        });
+        register("MSET", 2, -1, (s, a) -> {
+            checkPairs(a, "MSET");
+            for (int i = 0; i < a.size(); i += 2) {
+                db(s).setString(a.get(i), a.get(i + 1));
+            }
+            return Resp.OK;
+        });
+        register("MSETNX", 2, -1, (s, a) -> {
+            checkPairs(a, "MSETNX");
+            for (int i = 0; i < a.size(); i += 2) {
+                if (db(s).exists(a.get(i))) {
+                    return 0L;
+                }
+            }
+            for (int i = 0; i < a.size(); i += 2) {
+                db(s).setString(a.get(i), a.get(i + 1));
+            }
+            return 1L;
+        });
+        register("APPEND", 2, 2, (s, a) -> {
+            String old = db(s).getString(a.get(0));
+            String value = old == null ? a.get(1) : old + a.get(1);
+            db(s).replace(a.get(0), value);
+            return (long) value.length();
+        });
+        register("STRLEN", 1, 1, (s, a) -> {
+            String value = db(s).getString(a.get(0));
+            return value == null ? 0L : (long) value.length();
+        });
+        Command getRange = (s, a) -> {
+            String value = db(s).getString(a.get(0));
+            if (value == null) {
+                return "";
+            }
+            int[] range = range(toLong(a.get(1)), toLong(a.get(2)), value.length());
+            return range == null ? "" : value.substring(range[0], range[1] + 1);
+        };
+        register("GETRANGE", 3, 3, getRange);
+        // Jedis 2.9 的 getrange 发送的是旧命令 SUBSTR
+        register("SUBSTR", 3, 3, getRange);
+        register("INCR", 1, 1, (s, a) -> incrBy(s, a.get(0), 1));
+        register("DECR", 1, 1, (s, a) -> incrBy(s, a.get(0), -1));
+        register("INCRBY", 2, 2, (s, a) -> incrBy(s, a.get(0), toLong(a.get(1))));
+        register("DECRBY", 2, 2, (s, a) -> incrBy(s, a.get(0), -toLong(a.get(1))));
+        register("INCRBYFLOAT", 2, 2, (s, a) -> {
+            String old = db(s).getString(a.get(0));
+            double value = (old == null ? 0 : toDouble(old)) + toDouble(a.get(1));
+            String result = Resp.formatDouble(value);
+            db(s).replace(a.get(0), result);
+            return result;
+        });
+    }
+
+    private long incrBy(ClientSession session, String key, long delta) {
+        String old = db(session).getString(key);
+        long value = (old == null ? 0 : toLong(old)) + delta;
+        db(session).replace(key, String.valueOf(value));
+        return value;
+    }
+
+    // ------------------------------------------------------------------ hash
+
+    private void registerHashes() {
+        register("HSET", 3, -1, (s, a) -> {
+            checkPairs(a.subList(1, a.size()), "HSET");
+            Map<String, String> hash = db(s).getOrCreateHash(a.get(0));
+            long added = 0;
+            for (int i = 1; i < a.size(); i += 2) {
+                if (hash.put(a.get(i), a.get(i + 1)) == null) {
+                    added++;
+                }
+            }
+            return added;
+        });
+        register("HMSET", 3, -1, (s, a) -> {
+            call(s, "HSET", a);
+            return Resp.OK;
+        });
+        register("HSETNX", 3, 3, (s, a) -> {
+            Map<String, String> hash = db(s).getOrCreateHash(a.get(0));
+            if (hash.containsKey(a.get(1))) {
+                return 0L;
+            }
+            hash.put(a.get(1), a.get(2));
+            return 1L;
+        });
+        register("HGET", 2, 2, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            return hash == null ? null : hash.get(a.get(1));
+        });
+        register("HMGET", 2, -1, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            List<String> values = new ArrayList<>(a.size() - 1);
+            for (String field : a.subList(1, a.size())) {
+                values.add(hash == null ? null : hash.get(field));
+            }
+            return values;
+        });
+        register("HGETALL", 1, 1, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            return hash == null ? Collections.emptyMap() : new LinkedHashMap<>(hash);
+        });
+        register("HKEYS", 1, 1, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            return hash == null ? Collections.emptyList() : new ArrayList<>(hash.keySet());
+        });
+        register("HVALS", 1, 1, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            return hash == null ? Collections.emptyList() : new ArrayList<>(hash.values());
+        });
+        register("HLEN", 1, 1, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            return hash == null ? 0L : (long) hash.size();
+        });
+        register("HEXISTS", 2, 2, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            return hash != null && hash.containsKey(a.get(1));
+        });
+        register("HSTRLEN", 2, 2, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            String value = hash == null ? null : hash.get(a.get(1));
+            return value == null ? 0L : (long) value.length();
+        });
+        register("HDEL", 2, -1, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            if (hash == null) {
+                return 0L;
+            }
+            long removed = 0;
+            for (String field : a.subList(1, a.size())) {
+                if (hash.remove(field) != null) {
+                    removed++;
+                }
+            }
+            db(s).removeIfEmpty(a.get(0));
+            return removed;
+        });
+        register("HINCRBY", 3, 3, (s, a) -> {
+            Map<String, String> hash = db(s).getOrCreateHash(a.get(0));
+            String old = hash.get(a.get(1));
+            long value = (old == null ? 0 : toLong(old)) + toLong(a.get(2));
+            hash.put(a.get(1), String.valueOf(value));
+            return value;
+        });
+        register("HINCRBYFLOAT", 3, 3, (s, a) -> {
+            Map<String, String> hash = db(s).getOrCreateHash(a.get(0));
+            String old = hash.get(a.get(1));
+            String value = Resp.formatDouble((old == null ? 0 : toDouble(old)) + toDouble(a.get(2)));
+            hash.put(a.get(1), value);
+            return value;
+        });
+        register("HSCAN", 2, -1, (s, a) -> {
+            Map<String, String> hash = db(s).getHash(a.get(0));
+            List<String> flat = new ArrayList<>();
+            if (hash != null) {
+                hash.forEach((field, value) -> {
+                    flat.add(field);
+                    flat.add(value);
+                });
+            }
+            return scanPairs(flat, a.get(1), ScanOptions.parse(a, 2));
+        });
+    }
+
+    // ------------------------------------------------------------------ 列表
+
+    private void registerLists() {
+        register("LPUSH", 2, -1, (s, a) -> {
+            List<String> list = db(s).getOrCreateList(a.get(0));
+            for (String value : a.subList(1, a.size())) {
+                list.add(0, value);
+            }
+            return (long) list.size();
+        });
+        register("RPUSH", 2, -1, (s, a) -> {
+            List<String> list = db(s).getOrCreateList(a.get(0));
+            list.addAll(a.subList(1, a.size()));
+            return (long) list.size();
+        });
+        register("LPUSHX", 2, -1, (s, a) -> db(s).getList(a.get(0)) == null ? 0L : call(s, "LPUSH", a));
+        register("RPUSHX", 2, -1, (s, a) -> db(s).getList(a.get(0)) == null ? 0L : call(s, "RPUSH", a));
+        register("LINSERT", 4, 4, (s, a) -> {
+            List<String> list = db(s).getList(a.get(0));
+            if (list == null) {
+                return 0L;
+            }
+            String where = a.get(1).toUpperCase(Locale.ROOT);
+            if (!"BEFORE".equals(where) && !"AFTER".equals(where)) {
+                throw RespException.syntax();
+            }
+            int index = list.indexOf(a.get(2));
+            if (index < 0) {
+                return -1L;
+            }
+            list.add("BEFORE".equals(where) ? index : index + 1, a.get(3));
+            return (long) list.size();
+        });
+        register("LLEN", 1, 1, (s, a) -> {
+            List<String> list = db(s).getList(a.get(0));
+            return list == null ? 0L : (long) list.size();
+        });
+        register("LRANGE", 3, 3, (s, a) -> {
+            List<String> list = db(s).getList(a.get(0));
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            int[] range = range(toLong(a.get(1)), toLong(a.get(2)), list.size());
+            return range == null ? Collections.emptyList() : new ArrayList<>(list.subList(range[0], range[1] + 1));
+        });
+        register("LINDEX", 2, 2, (s, a) -> {
+            List<String> list = db(s).getList(a.get(0));
+            if (list == null) {
+                return null;
+            }
+            long index = toLong(a.get(1));
+            index = index < 0 ? list.size() + index : index;
+            return index < 0 || index >= list.size() ? null : list.get((int) index);
+        });
+        register("LSET", 3, 3, (s, a) -> {
+            List<String> list = db(s).getList(a.get(0));
+            if (list == null) {
+                throw new RespException("ERR no such key");
+            }
+            long index = toLong(a.get(1));
+            index = index < 0 ? list.size() + index : index;
+            if (index < 0 || index >= list.size()) {
+                throw new RespException("ERR index out of range");
+            }
+            list.set((int) index, a.get(2));
+            return Resp.OK;
+        });
+        register("LREM", 3, 3, (s, a) -> {
+            List<String> list = db(s).getList(a.get(0));
+            if (list == null) {
+                return 0L;
+            }
+            long count = toLong(a.get(1));
+            String value = a.get(2);
+            long removed = 0;
+            if (count >= 0) {
+                for (Iterator<String> iterator = list.iterator(); iterator.hasNext() && (count == 0 || removed < count); ) {
+                    if (iterator.next().equals(value)) {
+                        iterator.remove();
+                        removed++;
+                    }
+                }
+            } else {
+                for (ListIterator<String> iterator = list.listIterator(list.size()); iterator.hasPrevious() && removed < -count; ) {
+                    if (iterator.previous().equals(value)) {
+                        iterator.remove();
+                        removed++;
+                    }
+                }
+            }
+            db(s).removeIfEmpty(a.get(0));
+            return removed;
+        });
+        register("LPOP", 1, 1, (s, a) -> pop(s, a.get(0), true));
+        register("RPOP", 1, 1, (s, a) -> pop(s, a.get(0), false));
+        register("LTRIM", 3, 3, (s, a) -> {
+            List<String> list = db(s).getList(a.get(0));
+            if (list == null) {
+                return Resp.OK;
+            }
+            int[] range = range(toLong(a.get(1)), toLong(a.get(2)), list.size());
+            List<String> kept = range == null ? Collections.emptyList() : new ArrayList<>(list.subList(range[0], range[1] + 1));
+            list.clear();
+            list.addAll(kept);
+            db(s).removeIfEmpty(a.get(0));
+            return Resp.OK;
+        });
+    }
+
+    private String pop(ClientSession session, String key, boolean left) {
+        List<String> list = db(session).getList(key);
+        if (list == null || list.isEmpty()) {
+            return null;
+        }
+        String value = left ? list.remove(0) : list.remove(list.size() - 1);
+        db(session).removeIfEmpty(key);
+        return value;
+    }
+
+    // ------------------------------------------------------------------ 集合
+
+    private void registerSets() {
+        register("SADD", 2, -1, (s, a) -> {
+            Set<String> set = db(s).getOrCreateSet(a.get(0));
+            long added = 0;
+            for (String member : a.subList(1, a.size())) {
+                if (set.add(member)) {
+                    added++;
+                }
+            }
+            return added;
+        });
+        register("SREM", 2, -1, (s, a) -> {
+            Set<String> set = db(s).getSet(a.get(0));
+            if (set == null) {
+                return 0L;
+            }
+            long removed = 0;
+            for (String member : a.subList(1, a.size())) {
+                if (set.remove(member)) {
+                    removed++;
+                }
+            }
+            db(s).removeIfEmpty(a.get(0));
+            return removed;
+        });
+        register("SMEMBERS", 1, 1, (s, a) -> members(s, a.get(0)));
+        register("SCARD", 1, 1, (s, a) -> (long) members(s, a.get(0)).size());
+        register("SISMEMBER", 2, 2, (s, a) -> members(s, a.get(0)).contains(a.get(1)));
+        register("SPOP", 1, 2, (s, a) -> {
+            Set<String> set = db(s).getSet(a.get(0));
+            if (a.size() == 1) {
+                List<String> popped = popMembers(s, set, 1);
+                db(s).removeIfEmpty(a.get(0));
+                return popped.isEmpty() ? null : popped.get(0);
+            }
+            long count = toLong(a.get(1));
+            if (count < 0) {
+                throw new RespException("ERR index out of range");
+            }
+            List<String> popped = popMembers(s, set, count);
+            db(s).removeIfEmpty(a.get(0));
+            return popped;
+        });
+        register("SRANDMEMBER", 1, 2, (s, a) -> {
+            List<String> members = new ArrayList<>(members(s, a.get(0)));
+            if (a.size() == 1) {
+                return members.isEmpty() ? null : members.get(random.nextInt(members.size()));
+            }
+            long count = toLong(a.get(1));
+            if (members.isEmpty()) {
+                return Collections.emptyList();
+            }
+            if (count < 0) {
+                // 负数：允许重复，返回 |count| 个
+                List<String> result = new ArrayList<>();
+                for (long i = 0; i < -count; i++) {
+                    result.add(members.get(random.nextInt(members.size())));
+                }
+                return result;
+            }
+            Collections.shuffle(members, random);
+            return members.subList(0, (int) Math.min(count, members.size()));
+        });
+        register("SMOVE", 3, 3, (s, a) -> {
+            Set<String> source = db(s).getSet(a.get(0));
+            db(s).getSet(a.get(1));
+            if (source == null || !source.remove(a.get(2))) {
+                return 0L;
+            }
+            db(s).removeIfEmpty(a.get(0));
+            db(s).getOrCreateSet(a.get(1)).add(a.get(2));
+            return 1L;
+        });
+        register("SINTER", 1, -1, (s, a) -> new ArrayList<>(combine(s, a, "SINTER")));
+        register("SUNION", 1, -1, (s, a) -> new ArrayList<>(combine(s, a, "SUNION")));
+        register("SDIFF", 1, -1, (s, a) -> new ArrayList<>(combine(s, a, "SDIFF")));
+        register("SINTERSTORE", 2, -1, (s, a) -> storeSet(s, a.get(0), combine(s, a.subList(1, a.size()), "SINTER")));
+        register("SUNIONSTORE", 2, -1, (s, a) -> storeSet(s, a.get(0), combine(s, a.subList(1, a.size()), "SUNION")));
+        register("SDIFFSTORE", 2, -1, (s, a) -> storeSet(s, a.get(0), combine(s, a.subList(1, a.size()), "SDIFF")));
+        register("SSCAN", 2, -1, (s, a) -> {
+            List<String> flat = new ArrayList<>();
+            for (String member : members(s, a.get(0))) {
+                flat.add(member);
+                flat.add(null);
+            }
+            List<Object> page = scanPairs(flat, a.get(1), ScanOptions.parse(a, 2));
+            // SSCAN 只返回成员
+            List<Object> members = new ArrayList<>();
+            for (Object member : (List<?>) page.get(1)) {
+                if (member != null) {
+                    members.add(member);
+                }
+            }
+            return Arrays.asList(page.get(0), members);
+        });
+    }
+
+    private Set<String> members(ClientSession session, String key) {
+        Set<String> set = db(session).getSet(key);
+        return set == null ? Collections.emptySet() : set;
+    }
+
+    private List<String> popMembers(ClientSession session, Set<String> set, long count) {
+        List<String> popped = new ArrayList<>();
+        if (set == null) {
+            return popped;
+        }
+        List<String> members = new ArrayList<>(set);
+        Collections.shuffle(members, random);
+        for (String member : members.subList(0, (int) Math.min(count, members.size()))) {
+            set.remove(member);
+            popped.add(member);
+        }
+        return popped;
+    }
+
+    private Set<String> combine(ClientSession session, List<String> keys, String operation) {
+        Set<String> result = new LinkedHashSet<>(members(session, keys.get(0)));
+        for (String key : keys.subList(1, keys.size())) {
+            Set<String> other = members(session, key);
+            if ("SINTER".equals(operation)) {
+                result.retainAll(other);
+            } else if ("SUNION".equals(operation)) {
+                result.addAll(other);
+            } else {
+                result.removeAll(other);
+            }
+        }
+        return result;
+    }
+
+    private long storeSet(ClientSession session, String destination, Set<String> members) {
+        db(session).remove(destination);
+        if (!members.isEmpty()) {
+            db(session).getOrCreateSet(destination).addAll(members);
+        }
+        return members.size();
+    }
+
+    // ------------------------------------------------------------------ 有序集合
+
+    private void registerZSets() {
+        register("ZADD", 3, -1, (s, a) -> {
+            int index = 1;
+            boolean nx = false;
+            boolean xx = false;
+            boolean ch = false;
+            while (index < a.size()) {
+                String option = a.get(index).toUpperCase(Locale.ROOT);
+                if ("NX".equals(option)) {
+                    nx = true;
+                } else if ("XX".equals(option)) {
+                    xx = true;
+                } else if ("CH".equals(option)) {
+                    ch = true;
+                } else {
+                    break;
+                }
+                index++;
+            }
+            List<String> pairs = a.subList(index, a.size());
+            if (pairs.isEmpty() || pairs.size() % 2 != 0) {
+                throw RespException.syntax();
+            }
+            RedisDataStore.ZSet zset = db(s).getOrCreateZSet(a.get(0));
+            long changed = 0;
+            for (int i = 0; i < pairs.size(); i += 2) {
+                double score = toDouble(pairs.get(i));
+                String member = pairs.get(i + 1);
+                Double old = zset.score(member);
+                if (nx && old != null || xx && old == null) {
+                    continue;
+                }
+                zset.add(member, score);
+                if (old == null || ch && old != score) {
+                    changed++;
+                }
+            }
+            db(s).removeIfEmpty(a.get(0));
+            return changed;
+        });
+        register("ZINCRBY", 3, 3, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getOrCreateZSet(a.get(0));
+            Double old = zset.score(a.get(2));
+            double score = (old == null ? 0 : old) + toDouble(a.get(1));
+            zset.add(a.get(2), score);
+            return score;
+        });
+        register("ZCARD", 1, 1, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getZSet(a.get(0));
+            return zset == null ? 0L : (long) zset.size();
+        });
+        register("ZSCORE", 2, 2, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getZSet(a.get(0));
+            return zset == null ? null : zset.score(a.get(1));
+        });
+        register("ZRANK", 2, 2, (s, a) -> rank(s, a.get(0), a.get(1), false));
+        register("ZREVRANK", 2, 2, (s, a) -> rank(s, a.get(0), a.get(1), true));
+        register("ZRANGE", 3, 4, (s, a) -> zrange(s, a, false));
+        register("ZREVRANGE", 3, 4, (s, a) -> zrange(s, a, true));
+        register("ZRANGEBYSCORE", 3, -1, (s, a) -> zrangeByScore(s, a, false));
+        register("ZREVRANGEBYSCORE", 3, -1, (s, a) -> zrangeByScore(s, a, true));
+        register("ZCOUNT", 3, 3, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getZSet(a.get(0));
+            if (zset == null) {
+                return 0L;
+            }
+            ScoreRange range = new ScoreRange(a.get(1), a.get(2));
+            return zset.entries().stream().filter(entry -> range.contains(entry.getValue())).count();
+        });
+        register("ZREM", 2, -1, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getZSet(a.get(0));
+            if (zset == null) {
+                return 0L;
+            }
+            long removed = 0;
+            for (String member : a.subList(1, a.size())) {
+                if (zset.remove(member)) {
+                    removed++;
+                }
+            }
+            db(s).removeIfEmpty(a.get(0));
+            return removed;
+        });
+        register("ZREMRANGEBYSCORE", 3, 3, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getZSet(a.get(0));
+            if (zset == null) {
+                return 0L;
+            }
+            ScoreRange range = new ScoreRange(a.get(1), a.get(2));
+            long removed = 0;
+            for (Map.Entry<String, Double> entry : zset.entries()) {
+                if (range.contains(entry.getValue()) && zset.remove(entry.getKey())) {
+                    removed++;
+                }
+            }
+            db(s).removeIfEmpty(a.get(0));
+            return removed;
+        });
+        register("ZSCAN", 2, -1, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getZSet(a.get(0));
+            List<String> flat = new ArrayList<>();
+            if (zset != null) {
+                for (Map.Entry<String, Double> entry : zset.entries()) {
+                    flat.add(entry.getKey());
+                    flat.add(Resp.formatDouble(entry.getValue()));
+                }
+            }
+            return scanPairs(flat, a.get(1), ScanOptions.parse(a, 2));
+        });
+        register("ZREMRANGEBYRANK", 3, 3, (s, a) -> {
+            RedisDataStore.ZSet zset = db(s).getZSet(a.get(0));
+            if (zset == null) {
+                return 0L;
+            }
+            List<Map.Entry<String, Double>> entries = zset.entries();
+            int[] range = range(toLong(a.get(1)), toLong(a.get(2)), entries.size());
+            long removed = 0;
+            if (range != null) {
+                for (Map.Entry<String, Double> entry : entries.subList(range[0], range[1] + 1)) {
+                    zset.remove(entry.getKey());
+                    removed++;
+                }
+            }
+            db(s).removeIfEmpty(a.get(0));
+            return removed;
+        });
+    }
+
+    private Long rank(ClientSession session, String key, String member, boolean reverse) {
+        RedisDataStore.ZSet zset = db(session).getZSet(key);
+        if (zset == null || zset.score(member) == null) {
+            return null;
+        }
+        List<Map.Entry<String, Double>> entries = zset.entries();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).getKey().equals(member)) {
+                return (long) (reverse ? entries.size() - 1 - i : i);
+            }
+        }
+        return null;
+    }
+
+    private List<Object> zrange(ClientSession session, List<String> args, boolean reverse) {
+        boolean withScores = args.size() == 4;
+        if (withScores && !"WITHSCORES".equalsIgnoreCase(args.get(3))) {
+            throw RespException.syntax();
+        }
+        RedisDataStore.ZSet zset = db(session).getZSet(args.get(0));
+        if (zset == null) {
+            return Collections.emptyList();
+        }
+        List<Map.Entry<String, Double>> entries = zset.entries();
+        if (reverse) {
+            Collections.reverse(entries);
+        }
+        int[] range = range(toLong(args.get(1)), toLong(args.get(2)), entries.size());
+        return range == null ? Collections.emptyList() : flatten(entries.subList(range[0], range[1] + 1), withScores);
+    }
+
+    private List<Object> zrangeByScore(ClientSession session, List<String> args, boolean reverse) {
+        boolean withScores = false;
+        long offset = 0;
+        long count = -1;
+        for (int i = 3; i < args.size(); i++) {
+            String option = args.get(i).toUpperCase(Locale.ROOT);
+            if ("WITHSCORES".equals(option)) {
+                withScores = true;
+            } else if ("LIMIT".equals(option) && i + 2 < args.size()) {
+                offset = toLong(args.get(++i));
+                count = toLong(args.get(++i));
+            } else {
+                throw RespException.syntax();
+            }
+        }
+        RedisDataStore.ZSet zset = db(session).getZSet(args.get(0));
+        if (zset == null) {
+            return Collections.emptyList();
+        }
+        // ZREVRANGEBYSCORE 的参数顺序是 max min
+        ScoreRange range = reverse ? new ScoreRange(args.get(2), args.get(1)) : new ScoreRange(args.get(1), args.get(2));
+        List<Map.Entry<String, Double>> entries = zset.entries();
+        if (reverse) {
+            Collections.reverse(entries);
+        }
+        List<Map.Entry<String, Double>> matched = new ArrayList<>();
+        long skipped = 0;
+        for (Map.Entry<String, Double> entry : entries) {
+            if (!range.contains(entry.getValue())) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            if (count >= 0 && matched.size() >= count) {
+                break;
+            }
+            matched.add(entry);
+        }
+        return flatten(matched, withScores);
+    }
+
+    private static List<Object> flatten(List<Map.Entry<String, Double>> entries, boolean withScores) {
+        List<Object> result = new ArrayList<>(entries.size() * (withScores ? 2 : 1));
+        for (Map.Entry<String, Double> entry : entries) {
+            result.add(entry.getKey());
+            if (withScores) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 分值区间，支持 -inf、+inf 以及 ( 开区间
+     */
+    private static class ScoreRange {
+        private final double min;
+        private final double max;
+        private final boolean minExclusive;
+        private final boolean maxExclusive;
+
+        ScoreRange(String min, String max) {
+            this.minExclusive = min.startsWith("(");
+            this.maxExclusive = max.startsWith("(");
+            this.min = toDouble(minExclusive ? min.substring(1) : min);
+            this.max = toDouble(maxExclusive ? max.substring(1) : max);
+        }
+
+        boolean contains(double score) {
+            return (minExclusive ? score > min : score >= min) && (maxExclusive ? score < max : score <= max);
+        }
+    }
+
+    // ------------------------------------------------------------------ 流
+
+    private void registerStreams() {
+        register("XADD", 4, -1, (s, a) -> {
+            int index = 1;
+            long maxLen = -1;
+            if ("MAXLEN".equalsIgnoreCase(a.get(index))) {
+                index++;
+                // ~ 表示近似裁剪，这里按精确裁剪处理
+                if ("~".equals(a.get(index)) || "=".equals(a.get(index))) {
+                    index++;
+                }
+                maxLen = toLong(a.get(index++));
+            }
+            String id = a.get(index++);
+            List<String> fields = a.subList(index, a.size());
+            if (fields.isEmpty() || fields.size() % 2 != 0) {
+                throw RespException.wrongArgs("XADD");
+            }
+            RedisDataStore.Stream stream = db(s).getOrCreateStream(a.get(0));
+            RedisDataStore.StreamId added = stream.add("*".equals(id) ? null : RedisDataStore.StreamId.parse(id, 0), fields);
+            if (maxLen >= 0) {
+                stream.trim(maxLen);
+            }
+            return added.toString();
+        });
+        register("XLEN", 1, 1, (s, a) -> {
+            RedisDataStore.Stream stream = db(s).getStream(a.get(0));
+            return stream == null ? 0L : (long) stream.size();
+        });
+        register("XRANGE", 3, 5, (s, a) -> xrange(s, a, false));
+        register("XREVRANGE", 3, 5, (s, a) -> xrange(s, a, true));
+        register("XDEL", 2, -1, (s, a) -> {
+            RedisDataStore.Stream stream = db(s).getStream(a.get(0));
+            long removed = 0;
+            for (String id : a.subList(1, a.size())) {
+                if (stream != null && stream.remove(RedisDataStore.StreamId.parse(id, 0))) {
+                    removed++;
+                }
+            }
+            return removed;
+        });
+        register("XTRIM", 3, 4, (s, a) -> {
+            if (!"MAXLEN".equalsIgnoreCase(a.get(1))) {
+                throw RespException.syntax();
+            }
+            RedisDataStore.Stream stream = db(s).getStream(a.get(0));
+            return stream == null ? 0L : stream.trim(toLong(a.get(a.size() - 1)));
+        });
+        registerConsumerGroups();
+    }
+
+    /**
+     * 消费组：XGROUP、XREADGROUP(支持 BLOCK，见 {@link Resp.Blocked})、XACK、XPENDING、XCLAIM
+     */
+    private void registerConsumerGroups() {
+        register("XGROUP", 2, -1, (s, a) -> {
+            String sub = a.get(0).toUpperCase(Locale.ROOT);
+            String key = a.get(1);
+            if ("CREATE".equals(sub) && (a.size() == 4 || a.size() == 5)) {
+                RedisDataStore.Stream stream = db(s).getStream(key);
+                if (stream == null) {
+                    if (a.size() != 5 || !"MKSTREAM".equalsIgnoreCase(a.get(4))) {
+                        throw new RespException("ERR The XGROUP subcommand requires the key to exist. "
+                                + "Note that for CREATE you may want to use the MKSTREAM option to create an empty stream automatically.");
+                    }
+                    stream = db(s).getOrCreateStream(key);
+                }
+                String id = a.get(3);
+                if (!stream.createGroup(a.get(2), "$".equals(id) ? stream.getLastId() : RedisDataStore.StreamId.parse(id, 0))) {
+                    throw new RespException("BUSYGROUP Consumer Group name already exists");
+                }
+                return Resp.OK;
+            } else if ("DESTROY".equals(sub) && a.size() == 3) {
+                RedisDataStore.Stream stream = db(s).getStream(key);
+                return stream != null && stream.removeGroup(a.get(2)) ? 1L : 0L;
+            } else if ("DELCONSUMER".equals(sub) && a.size() == 4) {
+                return group(s, key, a.get(2), "XGROUP").removeConsumer(a.get(3));
+            }
+            throw RespException.syntax();
+        });
+        register("XREADGROUP", 6, -1, (s, a) -> {
+            if (!"GROUP".equalsIgnoreCase(a.get(0))) {
+                throw RespException.syntax();
+            }
+            String groupName = a.get(1);
+            String consumer = a.get(2);
+            long count = -1;
+            long block = -1;
+            int index = 3;
+            for (; index < a.size(); index++) {
+                String option = a.get(index).toUpperCase(Locale.ROOT);
+                if ("COUNT".equals(option) && index + 1 < a.size()) {
+                    count = toLong(a.get(++index));
+                } else if ("BLOCK".equals(option) && index + 1 < a.size()) {
+                    block = toLong(a.get(++index));
+                } else if ("NOACK".equals(option)) {
+                    throw new RespException("ERR NOACK is not supported by the embedded server");
+                } else if ("STREAMS".equals(option)) {
+                    break;
+                } else {
+                    throw RespException.syntax();
+                }
+            }
+            List<String> streams = a.subList(index + 1, a.size());
+            if (index >= a.size() || streams.isEmpty() || streams.size() % 2 != 0) {
+                throw RespException.syntax();
+            }
+            int keys = streams.size() / 2;
+            List<Object> result = new ArrayList<>();
+            boolean newOnly = true;
+            for (int i = 0; i < keys; i++) {
+                String key = streams.get(i);
+                String id = streams.get(keys + i);
+                RedisDataStore.Stream stream = db(s).getStream(key);
+                RedisDataStore.ConsumerGroup group = group(s, key, groupName, "XREADGROUP");
+                group.touch(consumer);
+                Map<RedisDataStore.StreamId, List<String>> entries = new LinkedHashMap<>();
+                if (">".equals(id)) {
+                    for (Map.Entry<RedisDataStore.StreamId, List<String>> entry
+                            : stream.range(group.getLastDeliveredId(), RedisDataStore.StreamId.MAX).entrySet()) {
+                        if (count >= 0 && entries.size() >= count) {
+                            break;
+                        }
+                        if (entry.getKey().equals(group.getLastDeliveredId())) {
+                            continue;
+                        }
+                        entries.put(entry.getKey(), entry.getValue());
+                        group.deliver(entry.getKey(), consumer, true);
+                        group.setLastDeliveredId(entry.getKey());
+                    }
+                    if (entries.isEmpty()) {
+                        continue;
+                    }
+                } else {
+                    // 本消费者已投递未确认的消息，已经删除的消息回复 [id, nil]
+                    newOnly = false;
+                    RedisDataStore.StreamId start = RedisDataStore.StreamId.parse(id, 0);
+                    for (Map.Entry<RedisDataStore.StreamId, RedisDataStore.PendingEntry> entry : group.getPending().tailMap(start, false).entrySet()) {
+                        if (count >= 0 && entries.size() >= count) {
+                            break;
+                        }
+                        if (entry.getValue().getConsumer().equals(consumer)) {
+                            entries.put(entry.getKey(), stream.get(entry.getKey()));
+                        }
+                    }
+                }
+                result.add(Arrays.asList(key, streamEntries(entries, -1)));
+            }
+            if (result.isEmpty() && newOnly) {
+                return block >= 0 ? new Resp.Blocked(block) : Resp.NIL_ARRAY;
+            }
+            return result;
+        });
+        register("XACK", 3, -1, (s, a) -> {
+            RedisDataStore.Stream stream = db(s).getStream(a.get(0));
+            RedisDataStore.ConsumerGroup group = stream == null ? null : stream.getGroup(a.get(1));
+            long acked = 0;
+            for (String id : a.subList(2, a.size())) {
+                if (group != null && group.getPending().remove(RedisDataStore.StreamId.parse(id, 0)) != null) {
+                    acked++;
+                }
+            }
+            return acked;
+        });
+        register("XPENDING", 2, 6, (s, a) -> {
+            RedisDataStore.ConsumerGroup group = group(s, a.get(0), a.get(1), "XPENDING");
+            NavigableMap<RedisDataStore.StreamId, RedisDataStore.PendingEntry> pending = group.getPending();
+            if (a.size() == 2) {
+                if (pending.isEmpty()) {
+                    return Arrays.asList(0L, null, null, null);
+                }
+                Map<String, Long> consumers = new TreeMap<>();
+                pending.values().forEach(entry -> consumers.merge(entry.getConsumer(), 1L, Long::sum));
+                List<Object> counts = new ArrayList<>();
+                consumers.forEach((consumer, number) -> counts.add(Arrays.asList(consumer, String.valueOf(number))));
+                return Arrays.asList((long) pending.size(), pending.firstKey().toString(), pending.lastKey().toString(), counts);
+            }
+            if (a.size() < 5) {
+                throw RespException.syntax();
+            }
+            RedisDataStore.StreamId start = RedisDataStore.StreamId.parse(a.get(2), 0);
+            RedisDataStore.StreamId end = RedisDataStore.StreamId.parse(a.get(3), -1);
+            long count = toLong(a.get(4));
+            String consumer = a.size() == 6 ? a.get(5) : null;
+            List<Object> result = new ArrayList<>();
+            if (start.compareTo(end) > 0) {
+                return result;
+            }
+            for (Map.Entry<RedisDataStore.StreamId, RedisDataStore.PendingEntry> entry : pending.subMap(start, true, end, true).entrySet()) {
+                if (result.size() >= count) {
+                    break;
+                }
+                RedisDataStore.PendingEntry value = entry.getValue();
+                if (consumer == null || consumer.equals(value.getConsumer())) {
+                    result.add(Arrays.asList(entry.getKey().toString(), value.getConsumer(), value.getIdle(), value.getDeliveries()));
+                }
+            }
+            return result;
+        });
+        register("XCLAIM", 5, -1, (s, a) -> {
+            RedisDataStore.Stream stream = db(s).getStream(a.get(0));
+            RedisDataStore.ConsumerGroup group = group(s, a.get(0), a.get(1), "XCLAIM");
+            String consumer = a.get(2);
+            long minIdle = toLong(a.get(3));
+            boolean justId = false;
+            List<RedisDataStore.StreamId> ids = new ArrayList<>();
+            for (String arg : a.subList(4, a.size())) {
+                if ("JUSTID".equalsIgnoreCase(arg)) {
+                    justId = true;
+                } else {
+                    ids.add(RedisDataStore.StreamId.parse(arg, 0));
+                }
+            }
+            // 与 Redis 5 相同：已经删除的消息仍然转移到新的消费者，但不在回复中
+            List<Object> result = new ArrayList<>();
+            for (RedisDataStore.StreamId id : ids) {
+                RedisDataStore.PendingEntry entry = group.getPending().get(id);
+                if (entry == null || entry.getIdle() < minIdle) {
+                    continue;
+                }
+                group.deliver(id, consumer, !justId);
+                List<String> fields = stream.get(id);
+                if (justId) {
+                    result.add(id.toString());
+                } else if (fields != null) {
+                    result.add(Arrays.asList(id.toString(), fields));
+                }
+            }
+            return result;
+        });
+    }
+
+    private RedisDataStore.ConsumerGroup group(ClientSession session, String key, String groupName, String command) {
+        RedisDataStore.Stream stream = db(session).getStream(key);
+        RedisDataStore.ConsumerGroup group = stream == null ? null : stream.getGroup(groupName);
+        if (group == null) {
+            throw new RespException("NOGROUP No such key '" + key + "' or consumer group '" + groupName + "' in " + command);
+        }
+        return group;
+    }
+
+    private List<Object> xrange(ClientSession session, List<String> args, boolean reverse) {
+        long count = -1;
+        if (args.size() == 5 && "COUNT".equalsIgnoreCase(args.get(3))) {
+            count = toLong(args.get(4));
+        } else if (args.size() != 3) {
+            throw RespException.syntax();
+        }
+        RedisDataStore.Stream stream = db(session).getStream(args.get(0));
+        if (stream == null) {
+            return Collections.emptyList();
+        }
+        // XREVRANGE 的参数顺序是 end start
+        RedisDataStore.StreamId start = RedisDataStore.StreamId.parse(args.get(reverse ? 2 : 1), 0);
+        RedisDataStore.StreamId end = RedisDataStore.StreamId.parse(args.get(reverse ? 1 : 2), -1);
+        NavigableMap<RedisDataStore.StreamId, List<String>> range = stream.range(start, end);
+        return streamEntries(reverse ? range.descendingMap() : range, count);
+    }
+
+    /**
+     * 流中的消息转换为 [[id, [字段, 值, ...]], ...]
+     */
+    static List<Object> streamEntries(Map<RedisDataStore.StreamId, List<String>> entries, long count) {
+        List<Object> result = new ArrayList<>();
+        for (Map.Entry<RedisDataStore.StreamId, List<String>> entry : entries.entrySet()) {
+            if (count >= 0 && result.size() >= count) {
+                break;
+            }
+            result.add(Arrays.asList(entry.getKey().toString(), entry.getValue()));
+        }
+        return result;
+    }
+
+    // ------------------------------------------------------------------ 脚本
+
+    private void registerScripting() {
+        register("EVAL", 2, -1, (s, a) -> {
+            List<List<String>> keysAndArgs = keysAndArgs(a);
+            return scripts.eval(this, s, a.get(0), keysAndArgs.get(0), keysAndArgs.get(1));
+        });
+        register("EVALSHA", 2, -1, (s, a) -> {
+            List<List<String>> keysAndArgs = keysAndArgs(a);
+            return scripts.evalSha(this, s, a.get(0), keysAndArgs.get(0), keysAndArgs.get(1));
+        });
+        register("SCRIPT", 1, -1, (s, a) -> {
+            String sub = a.get(0).toUpperCase(Locale.ROOT);
+            if ("LOAD".equals(sub) && a.size() == 2) {
+                return scripts.load(a.get(1));
+            } else if ("EXISTS".equals(sub)) {
+                List<Long> result = new ArrayList<>();
+                for (String sha : a.subList(1, a.size())) {
+                    result.add(scripts.exists(sha) ? 1L : 0L);
+                }
+                return result;
+            } else if ("FLUSH".equals(sub)) {
+                scripts.flush();
+                return Resp.OK;
+            }
+            throw RespException.syntax();
+        });
+    }
+
+    private static List<List<String>> keysAndArgs(List<String> args) {
+        int numKeys = toInt(args.get(1));
+        if (numKeys < 0 || numKeys > args.size() - 2) {
+            throw new RespException("ERR Number of keys can't be greater than number of args");
+        }
+        return Arrays.asList(args.subList(2, 2 + numKeys), args.subList(2 + numKeys, args.size()));
+    }
+
+    // ------------------------------------------------------------------ 发布/订阅
+
+    private void registerPubSub() {
+        register("SUBSCRIBE", 1, -1, pubSub::subscribe);
+        register("PSUBSCRIBE", 1, -1, pubSub::psubscribe);
+        register("UNSUBSCRIBE", 0, -1, pubSub::unsubscribe);
+        register("PUNSUBSCRIBE", 0, -1, pubSub::punsubscribe);
+        register("PUBLISH", 2, 2, (s, a) -> pubSub.publish(a.get(0), a.get(1)));
+        register("PUBSUB", 1, -1, (s, a) -> {
+            String sub = a.get(0).toUpperCase(Locale.ROOT);
+            if ("CHANNELS".equals(sub)) {
+                return pubSub.channels(a.size() > 1 ? a.get(1) : null);
+            } else if ("NUMSUB".equals(sub)) {
+                List<Object> result = new ArrayList<>();
+                for (String channel : a.subList(1, a.size())) {
+                    result.add(channel);
+                    result.add(pubSub.numsub(channel));
+                }
+                return result;
+            } else if ("NUMPAT".equals(sub)) {
+                return pubSub.numpat();
+            }
+            throw RespException.syntax();
+        });
+    }
+
+    // ------------------------------------------------------------------ 事务
+
+    private void registerTransactions() {
+        register("MULTI", 0, 0, (s, a) -> {
+            if (s.isInTransaction()) {
+                throw new RespException("ERR MULTI calls can not be nested");
+            }
+            s.beginTransaction();
+            return Resp.OK;
+        });
+        register("DISCARD", 0, 0, (s, a) -> {
+            if (!s.isInTransaction()) {
+                throw new RespException("ERR DISCARD without MULTI");
+            }
+            s.endTransaction();
+            return Resp.OK;
+        });
+        register("WATCH", 1, -1, (s, a) -> {
+            if (s.isInTransaction()) {
+                throw new RespException("ERR WATCH inside MULTI is not allowed");
+            }
+            for (String key : a) {
+                s.getWatched().put(s.getDb() + ":" + key, db(s).fingerprint(key));
+            }
+            return Resp.OK;
+        });
+        register("UNWATCH", 0, 0, (s, a) -> {
+            s.getWatched().clear();
+            return Resp.OK;
+        });
+        register("EXEC", 0, 0, (s, a) -> {
+            if (!s.isInTransaction()) {
+                throw new RespException("ERR EXEC without MULTI");
+            }
+            List<List<String>> queued = s.getTransaction();
+            boolean failed = s.isTransactionFailed();
+            boolean watchedChanged = watchedChanged(s);
+            s.endTransaction();
+            if (failed) {
+                throw new RespException("EXECABORT Transaction discarded because of previous errors.");
+            }
+            if (watchedChanged) {
+                return Resp.NIL_ARRAY;
+            }
+            List<Object> results = new ArrayList<>(queued.size());
+            for (List<String> command : queued) {
+                try {
+                    results.add(nonBlocking(dispatch(s, command)));
+                } catch (RespException e) {
+                    results.add(e);
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * 事务中的命令先校验命令名称与参数个数，通过后排队，EXEC 时依次执行
+     */
+    private Object queue(ClientSession session, List<String> args) {
+        String name = args.get(0).toUpperCase(Locale.ROOT);
+        Spec spec = commands.get(name);
+        int params = args.size() - 1;
+        if (spec == null || params < spec.minArgs || spec.maxArgs >= 0 && params > spec.maxArgs) {
+            session.failTransaction();
+            throw spec == null ? new RespException("ERR unknown command '" + args.get(0) + "'") : RespException.wrongArgs(name);
+        }
+        session.getTransaction().add(new ArrayList<>(args));
+        return Resp.QUEUED;
+    }
+
+    private boolean watchedChanged(ClientSession session) {
+        for (Map.Entry<String, String> entry : session.getWatched().entrySet()) {
+            int separator = entry.getKey().indexOf(':');
+            int index = Integer.parseInt(entry.getKey().substring(0, separator));
+            String key = entry.getKey().substring(separator + 1);
+            if (!Objects.equals(store.db(index).fingerprint(key), entry.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------ 工具方法
+
+    /**
+     * SCAN 系列命令的 MATCH、COUNT、TYPE 选项
+     */
+    static class ScanOptions {
+        String match;
+        int count = 10;
+        String type;
+
+        static ScanOptions parse(List<String> args, int start) {
+            ScanOptions options = new ScanOptions();
+            for (int i = start; i < args.size(); i++) {
+                String option = args.get(i).toUpperCase(Locale.ROOT);
+                if (i + 1 >= args.size()) {
+                    throw RespException.syntax();
+                }
+                if ("MATCH".equals(option)) {
+                    options.match = args.get(++i);
+                } else if ("COUNT".equals(option)) {
+                    options.count = toInt(args.get(++i));
+                    if (options.count < 1) {
+                        throw RespException.syntax();
+                    }
+                } else if ("TYPE".equals(option)) {
+                    options.type = args.get(++i);
+                } else {
+                    throw RespException.syntax();
+                }
+            }
+            return options;
+        }
+
+        boolean matches(String value) {
+            return match == null || GlobPattern.matches(match, value);
+        }
+    }
+
+    /**
+     * HSCAN、ZSCAN 等按 [元素, 值] 成对分页，游标为已经返回的对数
+     */
+    static List<Object> scanPairs(List<String> flat, String cursorArg, ScanOptions options) {
+        int cursor = toInt(cursorArg);
+        int pairs = flat.size() / 2;
+        List<String> page = new ArrayList<>();
+        int next = cursor;
+        while (next < pairs && next - cursor < options.count) {
+            String element = flat.get(next * 2);
+            if (options.matches(element)) {
+                page.add(element);
+                page.add(flat.get(next * 2 + 1));
+            }
+            next++;
+        }
+        return Arrays.asList(next >= pairs ? "0" : String.valueOf(next), page);
+    }
+
+    /**
+     * 把 Redis 的 [start, stop] 下标(支持负数)转换为 [0, size) 内的闭区间，区间为空时返回 null
+     */
+    static int[] range(long start, long stop, int size) {
+        if (start < 0) {
+            start = Math.max(0, size + start);
+        }
+        if (stop < 0) {
+            stop = size + stop;
+        }
+        if (stop >= size) {
+            stop = size - 1;
+        }
+        if (start > stop || start >= size) {
+            return null;
+        }
+        return new int[]{(int) start, (int) stop};
+    }
+
+    static void checkPairs(List<String> args, String command) {
+        if (args.isEmpty() || args.size() % 2 != 0) {
+            throw RespException.wrongArgs(command);
+        }
+    }
+
+    static long toLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw RespException.notInteger();
+        }
+    }
+
+    static int toInt(String value) {
+        long result = toLong(value);
+        if (result > Integer.MAX_VALUE || result < Integer.MIN_VALUE) {
+            throw RespException.notInteger();
+        }
+        return (int) result;
+    }
+
+    static double toDouble(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if ("inf".equals(lower) || "+inf".equals(lower)) {
+            return Double.POSITIVE_INFINITY;
+        } else if ("-inf".equals(lower)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw RespException.notFloat();
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package com.wmx.wmxredis.embedded;
+
+import java.util.*;
+
+/**
+ * 内嵌服务端的数据存储，只在服务端的单个 IO 线程中访问，不需要加锁
+ * <p>
+ * 1、默认 16 个库，值的类型：String(字符串)、{@link ArrayList}(列表)、{@link LinkedHashMap}(hash)、
+ * * {@link LinkedHashSet}(集合)、{@link ZSet}(有序集合)、{@link Stream}(流)。
+ * 2、过期：访问 key 时检查是否过期(惰性删除)，服务端循环中再定期抽样清理。
+ * 3、列表、hash、集合、有序集合中的元素被删除完后，key 自动删除，与 Redis 一致；流中的消息删除完后 key 仍然存在。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:10
+ */
+public class RedisDataStore {
+
+    public static final int DATABASES = 16;
+
+    private final Database[] databases = new Database[DATABASES];
+
+    public RedisDataStore() {
+        for (int i = 0; i < DATABASES; i++) {
+            databases[i] = new Database();
+        }
+    }
+
+    public Database db(int index) {
+        if (index < 0 || index >= DATABASES) {
+            throw new RespException("ERR DB index is out of range");
+        }
+        return databases[index];
+    }
+
+    public void flushAll() {
+        for (Database database : databases) {
+            database.flush();
+        }
+    }
+
+    /**
+     * 每个库抽样清理已经过期的 key
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Database database : databases) {
+            database.evictExpired(now, 100);
+        }
+    }
+
+    /**
+     * 一个库
+     */
+    public static class Database {
+        private final Map<String, Object> data = new HashMap<>();
+        private final Map<String, Long> expires = new HashMap<>();
+
+        /**
+         * 获取 key 的值，已经过期时删除并返回 null
+         */
+        public Object get(String key) {
+            Long expireAt = expires.get(key);
+            if (expireAt != null && expireAt <= System.currentTimeMillis()) {
+                data.remove(key);
+                expires.remove(key);
+                return null;
+            }
+            return data.get(key);
+        }
+
+        public boolean exists(String key) {
+            return get(key) != null;
+        }
+
+        /**
+         * 获取指定类型的值，类型不一致时抛出 WRONGTYPE 错误
+         */
+        public <T> T get(String key, Class<T> type) {
+            Object value = get(key);
+            if (value != null && !type.isInstance(value)) {
+                throw RespException.wrongType();
+            }
+            return type.cast(value);
+        }
+
+        /**
+         * 获取指定类型的值，key 不存在时创建
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T getOrCreate(String key, Class<T> type) {
+            T value = get(key, type);
+            if (value == null) {
+                try {
+                    value = type == ZSet.class ? (T) new ZSet() : type.getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+                data.put(key, value);
+            }
+            return value;
+        }
+
+        public String getString(String key) {
+            return get(key, String.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        public ArrayList<String> getList(String key) {
+            return get(key, ArrayList.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        public ArrayList<String> getOrCreateList(String key) {
+            return getOrCreate(key, ArrayList.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        public LinkedHashMap<String, String> getHash(String key) {
+            return get(key, LinkedHashMap.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        public LinkedHashMap<String, String> getOrCreateHash(String key) {
+            return getOrCreate(key, LinkedHashMap.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        public LinkedHashSet<String> getSet(String key) {
+            return get(key, LinkedHashSet.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        public LinkedHashSet<String> getOrCreateSet(String key) {
+            return getOrCreate(key, LinkedHashSet.class);
+        }
+
+        public ZSet getZSet(String key) {
+            return get(key, ZSet.class);
+        }
+
+        public ZSet getOrCreateZSet(String key) {
+            return getOrCreate(key, ZSet.class);
+        }
+
+        public Stream getStream(String key) {
+            return get(key, Stream.class);
+        }
+
+        public Stream getOrCreateStream(String key) {
+            return getOrCreate(key, Stream.class);
+        }
+
+        /**
+         * 设置字符串值，并清除过期时间，与 SET 命令一致
+         */
+        public void setString(String key, String value) {
+            data.put(key, value);
+            expires.remove(key);
+        }
+
+        /**
+         * 修改已有的值，保留过期时间，如 APPEND、INCR
+         */
+        public void replace(String key, Object value) {
+            data.put(key, value);
+        }
+
+        public boolean remove(String key) {
+            boolean existed = get(key) != null;
+            data.remove(key);
+            expires.remove(key);
+            return existed;
+        }
+
+        /**
+         * 集合类型的元素被删除完后自动删除 key
+         */
+        public void removeIfEmpty(String key) {
+            Object value = data.get(key);
+            boolean empty = value instanceof Collection && ((Collection<?>) value).isEmpty()
+                    || value instanceof Map && ((Map<?, ?>) value).isEmpty()
+                    || value instanceof ZSet && ((ZSet) value).size() == 0;
+            if (empty) {
+                remove(key);
+            }
+        }
+
+        public void rename(String key, String newKey) {
+            Object value = get(key);
+            if (value == null) {
+                throw new RespException("ERR no such key");
+            }
+            Long expireAt = expires.get(key);
+            remove(key);
+            remove(newKey);
+            data.put(newKey, value);
+            if (expireAt != null) {
+                expires.put(newKey, expireAt);
+            }
+        }
+
+        /**
+         * 设置过期时间点(毫秒时间戳)，已经过期时直接删除
+         */
+        public boolean expireAt(String key, long expireAtMillis) {
+            if (get(key) == null) {
+                return false;
+            }
+            if (expireAtMillis <= System.currentTimeMillis()) {
+                remove(key);
+            } else {
+                expires.put(key, expireAtMillis);
+            }
+            return true;
+        }
+
+        public boolean persist(String key) {
+            return get(key) != null && expires.remove(key) != null;
+        }
+
+        /**
+         * 剩余生存时间(毫秒)：key 不存在返回 -2，没有过期时间返回 -1
+         */
+        public long pttl(String key) {
+            if (get(key) == null) {
+                return -2;
+            }
+            Long expireAt = expires.get(key);
+            return expireAt == null ? -1 : Math.max(0, expireAt - System.currentTimeMillis());
+        }
+
+        /**
+         * key 的数据快照，WATCH 通过比较快照判断 key 是否被修改(不区分修改后又改回原值的情况)
+         */
+        public String fingerprint(String key) {
+            Object value = get(key);
+            if (value == null) {
+                return null;
+            }
+            String body = value instanceof ZSet ? ((ZSet) value).entries().toString()
+                    : value instanceof Stream ? ((Stream) value).fingerprint() : value.toString();
+            return type(key) + ":" + expires.get(key) + ":" + body;
+        }
+
+        public String type(String key) {
+            Object value = get(key);
+            if (value == null) {
+                return "none";
+            } else if (value instanceof String) {
+                return "string";
+            } else if (value instanceof ArrayList) {
+                return "list";
+            } else if (value instanceof LinkedHashMap) {
+                return "hash";
+            } else if (value instanceof LinkedHashSet) {
+                return "set";
+            } else if (value instanceof Stream) {
+                return "stream";
+            }
+            return "zset";
+        }
+
+        /**
+         * 所有未过期的 key，按字典序排列，SCAN 按此顺序分页
+         */
+        public List<String> keys() {
+            long now = System.currentTimeMillis();
+            evictExpired(now, Integer.MAX_VALUE);
+            List<String> keys = new ArrayList<>(data.keySet());
+            Collections.sort(keys);
+            return keys;
+        }
+
+        public int size() {
+            evictExpired(System.currentTimeMillis(), Integer.MAX_VALUE);
+            return data.size();
+        }
+
+        public void flush() {
+            data.clear();
+            expires.clear();
+        }
+
+        void evictExpired(long now, int limit) {
+            int checked = 0;
+            Iterator<Map.Entry<String, Long>> iterator = expires.entrySet().iterator();
+            while (iterator.hasNext() && checked++ < limit) {
+                Map.Entry<String, Long> entry = iterator.next();
+                if (entry.getValue() <= now) {
+                    data.remove(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 有序集合：成员 -> 分值，同时按 (分值, 成员) 排序
+     */
+    public static class ZSet {
+        private final Map<String, Double> scores = new HashMap<>();
+        private final TreeSet<Map.Entry<String, Double>> sorted = new TreeSet<>(
+                Comparator.<Map.Entry<String, Double>>comparingDouble(Map.Entry::getValue).thenComparing(Map.Entry::getKey));
+
+        /**
+         * 添加或者更新成员，新增时返回 true
+         */
+        public boolean add(String member, double score) {
+            Double old = scores.put(member, score);
+            if (old != null) {
+                sorted.remove(new AbstractMap.SimpleImmutableEntry<>(member, old));
+            }
+            sorted.add(new AbstractMap.SimpleImmutableEntry<>(member, score));
+            return old == null;
+        }
+
+        public boolean remove(String member) {
+            Double old = scores.remove(member);
+            if (old == null) {
+                return false;
+            }
+            sorted.remove(new AbstractMap.SimpleImmutableEntry<>(member, old));
+            return true;
+        }
+
+        public Double score(String member) {
+            return scores.get(member);
+        }
+
+        public int size() {
+            return scores.size();
+        }
+
+        /**
+         * 按分值从小到大排列的所有成员
+         */
+        public List<Map.Entry<String, Double>> entries() {
+            return new ArrayList<>(sorted);
+        }
+    }
+
+    /**
+     * 流中消息的 id：毫秒时间戳-序号
+     */
+    public static final class StreamId implements Comparable<StreamId> {
+        public static final StreamId MIN = new StreamId(0, 0);
+        public static final StreamId MAX = new StreamId(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        private final long millis;
+        private final long sequence;
+
+        public StreamId(long millis, long sequence) {
+            this.millis = millis;
+            this.sequence = sequence;
+        }
+
+        /**
+         * 解析 id，- 与 + 表示最小、最大，省略序号时取 defaultSequence
+         */
+        public static StreamId parse(String value, long defaultSequence) {
+            if ("-".equals(value)) {
+                return MIN;
+            } else if ("+".equals(value)) {
+                return MAX;
+            }
+            try {
+                int separator = value.indexOf('-');
+                if (separator < 0) {
+                    return new StreamId(Long.parseUnsignedLong(value), defaultSequence);
+                }
+                return new StreamId(Long.parseUnsignedLong(value.substring(0, separator)),
+                        Long.parseUnsignedLong(value.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new RespException("ERR Invalid stream ID specified as stream command argument");
+            }
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public int compareTo(StreamId other) {
+            int result = Long.compareUnsigned(millis, other.millis);
+            return result != 0 ? result : Long.compareUnsigned(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StreamId && compareTo((StreamId) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(millis, sequence);
+        }
+
+        @Override
+        public String toString() {
+            return Long.toUnsignedString(millis) + "-" + Long.toUnsignedString(sequence);
+        }
+    }
+
+    /**
+     * 流：按 id 排序的消息，每条消息是 [字段, 值, ...]，以及消费组
+     */
+    public static class Stream {
+        private final TreeMap<StreamId, List<String>> entries = new TreeMap<>();
+        private final Map<String, ConsumerGroup> groups = new LinkedHashMap<>();
+        private StreamId lastId = StreamId.MIN;
+
+        /**
+         * 追加消息，id 为 null 时按当前时间自动生成，id 必须大于最后一条消息的 id
+         */
+        public StreamId add(StreamId id, List<String> fields) {
+            if (id == null) {
+                long now = System.currentTimeMillis();
+                id = Long.compareUnsigned(now, lastId.millis) > 0 ? new StreamId(now, 0) : new StreamId(lastId.millis, lastId.sequence + 1);
+            }
+            if (id.compareTo(lastId) <= 0) {
+                throw new RespException("ERR The ID specified in XADD is equal or smaller than the target stream top item");
+            }
+            entries.put(id, new ArrayList<>(fields));
+            lastId = id;
+            return id;
+        }
+
+        public List<String> get(StreamId id) {
+            return entries.get(id);
+        }
+
+        public boolean remove(StreamId id) {
+            return entries.remove(id) != null;
+        }
+
+        /**
+         * 只保留最新的 maxLen 条消息，返回删除的条数
+         */
+        public long trim(long maxLen) {
+            long removed = 0;
+            while (entries.size() > maxLen) {
+                entries.pollFirstEntry();
+                removed++;
+            }
+            return removed;
+        }
+
+        /**
+         * [start, end] 之间的消息，按 id 从小到大排列
+         */
+        public NavigableMap<StreamId, List<String>> range(StreamId start, StreamId end) {
+            return start.compareTo(end) > 0 ? Collections.emptyNavigableMap() : entries.subMap(start, true, end, true);
+        }
+
+        public StreamId getLastId() {
+            return lastId;
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        public ConsumerGroup getGroup(String name) {
+            return groups.get(name);
+        }
+
+        /**
+         * 创建消费组，已经存在时返回 false
+         */
+        public boolean createGroup(String name, StreamId lastDeliveredId) {
+            return groups.putIfAbsent(name, new ConsumerGroup(lastDeliveredId)) == null;
+        }
+
+        public boolean removeGroup(String name) {
+            return groups.remove(name) != null;
+        }
+
+        String fingerprint() {
+            return lastId + ":" + entries.keySet();
+        }
+    }
+
+    /**
+     * 消费组：最后投递的 id、已投递未确认的消息(PEL)、消费者最后活跃时间
+     */
+    public static class ConsumerGroup {
+        private StreamId lastDeliveredId;
+        private final TreeMap<StreamId, PendingEntry> pending = new TreeMap<>();
+        private final Map<String, Long> consumers = new LinkedHashMap<>();
+
+        ConsumerGroup(StreamId lastDeliveredId) {
+            this.lastDeliveredId = lastDeliveredId;
+        }
+
+        public StreamId getLastDeliveredId() {
+            return lastDeliveredId;
+        }
+
+        public void setLastDeliveredId(StreamId lastDeliveredId) {
+            this.lastDeliveredId = lastDeliveredId;
+        }
+
+        public NavigableMap<StreamId, PendingEntry> getPending() {
+            return pending;
+        }
+
+        /**
+         * 记录消费者活跃，不存在时创建
+         */
+        public void touch(String consumer) {
+            consumers.put(consumer, System.currentTimeMillis());
+        }
+
+        /**
+         * 删除消费者及其未确认的消息，返回删除的未确认消息数
+         */
+        public long removeConsumer(String consumer) {
+            long removed = 0;
+            Iterator<PendingEntry> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().consumer.equals(consumer)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            consumers.remove(consumer);
+            return removed;
+        }
+
+        /**
+         * 投递给消费者：加入 PEL 或者转移到该消费者，count 为 true 时投递次数加一(XCLAIM JUSTID 不增加)
+         */
+        public void deliver(StreamId id, String consumer, boolean count) {
+            PendingEntry entry = pending.computeIfAbsent(id, key -> new PendingEntry());
+            entry.consumer = consumer;
+            entry.deliveryTime = System.currentTimeMillis();
+            if (count) {
+                entry.deliveries++;
+            }
+            touch(consumer);
+        }
+    }
+
+    /**
+     * 已投递未确认的消息：所属消费者、最后投递时间、投递次数
+     */
+    public static class PendingEntry {
+        private String consumer;
+        private long deliveryTime;
+        private long deliveries;
+
+        public String getConsumer() {
+            return consumer;
+        }
+
+        public long getIdle() {
+            return System.currentTimeMillis() - deliveryTime;
+        }
+
+        public long getDeliveries() {
+            return deliveries;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.wmx.wmxredis.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RESP2 协议编解码
+ * <p>
+ * 1、服务端内部所有 key、value 都使用 ISO-8859-1 编码的 String 表示，一个字节对应一个字符，二进制安全，
+ * * 可以直接存放 Jedis、Redisson 序列化后的任意字节。
+ * 2、命令返回值到 RESP 的映射：{@link Status} -> +状态，{@link RespException} -> -错误，Long/Integer/Boolean -> :整数，
+ * * String -> $字符串，null -> $-1，{@link #NIL_ARRAY} -> *-1，Collection -> *数组(元素递归编码)，Double -> $字符串，
+ * * {@link Replies} -> 依次写出多个回复，{@link Blocked} 由服务端处理，不写出。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:05
+ */
+public final class Resp {
+
+    public static final Status OK = new Status("OK");
+    public static final Status PONG = new Status("PONG");
+    public static final Status QUEUED = new Status("QUEUED");
+
+    /**
+     * 空数组回复 *-1，如 EXEC 事务被取消
+     */
+    public static final Object NIL_ARRAY = new Object();
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    /**
+     * 一个命令产生多个回复，依次写出而不是作为一个数组，如 SUBSCRIBE 多个频道时每个频道一个回复
+     */
+    public static final class Replies extends ArrayList<Object> {
+    }
+
+    /**
+     * 阻塞命令(如 XREADGROUP BLOCK)暂时没有数据：不回复，由服务端定期重新执行，超时后回复 *-1
+     */
+    public static final class Blocked {
+        private final long timeoutMillis;
+
+        public Blocked(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        /**
+         * 最长阻塞时间，0 表示一直阻塞
+         */
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+    }
+
+    private Resp() {
+    }
+
+    /**
+     * 状态回复，如 +OK
+     */
+    public static final class Status {
+        private final String value;
+
+        public Status(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    /**
+     * 字节数组转为服务端内部使用的 ISO-8859-1 字符串
+     */
+    public static String str(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 服务端内部字符串转为字节数组
+     */
+    public static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * UTF-8 文本(如脚本、配置)转为服务端内部字符串
+     */
+    public static String fromUtf8(String text) {
+        return str(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 服务端内部字符串按 UTF-8 解码为文本
+     */
+    public static String toUtf8(String value) {
+        return new String(bytes(value), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 浮点数按 Redis 的格式输出：整数不带小数点，其它不使用科学计数法
+     */
+    public static String formatDouble(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "inf" : "-inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e17) {
+            return String.valueOf((long) value);
+        }
+        return new BigDecimal(Double.toString(value)).toPlainString();
+    }
+
+    /**
+     * 按 RESP2 协议编码命令返回值
+     *
+     * @param reply
+     * @param out
+     */
+    public static void write(Object reply, ByteArrayOutputStream out) {
+        if (reply == null) {
+            writeLine(out, "$-1");
+        } else if (reply == NIL_ARRAY) {
+            writeLine(out, "*-1");
+        } else if (reply instanceof Status) {
+            writeLine(out, "+" + reply);
+        } else if (reply instanceof RespException) {
+            writeLine(out, "-" + ((RespException) reply).getMessage());
+        } else if (reply instanceof Boolean) {
+            writeLine(out, (Boolean) reply ? ":1" : ":0");
+        } else if (reply instanceof Long || reply instanceof Integer) {
+            writeLine(out, ":" + reply);
+        } else if (reply instanceof Double) {
+            writeBulk(out, formatDouble((Double) reply));
+        } else if (reply instanceof String) {
+            writeBulk(out, (String) reply);
+        } else if (reply instanceof Replies) {
+            for (Object element : (Replies) reply) {
+                write(element, out);
+            }
+        } else if (reply instanceof Collection) {
+            Collection<?> collection = (Collection<?>) reply;
+            writeLine(out, "*" + collection.size());
+            for (Object element : collection) {
+                write(element, out);
+            }
+        } else if (reply instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) reply;
+            writeLine(out, "*" + map.size() * 2);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(entry.getKey(), out);
+                write(entry.getValue(), out);
+            }
+        } else {
+            throw new IllegalArgumentException("不支持的返回值类型：" + reply.getClass());
+        }
+    }
+
+    private static void writeBulk(ByteArrayOutputStream out, String value) {
+        byte[] bytes = bytes(value);
+        writeLine(out, "$" + bytes.length);
+        out.write(bytes, 0, bytes.length);
+        out.write(CRLF, 0, 2);
+    }
+
+    private static void writeLine(ByteArrayOutputStream out, String line) {
+        byte[] bytes = bytes(line);
+        out.write(bytes, 0, bytes.length);
+        out.write(CRLF, 0, 2);
+    }
+
+    /**
+     * 从 buffer 的 [start, end) 中解析一个完整的命令
+     *
+     * @param buffer
+     * @param start
+     * @param end
+     * @param args   ：解析出的命令参数，第一个为命令名称
+     * @return 命令结束的位置；数据不完整时返回 -1
+     * @throws RespException 协议格式错误
+     */
+    public static int parse(byte[] buffer, int start, int end, List<String> args) {
+        if (start >= end) {
+            return -1;
+        }
+        if (buffer[start] != '*') {
+            // inline 命令，如 telnet 中直接输入 PING
+            int lineEnd = indexOfCrlf(buffer, start, end);
+            if (lineEnd < 0) {
+                return -1;
+            }
+            for (String arg : str(Arrays.copyOfRange(buffer, start, lineEnd)).trim().split("\\s+")) {
+                if (!arg.isEmpty()) {
+                    args.add(arg);
+                }
+            }
+            return lineEnd + 2;
+        }
+        int lineEnd = indexOfCrlf(buffer, start, end);
+        if (lineEnd < 0) {
+            return -1;
+        }
+        int count = parseInt(buffer, start + 1, lineEnd);
+        int position = lineEnd + 2;
+        for (int i = 0; i < count; i++) {
+            if (position >= end) {
+                return -1;
+            }
+            if (buffer[position] != '$') {
+                throw new RespException("ERR Protocol error: expected '$', got '" + (char) buffer[position] + "'");
+            }
+            lineEnd = indexOfCrlf(buffer, position, end);
+            if (lineEnd < 0) {
+                return -1;
+            }
+            int length = parseInt(buffer, position + 1, lineEnd);
+            int dataStart = lineEnd + 2;
+            if (dataStart + length + 2 > end) {
+                return -1;
+            }
+            args.add(new String(buffer, dataStart, length, StandardCharsets.ISO_8859_1));
+            position = dataStart + length + 2;
+        }
+        return position;
+    }
+
+    private static int indexOfCrlf(byte[] buffer, int start, int end) {
+        for (int i = start; i < end - 1; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseInt(byte[] buffer, int start, int end) {
+        try {
+            return Integer.parseInt(new String(buffer, start, end - start, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            throw new RespException("ERR Protocol error: invalid length");
+        }
+    }
+}
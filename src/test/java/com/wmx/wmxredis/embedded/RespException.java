@@ -0,0 +1,37 @@
+package com.wmx.wmxredis.embedded;
+
+/**
+ * 命令执行错误，消息原样作为 RESP 错误回复返回给客户端，如 "ERR syntax error"、"WRONGTYPE ..."
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 20:00
+ */
+public class RespException extends RuntimeException {
+
+    public static final String WRONGTYPE = "WRONGTYPE Operation against a key holding the wrong kind of value";
+
+    public RespException(String message) {
+        super(message, null, false, false);
+    }
+
+    public static RespException wrongType() {
+        return new RespException(WRONGTYPE);
+    }
+
+    public static RespException syntax() {
+        return new RespException("ERR syntax error");
+    }
+
+    public static RespException notInteger() {
+        return new RespException("ERR value is not an integer or out of range");
+    }
+
+    public static RespException notFloat() {
+        return new RespException("ERR value is not a valid float");
+    }
+
+    public static RespException wrongArgs(String command) {
+        return new RespException("ERR wrong number of arguments for '" + command.toLowerCase() + "' command");
+    }
+}
@@ -0,0 +1,152 @@
+package com.wmx.wmxredis.hotkey;
+
+import com.wmx.wmxredis.cache.NearCacheProperties;
+import com.wmx.wmxredis.cache.RedisNearCache;
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link CountMinSketch}、{@link HotKeyDetector} 单元测试，统计来源部分使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 13:40
+ */
+public class HotKeyDetectorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HotKeyProperties properties = new HotKeyProperties();
+    private HotKeyDetector detector;
+
+    @Before
+    public void setUp() {
+        properties.setSampleRate(1);
+        properties.setThreshold(100);
+        // 测试中手动衰减
+        properties.setWindow(Duration.ofHours(1));
+        detector = new HotKeyDetector(properties, meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        detector.shutdown();
+    }
+
+    @Test
+    public void sketchNeverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j <= i % 10; j++) {
+                sketch.add("key" + i);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sketch.estimate("key" + i) >= i % 10 + 1);
+        }
+        sketch.halve();
+        assertTrue(sketch.estimate("key9") >= 5);
+    }
+
+    @Test
+    public void promotesAndDecaysHotKeys() {
+        for (int i = 0; i < 150; i++) {
+            detector.record("hot");
+            detector.record("warm".getBytes(StandardCharsets.UTF_8));
+            if (i % 10 == 0) {
+                detector.record("cold" + i);
+            }
+        }
+        assertTrue(detector.isHot("hot"));
+        assertTrue(detector.isHot("warm"));
+        assertFalse(detector.isHot("cold0"));
+        Map<String, Long> top = detector.topKeys(1);
+        assertEquals(1, top.size());
+        assertTrue(top.containsKey("hot") || top.containsKey("warm"));
+        assertEquals(2.0, meterRegistry.get("redis.hot-key.promotions").counter().count(), 0);
+
+        // 150 -> 75，低于阈值但仍是候选；再减半后移出候选
+        detector.decay();
+        assertFalse(detector.isHot("hot"));
+        assertTrue(detector.topKeys(10).containsKey("hot"));
+        detector.decay();
+        assertTrue(detector.topKeys(10).isEmpty());
+    }
+
+    @Test
+    public void keepsOnlyTopK() {
+        properties.setTopK(2);
+        for (int i = 0; i < 300; i++) {
+            detector.record("a");
+            if (i < 200) {
+                detector.record("b");
+            }
+            if (i < 120) {
+                detector.record("c");
+            }
+        }
+        detector.decay();
+        assertEquals(2, detector.topKeys(10).size());
+        assertTrue(detector.topKeys(10).keySet().containsAll(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void disabledRecordsNothing() {
+        properties.setEnabled(false);
+        for (int i = 0; i < 200; i++) {
+            detector.record("hot");
+        }
+        assertFalse(detector.isHot("hot"));
+    }
+
+    @Test
+    public void countsRedisAccessesAndPromotesToNearCache() throws Exception {
+        EmbeddedRedisServer server = new EmbeddedRedisServer(0).start();
+        InstrumentedJedisConnectionFactory connectionFactory = new InstrumentedJedisConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().build(),
+                new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties()));
+        connectionFactory.setHotKeyDetector(detector);
+        connectionFactory.afterPropertiesSet();
+        try {
+            RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+            redisTemplate.afterPropertiesSet();
+            redisTemplate.opsForValue().set("hot", "value");
+
+            NearCacheProperties nearCacheProperties = new NearCacheProperties();
+            nearCacheProperties.setHotKeysOnly(true);
+            RedisNearCache nearCache = new RedisNearCache(redisTemplate, nearCacheProperties, meterRegistry, detector);
+
+            // 还不是热点 key，不放入本地缓存
+            assertEquals("value", nearCache.getValue("hot"));
+            assertEquals(0, nearCache.size());
+            for (int i = 0; i < 100; i++) {
+                redisTemplate.opsForValue().get("hot");
+            }
+            assertTrue(detector.isHot("hot"));
+            assertEquals("value", nearCache.getValue("hot"));
+            assertEquals(1, nearCache.size());
+        } finally {
+            connectionFactory.destroy();
+            server.stop();
+        }
+    }
+}
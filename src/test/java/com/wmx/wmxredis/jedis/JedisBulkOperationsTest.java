@@ -0,0 +1,177 @@
+package com.wmx.wmxredis.jedis;
+
+import com.wmx.wmxredis.embedded.ClientSession;
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.embedded.Resp;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link JedisBulkOperations} 单元测试：分块大小、结果顺序、小请求一次往返、多个连接并行，使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 18:30
+ */
+public class JedisBulkOperationsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties());
+    private final JedisBulkProperties properties = new JedisBulkProperties();
+    /**
+     * 服务端收到的每个 MGET/MSET 命令的参数
+     */
+    private final List<List<String>> received = Collections.synchronizedList(new ArrayList<>());
+    private final Set<ClientSession> sessions = Collections.synchronizedSet(new HashSet<>());
+    private EmbeddedRedisServer server;
+    private InstrumentedJedisConnectionFactory connectionFactory;
+    private JedisExecutor executor;
+    private JedisBulkOperations bulkOperations;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        server.getCommands().register("MGET", 1, -1, (s, a) -> {
+            record(s, a);
+            List<Object> values = new ArrayList<>(a.size());
+            for (String key : a) {
+                values.add(server.getCommands().call(s, "GET", key));
+            }
+            return values;
+        });
+        server.getCommands().register("MSET", 2, -1, (s, a) -> {
+            record(s, a);
+            for (int i = 0; i < a.size(); i += 2) {
+                server.getCommands().call(s, "SET", a.get(i), a.get(i + 1));
+            }
+            return Resp.OK;
+        });
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(4);
+        connectionFactory = new InstrumentedJedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().poolConfig(poolConfig).build(),
+                metrics);
+        connectionFactory.afterPropertiesSet();
+        executor = new JedisExecutor(connectionFactory, metrics, new JedisExecutorProperties());
+    }
+
+    @After
+    public void tearDown() {
+        if (bulkOperations != null) {
+            bulkOperations.shutdown();
+        }
+        executor.shutdown();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private void record(ClientSession session, List<String> args) {
+        // 内嵌服务端按 ISO-8859-1 保存原始字节，转换回 UTF-8 字符串便于比较
+        List<String> decoded = new ArrayList<>(args.size());
+        args.forEach(arg -> decoded.add(new String(arg.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8)));
+        received.add(decoded);
+        sessions.add(session);
+    }
+
+    private JedisBulkOperations create(int maxKeys, int maxBytes, int parallelism) {
+        properties.setMaxKeysPerChunk(maxKeys);
+        properties.setMaxBytesPerChunk(maxBytes);
+        properties.setParallelism(parallelism);
+        bulkOperations = new JedisBulkOperations(executor, properties, meterRegistry);
+        return bulkOperations;
+    }
+
+    @Test
+    public void smallRequestIsOneCommand() {
+        JedisBulkOperations bulk = create(500, 262144, 4);
+        Map<String, String> keyValues = new LinkedHashMap<>();
+        keyValues.put("a", "1");
+        keyValues.put("b", "你好");
+        bulk.mset(keyValues);
+        assertEquals(Arrays.asList("1", null, "你好"), bulk.mget(Arrays.asList("a", "missing", "b")));
+
+        assertEquals(2, received.size());
+        assertEquals(Arrays.asList("a", "1", "b", "你好"), received.get(0));
+        assertEquals(Arrays.asList("a", "missing", "b"), received.get(1));
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+        assertTrue(bulk.mget(Collections.emptyList()).isEmpty());
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    public void chunksAreBoundedByKeysAndBytes() {
+        JedisBulkOperations bulk = create(10, 100, 1);
+        Map<String, String> keyValues = new LinkedHashMap<>();
+        for (int i = 0; i < 95; i++) {
+            // 每隔 7 个放一个超过 max-bytes-per-chunk 的值，必须单独一个命令
+            keyValues.put("k" + i, i % 7 == 0 ? repeat('x', 150) : repeat('中', i % 5));
+        }
+        bulk.mset(keyValues);
+
+        for (List<String> args : received) {
+            assertTrue(args.size() / 2 <= 10);
+            long bytes = args.stream().mapToLong(JedisBulkOperations::utf8Length).sum();
+            assertTrue(args + " 超过字节数限制", bytes <= 100 || args.size() == 2);
+        }
+        assertTrue(received.size() > 10);
+        assertEquals(1, sessions.size());
+
+        List<String> keys = new ArrayList<>(keyValues.keySet());
+        keys.add(40, "missing");
+        Map<String, String> values = bulk.getAll(keys);
+        assertEquals(keyValues, values);
+        assertEquals(new ArrayList<>(keyValues.keySet()), new ArrayList<>(values.keySet()));
+    }
+
+    @Test
+    public void chunksRunInParallelAcrossConnections() {
+        JedisBulkOperations bulk = create(5, 262144, 4);
+        Map<String, String> keyValues = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keyValues.put("p" + i, "v" + i);
+            keys.add("p" + i);
+        }
+        bulk.mset(keyValues);
+        assertEquals(20, received.size());
+        received.clear();
+
+        List<String> values = bulk.mget(keys);
+        assertEquals(20, received.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("v" + i, values.get(i));
+        }
+        assertTrue(sessions.size() > 1);
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+        assertEquals(20, meterRegistry.get("redis.jedis.bulk.chunks").tag("command", "MGET").summary().max(), 0);
+    }
+
+    @Test
+    public void utf8Length() {
+        assertEquals(3, JedisBulkOperations.utf8Length("abc"));
+        assertEquals(6, JedisBulkOperations.utf8Length("你好"));
+        assertEquals(2, JedisBulkOperations.utf8Length("é"));
+        assertEquals(4, JedisBulkOperations.utf8Length("😀"));
+        assertEquals(0, JedisBulkOperations.utf8Length(null));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
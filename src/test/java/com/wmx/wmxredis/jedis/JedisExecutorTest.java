@@ -0,0 +1,131 @@
+package com.wmx.wmxredis.jedis;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link JedisExecutor} 单元测试：连接归还、借用/持有时间指标、泄漏检测，使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 22:25
+ */
+public class JedisExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties());
+    private EmbeddedRedisServer server;
+    private InstrumentedJedisConnectionFactory connectionFactory;
+    private JedisExecutor executor;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(2);
+        connectionFactory = new InstrumentedJedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().poolConfig(poolConfig).build(),
+                metrics);
+        connectionFactory.afterPropertiesSet();
+        JedisExecutorProperties properties = new JedisExecutorProperties();
+        properties.setLeakDetectionThreshold(Duration.ofMillis(100));
+        properties.setLeakCheckInterval(Duration.ofMillis(20));
+        executor = new JedisExecutor(connectionFactory, metrics, properties);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void returnsConnectionAndRecordsTimes() {
+        executor.run("test.set", jedis -> jedis.set("k", "v"));
+        assertEquals("v", executor.execute("test.get", jedis -> jedis.get("k")));
+
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+        assertTrue(executor.getLeases().isEmpty());
+        assertEquals(1, meterRegistry.get("redis.jedis.borrow").tag("operation", "test.get").timer().count());
+        assertEquals(1, meterRegistry.get("redis.jedis.hold").tag("operation", "test.get").timer().count());
+    }
+
+    @Test
+    public void returnsConnectionOnError() {
+        // 连接池只有 2 个连接，失败后没有归还的话后面的调用会一直等待
+        for (int i = 0; i < 5; i++) {
+            try {
+                executor.execute("test.wrongType", jedis -> {
+                    jedis.rpush("list", "a");
+                    return jedis.get("list");
+                });
+                fail();
+            } catch (InvalidDataAccessApiUsageException e) {
+                assertTrue(e.getMessage().startsWith("WRONGTYPE"));
+            }
+            try {
+                executor.run("test.business", jedis -> {
+                    throw new IllegalStateException("业务异常原样抛出");
+                });
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("业务异常原样抛出", e.getMessage());
+            }
+        }
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+    }
+
+    @Test
+    public void reportsConnectionsHeldPastThreshold() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService thread = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> future = thread.submit(() -> executor.run("test.slow", jedis -> {
+                jedis.ping();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (meterRegistry.get("redis.jedis.leaks").counter().count() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, meterRegistry.get("redis.jedis.leaks").counter().count(), 0);
+            assertEquals(1, executor.getLeases().size());
+            JedisExecutor.Lease lease = executor.getLeases().iterator().next();
+            assertEquals("test.slow", lease.getOperation());
+            assertTrue(lease.isReported());
+
+            release.countDown();
+            future.get(5, TimeUnit.SECONDS);
+            assertTrue(executor.getLeases().isEmpty());
+            // 每个连接只报告一次
+            assertEquals(1, meterRegistry.get("redis.jedis.leaks").counter().count(), 0);
+        } finally {
+            thread.shutdownNow();
+        }
+    }
+}
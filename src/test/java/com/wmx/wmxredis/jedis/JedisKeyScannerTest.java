@@ -0,0 +1,146 @@
+package com.wmx.wmxredis.jedis;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link JedisKeyScanner} 单元测试：多页游标遍历、MATCH、TYPE 过滤、流提前结束时不再 SCAN、连接及时归还、复用回调中持有的连接，使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/20 11:30
+ */
+public class JedisKeyScannerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties());
+    private EmbeddedRedisServer server;
+    private InstrumentedJedisConnectionFactory connectionFactory;
+    private JedisExecutor executor;
+    private JedisKeyScanner scanner;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(1);
+        connectionFactory = new InstrumentedJedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().poolConfig(poolConfig).build(),
+                metrics);
+        connectionFactory.afterPropertiesSet();
+        executor = new JedisExecutor(connectionFactory, metrics, new JedisExecutorProperties());
+        scanner = new JedisKeyScanner();
+        ReflectionTestUtils.setField(scanner, "redisConnectionFactory", connectionFactory);
+        // 先写入不匹配 user:* 的 key，MATCH 时前几页为空但游标还没有结束
+        executor.run("test.write", jedis -> {
+            for (int i = 0; i < 5; i++) {
+                jedis.set("order:" + i, "o");
+            }
+            for (int i = 0; i < 3; i++) {
+                jedis.rpush("list:" + i, "l");
+            }
+            for (int i = 0; i < 25; i++) {
+                jedis.set("user:" + i, "u");
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private long scans() {
+        Timer timer = meterRegistry.find("redis.command").tags("command", "SCAN").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    public void iteratesAllPages() {
+        List<String> keys = new ArrayList<>();
+        scanner.iterator(null, 5, null).forEachRemaining(keys::add);
+        assertEquals(33, keys.size());
+        assertEquals(33, new HashSet<>(keys).size());
+        // 33 个 key，每页 5 个，共 7 页
+        assertEquals(7, scans());
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+    }
+
+    @Test
+    public void matchSkipsEmptyPages() {
+        Set<String> keys = scanner.stream("user:*", 5, null).collect(Collectors.toSet());
+        assertEquals(25, keys.size());
+        assertTrue(keys.stream().allMatch(key -> key.startsWith("user:")));
+
+        JedisKeyScanner.ScanPage first = scanner.scan("0", "user:*", 5, null);
+        assertTrue(first.getKeys().isEmpty());
+        assertFalse(first.isFinished());
+    }
+
+    @Test
+    public void typeIsFilteredLocally() {
+        Set<String> lists = scanner.stream(null, 4, "list").collect(Collectors.toSet());
+        assertEquals(new HashSet<>(Arrays.asList("list:0", "list:1", "list:2")), lists);
+        assertEquals(0, scanner.stream("user:*", 100, "list").count());
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+    }
+
+    @Test
+    public void limitStopsScanning() {
+        List<String> keys = scanner.stream(null, 5, null).limit(3).collect(Collectors.toList());
+        assertEquals(3, keys.size());
+        assertEquals(1, scans());
+        // 每页取完立即归还连接，流没有读完也不会占用连接
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+        assertEquals(33, scanner.stream(null, 100, null).count());
+    }
+
+    @Test
+    public void borrowedJedisIsReused() {
+        // 连接池只有 1 个连接，回调中再借用连接会一直等待
+        Set<String> keys = executor.execute("test.scan", jedis -> scanner.stream(jedis, "user:*", 5, null).collect(Collectors.toSet()));
+        assertEquals(25, keys.size());
+        List<String> lists = executor.execute("test.scan", jedis -> scanner.scan(jedis, "0", "list:*", 100, "list").getKeys());
+        assertEquals(3, lists.size());
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+    }
+
+    @Test
+    public void nonJedisErrorIsRethrown() {
+        RedisConnectionFactory broken = (RedisConnectionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RedisConnectionFactory.class}, (proxy, method, args) -> {
+                    if ("toString".equals(method.getName())) {
+                        return "brokenConnectionFactory";
+                    }
+                    throw new IllegalStateException("连接工厂已关闭");
+                });
+        ReflectionTestUtils.setField(scanner, "redisConnectionFactory", broken);
+        try {
+            scanner.scan("0", null, 10, null);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("连接工厂已关闭", e.getMessage());
+        }
+    }
+}
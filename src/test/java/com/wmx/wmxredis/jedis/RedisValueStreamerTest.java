@@ -0,0 +1,157 @@
+package com.wmx.wmxredis.jedis;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RedisValueStreamer} 单元测试：各种类型分页读取的结果与 getValueByKey 一致，使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 19:20
+ */
+public class RedisValueStreamerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EmbeddedRedisServer server;
+    private InstrumentedJedisConnectionFactory connectionFactory;
+    private JedisExecutor executor;
+    private RedisValueStreamer streamer;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(2);
+        connectionFactory = new InstrumentedJedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().poolConfig(poolConfig).build(),
+                metrics);
+        connectionFactory.afterPropertiesSet();
+        executor = new JedisExecutor(connectionFactory, metrics, new JedisExecutorProperties());
+        RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        RedisValueStreamProperties properties = new RedisValueStreamProperties();
+        properties.setPageSize(100);
+        streamer = new RedisValueStreamer(executor, redisTemplate, objectMapper, properties);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private JsonNode write(String key) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamer.write(key, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    @Test
+    public void listIsReadInWindowsInOrder() throws IOException {
+        // 250 个元素，每页 100 个，最后一页不满；再测试正好是整页的情况
+        executor.run("test.rpush", jedis -> {
+            for (int i = 0; i < 250; i++) {
+                jedis.rpush("list", "e" + i);
+            }
+            for (int i = 0; i < 200; i++) {
+                jedis.rpush("full", "f" + i);
+            }
+        });
+        JsonNode result = write("list");
+        assertEquals(200, result.get("code").asInt());
+        assertEquals(250, result.get("total").asLong());
+        assertEquals(250, result.get("data").size());
+        for (int i = 0; i < 250; i++) {
+            assertEquals("e" + i, result.get("data").get(i).asText());
+        }
+        assertTrue(result.get("message").asText().startsWith("查询成功！"));
+        assertEquals(200, write("full").get("data").size());
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+    }
+
+    @Test
+    public void hashSetAndZsetArePaged() throws IOException {
+        Map<String, String> hash = new HashMap<>();
+        Set<String> members = new HashSet<>();
+        executor.run("test.write", jedis -> {
+            for (int i = 0; i < 250; i++) {
+                hash.put("field" + i, "value" + i);
+                members.add("m" + i);
+                jedis.hset("hash", "field" + i, "value" + i);
+                jedis.sadd("set", "m" + i);
+                jedis.zadd("zset", 250 - i, "z" + i);
+            }
+        });
+
+        JsonNode hashResult = write("hash").get("data");
+        Map<String, String> streamedHash = new HashMap<>();
+        hashResult.fields().forEachRemaining(entry -> streamedHash.put(entry.getKey(), entry.getValue().asText()));
+        assertEquals(hash, streamedHash);
+
+        Set<String> streamedMembers = new HashSet<>();
+        write("set").get("data").forEach(node -> streamedMembers.add(node.asText()));
+        assertEquals(members, streamedMembers);
+
+        // zset 按分数从小到大，与 range(key, 0, -1) 相同
+        JsonNode zset = write("zset");
+        assertEquals(250, zset.get("total").asLong());
+        for (int i = 0; i < 250; i++) {
+            assertEquals("z" + (249 - i), zset.get("data").get(i).asText());
+        }
+    }
+
+    @Test
+    public void duplicateHashFieldsWithinPageAreDropped() throws IOException {
+        executor.run("test.hset", jedis -> jedis.hset("hash", "f", "1"));
+        // 模拟 rehash 期间 HSCAN 重复返回字段：第一页内 f 重复，第二页再次返回 f
+        server.getCommands().register("HSCAN", 2, -1, (session, args) -> "0".equals(args.get(1))
+                ? Arrays.asList("1", Arrays.asList("f", "1", "g", "2", "f", "1"))
+                : Arrays.asList("0", Arrays.asList("f", "1")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamer.write("hash", out);
+        String json = new String(out.toByteArray(), "UTF-8");
+        assertTrue(json, json.contains("\"data\":{\"f\":\"1\",\"g\":\"2\",\"f\":\"1\"}"));
+        // 跨页的重复没有去掉，total 包含重复的个数
+        JsonNode result = objectMapper.readTree(json);
+        assertEquals(3, result.get("total").asLong());
+        assertEquals(2, result.get("data").size());
+    }
+
+    @Test
+    public void stringAndErrors() throws IOException {
+        executor.run("test.set", jedis -> jedis.set("str", "你好"));
+        JsonNode result = write("str");
+        assertEquals("你好", result.get("data").asText());
+        assertEquals(1, result.get("total").asLong());
+
+        JsonNode missing = write("missing");
+        assertEquals(500, missing.get("code").asInt());
+        assertEquals("kye 不存在：missing", missing.get("data").asText());
+        assertEquals(500, write("").get("code").asInt());
+    }
+}
@@ -0,0 +1,243 @@
+package com.wmx.wmxredis.lock;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FencedLockService}、{@link LocalKeyLocks} 单元测试，使用内嵌 Redis 服务端
+ * <p>
+ * 内嵌服务端执行的是 {@link com.wmx.wmxredis.embedded.LuaScriptRegistry} 中的 Java 实现，fenced_lock_*.lua 脚本本身没有被执行，
+ * 脚本在真实 Redis 中的行为见 {@link com.wmx.wmxredis.lua.LuaScriptsIT}。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 14:30
+ */
+public class FencedLockServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FencedLockProperties properties = new FencedLockProperties();
+    private EmbeddedRedisServer server;
+    private RedissonClient redissonClient;
+    private FencedLockService lockService;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new EmbeddedRedisServer(0).start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + server.getPort())
+                .setConnectionMinimumIdleSize(1).setConnectionPoolSize(4);
+        redissonClient = Redisson.create(config);
+        properties.setLeaseTime(Duration.ofMillis(300));
+        lockService = new FencedLockService(redissonClient, properties, meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        lockService.shutdown();
+        redissonClient.shutdown();
+        server.stop();
+    }
+
+    @Test
+    public void issuesIncreasingTokens() throws Exception {
+        FencedLock first = lockService.tryLock("payment", 1, Duration.ZERO);
+        assertNotNull(first);
+        // 另一个实例在 Redis 中竞争
+        FencedLockService otherInstance = new FencedLockService(redissonClient, properties, meterRegistry);
+        try {
+            assertNull(otherInstance.tryLock("payment", 1, Duration.ofMillis(50)));
+        } finally {
+            otherInstance.shutdown();
+        }
+        // 不同资源互不影响
+        FencedLock other = lockService.tryLock("payment", 2, Duration.ZERO);
+        assertNotNull(other);
+        other.unlock();
+
+        first.unlock();
+        // 重复释放不会出错
+        first.unlock();
+        assertFalse(first.isHeld());
+        try (FencedLock second = lockService.tryLock("payment", 1, Duration.ZERO)) {
+            assertNotNull(second);
+            assertTrue(second.getToken() > first.getToken());
+        }
+        assertEquals(1.0, meterRegistry.get("redis.lock.contention").tag("lock", "payment").counter().count(), 0);
+        assertEquals(3, meterRegistry.get("redis.lock.hold").tag("lock", "payment").timer().count());
+    }
+
+    @Test
+    public void renewsWhileHolderIsAlive() throws Exception {
+        try (FencedLock lock = lockService.tryLock("payment", 1, Duration.ZERO)) {
+            // 持有时间超过租约，续租后仍然持有
+            TimeUnit.MILLISECONDS.sleep(800);
+            assertTrue(lock.isHeld());
+            assertNull(lockService.tryLock("payment", 1, Duration.ZERO));
+        }
+        assertNotNull(lockService.tryLock("payment", 1, Duration.ZERO));
+    }
+
+    @Test
+    public void neverReleasesAnotherOwnersLock() throws Exception {
+        FencedLock lock = lockService.tryLock("payment", 1, Duration.ZERO);
+        // 模拟锁过期后被其它持有者获取
+        RBucket<String> bucket = redissonClient.getBucket(lock.getKey(), StringCodec.INSTANCE);
+        bucket.set("other-owner", 10, TimeUnit.SECONDS);
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertFalse(lock.isHeld());
+        assertEquals(1.0, meterRegistry.get("redis.lock.lost").tag("lock", "payment").counter().count(), 0);
+        lock.unlock();
+        assertEquals("other-owner", bucket.get());
+    }
+
+    @Test
+    public void expiresAfterHolderThreadExits() throws Exception {
+        AtomicReference<FencedLock> leaked = new AtomicReference<>();
+        Thread holder = new Thread(() -> {
+            try {
+                // 忘记释放锁
+                leaked.set(lockService.tryLock("payment", 1, Duration.ZERO));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        holder.join();
+        assertNotNull(leaked.get());
+        FencedLock lock = lockService.tryLock("payment", 1, Duration.ofSeconds(2));
+        assertNotNull(lock);
+        assertTrue(lock.getToken() > leaked.get().getToken());
+        lock.unlock();
+    }
+
+    @Test
+    public void stopsRenewingAfterMaxHoldTime() throws Exception {
+        properties.setMaxHoldTime(Duration.ofMillis(500));
+        // 持有线程一直存活(如线程池中的线程)，但是没有释放锁
+        FencedLock lock = lockService.tryLock("payment", 1, Duration.ZERO);
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertTrue(lock.isHeld());
+        FencedLock next = lockService.tryLock("payment", 1, Duration.ofSeconds(2));
+        assertNotNull(next);
+        assertFalse(lock.isHeld());
+        assertTrue(next.getToken() > lock.getToken());
+        assertEquals(1.0, meterRegistry.get("redis.lock.lost").tag("lock", "payment").counter().count(), 0);
+        // 迟到的释放不会删除新持有者的锁
+        lock.unlock();
+        assertNull(lockService.tryLock("payment", 1, Duration.ZERO));
+        next.unlock();
+    }
+
+    @Test
+    public void maxHoldTimeCanBeSetPerLock() throws Exception {
+        properties.setMaxHoldTime(Duration.ofMillis(300));
+        // 单独指定的最长持有时间覆盖默认值，0 表示不限制
+        try (FencedLock longer = lockService.tryLock("payment", 1, Duration.ZERO, Duration.ofSeconds(10));
+             FencedLock unlimited = lockService.tryLock("payment", 2, Duration.ZERO, Duration.ZERO)) {
+            TimeUnit.MILLISECONDS.sleep(800);
+            assertTrue(longer.isHeld());
+            assertTrue(unlimited.isHeld());
+            assertNull(lockService.tryLock("payment", 1, Duration.ZERO));
+            assertNull(lockService.tryLock("payment", 2, Duration.ZERO));
+        }
+        assertNull(meterRegistry.find("redis.lock.lost").counter());
+    }
+
+    @Test
+    public void localLocksAreKeyedExactly() throws Exception {
+        LocalKeyLocks localLocks = new LocalKeyLocks(true);
+        // 之前 1024 个分段时 2000 个 key 必然有落在同一个分段的，同一个线程获取第二个时会等待自己
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(localLocks.tryAcquire("key" + i, 10, TimeUnit.MILLISECONDS));
+        }
+        assertFalse(localLocks.tryAcquire("key0"));
+        // 其它线程按相反顺序获取另一批 key，不会与当前线程互相等待
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(executor.submit(() -> {
+                for (int i = 3999; i >= 2000; i--) {
+                    if (!localLocks.tryAcquire("key" + i, 10, TimeUnit.MILLISECONDS)) {
+                        return false;
+                    }
+                }
+                return true;
+            }).get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < 4000; i++) {
+            localLocks.release("key" + i);
+        }
+        // 没有持有者与等待者的 key 被移除
+        assertEquals(0, localLocks.size());
+        assertTrue(localLocks.tryAcquire("key0"));
+        localLocks.release("key0");
+        assertEquals(0, localLocks.size());
+    }
+
+    @Test
+    public void holdsSeveralLocksInOneThread() throws Exception {
+        List<FencedLock> locks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            FencedLock lock = lockService.tryLock("payment", i, Duration.ZERO);
+            assertNotNull(lock);
+            locks.add(lock);
+        }
+        locks.forEach(FencedLock::unlock);
+        assertTrue(meterRegistry.find("redis.lock.local.contention").counters().isEmpty());
+    }
+
+    @Test
+    public void queuesLocallyBeforeRedis() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    try (FencedLock lock = lockService.tryLock("payment", 1, Duration.ofSeconds(5))) {
+                        maxHolders.accumulateAndGet(holders.incrementAndGet(), Math::max);
+                        TimeUnit.MILLISECONDS.sleep(20);
+                        holders.decrementAndGet();
+                        return lock.getToken();
+                    }
+                }));
+            }
+            Set<Long> tokens = new HashSet<>();
+            for (Future<Long> future : futures) {
+                tokens.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(8, tokens.size());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, maxHolders.get());
+        // 同一个实例的线程在本地排队，Redis 中没有发生竞争
+        assertTrue(meterRegistry.get("redis.lock.local.contention").tag("lock", "payment").counter().count() > 0);
+        assertTrue(meterRegistry.find("redis.lock.contention").counters().isEmpty());
+    }
+}
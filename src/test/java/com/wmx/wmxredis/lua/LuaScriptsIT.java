@@ -0,0 +1,164 @@
+package com.wmx.wmxredis.lua;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+import redis.clients.jedis.Jedis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * resources/lua 下的脚本在真实 Redis 中执行的集成测试
+ * <p>
+ * 1、单元测试使用的内嵌服务端没有 Lua 解释器，执行的是 {@link com.wmx.wmxredis.embedded.LuaScriptRegistry} 中的 Java 实现，
+ * * 脚本文件本身(语法、unpack 分段、nil 转换、多字段 HSET 等)只有这里会执行。
+ * 2、默认构建不执行，需要一个 Redis 5.0+(XPENDING)：mvn verify -P redis-it -Dredis.it.host=127.0.0.1 -Dredis.it.port=6379
+ * 3、所有 key 使用随机前缀，结束时删除，不影响库中的其它数据。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/20 14:00
+ */
+public class LuaScriptsIT {
+
+    private final String prefix = "wmx:it:" + UUID.randomUUID() + ":";
+    private final List<String> keys = new ArrayList<>();
+    private Jedis jedis;
+
+    @Before
+    public void setUp() {
+        jedis = new Jedis(System.getProperty("redis.it.host", "127.0.0.1"), Integer.getInteger("redis.it.port", 6379));
+        assertEquals("PONG", jedis.ping());
+    }
+
+    @After
+    public void tearDown() {
+        if (!keys.isEmpty()) {
+            jedis.del(keys.toArray(new String[0]));
+        }
+        jedis.close();
+    }
+
+    private String key(String name) {
+        String key = prefix + name;
+        keys.add(key);
+        return key;
+    }
+
+    private Object eval(String path, List<String> keys, String... args) {
+        return jedis.eval(script(path), keys, Arrays.asList(args));
+    }
+
+    @Test
+    public void fencedLock() {
+        String lock = key("{payment:1}");
+        String fence = key("{payment:1}:fence");
+        List<String> lockKeys = Arrays.asList(lock, fence);
+        List<String> lockKey = Collections.singletonList(lock);
+
+        assertEquals(1L, eval("lua/fenced_lock_acquire.lua", lockKeys, "owner-1", "10000"));
+        assertEquals(0L, eval("lua/fenced_lock_acquire.lua", lockKeys, "owner-2", "10000"));
+        assertTrue(jedis.pttl(lock) <= 10000);
+
+        assertEquals(0L, eval("lua/fenced_lock_renew.lua", lockKey, "owner-2", "60000"));
+        assertEquals(1L, eval("lua/fenced_lock_renew.lua", lockKey, "owner-1", "60000"));
+        assertTrue(jedis.pttl(lock) > 10000);
+
+        assertEquals(0L, eval("lua/fenced_lock_release.lua", lockKey, "owner-2"));
+        assertEquals("owner-1", jedis.get(lock));
+        assertEquals(1L, eval("lua/fenced_lock_release.lua", lockKey, "owner-1"));
+        assertFalse(jedis.exists(lock));
+        // 锁已经不存在时续租、释放都返回 0
+        assertEquals(0L, eval("lua/fenced_lock_renew.lua", lockKey, "owner-1", "60000"));
+        assertEquals(0L, eval("lua/fenced_lock_release.lua", lockKey, "owner-1"));
+
+        assertEquals(2L, eval("lua/fenced_lock_acquire.lua", lockKeys, "owner-2", "10000"));
+        assertEquals(-1L, jedis.ttl(fence).longValue());
+    }
+
+    @Test
+    public void rightPushAndExpire() {
+        String list = key("list");
+        assertEquals(1L, eval("lua/rpush_expire.lua", Collections.singletonList(list), "60000", "a"));
+        // 超过 5000 个元素时分段追加
+        String[] args = new String[12002];
+        args[0] = "60000";
+        for (int i = 1; i < args.length; i++) {
+            args[i] = "e" + i;
+        }
+        assertEquals(12002L, eval("lua/rpush_expire.lua", Collections.singletonList(list), args));
+        assertEquals(Arrays.asList("a", "e1", "e2"), jedis.lrange(list, 0, 2));
+        assertEquals("e12001", jedis.lindex(list, -1));
+        assertTrue(jedis.pttl(list) > 0);
+    }
+
+    @Test
+    public void hashPutAndExpire() {
+        String hash = key("hash");
+        List<String> hashKey = Collections.singletonList(hash);
+        assertEquals(1L, eval("lua/hset_expire.lua", hashKey, "60000", "f", "v1"));
+        assertEquals(0L, eval("lua/hset_expire.lua", hashKey, "60000", "f", "v2"));
+        assertEquals("v2", jedis.hget(hash, "f"));
+        assertTrue(jedis.pttl(hash) > 0);
+
+        String big = key("bigHash");
+        String[] args = new String[1 + 6000 * 2];
+        args[0] = "60000";
+        for (int i = 0; i < 6000; i++) {
+            args[1 + i * 2] = "field" + i;
+            args[2 + i * 2] = "value" + i;
+        }
+        assertEquals(6000L, eval("lua/hmset_expire.lua", Collections.singletonList(big), args));
+        assertEquals(6000L, jedis.hlen(big).longValue());
+        assertEquals("value5999", jedis.hget(big, "field5999"));
+        assertTrue(jedis.pttl(big) > 0);
+    }
+
+    @Test
+    public void schedulerFireRejectsOlderToken() {
+        String job = key("job");
+        List<String> jobKey = Collections.singletonList(job);
+        assertEquals(1L, eval("lua/scheduler_fire.lua", jobKey, "2", "1000", "2000"));
+        assertEquals(0L, eval("lua/scheduler_fire.lua", jobKey, "1", "3000", "4000"));
+        Map<String, String> state = jedis.hgetAll(job);
+        assertEquals("2", state.get("epoch"));
+        assertEquals("1000", state.get("fire"));
+        assertEquals("2000", state.get("next"));
+        // 同一个主节点(令牌相等)可以继续写入
+        assertEquals(1L, eval("lua/scheduler_fire.lua", jobKey, "2", "3000", "4000"));
+        assertEquals("4000", jedis.hget(job, "next"));
+    }
+
+    @Test
+    public void queuePending() {
+        String stream = key("stream");
+        List<String> streamKey = Collections.singletonList(stream);
+        assertEquals(0L, eval("lua/queue_pending.lua", streamKey, "group"));
+        // Jedis 2.9 没有流相关命令，通过脚本准备数据
+        jedis.eval("return redis.call('xadd', KEYS[1], ARGV[1], 'body', 'x')", streamKey, Collections.singletonList("1-0"));
+        // 消费组不存在
+        assertEquals(0L, eval("lua/queue_pending.lua", streamKey, "group"));
+        jedis.eval("return redis.call('xgroup', 'create', KEYS[1], ARGV[1], '0')", streamKey, Collections.singletonList("group"));
+        // 没有待确认的消息
+        assertEquals(0L, eval("lua/queue_pending.lua", streamKey, "group"));
+        jedis.eval("return redis.call('xadd', KEYS[1], ARGV[1], 'body', 'y')", streamKey, Collections.singletonList("2-0"));
+        jedis.eval("return redis.call('xreadgroup', 'group', ARGV[1], 'consumer', 'streams', KEYS[1], '>')",
+                streamKey, Collections.singletonList("group"));
+        assertEquals(2L, eval("lua/queue_pending.lua", streamKey, "group"));
+    }
+
+    private static String script(String path) {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("读取 Lua 脚本失败：" + path, e);
+        }
+    }
+}
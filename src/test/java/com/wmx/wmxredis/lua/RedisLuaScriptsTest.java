@@ -0,0 +1,120 @@
+package com.wmx.wmxredis.lua;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import com.wmx.wmxredis.pipeline.RedisBatchExecutor;
+import com.wmx.wmxredis.pipeline.RedisBatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RedisLuaScripts} 单元测试：脚本缓存被清空后，管道批次中的 EVALSHA 改用 EVAL 重新执行，使用内嵌 Redis 服务端
+ * <p>
+ * 内嵌服务端没有 Lua 解释器，按 SHA1 执行 {@link com.wmx.wmxredis.embedded.LuaScriptRegistry} 中的 Java 实现，
+ * 这里验证的是 EVALSHA/EVAL 的调用与重试逻辑，resources/lua 下的脚本文件本身没有被执行，见 {@link LuaScriptsIT}。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/20 11:00
+ */
+public class RedisLuaScriptsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties());
+    private EmbeddedRedisServer server;
+    private InstrumentedJedisConnectionFactory connectionFactory;
+    private RedisTemplate<Object, Object> redisTemplate;
+    private RedisBatchExecutor batchExecutor;
+    private RedisLuaScripts luaScripts;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        connectionFactory = new InstrumentedJedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().build(), metrics);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        batchExecutor = new RedisBatchExecutor();
+        ReflectionTestUtils.setField(batchExecutor, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(batchExecutor, "redisConnectionFactory", connectionFactory);
+        ReflectionTestUtils.setField(batchExecutor, "redisCommandMetrics", metrics);
+        luaScripts = new RedisLuaScripts();
+        ReflectionTestUtils.setField(luaScripts, "redisTemplate", redisTemplate);
+        luaScripts.load();
+    }
+
+    @After
+    public void tearDown() {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void batchRetriesWithEvalAfterScriptFlush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptFlush();
+            return null;
+        });
+
+        RedisBatchResult result = luaScripts.hashPutAndExpire(
+                luaScripts.rightPushAllAndExpire(batchExecutor.batch().set("plain", "1"), "list", Duration.ofSeconds(60), "a", "b"),
+                "hash", "f", "v", Duration.ofSeconds(60))
+                .set("plain2", "2")
+                .execute();
+
+        assertTrue(result.toString(), result.isSuccess());
+        assertEquals(Arrays.asList("SET", "EVALSHA", "EVALSHA", "SET"),
+                Arrays.asList(result.get(0).getCommand(), result.get(1).getCommand(), result.get(2).getCommand(), result.get(3).getCommand()));
+        assertEquals(2L, result.get(1).getValue());
+        assertEquals(1L, result.get(2).getValue());
+        assertEquals(Arrays.asList("a", "b"), redisTemplate.opsForList().range("list", 0, -1));
+        assertEquals("v", redisTemplate.opsForHash().get("hash", "f"));
+        assertTrue(redisTemplate.getExpire("list") > 0);
+        assertTrue(redisTemplate.getExpire("hash") > 0);
+
+        // EVAL 重新缓存了脚本，下一个批次的 EVALSHA 直接成功
+        Boolean cached = redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.scriptExists(luaShaOf("lua/rpush_expire.lua")).get(0));
+        assertTrue(cached);
+        RedisBatchResult next = luaScripts.rightPushAllAndExpire(batchExecutor.batch(), "list", Duration.ofSeconds(60), "c").execute();
+        assertTrue(next.isSuccess());
+        assertEquals(3L, next.get(0).getValue());
+    }
+
+    @Test
+    public void scriptErrorIsNotRetried() {
+        redisTemplate.opsForValue().set("str", "v");
+        RedisBatchResult result = luaScripts.rightPushAllAndExpire(batchExecutor.batch(), "str", Duration.ofSeconds(60), "a")
+                .execute();
+        assertFalse(result.isSuccess());
+        assertEquals("EVALSHA", result.get(0).getCommand());
+        assertFalse(result.get(0).getErrorMessage().startsWith("NOSCRIPT"));
+    }
+
+    private static String luaShaOf(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        return script.getSha1();
+    }
+}
@@ -0,0 +1,87 @@
+package com.wmx.wmxredis.metrics;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link InstrumentedJedisConnectionFactory} 单元测试：连接断开后代理能归还到连接池，使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/20 15:10
+ */
+public class InstrumentedJedisConnectionFactoryTest {
+
+    private EmbeddedRedisServer server;
+    private InstrumentedJedisConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        // GET boom 回复后服务端关闭连接，同一个连接上的下一个命令读取失败，连接标记为 broken
+        server.getCommands().register("GET", 1, 1, (s, a) -> {
+            if ("boom".equals(a.get(0))) {
+                s.requestClose();
+                return null;
+            }
+            return server.getCommands().getStore().db(s.getDb()).getString(a.get(0));
+        });
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(1);
+        poolConfig.setMaxWaitMillis(1000);
+        connectionFactory = new InstrumentedJedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().poolConfig(poolConfig).build(),
+                new RedisCommandMetrics(new SimpleMeterRegistry(), new RedisMetricsProperties()));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @After
+    public void tearDown() {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void brokenConnectionIsReturnedToPool() {
+        try {
+            redisTemplate.execute(connection -> {
+                connection.get("boom".getBytes());
+                return connection.get("other".getBytes());
+            }, true);
+            fail();
+        } catch (DataAccessException e) {
+            // 预期：连接已被服务端关闭
+        }
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+        // 连接池最多 1 个连接，断开的连接没有销毁时这里会等待超时
+        redisTemplate.opsForValue().set("k", "v");
+        assertEquals("v", redisTemplate.opsForValue().get("k"));
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+    }
+
+    @Test
+    public void unwrapReturnsTarget() {
+        redisTemplate.execute(connection -> {
+            Jedis proxy = (Jedis) connection.getNativeConnection();
+            assertNotSame(proxy, JedisCommandInterceptor.unwrap(proxy));
+            Jedis target = JedisCommandInterceptor.unwrap(proxy);
+            assertSame(target, JedisCommandInterceptor.unwrap(target));
+            return null;
+        }, true);
+    }
+}
@@ -0,0 +1,86 @@
+package com.wmx.wmxredis.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RedisCommandMetrics}、{@link JedisCommandInterceptor} 单元测试，使用桩 Jedis，不需要连接 Redis
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 19:55
+ */
+public class RedisCommandMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties());
+
+    /**
+     * 不连接服务器的桩 Jedis
+     */
+    private static class StubJedis extends Jedis {
+        @Override
+        public String get(String key) {
+            return "value-of-" + key;
+        }
+
+        @Override
+        public Long hset(String key, String field, String value) {
+            throw new JedisDataException("WRONGTYPE Operation against a key holding the wrong kind of value");
+        }
+    }
+
+    @Test
+    public void recordsCommandLatencyAndPayload() {
+        Jedis jedis = JedisCommandInterceptor.proxy(new StubJedis(), metrics);
+        assertEquals("value-of-k1", jedis.get("k1"));
+        assertEquals("value-of-k2", jedis.get("k2"));
+
+        Timer timer = meterRegistry.get("redis.command")
+                .tags("client", "jedis", "command", "GET", "outcome", "success").timer();
+        assertEquals(2, timer.count());
+        assertEquals(4, meterRegistry.get("redis.command.payload").tags("command", "GET", "direction", "request")
+                .summary().totalAmount(), 0);
+        assertEquals(22, meterRegistry.get("redis.command.payload").tags("command", "GET", "direction", "response")
+                .summary().totalAmount(), 0);
+    }
+
+    @Test
+    public void recordsErrors() {
+        Jedis jedis = JedisCommandInterceptor.proxy(new StubJedis(), metrics);
+        try {
+            jedis.hset("k", "f", "v");
+            fail();
+        } catch (JedisDataException e) {
+            // 异常原样抛出
+        }
+        assertEquals(1, meterRegistry.get("redis.command")
+                .tags("command", "HSET", "outcome", "error").timer().count());
+        assertEquals(1, meterRegistry.get("redis.command.errors")
+                .tags("command", "HSET", "exception", "JedisDataException").counter().count(), 0);
+    }
+
+    @Test
+    public void nonCommandMethodsAreNotTimed() {
+        Jedis jedis = JedisCommandInterceptor.proxy(new StubJedis(), metrics);
+        assertNotNull(jedis.getClient());
+        assertTrue(meterRegistry.find("redis.command").timers().isEmpty());
+    }
+
+    @Test
+    public void sizeOf() {
+        assertEquals(3, RedisCommandMetrics.sizeOf(new byte[3]));
+        assertEquals(5, RedisCommandMetrics.sizeOf(new Object[]{"ab", new byte[][]{new byte[2], new byte[1]}}));
+        assertEquals(4, RedisCommandMetrics.sizeOf(Arrays.asList("a", "bcd")));
+        assertEquals(3, RedisCommandMetrics.sizeOf(Collections.singletonMap("k", "vv")));
+        assertEquals(0, RedisCommandMetrics.sizeOf(new Object()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.wmx.wmxredis.pipeline;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RedisBatchExecutor}、{@link RedisBatch} 单元测试：结果顺序、单个命令失败的回调、失败时归还连接，使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/20 10:30
+ */
+public class RedisBatchExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(meterRegistry, new RedisMetricsProperties());
+    private EmbeddedRedisServer server;
+    private InstrumentedJedisConnectionFactory connectionFactory;
+    private RedisTemplate<Object, Object> redisTemplate;
+    private RedisBatchExecutor executor;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedRedisServer(0).start();
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(1);
+        connectionFactory = new InstrumentedJedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().poolConfig(poolConfig).build(),
+                metrics);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        executor = new RedisBatchExecutor();
+        ReflectionTestUtils.setField(executor, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(executor, "redisConnectionFactory", connectionFactory);
+        ReflectionTestUtils.setField(executor, "redisCommandMetrics", metrics);
+    }
+
+    @After
+    public void tearDown() {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void resultsFollowCommandOrder() {
+        Map<String, Object> hash = new LinkedHashMap<>();
+        hash.put("f1", "v1");
+        hash.put("f2", "v2");
+        RedisBatchResult result = executor.batch()
+                .set("k1", "a")
+                .set("k2", "b", Duration.ofSeconds(60))
+                .rightPushAll("list", "x", "y", "z")
+                .hashPut("hash", "f0", "v0")
+                .hashPutAll("hash", hash)
+                .expire("list", Duration.ofSeconds(60))
+                .expire("missing", Duration.ofSeconds(60))
+                .delete("k1")
+                .execute();
+
+        assertTrue(result.isSuccess());
+        List<Object> values = new ArrayList<>();
+        List<String> commands = new ArrayList<>();
+        result.getResults().forEach(r -> {
+            values.add(r.getValue());
+            commands.add(r.getCommand());
+        });
+        assertEquals(Arrays.asList("SET", "PSETEX", "RPUSH", "HSET", "HMSET", "PEXPIRE", "PEXPIRE", "DEL"), commands);
+        assertEquals(Arrays.asList("OK", "OK", 3L, 1L, "OK", true, false, 1L), values);
+
+        assertNull(redisTemplate.opsForValue().get("k1"));
+        assertEquals("b", redisTemplate.opsForValue().get("k2"));
+        assertEquals(Arrays.asList("x", "y", "z"), redisTemplate.opsForList().range("list", 0, -1));
+        assertEquals(3, redisTemplate.opsForHash().size("hash").intValue());
+        assertEquals(1, meterRegistry.get("redis.command").tag("client", "pipeline").tag("command", "BATCH").timer().count());
+    }
+
+    @Test
+    public void failedCommandCallsOnErrorAndOthersSucceed() {
+        redisTemplate.opsForValue().set("str", "not a number");
+        List<Exception> errors = new ArrayList<>();
+        byte[] rawKey = "str".getBytes(StandardCharsets.UTF_8);
+        RedisBatchResult result = executor.batch()
+                .set("before", "1")
+                .add("INCR", "str", pipeline -> pipeline.incr(rawKey), Function.identity(), errors::add)
+                .hashPut("str", "f", "v")
+                .set("after", "2")
+                .execute();
+
+        assertFalse(result.isSuccess());
+        assertEquals(2, result.getErrors().size());
+        assertEquals("INCR", result.getErrors().get(0).getCommand());
+        assertEquals("HSET", result.getErrors().get(1).getCommand());
+        assertTrue(result.get(2).getErrorMessage().contains("WRONGTYPE"));
+        // 只有登记了回调的命令会调用 onError
+        assertEquals(1, errors.size());
+        assertTrue(result.get(0).isSuccess());
+        assertTrue(result.get(3).isSuccess());
+        assertEquals("2", redisTemplate.opsForValue().get("after"));
+        assertEquals(0, connectionFactory.getPool().getNumActive());
+    }
+
+    @Test
+    public void nonJedisErrorIsReportedAsFailure() {
+        List<Exception> errors = new ArrayList<>();
+        byte[] rawKey = "k".getBytes(StandardCharsets.UTF_8);
+        RedisBatchResult result = executor.batch()
+                .add("GET", "k", pipeline -> pipeline.get(rawKey), value -> {
+                    throw new IllegalStateException("转换失败");
+                }, errors::add)
+                .set("after", "1")
+                .execute();
+
+        assertFalse(result.isSuccess());
+        assertFalse(result.get(0).isSuccess());
+        assertNull(result.get(0).getValue());
+        assertTrue(result.get(0).getErrorMessage().contains("转换失败"));
+        assertEquals(1, errors.size());
+        assertTrue(result.get(1).isSuccess());
+    }
+
+    @Test
+    public void returnsConnectionWhenBatchFails() {
+        // 连接池只有 1 个连接，没有归还的话后面的批次会一直等待
+        for (int i = 0; i < 3; i++) {
+            try {
+                executor.batch()
+                        .set("k", "v")
+                        .add("BROKEN", "k", pipeline -> {
+                            throw new IllegalStateException("添加命令失败");
+                        }, Function.identity(), null)
+                        .execute();
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("添加命令失败", e.getMessage());
+            }
+            assertEquals(0, connectionFactory.getPool().getNumActive());
+        }
+        assertEquals("OK", executor.batch().set("k", "v").execute().get(0).getValue());
+    }
+}
@@ -0,0 +1,85 @@
+package com.wmx.wmxredis.pool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link PoolSizer}、{@link AdaptivePoolController} 单元测试，不需要连接 Redis
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 23:10
+ */
+public class PoolSizerTest {
+
+    private static final long GROW_WAIT = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private PoolSizer sizer() {
+        return new PoolSizer(4, 64, GROW_WAIT, 0.8, 0.3, 3);
+    }
+
+    @Test
+    public void growsMultiplicativelyUnderPressure() {
+        PoolSizer sizer = sizer();
+        // 有等待线程
+        assertEquals(12, sizer.next(8, 8, 2, 0));
+        // 平均等待时间超出
+        assertEquals(18, sizer.next(12, 2, 0, GROW_WAIT));
+        // 使用率超出
+        assertEquals(27, sizer.next(18, 15, 0, 0));
+        // 不超过上限
+        assertEquals(64, sizer.next(60, 60, 5, 0));
+    }
+
+    @Test
+    public void shrinksSlowlyAfterConsecutiveIdleSamples() {
+        PoolSizer sizer = sizer();
+        assertEquals(20, sizer.next(20, 2, 0, 0));
+        assertEquals(20, sizer.next(20, 2, 0, 0));
+        assertEquals(19, sizer.next(20, 2, 0, 0));
+        // 中间有一个周期使用率回升，重新计数
+        assertEquals(19, sizer.next(19, 2, 0, 0));
+        assertEquals(19, sizer.next(19, 10, 0, 0));
+        assertEquals(19, sizer.next(19, 2, 0, 0));
+        assertEquals(19, sizer.next(19, 2, 0, 0));
+        assertEquals(18, sizer.next(19, 2, 0, 0));
+    }
+
+    @Test
+    public void staysWithinBounds() {
+        PoolSizer sizer = new PoolSizer(4, 64, GROW_WAIT, 0.8, 0.3, 1);
+        assertEquals(4, sizer.next(4, 0, 0, 0));
+        assertEquals(64, sizer.next(100, 30, 0, 0));
+        assertEquals(4, sizer.next(1, 1, 0, 0));
+    }
+
+    @Test
+    public void controllerBoundsWaitAndResizesJedisPool() {
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(100);
+        poolConfig.setMaxWaitMillis(-1);
+        JedisPool jedisPool = new JedisPool(poolConfig, "127.0.0.1", 6379);
+        PoolSizingProperties properties = new PoolSizingProperties();
+        properties.setEnabled(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptivePoolController controller = new AdaptivePoolController(properties, meterRegistry, jedisPool, new RedissonPoolProbe());
+        try {
+            controller.start();
+            // 不再无限等待
+            assertEquals(500, controller.getJedisPool().getMaxWaitMillis());
+            // 超出范围的大小在第一次采样时收回到上限
+            controller.adjust();
+            assertEquals(64, meterRegistry.get("redis.pool.max").tag("pool", "jedis").gauge().value(), 0);
+            assertEquals(1, meterRegistry.get("redis.pool.resize").tags("pool", "jedis", "direction", "shrink").counter().count(), 0);
+        } finally {
+            controller.shutdown();
+            jedisPool.close();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.wmx.wmxredis.queue;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link WorkQueue} 单元测试，使用内嵌 Redis 服务端，两个 WorkQueue 模拟两个实例
+ * <p>
+ * 内嵌服务端执行的是 {@link com.wmx.wmxredis.embedded.LuaScriptRegistry} 中的 Java 实现，queue_pending.lua 脚本本身没有被执行，
+ * 脚本在真实 Redis 中的行为见 {@link com.wmx.wmxredis.lua.LuaScriptsIT}。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 17:40
+ */
+public class WorkQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WorkQueueProperties properties = new WorkQueueProperties();
+    private final List<WorkQueue> queues = new ArrayList<>();
+    private EmbeddedRedisServer server;
+    private RedissonClient redissonClient;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new EmbeddedRedisServer(0).start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + server.getPort())
+                .setConnectionMinimumIdleSize(1).setConnectionPoolSize(8);
+        redissonClient = Redisson.create(config);
+        properties.setWorkerThreads(4);
+        properties.setBatchSize(8);
+        properties.setBlockTimeout(Duration.ofMillis(200));
+        properties.setClaimInterval(Duration.ofMillis(100));
+        properties.setClaimIdle(Duration.ofMillis(300));
+        properties.setMaxDeliveries(3);
+    }
+
+    @After
+    public void tearDown() {
+        queues.forEach(WorkQueue::shutdown);
+        redissonClient.shutdown();
+        server.stop();
+    }
+
+    private WorkQueue start() {
+        WorkQueue queue = new WorkQueue(redissonClient, properties, meterRegistry);
+        queues.add(queue);
+        return queue;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("等待超时", System.currentTimeMillis() < deadline);
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+    private static List<Map<String, String>> messages(int count) {
+        List<Map<String, String>> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(Collections.singletonMap("index", String.valueOf(i)));
+        }
+        return messages;
+    }
+
+    @Test
+    public void sharesMessagesAcrossConsumers() throws Exception {
+        // 消息 -> 处理的实例
+        ConcurrentMap<String, String> handled = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        WorkQueue publisher = start();
+        // 订阅之前发布的消息同样会被消费
+        List<String> ids = publisher.publishAll("orders", messages(50));
+        assertEquals(50, new HashSet<>(ids).size());
+        for (WorkQueue queue : queues.toArray(new WorkQueue[0])) {
+            queue.subscribe("orders", (id, message) -> track(handled, duplicates, message, queue));
+        }
+        WorkQueue second = start();
+        second.subscribe("orders", (id, message) -> track(handled, duplicates, message, second));
+        for (int i = 50; i < 100; i++) {
+            publisher.publish("orders", Collections.singletonMap("index", String.valueOf(i)));
+        }
+        await(() -> handled.size() == 100);
+        assertEquals(0, duplicates.get());
+        // 全部确认
+        await(() -> publisher.pending("orders") == 0);
+        assertEquals(100L, publisher.stats("orders").get("length"));
+        assertEquals(100, meterRegistry.get("redis.queue.process").tag("result", "success").timers()
+                .stream().mapToLong(timer -> timer.count()).sum());
+    }
+
+    private static void track(ConcurrentMap<String, String> handled, AtomicInteger duplicates, Map<String, String> message, WorkQueue queue)
+            throws InterruptedException {
+        if (handled.putIfAbsent(message.get("index"), queue.getConsumerName()) != null) {
+            duplicates.incrementAndGet();
+        }
+        TimeUnit.MILLISECONDS.sleep(5);
+    }
+
+    @Test
+    public void reclaimsMessagesOfDeadConsumer() throws Exception {
+        // 第一个实例读取消息后"宕机"：处理器一直阻塞，不确认
+        WorkQueue dead = start();
+        Set<String> stuck = ConcurrentHashMap.newKeySet();
+        dead.subscribe("orders", (id, message) -> {
+            stuck.add(id);
+            TimeUnit.SECONDS.sleep(30);
+        });
+        dead.publishAll("orders", messages(3));
+        await(() -> stuck.size() == 3);
+
+        Set<String> handled = ConcurrentHashMap.newKeySet();
+        WorkQueue alive = start();
+        alive.subscribe("orders", (id, message) -> handled.add(id));
+        await(() -> handled.containsAll(stuck));
+        assertTrue(meterRegistry.get("redis.queue.claimed").tag("queue", "orders").counter().count() >= 3);
+        await(() -> alive.pending("orders") == 0);
+    }
+
+    @Test
+    public void movesPoisonMessagesToDeadLetters() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        WorkQueue queue = start();
+        queue.subscribe("orders", (id, message) -> {
+            if ("poison".equals(message.get("type"))) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("无法处理");
+            }
+        });
+        Map<String, String> poison = new HashMap<>();
+        poison.put("type", "poison");
+        String id = queue.publish("orders", poison);
+        queue.publish("orders", Collections.singletonMap("type", "normal"));
+
+        await(() -> (Long) queue.stats("orders").get("dead") == 1);
+        // 第一次投递 + 重新投递到 max-deliveries 次
+        assertEquals(properties.getMaxDeliveries(), attempts.get());
+        Map<String, String> dead = queue.deadLetters("orders", 10).values().iterator().next();
+        assertEquals("poison", dead.get("type"));
+        assertEquals(id, dead.get(WorkQueue.DEAD_ID_FIELD));
+        assertEquals(String.valueOf(properties.getMaxDeliveries()), dead.get(WorkQueue.DEAD_DELIVERIES_FIELD));
+        await(() -> queue.pending("orders") == 0);
+        assertEquals(1, meterRegistry.get("redis.queue.dead").tag("queue", "orders").counter().count(), 0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.wmx.wmxredis.redisson;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import org.junit.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RedissonMultiKeyOperations}、{@link RedissonConfig#createConfig} 单元测试，读写部分使用内嵌 Redis 服务端
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 09:35
+ */
+public class RedissonMultiKeyOperationsTest {
+
+    @Test
+    public void partitionsBySlot() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add("key" + i);
+        }
+        // 相同 hash tag 的 key 在同一个槽
+        keys.addAll(Arrays.asList("{user:1}:name", "{user:1}:age", "{user:1}:city"));
+        List<List<String>> batches = RedissonMultiKeyOperations.partition(keys, 10);
+
+        Set<String> all = new HashSet<>();
+        int previousSlot = -1;
+        for (List<String> batch : batches) {
+            assertTrue(batch.size() <= 10);
+            for (String key : batch) {
+                int slot = RedissonMultiKeyOperations.slot(key);
+                assertTrue(slot >= previousSlot);
+                previousSlot = slot;
+                all.add(key);
+            }
+        }
+        assertEquals(new HashSet<>(keys), all);
+        assertEquals(RedissonMultiKeyOperations.slot("{user:1}:name"), RedissonMultiKeyOperations.slot("{user:1}:age"));
+        assertTrue(batches.stream().anyMatch(batch -> batch.containsAll(Arrays.asList("{user:1}:name", "{user:1}:age", "{user:1}:city"))));
+        assertEquals(12182, RedissonMultiKeyOperations.slot("foo"));
+    }
+
+    @Test
+    public void createsTopologyConfigs() {
+        RedssionProperties properties = new RedssionProperties();
+        properties.setType("cluster");
+        properties.setNodeAddresses(Arrays.asList("redis://127.0.0.1:7000", "redis://127.0.0.1:7001"));
+        Config config = RedissonConfig.createConfig(properties);
+        assertEquals(2, config.useClusterServers().getNodeAddresses().size());
+        assertEquals(64, config.useClusterServers().getMasterConnectionPoolSize());
+
+        properties.setType("sentinel");
+        properties.setMasterName("mymaster");
+        assertEquals("mymaster", RedissonConfig.createConfig(properties).useSentinelServers().getMasterName());
+
+        properties.setType("replicated");
+        assertEquals(2, RedissonConfig.createConfig(properties).useReplicatedServers().getNodeAddresses().size());
+
+        properties.setType("unknown");
+        try {
+            RedissonConfig.createConfig(properties);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void readsAndWritesAcrossBatches() throws Exception {
+        EmbeddedRedisServer server = new EmbeddedRedisServer(0).start();
+        RedssionProperties properties = new RedssionProperties();
+        properties.setAddress("redis://127.0.0.1:" + server.getPort());
+        properties.setConnectionMinimumIdleSize(1);
+        properties.setConnectionPoolSize(4);
+        properties.setBatchSize(7);
+        RedissonClient redissonClient = Redisson.create(RedissonConfig.createConfig(properties));
+        try {
+            RedissonMultiKeyOperations operations = new RedissonMultiKeyOperations(redissonClient, properties);
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < 30; i++) {
+                values.put("multi:" + i, "value" + i);
+            }
+            operations.setAll(values, Duration.ofSeconds(60));
+
+            List<String> keys = new ArrayList<>(values.keySet());
+            keys.add("multi:missing");
+            Map<String, Object> result = operations.getAll(keys);
+            assertEquals(values, result);
+            assertEquals(new ArrayList<>(values.keySet()), new ArrayList<>(result.keySet()));
+            assertTrue(redissonClient.getBucket("multi:0").remainTimeToLive() > 0);
+        } finally {
+            redissonClient.shutdown();
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.wmx.wmxredis.routing;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.embedded.RespException;
+import com.wmx.wmxredis.metrics.InstrumentedJedisConnectionFactory;
+import com.wmx.wmxredis.metrics.RedisCommandMetrics;
+import com.wmx.wmxredis.metrics.RedisMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link ReadRouting}、{@link ReadRoutingAspect}、{@link ReplicaConnectionRouter} 单元测试
+ * <p>
+ * 使用两个内嵌 Redis 服务端分别作为主节点与副本，两边写入不同的值，根据读到的值判断命令发送到了哪里。
+ * 写入 key 之后副本上的写命令返回 READONLY 错误，与真实的只读副本相同。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 10:40
+ */
+public class ReadRoutingTest {
+
+    private final RedisCommandMetrics metrics = new RedisCommandMetrics(new SimpleMeterRegistry(), new RedisMetricsProperties());
+    private EmbeddedRedisServer master;
+    private EmbeddedRedisServer replica;
+    private InstrumentedJedisConnectionFactory masterFactory;
+    private InstrumentedJedisConnectionFactory replicaFactory;
+    private ReplicaConnectionRouter router;
+    private StringRedisTemplate redisTemplate;
+    private Reader reader;
+
+    @Before
+    public void setUp() throws IOException {
+        master = new EmbeddedRedisServer(0).start();
+        replica = new EmbeddedRedisServer(0).start();
+        masterFactory = factory(master);
+        replicaFactory = factory(replica);
+        replicaFactory.setPoolName("jedis-replica-0");
+        router = new ReplicaConnectionRouter(Collections.singletonList(replicaFactory));
+        masterFactory.setReplicaRouter(router);
+
+        redisTemplate = new StringRedisTemplate(masterFactory);
+        redisTemplate.opsForValue().set("key", "master");
+        new StringRedisTemplate(replicaFactory).opsForValue().set("key", "replica");
+        replicaFactory.setMaster(masterFactory);
+        for (String command : new String[]{"SET", "DEL", "LPUSH", "MULTI"}) {
+            replica.getCommands().register(command, 0, -1, (session, args) -> {
+                throw new RespException("READONLY You can't write against a read only replica.");
+            });
+        }
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Reader(redisTemplate));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ReadRoutingAspect());
+        reader = proxyFactory.getProxy();
+    }
+
+    @After
+    public void tearDown() {
+        router.destroy();
+        masterFactory.destroy();
+        master.stop();
+        replica.stop();
+    }
+
+    private InstrumentedJedisConnectionFactory factory(EmbeddedRedisServer server) {
+        InstrumentedJedisConnectionFactory factory = new InstrumentedJedisConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", server.getPort()),
+                JedisClientConfiguration.builder().usePooling().build(), metrics);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    @Test
+    public void routesAnnotatedReadsToReplica() {
+        assertEquals("master", redisTemplate.opsForValue().get("key"));
+        assertEquals("replica", reader.eventual());
+        // 没有写过，读自己的写同样从副本读取
+        assertEquals("replica", reader.readYourWrites());
+        assertEquals("master", redisTemplate.opsForValue().get("key"));
+    }
+
+    @Test
+    public void readsYourWritesFromMasterWithinScope() {
+        ReadRouting.beginScope();
+        try {
+            // 只读命令不算写入
+            redisTemplate.opsForValue().get("key");
+            assertEquals("replica", reader.readYourWrites());
+            redisTemplate.opsForValue().set("other", "value");
+            assertEquals("master", reader.readYourWrites());
+            assertEquals("replica", reader.eventual());
+        } finally {
+            ReadRouting.endScope();
+        }
+        // 作用域结束后重新从副本读取
+        assertEquals("replica", reader.readYourWrites());
+    }
+
+    @Test
+    public void writesInAnnotatedMethodGoToMaster() {
+        assertEquals("written", reader.writeThenRead());
+        assertEquals("written", redisTemplate.opsForValue().get("written"));
+        // 写入之后同一个连接上的读取也在主节点上执行
+        assertEquals("master", reader.eventualWriteThenRead());
+        assertEquals("piped", redisTemplate.opsForValue().get("piped"));
+        // 管道中的写命令同样转发给主节点
+        reader.pipelinedWrite();
+        assertEquals("1", redisTemplate.opsForList().leftPop("pipedList"));
+        assertNull(new StringRedisTemplate(replicaFactory).opsForValue().get("written"));
+        // 副本连接与借用的主节点连接都已经归还
+        assertEquals(0, masterFactory.getPool().getNumActive());
+        assertEquals(0, replicaFactory.getPool().getNumActive());
+        assertEquals("replica", reader.eventual());
+    }
+
+    public static class Reader {
+        private final StringRedisTemplate redisTemplate;
+
+        public Reader(StringRedisTemplate redisTemplate) {
+            this.redisTemplate = redisTemplate;
+        }
+
+        @ReadFromReplica(consistency = ReadConsistency.EVENTUAL)
+        public String eventual() {
+            return redisTemplate.opsForValue().get("key");
+        }
+
+        @ReadFromReplica
+        public String readYourWrites() {
+            return redisTemplate.opsForValue().get("key");
+        }
+
+        @ReadFromReplica
+        public String writeThenRead() {
+            redisTemplate.delete("written");
+            redisTemplate.opsForValue().set("written", "written");
+            return redisTemplate.opsForValue().get("written");
+        }
+
+        @ReadFromReplica(consistency = ReadConsistency.EVENTUAL)
+        public String eventualWriteThenRead() {
+            return redisTemplate.execute((RedisCallback<String>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.set("piped", "piped");
+                return stringConnection.get("key");
+            });
+        }
+
+        @ReadFromReplica(consistency = ReadConsistency.EVENTUAL)
+        public void pipelinedWrite() {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                ((StringRedisConnection) connection).lPush("pipedList", "1");
+                return null;
+            });
+        }
+    }
+}
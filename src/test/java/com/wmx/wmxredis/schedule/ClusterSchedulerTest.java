@@ -0,0 +1,192 @@
+package com.wmx.wmxredis.schedule;
+
+import com.wmx.wmxredis.embedded.EmbeddedRedisServer;
+import com.wmx.wmxredis.lock.FencedLockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ClusterScheduler} 单元测试，使用内嵌 Redis 服务端，两个调度器模拟两个实例
+ * <p>
+ * 内嵌服务端执行的是 {@link com.wmx.wmxredis.embedded.LuaScriptRegistry} 中的 Java 实现，scheduler_fire.lua 脚本本身没有被执行，
+ * 脚本在真实 Redis 中的行为见 {@link com.wmx.wmxredis.lua.LuaScriptsIT}。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 15:30
+ */
+public class ClusterSchedulerTest {
+
+    private static final String EVERY_SECOND = "* * * * * ?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClusterSchedulerProperties properties = new ClusterSchedulerProperties();
+    private final List<ClusterScheduler> schedulers = new ArrayList<>();
+    private EmbeddedRedisServer server;
+    private RedissonClient redissonClient;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new EmbeddedRedisServer(0).start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + server.getPort())
+                .setConnectionMinimumIdleSize(1).setConnectionPoolSize(8);
+        redissonClient = Redisson.create(config);
+        properties.setHeartbeatInterval(Duration.ofMillis(50));
+        properties.setLeaseTime(Duration.ofMillis(600));
+    }
+
+    @After
+    public void tearDown() {
+        schedulers.forEach(ClusterScheduler::shutdown);
+        redissonClient.shutdown();
+        server.stop();
+    }
+
+    private ClusterScheduler start() {
+        ClusterScheduler scheduler = new ClusterScheduler(redissonClient, properties, meterRegistry);
+        schedulers.add(scheduler);
+        return scheduler;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("等待超时", System.currentTimeMillis() < deadline);
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+    @Test
+    public void shardsEachFireAcrossInstances() throws Exception {
+        // 分片 -> 执行的实例，每个 (触发时间, 分片) 最多执行一次
+        ConcurrentMap<String, String> executions = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        ClusterScheduler first = start();
+        ClusterScheduler second = start();
+        for (ClusterScheduler scheduler : schedulers) {
+            scheduler.schedule("report", EVERY_SECOND, 4, (fireTime, partition, partitions) -> {
+                if (executions.putIfAbsent(fireTime + ":" + partition, scheduler.getInstanceId()) != null) {
+                    duplicates.incrementAndGet();
+                }
+                TimeUnit.MILLISECONDS.sleep(50);
+            });
+        }
+        await(() -> first.isLeader() || second.isLeader());
+        assertFalse(first.isLeader() && second.isLeader());
+        // 两个实例各认领 2 个分片
+        await(() -> ownedCount(first) == 2 && ownedCount(second) == 2);
+        // 等到所有分片都执行过两次触发
+        await(() -> executions.size() >= 8);
+        assertEquals(0, duplicates.get());
+        Set<String> instances = new HashSet<>(executions.values());
+        assertEquals(2, instances.size());
+
+        // 执行记录在分片执行完成后追加
+        await(() -> first.history(100).size() >= 8);
+        assertEquals("report", second.history(1).get(0).get("job"));
+        assertTrue(meterRegistry.get("redis.scheduler.execution").tag("result", "success").timer().count() >= 8);
+    }
+
+    @Test
+    public void takesOverPartitionsOfStoppedInstance() throws Exception {
+        ClusterScheduler first = start();
+        first.schedule("report", EVERY_SECOND, 4, (fireTime, partition, partitions) -> {
+        });
+        await(() -> ownedCount(first) == 4);
+
+        Set<Integer> executed = ConcurrentHashMap.newKeySet();
+        ClusterScheduler second = start();
+        second.schedule("report", EVERY_SECOND, 4, (fireTime, partition, partitions) -> executed.add(partition));
+        await(() -> ownedCount(first) == 2 && ownedCount(second) == 2);
+
+        first.shutdown();
+        schedulers.remove(first);
+        await(() -> ownedCount(second) == 4 && second.isLeader());
+        await(() -> executed.size() == 4);
+    }
+
+    @Test
+    public void mergesMissedFires() throws Exception {
+        // 模拟集群停机：下次触发时间已经过去 5 秒，每秒触发一次的任务错过了 5 次
+        long now = System.currentTimeMillis();
+        RMap<String, String> state = redissonClient.getMap(properties.getKeyPrefix() + "{report}:state", StringCodec.INSTANCE);
+        state.fastPut("fire", String.valueOf(now - 6000));
+        state.fastPut("next", String.valueOf(now - 5000));
+
+        ConcurrentMap<Integer, List<Long>> fires = new ConcurrentHashMap<>();
+        ClusterScheduler scheduler = start();
+        scheduler.schedule("report", EVERY_SECOND, 4, (fireTime, partition, partitions) ->
+                fires.computeIfAbsent(partition, key -> Collections.synchronizedList(new ArrayList<>())).add(fireTime));
+        await(() -> fires.size() == 4);
+
+        Map<String, String> misfire = scheduler.history(100).stream()
+                .filter(record -> "misfire".equals(record.get("result"))).findFirst().orElse(null);
+        assertNotNull(misfire);
+        assertTrue(Integer.parseInt(misfire.get("missed")) >= 4);
+        assertTrue(meterRegistry.get("redis.scheduler.misfires").tag("job", "report").counter().count() >= 4);
+        // 错过的触发合并为最近的一次，中间的触发时间都不会执行
+        long merged = Long.parseLong(misfire.get("fire"));
+        for (List<Long> partitionFires : fires.values()) {
+            synchronized (partitionFires) {
+                assertEquals(merged, (long) partitionFires.get(0));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsFireFromStaleLeader() throws Exception {
+        ClusterScheduler scheduler = start();
+        scheduler.schedule("report", EVERY_SECOND, 1, (fireTime, partition, partitions) -> {
+        });
+        RMap<String, String> state = redissonClient.getMap(properties.getKeyPrefix() + "{report}:state", StringCodec.INSTANCE);
+        await(() -> state.get("epoch") != null);
+        // 模拟新主节点已经用更大的令牌写入，本实例的写入被拒绝
+        state.fastPut("epoch", String.valueOf(Long.MAX_VALUE));
+        String fire = state.get("fire");
+        TimeUnit.MILLISECONDS.sleep(2500);
+        assertEquals(fire, state.get("fire"));
+        assertEquals(String.valueOf(Long.MAX_VALUE), state.get("epoch"));
+    }
+
+    @Test
+    public void leadershipOutlivesMaxHoldTime() throws Exception {
+        // 默认最长持有时间为 60 秒，这里缩短到 300 毫秒，调度器的租约不受它限制
+        FencedLockProperties lockProperties = new FencedLockProperties();
+        lockProperties.setMaxHoldTime(Duration.ofMillis(300));
+        ClusterScheduler scheduler = new ClusterScheduler(redissonClient, properties, meterRegistry, lockProperties);
+        schedulers.add(scheduler);
+        scheduler.schedule("report", EVERY_SECOND, 2, (fireTime, partition, partitions) -> {
+        });
+        await(() -> scheduler.isLeader() && ownedCount(scheduler) == 2);
+        long deadline = System.currentTimeMillis() + 1500;
+        while (System.currentTimeMillis() < deadline) {
+            assertTrue(scheduler.isLeader());
+            assertEquals(2, ownedCount(scheduler));
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        assertNull(meterRegistry.find("redis.lock.lost").counter());
+    }
+
+    private static int ownedCount(ClusterScheduler scheduler) {
+        Object owned = scheduler.jobs().get("report").get("owned");
+        return ((List<?>) owned).size();
+    }
+}
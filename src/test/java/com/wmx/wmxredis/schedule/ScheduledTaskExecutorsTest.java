@@ -0,0 +1,179 @@
+package com.wmx.wmxredis.schedule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ScheduledTaskExecutors}、{@link ScheduledTaskAspect} 与 {@link ScheduledTaskExecutorConfig} 单元测试
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/19 16:50
+ */
+public class ScheduledTaskExecutorsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ScheduledTaskExecutors executors;
+
+    @After
+    public void tearDown() {
+        if (executors != null) {
+            executors.shutdown();
+        }
+    }
+
+    private ScheduledTaskExecutors create(ScheduledTaskProperties.Group group) {
+        ScheduledTaskProperties properties = new ScheduledTaskProperties();
+        properties.getGroups().put(properties.getDefaultGroup(), group);
+        executors = new ScheduledTaskExecutors(properties, meterRegistry);
+        return executors;
+    }
+
+    private static ScheduledTaskProperties.Group group(int maxSize, int queueCapacity) {
+        ScheduledTaskProperties.Group group = new ScheduledTaskProperties.Group();
+        group.setCoreSize(maxSize);
+        group.setMaxSize(maxSize);
+        group.setQueueCapacity(queueCapacity);
+        return group;
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void requiresDefaultGroup() {
+        new ScheduledTaskExecutors(new ScheduledTaskProperties(), meterRegistry);
+    }
+
+    @Test
+    public void discardsWhenThreadsAndQueueAreFull() throws Exception {
+        Executor executor = create(group(1, 1)).get(null);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                executed.incrementAndGet();
+            });
+        }
+        // 1 个执行中 + 1 个排队，其余 3 个被丢弃
+        assertEquals(3, meterRegistry.get("scheduled.task.rejected").tag("name", "timerExecutor").counter().count(), 0);
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executed.get() < 2 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(2, executed.get());
+        // 排队的任务记录了等待时间
+        assertEquals(2, meterRegistry.get("scheduled.task.lag").tag("name", "timerExecutor").timer().count());
+        assertNotNull(meterRegistry.find("executor.queued").tag("name", "timerExecutor").gauge());
+    }
+
+    @Test(expected = TaskRejectedException.class)
+    public void abortsWhenConfigured() {
+        ScheduledTaskProperties.Group group = group(1, 0);
+        group.setRejection(ScheduledTaskProperties.Rejection.ABORT);
+        Executor executor = create(group).get(null);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> {
+            });
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void fallsBackWhenVirtualThreadsAreUnsupported() {
+        ScheduledTaskProperties.Group group = group(2, 2);
+        group.setVirtual(true);
+        Executor executor = create(group).get(null);
+        if (VirtualThreadTaskExecutor.virtualThreadFactory("test-") == null) {
+            assertTrue(executor instanceof ThreadPoolTaskExecutor);
+        } else {
+            assertTrue(executor instanceof VirtualThreadTaskExecutor);
+        }
+    }
+
+    @Test
+    public void skipsOverlappingExecution() throws Exception {
+        ScheduledTaskAspect aspect = new ScheduledTaskAspect(create(group(2, 2)), meterRegistry);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SlowTask());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        SlowTask task = factory.getProxy();
+
+        Thread first = new Thread(task::run);
+        first.start();
+        assertTrue(SlowTask.started.await(5, TimeUnit.SECONDS));
+        // 上一次还在执行，本次跳过
+        task.run();
+        SlowTask.release.countDown();
+        first.join(5000);
+
+        assertEquals(1, SlowTask.executed.get());
+        assertEquals(1, meterRegistry.get("scheduled.task.skipped").tag("task", "SlowTask#run").counter().count(), 0);
+        assertEquals(1, meterRegistry.get("scheduled.task.overlap").tag("task", "SlowTask#run").counter().count(), 0);
+        assertEquals(1, meterRegistry.get("scheduled.task.duration")
+                .tags("task", "SlowTask#run", "group", "timerExecutor", "result", "success").timer().count());
+    }
+
+    @Test
+    public void keepsApplicationTaskExecutor() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+                .withUserConfiguration(ScheduledTaskExecutorConfig.class)
+                .withInitializer(context -> context.getBeanFactory().registerSingleton("meterRegistry", meterRegistry))
+                .withPropertyValues("scheduled-task.groups.timerExecutor.core-size=1", "scheduled-task.groups.reportExecutor.core-size=1")
+                .run(context -> {
+                    // 分组线程池与 applicationTaskExecutor 同时存在，MVC 异步请求使用 applicationTaskExecutor
+                    assertTrue(context.getBean("timerExecutor") instanceof Executor);
+                    assertTrue(context.getBean("reportExecutor") instanceof Executor);
+                    assertTrue(context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) instanceof ThreadPoolTaskExecutor);
+                    assertSame(context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME),
+                            context.getBean("taskExecutor"));
+                });
+    }
+
+    public static class SlowTask {
+        static final CountDownLatch started = new CountDownLatch(1);
+        static final CountDownLatch release = new CountDownLatch(1);
+        static final AtomicInteger executed = new AtomicInteger();
+
+        @Scheduled(fixedRate = 1000)
+        @Async
+        public void run() {
+            executed.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.wmx.wmxredis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wmx.wmxredis.beans.Person;
+import org.junit.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link CompactRedisSerializer} 单元测试，不需要连接 Redis
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 11:30
+ */
+public class CompactRedisSerializerTest {
+
+    private final ClassIdRegistry registry = ClassIdRegistry.of(Collections.singletonMap("100", Person.class.getName()));
+
+    /**
+     * 原来 RedisConfig 中的 Jackson2JsonRedisSerializer 配置
+     */
+    static Jackson2JsonRedisSerializer<Object> legacySerializer() {
+        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
+        serializer.setObjectMapper(objectMapper);
+        return serializer;
+    }
+
+    static List<Map<String, Object>> dataList() {
+        List<Map<String, Object>> dataList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> dataMap = new HashMap<>(8);
+            dataMap.put("fid", UUID.randomUUID().toString());
+            dataMap.put("agency_id", UUID.randomUUID().toString());
+            dataMap.put("agency_name", "雄哥测试 bgtCommonDAO");
+            dataMap.put("version_start", "202-10");
+            dataMap.put("version_end", "2021-12");
+            dataList.add(dataMap);
+        }
+        return dataList;
+    }
+
+    @Test
+    public void roundTripAllCodecs() {
+        Person person = new Person(1000, "张三", new Date());
+        List<Map<String, Object>> dataList = dataList();
+        for (ValueCodec codec : ValueCodec.values()) {
+            CompactRedisSerializer serializer = new CompactRedisSerializer(codec, registry);
+            Person read = (Person) serializer.deserialize(serializer.serialize(person));
+            assertEquals(person.toString(), read.toString());
+            assertEquals(dataList, serializer.deserialize(serializer.serialize(dataList)));
+            assertEquals("张三", serializer.deserialize(serializer.serialize("张三")));
+        }
+    }
+
+    @Test
+    public void readsLegacyJson() {
+        Person person = new Person(1000, "张三", new Date());
+        byte[] legacy = legacySerializer().serialize(person);
+        CompactRedisSerializer serializer = new CompactRedisSerializer(ValueCodec.SMILE, registry);
+        assertEquals(person.toString(), serializer.deserialize(legacy).toString());
+
+        // json 格式写入的数据旧版本也能读取
+        byte[] json = new CompactRedisSerializer(ValueCodec.JSON, registry).serialize(person);
+        assertArrayEquals(legacy, json);
+    }
+
+    @Test
+    public void binaryCodecIsSmaller() {
+        Person person = new Person(1000, "张三", new Date());
+        int legacySize = legacySerializer().serialize(person).length;
+        for (ValueCodec codec : new ValueCodec[]{ValueCodec.SMILE, ValueCodec.CBOR}) {
+            int size = new CompactRedisSerializer(codec, registry).serialize(person).length;
+            assertTrue(codec + ":" + size + " >= " + legacySize, size * 2 < legacySize);
+        }
+    }
+
+    @Test
+    public void emptyValue() {
+        CompactRedisSerializer serializer = new CompactRedisSerializer(ValueCodec.SMILE, registry);
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+    }
+}
@@ -0,0 +1,65 @@
+package com.wmx.wmxredis.serializer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link CompressingRedisSerializer} 单元测试，不需要连接 Redis
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 14:05
+ */
+public class CompressingRedisSerializerTest {
+
+    private final CompactRedisSerializer compact = new CompactRedisSerializer(ValueCodec.JSON, new ClassIdRegistry());
+
+    private List<Map<String, Object>> bigList() {
+        List<Map<String, Object>> dataList = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            dataList.addAll(CompactRedisSerializerTest.dataList());
+        }
+        return dataList;
+    }
+
+    @Test
+    public void compressesLargeValues() {
+        for (CompressionAlgorithm algorithm : CompressionAlgorithm.values()) {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            CompressingRedisSerializer<Object> serializer = new CompressingRedisSerializer<>(compact, algorithm, 1024, meterRegistry, "test");
+            List<Map<String, Object>> dataList = bigList();
+            byte[] bytes = serializer.serialize(dataList);
+            assertTrue(CompressingRedisSerializer.isCompressed(bytes));
+            assertTrue(bytes.length < compact.serialize(dataList).length);
+            assertEquals(dataList, serializer.deserialize(bytes));
+            assertEquals(1, meterRegistry.get("redis.serializer.compression.ratio").summary().count());
+        }
+    }
+
+    @Test
+    public void smallAndLegacyValuesPassThrough() {
+        CompressingRedisSerializer<Object> serializer = new CompressingRedisSerializer<>(compact, CompressionAlgorithm.LZ4, 1024,
+                new SimpleMeterRegistry(), "test");
+        Object small = Collections.singletonMap("k", "v");
+        byte[] bytes = serializer.serialize(small);
+        assertArrayEquals(compact.serialize(small), bytes);
+        assertEquals(small, serializer.deserialize(bytes));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    public void readsCompressedValuesWhenDisabled() {
+        byte[] bytes = new CompressingRedisSerializer<>(compact, CompressionAlgorithm.DEFLATE, 1024, new SimpleMeterRegistry(), "a")
+                .serialize(bigList());
+        CompressingRedisSerializer<Object> disabled = new CompressingRedisSerializer<>(compact, CompressionAlgorithm.LZ4,
+                Integer.MAX_VALUE, new SimpleMeterRegistry(), "b");
+        assertEquals(bigList().size(), ((List<?>) disabled.deserialize(bytes)).size());
+    }
+}
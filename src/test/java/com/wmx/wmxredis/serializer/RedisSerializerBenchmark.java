@@ -0,0 +1,87 @@
+package com.wmx.wmxredis.serializer;
+
+import com.wmx.wmxredis.beans.Person;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisTemplate value 序列化 JMH 基准测试：原来的 Jackson2JsonRedisSerializer 与 {@link CompactRedisSerializer} 对比
+ * <p>
+ * 1、payload：person 为 {@link Person}，listMap 为 RedisController.testString2 中的 List<Map> 数据。
+ * 2、先执行 mvn test-compile，然后直接运行 main 方法，运行前会先打印每种格式的字节大小。
+ *
+ * @author wangMaoXiong
+ * @version 1.0
+ * @date 2026/10/18 11:45
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisSerializerBenchmark {
+
+    @Param({"LEGACY", "JSON", "SMILE", "CBOR"})
+    private String codec;
+
+    @Param({"person", "listMap"})
+    private String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        serializer = serializer(codec);
+        value = payload(payload);
+        bytes = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+
+    static RedisSerializer<Object> serializer(String codec) {
+        if ("LEGACY".equals(codec)) {
+            return CompactRedisSerializerTest.legacySerializer();
+        }
+        ClassIdRegistry registry = ClassIdRegistry.of(Collections.singletonMap("100", Person.class.getName()));
+        return new CompactRedisSerializer(ValueCodec.valueOf(codec), registry);
+    }
+
+    static Object payload(String payload) {
+        if ("person".equals(payload)) {
+            return new Person(1000, "张三", new Date());
+        }
+        return CompactRedisSerializerTest.dataList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String payload : new String[]{"person", "listMap"}) {
+            for (String codec : new String[]{"LEGACY", "JSON", "SMILE", "CBOR"}) {
+                int size = serializer(codec).serialize(payload(payload)).length;
+                System.out.println(payload + "\t" + codec + "\t" + size + " bytes");
+            }
+        }
+        Options options = new OptionsBuilder()
+                .include(RedisSerializerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}